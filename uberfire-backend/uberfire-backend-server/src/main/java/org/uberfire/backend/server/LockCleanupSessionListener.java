@@ -24,6 +24,7 @@ import javax.servlet.http.HttpSessionListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.uberfire.backend.server.io.ConfigIOServiceProducer;
+import org.uberfire.backend.server.locks.LeaseLockManager;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.PathFactory;
 import org.uberfire.backend.vfs.impl.LockInfo;
@@ -46,6 +47,12 @@ public class LockCleanupSessionListener implements HttpSessionListener {
 
     @Override
     public void sessionDestroyed(HttpSessionEvent se) {
+        final LeaseLockManager leaseLockManager = LeaseLockManager.getInstance();
+        if (leaseLockManager != null && leaseLockManager.isEnabled()) {
+            leaseLockManager.getLeaseTable().releaseSession(se.getSession().getId());
+            return;
+        }
+
         final ConfigIOServiceProducer ioServiceProducer = ConfigIOServiceProducer.getInstance();
         final IOService ioService = ioServiceProducer.configIOService();
         final FileSystem fileSystem = ioServiceProducer.configFileSystem();
@@ -34,6 +34,8 @@ import org.jboss.errai.bus.server.annotations.Service;
 import org.jboss.errai.bus.server.api.RpcContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.uberfire.backend.server.locks.LeaseLockManager;
+import org.uberfire.backend.server.locks.LeaseTable.Lease;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.backend.vfs.PathFactory;
@@ -51,7 +53,8 @@ import org.uberfire.workbench.events.ResourceDeletedEvent;
 import org.uberfire.workbench.events.ResourceRenamedEvent;
 
 /**
- * Errai RPC endpoint exposing a {@link VFSLockService}.
+ * Errai RPC endpoint exposing a {@link VFSLockService}. Locks are stored as lock files in the
+ * system file system unless the in-memory lease backend of {@link LeaseLockManager} is enabled.
  */
 @Service
 @ApplicationScoped
@@ -71,10 +74,17 @@ public class VFSLockServiceImpl implements VFSLockService {
     @Inject
     private SessionInfo sessionInfo;
 
+    @Inject
+    private LeaseLockManager leaseLockManager;
+
     @Override
     public LockResult acquireLock(final Path path)
             throws IllegalArgumentException, IOException, UnsupportedOperationException {
 
+        if (useLeases()) {
+            return acquireLease(path);
+        }
+
         try {
             ioService.startBatch(fileSystem);
 
@@ -119,6 +129,11 @@ public class VFSLockServiceImpl implements VFSLockService {
                                    final boolean force)
             throws IllegalArgumentException, IOException {
 
+        if (useLeases()) {
+            return releaseLease(path,
+                                force);
+        }
+
         try {
             ioService.startBatch(fileSystem);
 
@@ -147,6 +162,11 @@ public class VFSLockServiceImpl implements VFSLockService {
     public LockInfo retrieveLockInfo(Path path)
             throws IllegalArgumentException, IOException {
 
+        if (useLeases()) {
+            return leaseLockManager.toLockInfo(path,
+                                               leaseLockManager.getLeaseTable().get(path.toURI()));
+        }
+
         final Path vfsLock = PathFactory.newLock(path);
         final org.uberfire.java.nio.file.Path realLock = Paths.convert(vfsLock);
 
@@ -179,6 +199,11 @@ public class VFSLockServiceImpl implements VFSLockService {
             return Collections.emptyList();
         }
 
+        if (useLeases()) {
+            return retrieveLeaseInfos(path,
+                                      excludeOwnedLocks);
+        }
+
         final Path lockPath = PathFactory.newLockPath(path);
 
         final List<Path> locks = new ArrayList<Path>();
@@ -199,6 +224,59 @@ public class VFSLockServiceImpl implements VFSLockService {
         return lockInfos;
     }
 
+    private boolean useLeases() {
+        return leaseLockManager != null && leaseLockManager.isEnabled();
+    }
+
+    private LockResult acquireLease(final Path path) {
+        final String userId = sessionInfo.getIdentity().getIdentifier();
+        final HttpSession session = RpcContext.getHttpSession();
+        final Lease lease = leaseLockManager.acquire(path,
+                                                     userId,
+                                                     session != null ? session.getId() : null);
+        if (!lease.getOwner().equals(userId)) {
+            return LockResult.failed(leaseLockManager.toLockInfo(path,
+                                                                 lease));
+        }
+        return LockResult.acquired(path,
+                                   userId);
+    }
+
+    private LockResult releaseLease(final Path path,
+                                    final boolean force) {
+        final String userId = sessionInfo.getIdentity().getIdentifier();
+        final Lease lease = leaseLockManager.getLeaseTable().get(path.toURI());
+        if (lease == null) {
+            return LockResult.failed(leaseLockManager.toLockInfo(path,
+                                                                 null));
+        }
+        if (!force && !userId.equals(lease.getOwner())) {
+            logger.error("Client requested to release a lock it doesn't hold: " + path.toURI());
+            throw new IOException("Not allowed");
+        }
+        leaseLockManager.getLeaseTable().release(path.toURI(),
+                                                 force ? null : userId);
+        return LockResult.released(path);
+    }
+
+    private List<LockInfo> retrieveLeaseInfos(final Path path,
+                                              final boolean excludeOwnedLocks) {
+        final String prefix = path.toURI().endsWith("/") ? path.toURI() : path.toURI() + "/";
+        final String userId = sessionInfo.getIdentity().getIdentifier();
+
+        final List<LockInfo> lockInfos = new LinkedList<LockInfo>();
+        for (Lease lease : leaseLockManager.getLeaseTable().list(prefix)) {
+            if (!excludeOwnedLocks || !userId.equals(lease.getOwner())) {
+                final Path file = LeaseLockManager.toPath(lease);
+                if (Files.exists(Paths.convert(file))) {
+                    lockInfos.add(leaseLockManager.toLockInfo(file,
+                                                              lease));
+                }
+            }
+        }
+        return lockInfos;
+    }
+
     private void retrieveLocks(final org.uberfire.java.nio.file.Path path,
                                final List<Path> accu) {
 
@@ -270,6 +348,12 @@ public class VFSLockServiceImpl implements VFSLockService {
     }
 
     private void maybeDeleteLock(final Path path) {
+        if (useLeases()) {
+            leaseLockManager.getLeaseTable().release(path.toURI(),
+                                                     null);
+            return;
+        }
+
         try {
             ioService.startBatch(fileSystem);
 
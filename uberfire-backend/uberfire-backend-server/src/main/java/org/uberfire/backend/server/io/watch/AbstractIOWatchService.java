@@ -17,12 +17,8 @@
 package org.uberfire.backend.server.io.watch;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -34,14 +30,13 @@ import javax.naming.InitialContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.uberfire.backend.server.util.Filter;
-import org.uberfire.commons.async.DescriptiveRunnable;
 import org.uberfire.commons.concurrent.Managed;
 import org.uberfire.commons.concurrent.Unmanaged;
 import org.uberfire.commons.services.cdi.ApplicationStarted;
 import org.uberfire.io.IOWatchService;
+import org.uberfire.io.impl.WatchServiceDispatcher;
 import org.uberfire.java.nio.file.FileSystem;
 import org.uberfire.java.nio.file.WatchEvent;
-import org.uberfire.java.nio.file.WatchKey;
 import org.uberfire.java.nio.file.WatchService;
 import org.uberfire.workbench.events.ResourceAddedEvent;
 import org.uberfire.workbench.events.ResourceBatchChangesEvent;
@@ -62,7 +57,7 @@ public abstract class AbstractIOWatchService implements IOWatchService,
     protected boolean isDisposed = false;
 
     private boolean started;
-    private final Set<AsyncWatchService> watchThreads = new HashSet<AsyncWatchService>();
+    private WatchServiceDispatcher dispatcher;
     private Event<ResourceBatchChangesEvent> resourceBatchChanges;
     private Event<ResourceUpdatedEvent> resourceUpdatedEvent;
     private Event<ResourceRenamedEvent> resourceRenamedEvent;
@@ -72,8 +67,6 @@ public abstract class AbstractIOWatchService implements IOWatchService,
 
     private IOWatchServiceExecutor executor = null;
 
-    private final Set<Future<?>> jobs = new CopyOnWriteArraySet<Future<?>>();
-
     public AbstractIOWatchService() {
     }
 
@@ -105,35 +98,17 @@ public abstract class AbstractIOWatchService implements IOWatchService,
     public synchronized void start() {
         if (!started) {
             this.started = true;
-            for (final AsyncWatchService watchThread : watchThreads) {
-                final IOWatchServiceExecutor watchServiceExecutor = getWatchServiceExecutor();
-                jobs.add(executorService.submit(new DescriptiveRunnable() {
-                    @Override
-                    public String getDescription() {
-                        return watchThread.getDescription();
-                    }
-
-                    @Override
-                    public void run() {
-                        watchThread.execute(watchServiceExecutor);
-                    }
-                }));
-            }
-            watchThreads.clear();
+            getDispatcher().start();
         }
     }
 
     @PreDestroy
     protected void dispose() {
         isDisposed = true;
+        getDispatcher().close();
         for (final WatchService watchService : watchServices) {
             watchService.close();
         }
-        for (final Future<?> job : jobs) {
-            if (!job.isCancelled() && !job.isDone()) {
-                job.cancel(true);
-            }
-        }
         executorService.shutdown(); // Disable new tasks from being submitted
         try {
             // Wait a while for existing tasks to terminate
@@ -165,64 +140,28 @@ public abstract class AbstractIOWatchService implements IOWatchService,
         fileSystems.add(fs);
         watchServices.add(ws);
 
-        final AsyncWatchService asyncWatchService = new AsyncWatchService() {
-            @Override
-            public void execute(final IOWatchServiceExecutor wsExecutor) {
-                while (!isDisposed) {
-                    final WatchKey wk;
-                    try {
-                        wk = ws.take();
-                    } catch (final Exception ex) {
-                        break;
-                    }
-
-                    try {
-                        wsExecutor.execute(wk,
-                                           AbstractIOWatchService.this);
-                    } catch (final Exception ex) {
-                        LOG.error("Unexpected error during WatchService execution",
-                                  ex);
-                    }
-
-                    // Reset the key -- this step is critical if you want to
-                    // receive further watch events.  If the key is no longer valid,
-                    // the directory is inaccessible so exit the loop.
-                    boolean valid = wk.reset();
-                    if (!valid) {
-                        break;
-                    }
-                }
-            }
-
-            @Override
-            public String getDescription() {
-                return AbstractIOWatchService.this.getClass().getName() + "(" + ws.toString() + ")";
-            }
-        };
-
-        if (started) {
-            final IOWatchServiceExecutor watchServiceExecutor = getWatchServiceExecutor();
-            executorService.execute(new DescriptiveRunnable() {
-                @Override
-                public String getDescription() {
-                    return asyncWatchService.getDescription();
-                }
+        // keys are only consumed once started, the dispatcher holds them back until then
+        getDispatcher().register(ws,
+                                 wk -> getWatchServiceExecutor().execute(wk,
+                                                                         this));
+    }
 
-                @Override
-                public void run() {
-                    asyncWatchService.execute(watchServiceExecutor);
-                }
-            });
-        } else {
-            watchThreads.add(asyncWatchService);
+    /**
+     * The loop consuming every registered watch service, exposes the event backlog.
+     */
+    public synchronized WatchServiceDispatcher getDispatcher() {
+        if (dispatcher == null) {
+            dispatcher = new WatchServiceDispatcher(getClass().getName(),
+                                                    executorService);
         }
+        return dispatcher;
     }
 
     public void configureOnEvent(@Observes ApplicationStarted applicationStartedEvent) {
         start();
     }
 
-    protected IOWatchServiceExecutor getWatchServiceExecutor() {
+    protected synchronized IOWatchServiceExecutor getWatchServiceExecutor() {
         if (executor == null) {
             IOWatchServiceExecutor _executor = null;
             try {
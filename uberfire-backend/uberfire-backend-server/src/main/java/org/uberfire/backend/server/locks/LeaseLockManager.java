@@ -0,0 +1,372 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.backend.server.locks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.server.locks.LeaseTable.Lease;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.backend.vfs.PathFactory;
+import org.uberfire.backend.vfs.impl.LockInfo;
+import org.uberfire.commons.cluster.ClusterService;
+import org.uberfire.commons.cluster.BaseLockExecuteNotifyReleaseTemplate;
+import org.uberfire.commons.cluster.ClusterServiceFactory;
+import org.uberfire.commons.data.Pair;
+import org.uberfire.commons.message.MessageHandler;
+import org.uberfire.commons.message.MessageHandlerResolver;
+import org.uberfire.commons.message.MessageType;
+import org.uberfire.commons.services.cdi.Startup;
+
+/**
+ * Owns the {@link LeaseTable} backing {@link org.uberfire.backend.vfs.VFSLockService} when the
+ * in-memory lock backend is enabled (<code>-Dorg.uberfire.lock.backend=memory</code>). Lock
+ * changes are published as {@link LockInfo} events, replicated to the other cluster members and,
+ * if <code>org.uberfire.lock.snapshot</code> names a file, periodically saved to it and
+ * restored on startup.
+ * <p>
+ * Leases are granted under the cluster lock and replicated to the other members before it is
+ * released, so the next node to take the lock already knows about them; releases and expirations
+ * are replicated asynchronously. A node joining the cluster only learns about leases acquired or
+ * renewed after it started, or restored from its snapshot.
+ */
+@ApplicationScoped
+@Startup
+public class LeaseLockManager {
+
+    public static final String BACKEND_PROPERTY = "org.uberfire.lock.backend";
+    public static final String TIME_TO_LIVE_PROPERTY = "org.uberfire.lock.ttl";
+    public static final String SNAPSHOT_PROPERTY = "org.uberfire.lock.snapshot";
+    public static final String SNAPSHOT_INTERVAL_PROPERTY = "org.uberfire.lock.snapshot.interval";
+
+    static final String SERVICE_ID = "uf-lock-leases";
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaseLockManager.class);
+
+    private static volatile LeaseLockManager instance;
+
+    private ClusterServiceFactory clusterServiceFactory;
+
+    private Event<LockInfo> lockEvent;
+
+    private LeaseTable leaseTable;
+
+    private ClusterService clusterService;
+
+    private ScheduledExecutorService scheduler;
+
+    private File snapshotFile;
+
+    private long snapshotVersion = -1;
+
+    public LeaseLockManager() {
+    }
+
+    @Inject
+    public LeaseLockManager(@Named("clusterServiceFactory") final ClusterServiceFactory clusterServiceFactory,
+                            final Event<LockInfo> lockEvent) {
+        this.clusterServiceFactory = clusterServiceFactory;
+        this.lockEvent = lockEvent;
+    }
+
+    /**
+     * @return the started manager, or null if none was started. Used where injection isn't
+     * available, e.g. in {@link javax.servlet.http.HttpSessionListener}s.
+     */
+    public static LeaseLockManager getInstance() {
+        return instance;
+    }
+
+    @PostConstruct
+    public void setup() {
+        if (!"memory".equalsIgnoreCase(System.getProperty(BACKEND_PROPERTY,
+                                                          "file"))) {
+            return;
+        }
+
+        final long timeToLive = Long.parseLong(System.getProperty(TIME_TO_LIVE_PROPERTY,
+                                                                  String.valueOf(LeaseTable.DEFAULT_TIME_TO_LIVE)));
+        leaseTable = new LeaseTable(timeToLive);
+
+        final String snapshot = System.getProperty(SNAPSHOT_PROPERTY);
+        if (snapshot != null && !snapshot.trim().isEmpty()) {
+            snapshotFile = new File(snapshot.trim());
+            restoreSnapshot();
+        }
+
+        leaseTable.addListener(new LeaseTable.Listener() {
+            @Override
+            public void leaseAcquired(final Lease lease,
+                                      final boolean replicated) {
+                fireLockEvent(lease,
+                              true);
+                if (!replicated) {
+                    replicate(LeaseMessageType.LEASE_ACQUIRED,
+                              lease);
+                }
+            }
+
+            @Override
+            public void leaseReleased(final Lease lease,
+                                      final boolean replicated) {
+                fireLockEvent(lease,
+                              false);
+                if (!replicated) {
+                    replicate(LeaseMessageType.LEASE_RELEASED,
+                              lease);
+                }
+            }
+        });
+
+        if (clusterServiceFactory != null) {
+            clusterService = clusterServiceFactory.build(new LeaseMessageHandlerResolver());
+        }
+
+        final long sweepInterval = Math.max(1000,
+                                            Math.min(timeToLive / 4,
+                                                     TimeUnit.MINUTES.toMillis(1)));
+        final long snapshotInterval = Long.parseLong(System.getProperty(SNAPSHOT_INTERVAL_PROPERTY,
+                                                                        String.valueOf(TimeUnit.SECONDS.toMillis(30))));
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable,
+                                             "uf-lock-leases");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> leaseTable.expire(),
+                                         sweepInterval,
+                                         sweepInterval,
+                                         TimeUnit.MILLISECONDS);
+        if (snapshotFile != null) {
+            scheduler.scheduleWithFixedDelay(this::saveSnapshot,
+                                             snapshotInterval,
+                                             snapshotInterval,
+                                             TimeUnit.MILLISECONDS);
+        }
+
+        instance = this;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (instance == this) {
+            instance = null;
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (snapshotFile != null) {
+            saveSnapshot();
+        }
+    }
+
+    public boolean isEnabled() {
+        return leaseTable != null;
+    }
+
+    public LeaseTable getLeaseTable() {
+        return leaseTable;
+    }
+
+    /**
+     * Acquires, or renews, the lease on the given path. When clustered, the lease is granted and
+     * replicated while holding the cluster lock, so two nodes can't both grant the same lease;
+     * unless a member fails to acknowledge the replication within the cluster timeout
+     * (<code>org.uberfire.cluster.timeout</code>), in which case it may grant a conflicting one.
+     * @return the lease now held on the path.
+     */
+    public Lease acquire(final Path path,
+                         final String owner,
+                         final String sessionId) {
+        if (clusterService == null) {
+            return leaseTable.acquire(path.toURI(),
+                                      owner,
+                                      sessionId);
+        }
+        clusterService.lock();
+        try {
+            return leaseTable.acquire(path.toURI(),
+                                      owner,
+                                      sessionId);
+        } finally {
+            clusterService.unlock();
+        }
+    }
+
+    public LockInfo toLockInfo(final Path path,
+                               final Lease lease) {
+        return new LockInfo(lease != null,
+                            lease != null ? lease.getOwner() : null,
+                            path,
+                            PathFactory.newLock(path));
+    }
+
+    public static Path toPath(final Lease lease) {
+        final String uri = lease.getKey();
+        final String fileName = uri.substring(uri.lastIndexOf('/') + 1);
+        return PathFactory.newPath(fileName.isEmpty() ? "/" : fileName,
+                                   uri);
+    }
+
+    private void fireLockEvent(final Lease lease,
+                               final boolean locked) {
+        if (lockEvent == null) {
+            return;
+        }
+        final Path path = toPath(lease);
+        lockEvent.fire(new LockInfo(locked,
+                                    locked ? lease.getOwner() : null,
+                                    path,
+                                    PathFactory.newLock(path)));
+    }
+
+    private void replicate(final LeaseMessageType type,
+                           final Lease lease) {
+        if (clusterService == null) {
+            return;
+        }
+        final Map<String, String> content = new HashMap<>();
+        content.put("key",
+                    lease.getKey());
+        if (type == LeaseMessageType.LEASE_ACQUIRED) {
+            content.put("owner",
+                        lease.getOwner());
+            if (lease.getSessionId() != null) {
+                content.put("sessionId",
+                            lease.getSessionId());
+            }
+            content.put("expiresAt",
+                        String.valueOf(lease.getExpiresAt()));
+        }
+        try {
+            if (clusterService.getHoldCount() > 0) {
+                // granted under the cluster lock: the other members must know it before the lock is released
+                clusterService.broadcastAndWait(SERVICE_ID,
+                                                type,
+                                                content,
+                                                BaseLockExecuteNotifyReleaseTemplate.TIMEOUT);
+            } else {
+                clusterService.broadcast(SERVICE_ID,
+                                         type,
+                                         content);
+            }
+        } catch (final RuntimeException e) {
+            logger.error("Failed to replicate lease change on " + lease.getKey(),
+                         e);
+        }
+    }
+
+    void handleMessage(final String type,
+                       final Map<String, String> content) {
+        final String key = content.get("key");
+        if (key == null) {
+            return;
+        }
+        if (LeaseMessageType.LEASE_ACQUIRED.name().equals(type)) {
+            leaseTable.applyAcquired(new Lease(key,
+                                               content.get("owner"),
+                                               content.get("sessionId"),
+                                               Long.parseLong(content.get("expiresAt"))));
+        } else if (LeaseMessageType.LEASE_RELEASED.name().equals(type)) {
+            leaseTable.applyReleased(key);
+        }
+    }
+
+    private void restoreSnapshot() {
+        if (!snapshotFile.isFile()) {
+            return;
+        }
+        try (final BufferedReader reader = Files.newBufferedReader(snapshotFile.toPath(),
+                                                                   StandardCharsets.UTF_8)) {
+            final int restored = leaseTable.readFrom(reader);
+            snapshotVersion = leaseTable.getVersion();
+            logger.info("Restored " + restored + " lock leases from " + snapshotFile);
+        } catch (final IOException e) {
+            logger.error("Failed to restore lock leases from " + snapshotFile,
+                         e);
+        }
+    }
+
+    synchronized void saveSnapshot() {
+        final long version = leaseTable.getVersion();
+        if (version == snapshotVersion) {
+            return;
+        }
+        final File tmp = new File(snapshotFile.getPath() + ".tmp");
+        try {
+            try (final Writer writer = Files.newBufferedWriter(tmp.toPath(),
+                                                               StandardCharsets.UTF_8)) {
+                leaseTable.writeTo(writer);
+            }
+            Files.move(tmp.toPath(),
+                       snapshotFile.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+            snapshotVersion = version;
+        } catch (final IOException e) {
+            logger.error("Failed to save lock leases to " + snapshotFile,
+                         e);
+        }
+    }
+
+    private enum LeaseMessageType implements MessageType {
+        LEASE_ACQUIRED,
+        LEASE_RELEASED
+    }
+
+    private class LeaseMessageHandlerResolver implements MessageHandlerResolver {
+
+        @Override
+        public String getServiceId() {
+            return SERVICE_ID;
+        }
+
+        @Override
+        public MessageHandler resolveHandler(final String serviceId,
+                                             final MessageType type) {
+            return new MessageHandler() {
+                @Override
+                public Pair<MessageType, Map<String, String>> handleMessage(final MessageType type,
+                                                                            final Map<String, String> content) {
+                    if (type != null) {
+                        LeaseLockManager.this.handleMessage(type.toString(),
+                                                            content);
+                    }
+                    return null;
+                }
+            };
+        }
+    }
+}
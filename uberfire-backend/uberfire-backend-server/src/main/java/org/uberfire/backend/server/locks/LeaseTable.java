@@ -0,0 +1,379 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.backend.server.locks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Concurrent in-memory table of leases keyed by path URI. A lease is held by an owner on
+ * behalf of a session and expires after a fixed time to live, unless its owner acquires it
+ * again. Expired leases are dropped lazily on access and by {@link #expire()}.
+ */
+public class LeaseTable {
+
+    public static final long DEFAULT_TIME_TO_LIVE = TimeUnit.HOURS.toMillis(12);
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaseTable.class);
+
+    private static final char SEPARATOR = '\t';
+
+    private final ConcurrentMap<String, Lease> leases = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong version = new AtomicLong();
+    private final long timeToLive;
+
+    public LeaseTable() {
+        this(DEFAULT_TIME_TO_LIVE);
+    }
+
+    public LeaseTable(final long timeToLive) {
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("timeToLive must be positive");
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    public void addListener(final Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(final Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Acquires, or renews, the lease on the given key.
+     * @return the lease now held on the key, which belongs to another owner if the
+     * acquisition failed.
+     */
+    public Lease acquire(final String key,
+                         final String owner,
+                         final String sessionId) {
+        final long now = now();
+        final Lease[] previous = new Lease[1];
+        final Lease current = leases.compute(key,
+                                             (k, lease) -> {
+                                                 previous[0] = lease;
+                                                 if (lease == null || lease.isExpired(now) || lease.getOwner().equals(owner)) {
+                                                     return new Lease(k,
+                                                                      owner,
+                                                                      sessionId,
+                                                                      now + timeToLive);
+                                                 }
+                                                 return lease;
+                                             });
+        if (current != previous[0]) {
+            version.incrementAndGet();
+            if (previous[0] != null && !previous[0].getOwner().equals(owner)) {
+                fireReleased(previous[0],
+                             false);
+            }
+            fireAcquired(current,
+                         false);
+        }
+        return current;
+    }
+
+    /**
+     * @return the live lease on the given key, or null if there is none.
+     */
+    public Lease get(final String key) {
+        final Lease lease = leases.get(key);
+        if (lease != null && lease.isExpired(now())) {
+            expire(lease);
+            return null;
+        }
+        return lease;
+    }
+
+    /**
+     * Releases the lease on the given key if it's held by the given owner. A null owner
+     * releases the lease regardless of who holds it.
+     * @return the released lease, or null if nothing was released.
+     */
+    public Lease release(final String key,
+                         final String owner) {
+        final Lease[] released = new Lease[1];
+        leases.computeIfPresent(key,
+                                (k, lease) -> {
+                                    if (owner == null || lease.getOwner().equals(owner)) {
+                                        released[0] = lease;
+                                        return null;
+                                    }
+                                    return lease;
+                                });
+        if (released[0] != null) {
+            version.incrementAndGet();
+            fireReleased(released[0],
+                         false);
+        }
+        return released[0];
+    }
+
+    /**
+     * Releases all leases acquired on behalf of the given session.
+     * @return the number of released leases.
+     */
+    public int releaseSession(final String sessionId) {
+        int count = 0;
+        for (final Lease lease : leases.values()) {
+            if (sessionId.equals(lease.getSessionId()) && leases.remove(lease.getKey(),
+                                                                         lease)) {
+                version.incrementAndGet();
+                fireReleased(lease,
+                             false);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the live leases whose key starts with the given prefix.
+     */
+    public List<Lease> list(final String prefix) {
+        final long now = now();
+        final List<Lease> result = new ArrayList<>();
+        for (final Lease lease : leases.values()) {
+            if (lease.getKey().startsWith(prefix) && !lease.isExpired(now)) {
+                result.add(lease);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops all expired leases.
+     * @return the number of dropped leases.
+     */
+    public int expire() {
+        final long now = now();
+        int count = 0;
+        for (final Lease lease : leases.values()) {
+            if (lease.isExpired(now) && expire(lease)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean expire(final Lease lease) {
+        if (leases.remove(lease.getKey(),
+                          lease)) {
+            version.incrementAndGet();
+            fireReleased(lease,
+                         false);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Applies a lease replicated from another node, replacing whatever is held on its key.
+     */
+    public void applyAcquired(final Lease lease) {
+        final Lease previous = leases.put(lease.getKey(),
+                                          lease);
+        version.incrementAndGet();
+        if (previous != null && !previous.getOwner().equals(lease.getOwner())) {
+            fireReleased(previous,
+                         true);
+        }
+        fireAcquired(lease,
+                     true);
+    }
+
+    /**
+     * Applies a release replicated from another node.
+     */
+    public void applyReleased(final String key) {
+        final Lease previous = leases.remove(key);
+        if (previous != null) {
+            version.incrementAndGet();
+            fireReleased(previous,
+                         true);
+        }
+    }
+
+    public int size() {
+        return leases.size();
+    }
+
+    /**
+     * @return a counter that changes whenever the table does, used to skip unchanged snapshots.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Writes all live leases, one per line.
+     */
+    public void writeTo(final Writer writer) throws IOException {
+        final long now = now();
+        for (final Lease lease : leases.values()) {
+            if (!lease.isExpired(now)) {
+                writer.write(lease.getKey());
+                writer.write(SEPARATOR);
+                writer.write(lease.getOwner());
+                writer.write(SEPARATOR);
+                writer.write(lease.getSessionId() == null ? "" : lease.getSessionId());
+                writer.write(SEPARATOR);
+                writer.write(Long.toString(lease.getExpiresAt()));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Restores the leases written by {@link #writeTo(Writer)}, skipping expired and malformed
+     * entries. Listeners are not notified.
+     * @return the number of restored leases.
+     */
+    public int readFrom(final BufferedReader reader) throws IOException {
+        final long now = now();
+        int count = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            final String[] fields = line.split(String.valueOf(SEPARATOR),
+                                               -1);
+            if (fields.length != 4) {
+                logger.warn("Skipping malformed lease entry: " + line);
+                continue;
+            }
+            try {
+                final Lease lease = new Lease(fields[0],
+                                              fields[1],
+                                              fields[2].isEmpty() ? null : fields[2],
+                                              Long.parseLong(fields[3]));
+                if (!lease.isExpired(now)) {
+                    leases.put(lease.getKey(),
+                               lease);
+                    count++;
+                }
+            } catch (final NumberFormatException e) {
+                logger.warn("Skipping malformed lease entry: " + line);
+            }
+        }
+        version.incrementAndGet();
+        return count;
+    }
+
+    long now() {
+        return System.currentTimeMillis();
+    }
+
+    private void fireAcquired(final Lease lease,
+                              final boolean replicated) {
+        for (final Listener listener : listeners) {
+            try {
+                listener.leaseAcquired(lease,
+                                       replicated);
+            } catch (final RuntimeException e) {
+                logger.error("Lease listener failed on acquisition of " + lease.getKey(),
+                             e);
+            }
+        }
+    }
+
+    private void fireReleased(final Lease lease,
+                              final boolean replicated) {
+        for (final Listener listener : listeners) {
+            try {
+                listener.leaseReleased(lease,
+                                       replicated);
+            } catch (final RuntimeException e) {
+                logger.error("Lease listener failed on release of " + lease.getKey(),
+                             e);
+            }
+        }
+    }
+
+    /**
+     * Notified after a lease is acquired or released. Renewals are reported as acquisitions.
+     */
+    public interface Listener {
+
+        /**
+         * @param replicated true if the change was applied from another node.
+         */
+        void leaseAcquired(final Lease lease,
+                           final boolean replicated);
+
+        /**
+         * @param replicated true if the change was applied from another node.
+         */
+        void leaseReleased(final Lease lease,
+                           final boolean replicated);
+    }
+
+    public static final class Lease {
+
+        private final String key;
+        private final String owner;
+        private final String sessionId;
+        private final long expiresAt;
+
+        public Lease(final String key,
+                     final String owner,
+                     final String sessionId,
+                     final long expiresAt) {
+            this.key = key;
+            this.owner = owner;
+            this.sessionId = sessionId;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public boolean isExpired(final long now) {
+            return now >= expiresAt;
+        }
+
+        @Override
+        public String toString() {
+            return "Lease{key=" + key + ", owner=" + owner + ", sessionId=" + sessionId + ", expiresAt=" + expiresAt + "}";
+        }
+    }
+}
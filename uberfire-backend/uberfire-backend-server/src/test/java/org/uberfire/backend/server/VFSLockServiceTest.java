@@ -32,6 +32,8 @@ import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.backend.server.locks.LeaseLockManager;
+import org.uberfire.backend.server.locks.LeaseTable;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.backend.vfs.PathFactory;
 import org.uberfire.backend.vfs.impl.LockInfo;
@@ -67,6 +69,9 @@ public class VFSLockServiceTest {
     @Mock
     private HttpSession httpSession;
 
+    @Mock
+    private LeaseLockManager leaseLockManager;
+
     private Path path = PathFactory.newPath("file-to-lock.txt",
                                             "default://file-to-lock.txt");
 
@@ -264,6 +269,73 @@ public class VFSLockServiceTest {
         assertNull(info.lockedBy());
     }
 
+    @Test
+    public void acquireLeaseDoesNotWriteLockFile() {
+        setupLeases();
+        when(httpSession.getId()).thenReturn("session");
+        when(leaseLockManager.acquire(path,
+                                      "testUser",
+                                      "session")).thenReturn(new LeaseTable.Lease(path.toURI(),
+                                                                                  "testUser",
+                                                                                  "session",
+                                                                                  Long.MAX_VALUE));
+
+        final LockResult result = lockService.acquireLock(path);
+        assertTrue(result.isSuccess());
+        assertEquals("testUser",
+                     result.getLockInfo().lockedBy());
+        verifyZeroInteractions(ioService);
+        verify(httpSession,
+               never()).setAttribute(any(String.class),
+                                     any());
+    }
+
+    @Test
+    public void acquireLeaseFailsIfLeasedByOtherUser() {
+        setupLeases();
+        when(leaseLockManager.acquire(eq(path),
+                                      eq("testUser"),
+                                      any(String.class))).thenReturn(new LeaseTable.Lease(path.toURI(),
+                                                                                          "some-other-user",
+                                                                                          "other-session",
+                                                                                          Long.MAX_VALUE));
+
+        final LockResult result = lockService.acquireLock(path);
+        assertFalse(result.isSuccess());
+        assertEquals("some-other-user",
+                     result.getLockInfo().lockedBy());
+        assertTrue(result.getLockInfo().isLocked());
+    }
+
+    @Test
+    public void releaseLeaseFailsIfLeasedByOtherUser() {
+        final LeaseTable leaseTable = setupLeases();
+        leaseTable.acquire(path.toURI(),
+                           "some-other-user",
+                           "other-session");
+
+        try {
+            lockService.releaseLock(path);
+            fail("Expected exception on attempt to release lock not owned by user");
+        } catch (Exception ioe) {
+            // expected
+        }
+
+        final LockResult result = lockService.forceReleaseLock(path);
+        assertTrue(result.isSuccess());
+        assertNull(leaseTable.get(path.toURI()));
+        verifyZeroInteractions(ioService);
+    }
+
+    private LeaseTable setupLeases() {
+        final LeaseTable leaseTable = new LeaseTable();
+        when(leaseLockManager.isEnabled()).thenReturn(true);
+        when(leaseLockManager.getLeaseTable()).thenReturn(leaseTable);
+        when(leaseLockManager.toLockInfo(any(Path.class),
+                                         any(LeaseTable.Lease.class))).thenCallRealMethod();
+        return leaseTable;
+    }
+
     private void setupRpcContext() {
         final Message message = MessageBuilder.createMessage("for testing").signalling().done().getMessage();
         message.setResource("Session",
@@ -16,15 +16,17 @@
 
 package org.uberfire.backend.server.io.watch;
 
-import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
-import org.uberfire.backend.server.util.Filter;
 import org.uberfire.commons.async.DescriptiveThreadFactory;
+import org.uberfire.io.impl.WatchServiceDispatcher;
 import org.uberfire.java.nio.IOException;
 import org.uberfire.java.nio.file.ClosedWatchServiceException;
 import org.uberfire.java.nio.file.InterruptedException;
@@ -38,108 +40,171 @@ import static org.junit.Assert.*;
 public class AbstractIOWatchServiceTest {
 
     @Test
-    public void testAddWatchServiceException() {
+    public void testAddWatchServiceException() throws Exception {
         // BZ1323572
         try {
             System.setProperty("org.uberfire.watcher.autostart",
                                "false");
 
-            AbstractIOWatchService service = new AbstractIOWatchService(null,
-                                                                        null,
-                                                                        null,
-                                                                        null,
-                                                                        null,
-                                                                        Executors.newCachedThreadPool(new DescriptiveThreadFactory())) {
-
-                @Override
-                public boolean doFilter(WatchEvent<?> t) {
-                    return false;
+            final List<WatchKey> delivered = new ArrayList<>();
+            final CountDownLatch latch = new CountDownLatch(2);
+            final IOWatchServiceExecutor wsExecutor = (watchKey, filter) -> {
+                delivered.add(watchKey);
+                latch.countDown();
+                if (delivered.size() == 1) {
+                    throw new RuntimeException("dummy");
                 }
             };
 
-            WatchService ws = new WatchService() {
+            final AbstractIOWatchService service = new AbstractIOWatchService(null,
+                                                                              null,
+                                                                              null,
+                                                                              null,
+                                                                              null,
+                                                                              Executors.newCachedThreadPool(new DescriptiveThreadFactory())) {
 
                 @Override
-                public void close() throws IOException {
+                public boolean doFilter(WatchEvent<?> t) {
+                    return false;
                 }
 
                 @Override
-                public WatchKey poll() throws ClosedWatchServiceException {
-                    return null;
+                protected IOWatchServiceExecutor getWatchServiceExecutor() {
+                    return wsExecutor;
                 }
+            };
 
-                @Override
-                public WatchKey poll(long timeout,
-                                     TimeUnit unit) throws ClosedWatchServiceException, InterruptedException {
-                    return null;
-                }
+            final TestWatchService ws = new TestWatchService();
+            ws.keys.add(new TestWatchKey());
+            ws.keys.add(new TestWatchKey());
+
+            service.addWatchService(null,
+                                    ws);
+            final WatchServiceDispatcher dispatcher = service.getDispatcher();
+            assertTrue(dispatcher.isRegistered(ws));
+
+            service.start();
+
+            // the failure on the first key doesn't stop the second one from being delivered
+            assertTrue(latch.await(10,
+                                   TimeUnit.SECONDS));
+            assertEquals(2,
+                         delivered.size());
+            assertEquals(1,
+                         dispatcher.getFailures());
+            assertTrue(dispatcher.isRegistered(ws));
+
+            service.dispose();
+            assertFalse(dispatcher.isRegistered(ws));
+        } finally {
+            System.clearProperty("org.uberfire.watcher.autostart");
+        }
+    }
+
+    @Test
+    public void testInvalidKeyUnregistersWatchService() throws Exception {
+        try {
+            System.setProperty("org.uberfire.watcher.autostart",
+                               "false");
+
+            final CountDownLatch latch = new CountDownLatch(1);
+            final AbstractIOWatchService service = new AbstractIOWatchService(null,
+                                                                              null,
+                                                                              null,
+                                                                              null,
+                                                                              null,
+                                                                              Executors.newCachedThreadPool(new DescriptiveThreadFactory())) {
 
                 @Override
-                public WatchKey take() throws ClosedWatchServiceException, InterruptedException {
-                    return new WatchKey() {
-
-                        @Override
-                        public boolean isValid() {
-                            return false;
-                        }
-
-                        @Override
-                        public List<WatchEvent<?>> pollEvents() {
-                            return null;
-                        }
-
-                        @Override
-                        public boolean reset() {
-                            return false; // exit the loop in asyncWatchService.execute()
-                        }
-
-                        @Override
-                        public void cancel() {
-                        }
-
-                        @Override
-                        public Watchable watchable() {
-                            return null;
-                        }
-                    };
+                public boolean doFilter(WatchEvent<?> t) {
+                    return false;
                 }
 
                 @Override
-                public boolean isClose() {
-                    return false;
+                protected IOWatchServiceExecutor getWatchServiceExecutor() {
+                    return (watchKey, filter) -> latch.countDown();
                 }
             };
 
+            final TestWatchService ws = new TestWatchService();
+            final TestWatchKey key = new TestWatchKey();
+            key.valid = false;
+            ws.keys.add(key);
+
             service.addWatchService(null,
                                     ws);
+            service.start();
 
-            Set<AsyncWatchService> watchThreads = null;
-            try {
-                Field field = AbstractIOWatchService.class.getDeclaredField("watchThreads");
-                field.setAccessible(true);
-                watchThreads = (Set<AsyncWatchService>) field.get(service);
-            } catch (Exception e) {
-                fail(e.getMessage());
+            assertTrue(latch.await(10,
+                                   TimeUnit.SECONDS));
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (service.getDispatcher().isRegistered(ws) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
             }
-            AsyncWatchService asyncWatchService = watchThreads.iterator().next();
-
-            IOWatchServiceExecutor wsExecutor = new IOWatchServiceExecutor() {
-
-                @Override
-                public void execute(WatchKey watchKey,
-                                    Filter<WatchEvent<?>> filter) {
-                    throw new RuntimeException("dummy");
-                }
-            };
+            assertFalse(service.getDispatcher().isRegistered(ws));
 
-            try {
-                asyncWatchService.execute(wsExecutor);
-                assertTrue(true);
-            } catch (Exception e) {
-                fail("Exception is thrown from asyncWatchService.execute()");
-            }
+            service.dispose();
         } finally {
             System.clearProperty("org.uberfire.watcher.autostart");
         }
     }
+
+    private static class TestWatchService implements WatchService {
+
+        private final Queue<WatchKey> keys = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void close() throws IOException {
+        }
+
+        @Override
+        public WatchKey poll() throws ClosedWatchServiceException {
+            return keys.poll();
+        }
+
+        @Override
+        public WatchKey poll(long timeout,
+                             TimeUnit unit) throws ClosedWatchServiceException, InterruptedException {
+            return keys.poll();
+        }
+
+        @Override
+        public WatchKey take() throws ClosedWatchServiceException, InterruptedException {
+            throw new UnsupportedOperationException("the dispatcher never blocks on a watch service");
+        }
+
+        @Override
+        public boolean isClose() {
+            return false;
+        }
+    }
+
+    private static class TestWatchKey implements WatchKey {
+
+        private boolean valid = true;
+
+        @Override
+        public boolean isValid() {
+            return valid;
+        }
+
+        @Override
+        public List<WatchEvent<?>> pollEvents() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public boolean reset() {
+            return valid;
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public Watchable watchable() {
+            return null;
+        }
+    }
 }
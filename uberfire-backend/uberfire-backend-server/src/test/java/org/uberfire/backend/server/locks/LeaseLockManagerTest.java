@@ -0,0 +1,237 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.backend.server.locks;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import javax.enterprise.event.Event;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.backend.server.locks.LeaseTable.Lease;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.backend.vfs.PathFactory;
+import org.uberfire.backend.vfs.impl.LockInfo;
+import org.uberfire.commons.cluster.ClusterService;
+import org.uberfire.commons.cluster.ClusterServiceFactory;
+import org.uberfire.commons.message.MessageHandlerResolver;
+import org.uberfire.commons.message.MessageType;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LeaseLockManagerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private ClusterServiceFactory clusterServiceFactory;
+
+    @Mock
+    private ClusterService clusterService;
+
+    @Mock
+    private Event<LockInfo> lockEvent;
+
+    private Path path = PathFactory.newPath("file.txt",
+                                            "default://repo/file.txt");
+
+    @Before
+    public void setup() {
+        System.setProperty(LeaseLockManager.BACKEND_PROPERTY,
+                           "memory");
+        when(clusterServiceFactory.build(any(MessageHandlerResolver.class))).thenReturn(clusterService);
+    }
+
+    @After
+    public void cleanup() {
+        System.clearProperty(LeaseLockManager.BACKEND_PROPERTY);
+        System.clearProperty(LeaseLockManager.SNAPSHOT_PROPERTY);
+    }
+
+    @Test
+    public void disabledByDefault() {
+        System.clearProperty(LeaseLockManager.BACKEND_PROPERTY);
+        final LeaseLockManager manager = new LeaseLockManager(clusterServiceFactory,
+                                                              lockEvent);
+        manager.setup();
+        try {
+            assertFalse(manager.isEnabled());
+            assertNull(LeaseLockManager.getInstance());
+            verify(clusterServiceFactory,
+                   never()).build(any(MessageHandlerResolver.class));
+        } finally {
+            manager.destroy();
+        }
+    }
+
+    @Test
+    public void acquireFiresEventsAndReplicates() {
+        final LeaseLockManager manager = new LeaseLockManager(clusterServiceFactory,
+                                                              lockEvent);
+        manager.setup();
+        try {
+            assertSame(manager,
+                       LeaseLockManager.getInstance());
+
+            when(clusterService.getHoldCount()).thenReturn(1);
+            final Lease lease = manager.acquire(path,
+                                                "u1",
+                                                "s1");
+            assertEquals("u1",
+                         lease.getOwner());
+
+            final InOrder inOrder = inOrder(clusterService);
+            inOrder.verify(clusterService).lock();
+            inOrder.verify(clusterService).broadcastAndWait(eq(LeaseLockManager.SERVICE_ID),
+                                                            any(MessageType.class),
+                                                            anyMapOf(String.class,
+                                                                     String.class),
+                                                            anyInt());
+            inOrder.verify(clusterService).unlock();
+            verify(lockEvent).fire(new LockInfo(true,
+                                                "u1",
+                                                path));
+
+            when(clusterService.getHoldCount()).thenReturn(0);
+            manager.getLeaseTable().release(path.toURI(),
+                                            "u1");
+            verify(lockEvent).fire(new LockInfo(false,
+                                                null,
+                                                path));
+            verify(clusterService).broadcast(eq(LeaseLockManager.SERVICE_ID),
+                                             any(MessageType.class),
+                                             anyMapOf(String.class,
+                                                      String.class));
+        } finally {
+            manager.destroy();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void replicatedChangesAreAppliedWithoutRebroadcast() {
+        final LeaseLockManager manager = new LeaseLockManager(clusterServiceFactory,
+                                                              lockEvent);
+        manager.setup();
+        try {
+            final Map<String, String> content = new HashMap<>();
+            content.put("key",
+                        path.toURI());
+            content.put("owner",
+                        "u2");
+            content.put("expiresAt",
+                        String.valueOf(Long.MAX_VALUE));
+            manager.handleMessage("LEASE_ACQUIRED",
+                                  content);
+
+            final Lease lease = manager.getLeaseTable().get(path.toURI());
+            assertEquals("u2",
+                         lease.getOwner());
+            assertNull(lease.getSessionId());
+            assertEquals("u2",
+                         manager.acquire(path,
+                                         "u1",
+                                         "s1").getOwner());
+
+            manager.handleMessage("LEASE_RELEASED",
+                                  content);
+            assertNull(manager.getLeaseTable().get(path.toURI()));
+
+            verify(clusterService,
+                   never()).broadcast(any(String.class),
+                                      any(MessageType.class),
+                                      any(Map.class));
+            verify(lockEvent,
+                   times(2)).fire(any(LockInfo.class));
+        } finally {
+            manager.destroy();
+        }
+    }
+
+    @Test
+    public void snapshotIsRestoredOnStartup() throws Exception {
+        final File snapshot = new File(folder.getRoot(),
+                                       "locks");
+        System.setProperty(LeaseLockManager.SNAPSHOT_PROPERTY,
+                           snapshot.getAbsolutePath());
+
+        final LeaseLockManager manager = new LeaseLockManager(null,
+                                                              lockEvent);
+        manager.setup();
+        manager.acquire(path,
+                        "u1",
+                        "s1");
+        manager.destroy();
+        assertTrue(snapshot.isFile());
+
+        final LeaseLockManager restarted = new LeaseLockManager(null,
+                                                                lockEvent);
+        restarted.setup();
+        try {
+            final Lease lease = restarted.getLeaseTable().get(path.toURI());
+            assertEquals("u1",
+                         lease.getOwner());
+            assertEquals("s1",
+                         lease.getSessionId());
+        } finally {
+            restarted.destroy();
+        }
+    }
+
+    @Test
+    public void toPath() {
+        final Path converted = LeaseLockManager.toPath(new Lease(path.toURI(),
+                                                                 "u1",
+                                                                 null,
+                                                                 0));
+        assertEquals(path,
+                     converted);
+        assertEquals("file.txt",
+                     converted.getFileName());
+    }
+
+    @Test
+    public void registersClusterHandler() {
+        final ArgumentCaptor<MessageHandlerResolver> resolver = ArgumentCaptor.forClass(MessageHandlerResolver.class);
+        final LeaseLockManager manager = new LeaseLockManager(clusterServiceFactory,
+                                                              lockEvent);
+        manager.setup();
+        try {
+            verify(clusterServiceFactory).build(resolver.capture());
+            assertEquals(LeaseLockManager.SERVICE_ID,
+                         resolver.getValue().getServiceId());
+        } finally {
+            manager.destroy();
+        }
+    }
+}
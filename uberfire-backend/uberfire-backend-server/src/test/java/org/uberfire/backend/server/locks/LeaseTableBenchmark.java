@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.backend.server.locks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.uberfire.backend.server.locks.LeaseTable.Lease;
+
+/**
+ * Measures lock acquire/release throughput of the {@link LeaseTable} with many concurrent
+ * sessions, each benchmark thread acting as one session. Sessions pick files at random out of a
+ * shared set, so smaller sets mean more contention. Not executed as part of the build, run it
+ * through {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(64)
+public class LeaseTableBenchmark {
+
+    @Param({"100", "100000"})
+    public int files;
+
+    private LeaseTable table;
+
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        table = new LeaseTable();
+        keys = new String[files];
+        for (int i = 0; i < files; i++) {
+            keys[i] = "default://master@repo/src/main/resources/file" + i + ".txt";
+        }
+    }
+
+    @Benchmark
+    public boolean acquireRelease(final Session session) {
+        final String key = keys[ThreadLocalRandom.current().nextInt(files)];
+        final Lease lease = table.acquire(key,
+                                          session.owner,
+                                          session.id);
+        if (lease.getOwner().equals(session.owner)) {
+            return table.release(key,
+                                 session.owner) != null;
+        }
+        return false;
+    }
+
+    @Benchmark
+    public Lease retrieveLockInfo() {
+        return table.get(keys[ThreadLocalRandom.current().nextInt(files)]);
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+
+        private static final AtomicInteger counter = new AtomicInteger();
+
+        String id;
+        String owner;
+
+        @Setup
+        public void setup() {
+            final int n = counter.incrementAndGet();
+            id = "session" + n;
+            owner = "user" + n;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(LeaseTableBenchmark.class.getSimpleName())
+                           .build()).run();
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.backend.server.locks;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.backend.server.locks.LeaseTable.Lease;
+
+import static org.junit.Assert.*;
+
+public class LeaseTableTest {
+
+    private static final long TTL = 1000;
+
+    private long now;
+
+    private LeaseTable table;
+
+    private List<String> events;
+
+    @Before
+    public void setup() {
+        now = 0;
+        events = new ArrayList<>();
+        table = new LeaseTable(TTL) {
+            @Override
+            long now() {
+                return now;
+            }
+        };
+        table.addListener(new LeaseTable.Listener() {
+            @Override
+            public void leaseAcquired(final Lease lease,
+                                      final boolean replicated) {
+                events.add((replicated ? "replicated " : "") + "acquired " + lease.getKey() + " " + lease.getOwner());
+            }
+
+            @Override
+            public void leaseReleased(final Lease lease,
+                                      final boolean replicated) {
+                events.add((replicated ? "replicated " : "") + "released " + lease.getKey() + " " + lease.getOwner());
+            }
+        });
+    }
+
+    @Test
+    public void testAcquireAndConflict() {
+        final Lease lease = table.acquire("default://a",
+                                          "u1",
+                                          "s1");
+        assertEquals("u1",
+                     lease.getOwner());
+        assertEquals(TTL,
+                     lease.getExpiresAt());
+
+        final Lease conflict = table.acquire("default://a",
+                                             "u2",
+                                             "s2");
+        assertSame(lease,
+                   conflict);
+        assertSame(lease,
+                   table.get("default://a"));
+        assertEquals(1,
+                     events.size());
+    }
+
+    @Test
+    public void testRenew() {
+        table.acquire("default://a",
+                      "u1",
+                      "s1");
+        now = 500;
+        final Lease renewed = table.acquire("default://a",
+                                            "u1",
+                                            "s1");
+        assertEquals(1500,
+                     renewed.getExpiresAt());
+        now = 1200;
+        assertNotNull(table.get("default://a"));
+    }
+
+    @Test
+    public void testExpiry() {
+        table.acquire("default://a",
+                      "u1",
+                      "s1");
+        table.acquire("default://b",
+                      "u1",
+                      "s1");
+        now = TTL;
+        assertNull(table.get("default://a"));
+        assertEquals(1,
+                     table.expire());
+        assertEquals(0,
+                     table.size());
+
+        table.acquire("default://c",
+                      "u1",
+                      "s1");
+        now = 2 * TTL + 1;
+        final Lease lease = table.acquire("default://c",
+                                          "u2",
+                                          "s2");
+        assertEquals("u2",
+                     lease.getOwner());
+        assertTrue(events.contains("released default://c u1"));
+        assertTrue(events.contains("acquired default://c u2"));
+    }
+
+    @Test
+    public void testRelease() {
+        table.acquire("default://a",
+                      "u1",
+                      "s1");
+        assertNull(table.release("default://a",
+                                 "u2"));
+        assertNotNull(table.get("default://a"));
+        assertNotNull(table.release("default://a",
+                                    "u1"));
+        assertNull(table.get("default://a"));
+        assertNull(table.release("default://a",
+                                 "u1"));
+
+        table.acquire("default://a",
+                      "u1",
+                      "s1");
+        assertNotNull(table.release("default://a",
+                                    null));
+        assertEquals(0,
+                     table.size());
+    }
+
+    @Test
+    public void testReleaseSession() {
+        table.acquire("default://a",
+                      "u1",
+                      "s1");
+        table.acquire("default://b",
+                      "u1",
+                      "s1");
+        table.acquire("default://c",
+                      "u1",
+                      "s2");
+        assertEquals(2,
+                     table.releaseSession("s1"));
+        assertNull(table.get("default://a"));
+        assertNotNull(table.get("default://c"));
+    }
+
+    @Test
+    public void testList() {
+        table.acquire("default://repo/dir/a",
+                      "u1",
+                      "s1");
+        table.acquire("default://repo/dir/sub/b",
+                      "u2",
+                      "s2");
+        table.acquire("default://repo/other/c",
+                      "u1",
+                      "s1");
+        assertEquals(2,
+                     table.list("default://repo/dir/").size());
+        assertEquals(3,
+                     table.list("default://repo/").size());
+        now = TTL;
+        assertTrue(table.list("default://repo/").isEmpty());
+    }
+
+    @Test
+    public void testReplicatedChanges() {
+        table.acquire("default://a",
+                      "u1",
+                      "s1");
+        table.applyAcquired(new Lease("default://a",
+                                      "u2",
+                                      null,
+                                      TTL));
+        assertEquals("u2",
+                     table.get("default://a").getOwner());
+        table.applyReleased("default://a");
+        assertNull(table.get("default://a"));
+
+        assertEquals("replicated released default://a u1",
+                     events.get(1));
+        assertEquals("replicated acquired default://a u2",
+                     events.get(2));
+        assertEquals("replicated released default://a u2",
+                     events.get(3));
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        table.acquire("default://a",
+                      "u1",
+                      "s1");
+        table.acquire("default://b",
+                      "u2",
+                      null);
+        final StringWriter writer = new StringWriter();
+        table.writeTo(writer);
+
+        final LeaseTable restored = new LeaseTable(TTL) {
+            @Override
+            long now() {
+                return now;
+            }
+        };
+        final long version = restored.getVersion();
+        assertEquals(2,
+                     restored.readFrom(new BufferedReader(new StringReader(writer.toString() + "malformed\n"))));
+        assertNotEquals(version,
+                        restored.getVersion());
+        assertEquals("s1",
+                     restored.get("default://a").getSessionId());
+        assertNull(restored.get("default://b").getSessionId());
+        assertEquals(TTL,
+                     restored.get("default://b").getExpiresAt());
+    }
+}
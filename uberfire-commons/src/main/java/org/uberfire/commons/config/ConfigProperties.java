@@ -155,6 +155,15 @@ public class ConfigProperties {
             return Integer.parseInt(value);
         }
 
+        /**
+         * Returns the long value of this property, converting from string using the same rules as
+         * {@link Long#parseLong(String)}.
+         * @throws NumberFormatException if the value cannot be parsed as a long.
+         */
+        public long getLongValue() {
+            return Long.parseLong(value);
+        }
+
         @Override
         public String toString() {
             return name + " = \"" + value + "\"" + (isDefault ? " (Defaulted)" : "");
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.commons.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe accumulator of durations: keeps the number of recorded events, their total and maximum duration.
+ */
+public class TimerMetric {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(final long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        long currentMax = maxNanos.get();
+        while (nanos > currentMax && !maxNanos.compareAndSet(currentMax,
+                                                             nanos)) {
+            currentMax = maxNanos.get();
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotal(final TimeUnit unit) {
+        return unit.convert(totalNanos.sum(),
+                            TimeUnit.NANOSECONDS);
+    }
+
+    public long getMax(final TimeUnit unit) {
+        return unit.convert(maxNanos.get(),
+                            TimeUnit.NANOSECONDS);
+    }
+
+    public long getMean(final TimeUnit unit) {
+        final long currentCount = count.sum();
+        if (currentCount == 0) {
+            return 0;
+        }
+        return unit.convert(totalNanos.sum() / currentCount,
+                            TimeUnit.NANOSECONDS);
+    }
+
+    public void reset() {
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "TimerMetric{" +
+                "count=" + getCount() +
+                ", totalMs=" + getTotal(TimeUnit.MILLISECONDS) +
+                ", meanMs=" + getMean(TimeUnit.MILLISECONDS) +
+                ", maxMs=" + getMax(TimeUnit.MILLISECONDS) +
+                '}';
+    }
+}
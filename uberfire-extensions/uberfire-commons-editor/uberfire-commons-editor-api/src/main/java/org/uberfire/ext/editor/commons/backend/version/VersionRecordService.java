@@ -19,6 +19,7 @@ package org.uberfire.ext.editor.commons.backend.version;
 import java.net.URISyntaxException;
 import java.util.List;
 
+import org.uberfire.ext.editor.commons.version.VersionRecordPage;
 import org.uberfire.java.nio.base.version.VersionRecord;
 import org.uberfire.java.nio.file.Path;
 
@@ -26,6 +27,13 @@ public interface VersionRecordService {
 
     public List<VersionRecord> load(Path path);
 
+    /**
+     * Same records as {@link #load(Path)}, newest first, starting after the record identified by the cursor.
+     */
+    public VersionRecordPage loadPage(Path path,
+                                      String cursor,
+                                      int limit);
+
     public List<VersionRecord> loadVersionRecords(Path path);
 
     public VersionRecord loadRecord(Path path) throws URISyntaxException;
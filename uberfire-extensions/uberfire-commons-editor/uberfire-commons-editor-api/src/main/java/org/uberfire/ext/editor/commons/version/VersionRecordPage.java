@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.ext.editor.commons.version;
+
+import java.util.List;
+
+import org.jboss.errai.common.client.api.annotations.MapsTo;
+import org.jboss.errai.common.client.api.annotations.Portable;
+import org.uberfire.java.nio.base.version.VersionRecord;
+
+/**
+ * One page of a path history, newest first. Pass {@link #getNextCursor()} back to
+ * {@link VersionService#getVersionPage(org.uberfire.backend.vfs.Path, String, int)} to load the following page.
+ */
+@Portable
+public class VersionRecordPage {
+
+    private List<VersionRecord> records;
+    private String nextCursor;
+
+    public VersionRecordPage(@MapsTo("records") final List<VersionRecord> records,
+                             @MapsTo("nextCursor") final String nextCursor) {
+        this.records = records;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<VersionRecord> getRecords() {
+        return records;
+    }
+
+    /**
+     * @return id of the last record of this page, or null when there are no older records.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -30,6 +30,15 @@ public interface VersionService {
 
     List<VersionRecord> getVersions(final Path path);
 
+    /**
+     * Loads one page of the history of the given path, newest first.
+     * @param cursor {@link VersionRecordPage#getNextCursor()} of the previous page, null for the first page.
+     * @param limit maximum number of records of the page, greater than zero.
+     */
+    VersionRecordPage getVersionPage(final Path path,
+                                     final String cursor,
+                                     final int limit);
+
     Path getPathToPreviousVersion(String uri);
 
     Path restore(final Path path,
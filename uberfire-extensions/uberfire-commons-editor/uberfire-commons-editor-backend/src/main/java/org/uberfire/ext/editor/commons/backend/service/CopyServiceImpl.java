@@ -17,6 +17,8 @@
 package org.uberfire.ext.editor.commons.backend.service;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
 import javax.enterprise.inject.Instance;
@@ -137,18 +139,17 @@ public class CopyServiceImpl implements CopyService {
     public void copyIfExists(final Collection<Path> paths,
                              final String newName,
                              final String comment) {
+        for (final Path path : paths) {
+            checkRestrictions(path);
+        }
+
         try {
             //Always use a batch as CopyHelpers may be involved with the rename operation
             startBatch(paths);
 
-            for (final Path path : paths) {
-                LOGGER.info("User:" + identity.getIdentifier() + " copying file (if exists) [" + path.getFileName() + "] to [" + newName + "]");
-
-                checkRestrictions(path);
-                copyPathIfExists(path,
-                                 newName,
-                                 comment);
-            }
+            copyPathsIfExists(paths,
+                              newName,
+                              comment);
         } catch (final RuntimeException e) {
             throw e;
         } catch (final Exception e) {
@@ -220,30 +221,43 @@ public class CopyServiceImpl implements CopyService {
         return targetPath;
     }
 
-    void copyPathIfExists(final Path path,
-                          final String newName,
-                          final String comment) {
-        final org.uberfire.java.nio.file.Path _path = Paths.convert(path);
+    void copyPathsIfExists(final Collection<Path> paths,
+                           final String newName,
+                           final String comment) {
+        final Map<Path, Path> sourceToTarget = new LinkedHashMap<Path, Path>();
+        final Map<org.uberfire.java.nio.file.Path, org.uberfire.java.nio.file.Path> _sourceToTarget = new LinkedHashMap<org.uberfire.java.nio.file.Path, org.uberfire.java.nio.file.Path>();
+        for (final Path path : paths) {
+            final org.uberfire.java.nio.file.Path _path = Paths.convert(path);
 
-        if (Files.exists(_path)) {
-            final org.uberfire.java.nio.file.Path _target = Paths.convert(pathNamingService.buildTargetPath(path,
-                                                                                                            newName));
+            if (Files.exists(_path)) {
+                LOGGER.info("User:" + identity.getIdentifier() + " copying file (if exists) [" + path.getFileName() + "] to [" + newName + "]");
 
-            ioService.copy(_path,
-                           _target,
-                           new CommentedOption(sessionInfo.getId(),
-                                               identity.getIdentifier(),
-                                               null,
-                                               comment)
-            );
+                final Path targetPath = pathNamingService.buildTargetPath(path,
+                                                                          newName);
+                sourceToTarget.put(path,
+                                   targetPath);
+                _sourceToTarget.put(_path,
+                                    Paths.convert(targetPath));
+            }
+        }
 
-            //Delegate additional changes required for a copy to applicable Helpers
-            if (_target != null && helpers != null) {
-                final Path targetPath = Paths.convert(_target);
+        if (sourceToTarget.isEmpty()) {
+            return;
+        }
+
+        ioService.copyAll(_sourceToTarget,
+                          new CommentedOption(sessionInfo.getId(),
+                                              identity.getIdentifier(),
+                                              null,
+                                              comment));
+
+        //Delegate additional changes required for a copy to applicable Helpers
+        if (helpers != null) {
+            for (final Map.Entry<Path, Path> entry : sourceToTarget.entrySet()) {
                 for (CopyHelper helper : helpers) {
-                    if (helper.supports(targetPath)) {
-                        helper.postProcess(path,
-                                           targetPath);
+                    if (helper.supports(entry.getValue())) {
+                        helper.postProcess(entry.getKey(),
+                                           entry.getValue());
                     }
                 }
             }
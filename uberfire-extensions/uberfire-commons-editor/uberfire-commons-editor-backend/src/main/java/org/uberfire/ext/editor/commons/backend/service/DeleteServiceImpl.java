@@ -16,7 +16,9 @@
 
 package org.uberfire.ext.editor.commons.backend.service;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
@@ -85,16 +87,15 @@ public class DeleteServiceImpl implements DeleteService {
     @Override
     public void deleteIfExists(final Collection<Path> paths,
                                final String comment) {
+        for (final Path path : paths) {
+            checkRestrictions(path);
+        }
+
         try {
             startBatch(paths);
 
-            for (final Path path : paths) {
-                LOGGER.info("User:" + identity.getIdentifier() + " deleting file (if exists) [" + path.getFileName() + "]");
-
-                checkRestrictions(path);
-                deletePathIfExists(path,
-                                   comment);
-            }
+            deletePathsIfExists(paths,
+                                comment);
         } catch (final RuntimeException e) {
             throw e;
         } catch (final Exception e) {
@@ -149,19 +150,33 @@ public class DeleteServiceImpl implements DeleteService {
         }
     }
 
-    void deletePathIfExists(final Path path,
-                            final String comment) {
-        // Delegate additional changes required for a deletion to applicable Helpers. Helpers are invoked before
-        // the deletion as Helpers may depend on the presence of the file; in particular when it is necessary to
-        // resolve a Package from a file name.
-        notifyDeleteHelpers(path);
-
-        ioService.deleteIfExists(Paths.convert(path),
-                                 new CommentedOption(sessionInfo.getId(),
-                                                     identity.getIdentifier(),
-                                                     null,
-                                                     comment),
-                                 StandardDeleteOption.NON_EMPTY_DIRECTORIES
+    void deletePathsIfExists(final Collection<Path> paths,
+                             final String comment) {
+        final List<org.uberfire.java.nio.file.Path> existing = new ArrayList<org.uberfire.java.nio.file.Path>(paths.size());
+        for (final Path path : paths) {
+            LOGGER.info("User:" + identity.getIdentifier() + " deleting file (if exists) [" + path.getFileName() + "]");
+
+            // Delegate additional changes required for a deletion to applicable Helpers. Helpers are invoked before
+            // the deletion as Helpers may depend on the presence of the file; in particular when it is necessary to
+            // resolve a Package from a file name.
+            notifyDeleteHelpers(path);
+
+            final org.uberfire.java.nio.file.Path _path = Paths.convert(path);
+            if (ioService.exists(_path)) {
+                existing.add(_path);
+            }
+        }
+
+        if (existing.isEmpty()) {
+            return;
+        }
+
+        ioService.deleteAll(existing,
+                            new CommentedOption(sessionInfo.getId(),
+                                                identity.getIdentifier(),
+                                                null,
+                                                comment),
+                            StandardDeleteOption.NON_EMPTY_DIRECTORIES
         );
     }
 
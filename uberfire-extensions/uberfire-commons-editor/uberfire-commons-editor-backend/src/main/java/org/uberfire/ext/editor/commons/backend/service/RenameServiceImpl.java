@@ -17,6 +17,8 @@
 package org.uberfire.ext.editor.commons.backend.service;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
@@ -84,19 +86,17 @@ public class RenameServiceImpl implements RenameService {
     public void renameIfExists(final Collection<Path> paths,
                                final String newName,
                                final String comment) {
+        for (final Path path : paths) {
+            checkRestrictions(path);
+        }
 
         try {
             //Always use a batch as RenameHelpers may be involved with the rename operation
             startBatch(paths);
 
-            for (final Path path : paths) {
-                LOGGER.info("User:" + identity.getIdentifier() + " renaming file (if exists) [" + path.getFileName() + "] to [" + newName + "]");
-
-                checkRestrictions(path);
-                renamePathIfExists(path,
-                                   newName,
-                                   comment);
-            }
+            renamePathsIfExists(paths,
+                                newName,
+                                comment);
         } catch (final RuntimeException e) {
             throw e;
         } catch (final Exception e) {
@@ -162,31 +162,42 @@ public class RenameServiceImpl implements RenameService {
         return Paths.convert(_target);
     }
 
-    void renamePathIfExists(final Path path,
-                            final String newName,
-                            final String comment) {
-        final org.uberfire.java.nio.file.Path _path = Paths.convert(path);
+    void renamePathsIfExists(final Collection<Path> paths,
+                             final String newName,
+                             final String comment) {
+        final Map<Path, Path> sourceToTarget = new LinkedHashMap<Path, Path>();
+        final Map<org.uberfire.java.nio.file.Path, org.uberfire.java.nio.file.Path> _sourceToTarget = new LinkedHashMap<org.uberfire.java.nio.file.Path, org.uberfire.java.nio.file.Path>();
+        for (final Path path : paths) {
+            final org.uberfire.java.nio.file.Path _path = Paths.convert(path);
 
-        if (Files.exists(_path)) {
-            final org.uberfire.java.nio.file.Path _target = Paths.convert(pathNamingService.buildTargetPath(path,
-                                                                                                            newName));
+            if (Files.exists(_path)) {
+                LOGGER.info("User:" + identity.getIdentifier() + " renaming file (if exists) [" + path.getFileName() + "] to [" + newName + "]");
 
-            ioService.move(_path,
-                           _target,
-                           new CommentedOption(sessionInfo.getId(),
-                                               identity.getIdentifier(),
-                                               null,
-                                               comment)
-            );
+                final Path targetPath = pathNamingService.buildTargetPath(path,
+                                                                          newName);
+                sourceToTarget.put(path,
+                                   targetPath);
+                _sourceToTarget.put(_path,
+                                    Paths.convert(targetPath));
+            }
+        }
 
-            //Delegate additional changes required for a rename to applicable Helpers
-            if (_target != null) {
-                final Path targetPath = Paths.convert(_target);
-                for (RenameHelper helper : helpers) {
-                    if (helper.supports(targetPath)) {
-                        helper.postProcess(path,
-                                           targetPath);
-                    }
+        if (sourceToTarget.isEmpty()) {
+            return;
+        }
+
+        ioService.moveAll(_sourceToTarget,
+                          new CommentedOption(sessionInfo.getId(),
+                                              identity.getIdentifier(),
+                                              null,
+                                              comment));
+
+        //Delegate additional changes required for a rename to applicable Helpers
+        for (final Map.Entry<Path, Path> entry : sourceToTarget.entrySet()) {
+            for (RenameHelper helper : helpers) {
+                if (helper.supports(entry.getValue())) {
+                    helper.postProcess(entry.getKey(),
+                                       entry.getValue());
                 }
             }
         }
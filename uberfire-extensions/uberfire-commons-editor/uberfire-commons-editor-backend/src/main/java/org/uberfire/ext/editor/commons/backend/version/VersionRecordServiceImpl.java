@@ -19,12 +19,16 @@ package org.uberfire.ext.editor.commons.backend.version;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.uberfire.ext.editor.commons.version.VersionRecordPage;
 import org.uberfire.ext.editor.commons.version.impl.PortableVersionRecord;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.base.version.VersionAttributeView;
@@ -49,36 +53,62 @@ public class VersionRecordServiceImpl
 
     @Override
     public List<VersionRecord> load(Path path) {
+        final List<VersionRecord> pathHistory = history(path);
+        final List<VersionRecord> dotFileHistory = history(util.getDotFilePath(path));
+
+        final List<VersionRecord> result = new ArrayList<VersionRecord>(pathHistory.size() + dotFileHistory.size());
+        final HistoryMerge merge = new HistoryMerge(pathHistory,
+                                                    dotFileHistory,
+                                                    false);
+        while (merge.hasNext()) {
+            result.add(makePortable(merge.next()));
+        }
 
-        final List<VersionRecord> records = loadVersionRecords(path);
+        return result;
+    }
 
-        final List<VersionRecord> result = loadVersionRecords(util.getDotFilePath(path));
+    @Override
+    public VersionRecordPage loadPage(Path path,
+                                      String cursor,
+                                      int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be greater than zero.");
+        }
 
-        for (final VersionRecord record : records) {
-            if (doesNotContainID(record.id(),
-                                 result)) {
-                result.add(record);
-            }
+        final HistoryMerge merge = new HistoryMerge(history(path),
+                                                    history(util.getDotFilePath(path)),
+                                                    true);
+        if (cursor != null && !skipPast(merge,
+                                        cursor)) {
+            return new VersionRecordPage(new ArrayList<VersionRecord>(),
+                                         null);
         }
 
-        Collections.sort(
-                result,
-                new VersionRecordComparator());
+        final List<VersionRecord> records = new ArrayList<VersionRecord>();
+        while (merge.hasNext() && records.size() < limit) {
+            records.add(makePortable(merge.next()));
+        }
 
-        return result;
+        return new VersionRecordPage(records,
+                                     merge.hasNext() ? records.get(records.size() - 1).id() : null);
     }
 
     @Override
     public List<VersionRecord> loadVersionRecords(Path path) {
+        final List<VersionRecord> history = history(path);
+        final ArrayList<VersionRecord> portableRecords = new ArrayList<VersionRecord>(history.size());
+        for (VersionRecord versionRecord : history) {
+            portableRecords.add(makePortable(versionRecord));
+        }
+        return portableRecords;
+    }
+
+    private List<VersionRecord> history(Path path) {
         if (ioService.exists(path)) {
-            ArrayList<VersionRecord> portableRecords = new ArrayList<VersionRecord>();
-            for (VersionRecord versionRecord : ioService.getFileAttributeView(path,
-                                                                              VersionAttributeView.class).readAttributes().history().records()) {
-                portableRecords.add(makePortable(versionRecord));
-            }
-            return portableRecords;
+            return ioService.getFileAttributeView(path,
+                                                  VersionAttributeView.class).readAttributes().history().records();
         } else {
-            return new ArrayList<VersionRecord>();
+            return Collections.emptyList();
         }
     }
 
@@ -91,14 +121,14 @@ public class VersionRecordServiceImpl
                                          record.uri());
     }
 
-    private boolean doesNotContainID(String id,
-                                     List<VersionRecord> records) {
-        for (VersionRecord record : records) {
-            if (record.id().equals(id)) {
-                return false;
+    private boolean skipPast(Iterator<VersionRecord> records,
+                             String id) {
+        while (records.hasNext()) {
+            if (records.next().id().equals(id)) {
+                return true;
             }
         }
-        return true;
+        return false;
     }
 
     @Override
@@ -118,48 +148,95 @@ public class VersionRecordServiceImpl
         return null;
     }
 
-    private class VersionRecordComparator
-            implements Comparator<VersionRecord> {
+    /**
+     * Linear merge of a path history and its dot file history, both oldest first. On equal dates the path
+     * record goes first; a commit that changed both is only reported once, with the path record.
+     */
+    private static class HistoryMerge
+            implements Iterator<VersionRecord> {
+
+        private final List<VersionRecord> pathHistory;
+        private final List<VersionRecord> dotFileHistory;
+        private final Set<String> pathIds;
+        private final boolean newestFirst;
+        private final int step;
+
+        private int pathIndex;
+        private int dotFileIndex;
+        private Date pathDate;
+        private Date dotFileDate;
+
+        HistoryMerge(List<VersionRecord> pathHistory,
+                     List<VersionRecord> dotFileHistory,
+                     boolean newestFirst) {
+            this.pathHistory = pathHistory;
+            this.dotFileHistory = dotFileHistory;
+            this.newestFirst = newestFirst;
+            this.step = newestFirst ? -1 : 1;
+            this.pathIndex = newestFirst ? pathHistory.size() - 1 : 0;
+            this.dotFileIndex = newestFirst ? dotFileHistory.size() - 1 : 0;
+
+            this.pathIds = new HashSet<String>();
+            if (!dotFileHistory.isEmpty()) {
+                for (VersionRecord record : pathHistory) {
+                    pathIds.add(record.id());
+                }
+            }
+            skipDuplicates();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasPathRecord() || hasDotFileRecord();
+        }
 
         @Override
-        public int compare(VersionRecord left,
-                           VersionRecord right) {
-            int compareTo = left.date().compareTo(right.date());
-
-            if (compareTo == 0) {
-                return compareUri(right.uri(),
-                                  left.uri());
-            } else {
-                return compareTo;
+        public VersionRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (takePathRecord()) {
+                final VersionRecord record = pathHistory.get(pathIndex);
+                pathIndex += step;
+                pathDate = null;
+                return record;
             }
+            final VersionRecord record = dotFileHistory.get(dotFileIndex);
+            dotFileIndex += step;
+            dotFileDate = null;
+            skipDuplicates();
+            return record;
         }
 
-        private int compareUri(String rightUri,
-                               String leftUri) {
-            Iterator<Character> right = getReversedIterator(rightUri);
-            Iterator<Character> left = getReversedIterator(leftUri);
-
-            while (left.hasNext() && right.hasNext()) {
-                Character l = left.next();
-                Character r = right.next();
-                if (l.equals('.') && !r.equals('.')) {
-                    return 1;
-                } else if (!l.equals('.') && r.equals('.')) {
-                    return -1;
-                }
+        private boolean takePathRecord() {
+            if (!hasDotFileRecord()) {
+                return true;
             }
-
-            return 0;
+            if (!hasPathRecord()) {
+                return false;
+            }
+            if (pathDate == null) {
+                pathDate = pathHistory.get(pathIndex).date();
+            }
+            if (dotFileDate == null) {
+                dotFileDate = dotFileHistory.get(dotFileIndex).date();
+            }
+            final int compareTo = pathDate.compareTo(dotFileDate);
+            return newestFirst ? compareTo > 0 : compareTo <= 0;
         }
 
-        private Iterator<Character> getReversedIterator(String uri) {
-            List<Character> chars = new ArrayList<Character>();
-            for (char c : uri.toCharArray()) {
-                chars.add(c);
+        private void skipDuplicates() {
+            while (hasDotFileRecord() && pathIds.contains(dotFileHistory.get(dotFileIndex).id())) {
+                dotFileIndex += step;
             }
-            Collections.reverse(chars);
-            return chars.iterator();
+        }
+
+        private boolean hasPathRecord() {
+            return pathIndex >= 0 && pathIndex < pathHistory.size();
+        }
+
+        private boolean hasDotFileRecord() {
+            return dotFileIndex >= 0 && dotFileIndex < dotFileHistory.size();
         }
     }
 }
-
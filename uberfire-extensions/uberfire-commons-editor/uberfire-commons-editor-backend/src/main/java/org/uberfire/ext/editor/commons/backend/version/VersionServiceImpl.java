@@ -25,6 +25,7 @@ import javax.inject.Named;
 import org.jboss.errai.bus.server.annotations.Service;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
+import org.uberfire.ext.editor.commons.version.VersionRecordPage;
 import org.uberfire.ext.editor.commons.version.VersionService;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.base.options.CommentedOption;
@@ -59,6 +60,20 @@ public class VersionServiceImpl
         }
     }
 
+    @Override
+    public VersionRecordPage getVersionPage(final Path path,
+                                            final String cursor,
+                                            final int limit) {
+
+        try {
+            return versionRecordService.loadPage(Paths.convert(path),
+                                                 cursor,
+                                                 limit);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public Path getPathToPreviousVersion(String uri) {
         return convert(ioService.get(URI.create(uri)));
@@ -20,7 +20,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.enterprise.event.Event;
 import javax.enterprise.inject.Instance;
 
@@ -29,7 +31,9 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -42,6 +46,9 @@ import org.uberfire.ext.editor.commons.backend.service.restriction.LockRestricto
 import org.uberfire.ext.editor.commons.service.ValidationService;
 import org.uberfire.ext.editor.commons.service.restriction.PathOperationRestriction;
 import org.uberfire.ext.editor.commons.service.restrictor.CopyRestrictor;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.base.options.CommentedOption;
+import org.uberfire.java.nio.file.CopyOption;
 import org.uberfire.mocks.EventSourceMock;
 import org.uberfire.mocks.FileSystemTestingUtils;
 import org.uberfire.rpc.SessionInfo;
@@ -72,6 +79,7 @@ public class CopyServiceImplTest {
     private ValidationService validationService;
     @Spy
     private PathNamingServiceImpl pathNamingService = new PathNamingServiceImpl();
+    private IOService ioService;
     private CopyServiceImpl copyService;
     @Spy
     @InjectMocks
@@ -81,7 +89,8 @@ public class CopyServiceImplTest {
     public void setup() throws IOException {
         fileSystemTestingUtils.setup();
 
-        this.copyService = spy(new CopyServiceImpl(fileSystemTestingUtils.getIoService(),
+        this.ioService = spy(fileSystemTestingUtils.getIoService());
+        this.copyService = spy(new CopyServiceImpl(ioService,
                                                    identity,
                                                    sessionInfo,
                                                    null,
@@ -146,10 +155,9 @@ public class CopyServiceImplTest {
                                          e);
         }
 
-        thenPathWasCopiedIfExists(paths.get(0));
+        // Restrictions are checked before anything is copied, so none of the paths is.
+        thenPathWasNotCopiedIfExists(paths.get(0));
         thenPathWasNotCopiedIfExists(paths.get(1));
-
-        // This will not be copied because the process stops when some exception is raised.
         thenPathWasNotCopiedIfExists(paths.get(2));
     }
 
@@ -169,6 +177,34 @@ public class CopyServiceImplTest {
         thenPathWasCopiedIfExists(paths.get(0));
         thenPathWasCopiedIfExists(paths.get(1));
         thenPathWasCopiedIfExists(paths.get(2));
+        verify(copyService).copyPathsIfExists(eq(paths),
+                                              any(String.class),
+                                              any(String.class));
+    }
+
+    @Test
+    public void copyPathsIfExistsCopiesAllPathsAtOnce() {
+        final List<Path> paths = new ArrayList<Path>();
+        paths.add(createFile("dir1/file1.txt"));
+        paths.add(createFile("dir2/file2.txt"));
+        paths.add(createFile("dir3/file3.txt"));
+
+        whenPathsAreCopiedIfExists(paths);
+
+        final Map<org.uberfire.java.nio.file.Path, org.uberfire.java.nio.file.Path> expected = new HashMap<org.uberfire.java.nio.file.Path, org.uberfire.java.nio.file.Path>();
+        for (final Path path : paths) {
+            expected.put(Paths.convert(path),
+                         getTarget(path));
+        }
+        final ArgumentCaptor<Map> copied = ArgumentCaptor.forClass(Map.class);
+        verify(ioService).copyAll(copied.capture(),
+                                  any(CommentedOption.class));
+        assertEquals(expected,
+                     copied.getValue());
+        verify(ioService,
+               never()).copy(any(org.uberfire.java.nio.file.Path.class),
+                             any(org.uberfire.java.nio.file.Path.class),
+                             Matchers.<CopyOption>anyVararg());
     }
 
     @Test
@@ -292,16 +328,19 @@ public class CopyServiceImplTest {
     }
 
     private void thenPathWasCopiedIfExists(final Path path) {
-        verify(copyService).copyPathIfExists(eq(path),
-                                             any(String.class),
-                                             any(String.class));
+        assertTrue(fileSystemTestingUtils.getIoService().exists(getTarget(path)));
     }
 
     private void thenPathWasNotCopiedIfExists(final Path path) {
+        assertFalse(fileSystemTestingUtils.getIoService().exists(getTarget(path)));
         verify(copyService,
-               never()).copyPathIfExists(eq(path),
-                                         any(String.class),
-                                         any(String.class));
+               never()).copyPathsIfExists(Matchers.<Collection<Path>>any(),
+                                          any(String.class),
+                                          any(String.class));
+    }
+
+    private org.uberfire.java.nio.file.Path getTarget(final Path path) {
+        return Paths.convert(path).resolveSibling("newName.txt");
     }
 
     private void thenPathWasNotCopiedIfExists(final Path path,
@@ -24,8 +24,10 @@ import org.jboss.errai.security.shared.api.identity.User;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.InjectMocks;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -39,7 +41,9 @@ import org.uberfire.ext.editor.commons.service.ValidationService;
 import org.uberfire.ext.editor.commons.service.restrictor.DeleteRestrictor;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.base.options.CommentedOption;
+import org.uberfire.java.nio.file.DeleteOption;
 import org.uberfire.java.nio.file.FileSystem;
+import org.uberfire.java.nio.file.StandardDeleteOption;
 import org.uberfire.rpc.SessionInfo;
 
 import static org.junit.Assert.*;
@@ -132,11 +136,10 @@ public class DeleteServiceImplTest {
                                           e);
         }
 
-        thenPathWasDeletedIfExists(paths.get(0));
-        thenPathWasNotDeletedIfExists(paths.get(1));
-
-        // This will not be deleted because the process stops when some exception is raised.
-        thenPathWasNotDeletedIfExists(paths.get(2));
+        // Restrictions are checked before anything is deleted, so none of the paths is.
+        thenPathsWereNotDeletedIfExists();
+        verify(ioService,
+               never()).startBatch(any(FileSystem.class));
     }
 
     @Test
@@ -152,9 +155,29 @@ public class DeleteServiceImplTest {
 
         whenPathsAreDeletedIfExists(paths);
 
-        thenPathWasDeletedIfExists(paths.get(0));
-        thenPathWasDeletedIfExists(paths.get(1));
-        thenPathWasDeletedIfExists(paths.get(2));
+        thenPathsWereDeletedIfExists(paths);
+    }
+
+    @Test
+    public void deletePathsIfExistsDeletesAllPathsAtOnce() {
+        final List<Path> paths = new ArrayList<Path>();
+        paths.add(getPath("file0.txt"));
+        paths.add(getPath("file1.txt"));
+        paths.add(getPath("file2.txt"));
+
+        when(ioService.exists(any(org.uberfire.java.nio.file.Path.class))).thenReturn(true);
+
+        whenPathsAreDeletedIfExists(paths);
+
+        final ArgumentCaptor<Collection> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(ioService).deleteAll(deleted.capture(),
+                                    any(CommentedOption.class),
+                                    eq(StandardDeleteOption.NON_EMPTY_DIRECTORIES));
+        assertEquals(3,
+                     deleted.getValue().size());
+        verify(ioService,
+               never()).deleteIfExists(any(org.uberfire.java.nio.file.Path.class),
+                                       Matchers.<DeleteOption>anyVararg());
     }
 
     @Test
@@ -261,15 +284,15 @@ public class DeleteServiceImplTest {
                      e.getMessage());
     }
 
-    private void thenPathWasDeletedIfExists(final Path path) {
-        verify(deleteService).deletePathIfExists(eq(path),
-                                                 any(String.class));
+    private void thenPathsWereDeletedIfExists(final Collection<Path> paths) {
+        verify(deleteService).deletePathsIfExists(eq(paths),
+                                                  any(String.class));
     }
 
-    private void thenPathWasNotDeletedIfExists(final Path path) {
+    private void thenPathsWereNotDeletedIfExists() {
         verify(deleteService,
-               never()).deletePathIfExists(eq(path),
-                                           any(String.class));
+               never()).deletePathsIfExists(Matchers.<Collection<Path>>any(),
+                                            any(String.class));
     }
 
     private void thenPathWasNotDeletedIfExists(final Path path,
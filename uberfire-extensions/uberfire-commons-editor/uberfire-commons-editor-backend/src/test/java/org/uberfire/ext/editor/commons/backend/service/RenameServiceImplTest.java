@@ -76,9 +76,9 @@ public class RenameServiceImplTest {
         doReturn(getPath()).when(renameService).renamePath(any(Path.class),
                                                            any(String.class),
                                                            any(String.class));
-        doNothing().when(renameService).renamePathIfExists(any(Path.class),
-                                                           any(String.class),
-                                                           any(String.class));
+        doNothing().when(renameService).renamePathsIfExists(Matchers.<Collection<Path>>any(),
+                                                            any(String.class),
+                                                            any(String.class));
         doNothing().when(renameService).startBatch(Matchers.<Collection<Path>>any());
         doNothing().when(renameService).endBatch();
 
@@ -130,11 +130,10 @@ public class RenameServiceImplTest {
                                           e);
         }
 
-        thenPathWasRenamedIfExists(paths.get(0));
-        thenPathWasNotRenamedIfExists(paths.get(1));
-
-        // This will not be renamed because the process stops when some exception is raised.
-        thenPathWasNotRenamedIfExists(paths.get(2));
+        // Restrictions are checked before anything is renamed, so none of the paths is.
+        thenPathsWereNotRenamedIfExists();
+        verify(renameService,
+               never()).startBatch(Matchers.<Collection<Path>>any());
     }
 
     @Test
@@ -150,9 +149,7 @@ public class RenameServiceImplTest {
 
         whenPathsAreRenamedIfExists(paths);
 
-        thenPathWasRenamedIfExists(paths.get(0));
-        thenPathWasRenamedIfExists(paths.get(1));
-        thenPathWasRenamedIfExists(paths.get(2));
+        thenPathsWereRenamedIfExists(paths);
     }
 
     @Test
@@ -218,17 +215,17 @@ public class RenameServiceImplTest {
                      e.getMessage());
     }
 
-    private void thenPathWasRenamedIfExists(final Path path) {
-        verify(renameService).renamePathIfExists(eq(path),
-                                                 any(String.class),
-                                                 any(String.class));
+    private void thenPathsWereRenamedIfExists(final Collection<Path> paths) {
+        verify(renameService).renamePathsIfExists(eq(paths),
+                                                  any(String.class),
+                                                  any(String.class));
     }
 
-    private void thenPathWasNotRenamedIfExists(final Path path) {
+    private void thenPathsWereNotRenamedIfExists() {
         verify(renameService,
-               never()).renamePathIfExists(eq(path),
-                                           any(String.class),
-                                           any(String.class));
+               never()).renamePathsIfExists(Matchers.<Collection<Path>>any(),
+                                            any(String.class),
+                                            any(String.class));
     }
 
     private void thenPathWasNotRenamedIfExists(final Path path,
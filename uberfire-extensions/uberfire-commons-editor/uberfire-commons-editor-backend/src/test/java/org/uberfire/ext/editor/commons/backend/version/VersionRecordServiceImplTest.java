@@ -17,11 +17,13 @@ package org.uberfire.ext.editor.commons.backend.version;
 
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.uberfire.ext.editor.commons.version.VersionRecordPage;
 import org.uberfire.java.nio.IOException;
 import org.uberfire.java.nio.base.version.VersionAttributeView;
 import org.uberfire.java.nio.base.version.VersionAttributes;
@@ -158,6 +160,126 @@ public class VersionRecordServiceImplTest {
                      versions.get(2).id());
     }
 
+    @Test
+    public void testSharedCommitKeepsMainFileRecord() throws Exception {
+
+        ioService.setExistingPaths(pathToFile,
+                                   pathToDotFile);
+
+        VersionRecordServiceImpl versionRecordServiceImpl = new VersionRecordServiceImpl(
+                ioService,
+                new VersionUtil()
+        );
+
+        List<VersionRecord> versions = versionRecordServiceImpl.load(pathToFile);
+
+        assertEquals("id1",
+                     versions.get(0).id());
+        assertEquals("file.txt",
+                     versions.get(0).uri());
+    }
+
+    @Test
+    public void testLoadPage() throws Exception {
+
+        ioService.setExistingPaths(pathToFile,
+                                   pathToDotFile);
+
+        VersionRecordServiceImpl versionRecordServiceImpl = new VersionRecordServiceImpl(
+                ioService,
+                new VersionUtil()
+        );
+
+        VersionRecordPage first = versionRecordServiceImpl.loadPage(pathToFile,
+                                                                   null,
+                                                                   2);
+        assertEquals(2,
+                     first.getRecords().size());
+        assertEquals("id5",
+                     first.getRecords().get(0).id());
+        assertEquals("id4",
+                     first.getRecords().get(1).id());
+        assertEquals("id4",
+                     first.getNextCursor());
+
+        VersionRecordPage second = versionRecordServiceImpl.loadPage(pathToFile,
+                                                                    first.getNextCursor(),
+                                                                    2);
+        assertEquals(2,
+                     second.getRecords().size());
+        assertEquals("id3",
+                     second.getRecords().get(0).id());
+        assertEquals("id2",
+                     second.getRecords().get(1).id());
+        assertTrue(second.hasNext());
+
+        VersionRecordPage last = versionRecordServiceImpl.loadPage(pathToFile,
+                                                                  second.getNextCursor(),
+                                                                  2);
+        assertEquals(1,
+                     last.getRecords().size());
+        assertEquals("id1",
+                     last.getRecords().get(0).id());
+        assertFalse(last.hasNext());
+    }
+
+    @Test
+    public void testLoadPageIsReversedLoad() throws Exception {
+
+        ioService.setExistingPaths(pathToFile,
+                                   pathToDotFile);
+
+        mainFileVersionRecords.add(makeVersionRecord("id6",
+                                                     "file.txt",
+                                                     new Date(6)));
+        dotFileVersionRecords.add(makeVersionRecord("id7",
+                                                    ".file.txt",
+                                                    new Date(6)));
+
+        VersionRecordServiceImpl versionRecordServiceImpl = new VersionRecordServiceImpl(
+                ioService,
+                new VersionUtil()
+        );
+
+        List<VersionRecord> versions = versionRecordServiceImpl.load(pathToFile);
+        Collections.reverse(versions);
+
+        VersionRecordPage page = versionRecordServiceImpl.loadPage(pathToFile,
+                                                                  null,
+                                                                  100);
+        assertEquals(versions,
+                     page.getRecords());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testLoadPageUnknownCursor() throws Exception {
+
+        ioService.setExistingPaths(pathToFile,
+                                   pathToDotFile);
+
+        VersionRecordServiceImpl versionRecordServiceImpl = new VersionRecordServiceImpl(
+                ioService,
+                new VersionUtil()
+        );
+
+        VersionRecordPage page = versionRecordServiceImpl.loadPage(pathToFile,
+                                                                  "unknown",
+                                                                  2);
+
+        assertTrue(page.getRecords().isEmpty());
+        assertFalse(page.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLoadPageInvalidLimit() throws Exception {
+
+        new VersionRecordServiceImpl(ioService,
+                                     new VersionUtil()).loadPage(pathToFile,
+                                                                 null,
+                                                                 0);
+    }
+
     @Test
     public void testLoadRecord() throws Exception {
 
@@ -31,6 +31,7 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.ext.editor.commons.client.history.event.VersionSelectedEvent;
+import org.uberfire.ext.editor.commons.version.VersionRecordPage;
 import org.uberfire.ext.editor.commons.version.VersionService;
 import org.uberfire.java.nio.base.version.VersionRecord;
 
@@ -176,6 +177,12 @@ public class VersionHistoryPresenterTest {
                     return null;
                 }
 
+                public VersionRecordPage getVersionPage(final Path path,
+                                                        final String cursor,
+                                                        final int limit) {
+                    return null;
+                }
+
                 public Path getPathToPreviousVersion(String uri) {
                     return null;
                 }
@@ -21,6 +21,7 @@ import java.util.List;
 
 import org.jboss.errai.common.client.api.RemoteCallback;
 import org.uberfire.backend.vfs.Path;
+import org.uberfire.ext.editor.commons.version.VersionRecordPage;
 import org.uberfire.ext.editor.commons.version.VersionService;
 import org.uberfire.java.nio.base.version.VersionRecord;
 
@@ -41,6 +42,13 @@ class VersionServiceMock
         return null;
     }
 
+    @Override
+    public VersionRecordPage getVersionPage(Path path,
+                                            String cursor,
+                                            int limit) {
+        return null;
+    }
+
     @Override
     public Path getPathToPreviousVersion(String uri) {
         return null;
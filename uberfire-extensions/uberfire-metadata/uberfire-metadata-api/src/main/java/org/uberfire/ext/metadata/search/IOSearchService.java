@@ -38,6 +38,14 @@ public interface IOSearchService {
     int fullTextSearchHits(final String term,
                            final Path... roots);
 
+    PageResponse<Path> searchByAttrsPage(final Map<String, ?> attrs,
+                                         final PageRequest pageRequest,
+                                         final Path... roots);
+
+    PageResponse<Path> fullTextSearchPage(final String term,
+                                          final PageRequest pageRequest,
+                                          final Path... roots);
+
     interface Filter {
 
         boolean accept(final KObject kObject);
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.ext.metadata.search;
+
+import static org.uberfire.commons.validation.PortablePreconditions.checkCondition;
+
+/**
+ * Window of hits to be returned by a paged search, optionally sorted by a sortable property instead of relevance.
+ */
+public class PageRequest {
+
+    private final int offset;
+    private final int pageSize;
+    private final String sortField;
+    private final boolean sortDescending;
+
+    public PageRequest(final int offset,
+                       final int pageSize) {
+        this(offset,
+             pageSize,
+             null,
+             false);
+    }
+
+    public PageRequest(final int offset,
+                       final int pageSize,
+                       final String sortField,
+                       final boolean sortDescending) {
+        checkCondition("offset",
+                       offset >= 0);
+        checkCondition("pageSize",
+                       pageSize >= 0);
+        this.offset = offset;
+        this.pageSize = pageSize;
+        this.sortField = sortField;
+        this.sortDescending = sortDescending;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @return name of the sortable property to order hits by, or null to order them by relevance.
+     */
+    public String getSortField() {
+        return sortField;
+    }
+
+    public boolean isSortDescending() {
+        return sortDescending;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.ext.metadata.search;
+
+import java.util.List;
+
+import static org.uberfire.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * Single page of a search, along with the total number of hits of the query.
+ */
+public class PageResponse<T> {
+
+    private final int totalHits;
+    private final int offset;
+    private final List<T> rows;
+
+    public PageResponse(final int totalHits,
+                        final int offset,
+                        final List<T> rows) {
+        this.totalHits = totalHits;
+        this.offset = offset;
+        this.rows = checkNotNull("rows",
+                                 rows);
+    }
+
+    public int getTotalHits() {
+        return totalHits;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public List<T> getRows() {
+        return rows;
+    }
+
+    public boolean hasMore() {
+        return offset + rows.size() < totalHits;
+    }
+}
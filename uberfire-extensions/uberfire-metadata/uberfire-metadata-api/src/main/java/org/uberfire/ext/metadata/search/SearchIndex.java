@@ -39,4 +39,18 @@ public interface SearchIndex {
 
     int fullTextSearchHits(final String term,
                            final ClusterSegment... clusterSegments);
+
+    /**
+     * Searches by attributes in a single pass, loading only the objects of the requested page.
+     */
+    PageResponse<KObject> searchByAttrsPage(final Map<String, ?> attrs,
+                                            final PageRequest pageRequest,
+                                            final ClusterSegment... clusterSegments);
+
+    /**
+     * Full text search in a single pass, loading only the objects of the requested page.
+     */
+    PageResponse<KObject> fullTextSearchPage(final String term,
+                                             final PageRequest pageRequest,
+                                             final ClusterSegment... clusterSegments);
 }
@@ -20,6 +20,7 @@ import org.apache.lucene.analysis.Analyzer;
 import org.uberfire.commons.lifecycle.PriorityDisposableRegistry;
 import org.uberfire.ext.metadata.MetadataConfig;
 import org.uberfire.ext.metadata.backend.lucene.fields.FieldFactory;
+import org.uberfire.ext.metadata.backend.lucene.index.CommitPolicy;
 import org.uberfire.ext.metadata.backend.lucene.index.LuceneIndexEngine;
 import org.uberfire.ext.metadata.backend.lucene.index.LuceneIndexFactory;
 import org.uberfire.ext.metadata.backend.lucene.index.LuceneIndexManager;
@@ -42,6 +43,18 @@ public class LuceneConfig implements MetadataConfig {
                         final FieldFactory fieldFactory,
                         final LuceneIndexFactory indexFactory,
                         final Analyzer analyzer) {
+        this(metaModelStore,
+             fieldFactory,
+             indexFactory,
+             analyzer,
+             CommitPolicy.defaultPolicy());
+    }
+
+    public LuceneConfig(final MetaModelStore metaModelStore,
+                        final FieldFactory fieldFactory,
+                        final LuceneIndexFactory indexFactory,
+                        final Analyzer analyzer,
+                        final CommitPolicy commitPolicy) {
         this.metaModelStore = metaModelStore;
         this.fieldFactory = fieldFactory;
         this.indexManager = new LuceneIndexManager(indexFactory);
@@ -50,7 +63,8 @@ public class LuceneConfig implements MetadataConfig {
                                                  this.analyzer);
         this.indexEngine = new LuceneIndexEngine(this.fieldFactory,
                                                  this.metaModelStore,
-                                                 this.indexManager);
+                                                 this.indexManager,
+                                                 commitPolicy);
         PriorityDisposableRegistry.register(this);
     }
 
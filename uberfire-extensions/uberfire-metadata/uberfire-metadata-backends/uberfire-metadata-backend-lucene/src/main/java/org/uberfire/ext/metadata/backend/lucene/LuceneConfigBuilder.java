@@ -18,6 +18,7 @@ package org.uberfire.ext.metadata.backend.lucene;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
@@ -26,6 +27,7 @@ import org.apache.lucene.analysis.util.CharArraySet;
 import org.uberfire.ext.metadata.backend.lucene.analyzer.FilenameAnalyzer;
 import org.uberfire.ext.metadata.backend.lucene.fields.FieldFactory;
 import org.uberfire.ext.metadata.backend.lucene.fields.SimpleFieldFactory;
+import org.uberfire.ext.metadata.backend.lucene.index.CommitPolicy;
 import org.uberfire.ext.metadata.backend.lucene.index.CustomAnalyzerWrapperFactory;
 import org.uberfire.ext.metadata.backend.lucene.index.LuceneIndex;
 import org.uberfire.ext.metadata.backend.lucene.index.directory.DirectoryFactory;
@@ -42,6 +44,8 @@ public final class LuceneConfigBuilder {
     private Analyzer analyzer;
     private CustomAnalyzerWrapperFactory customAnalyzerWrapperFactory;
     private Map<String, Analyzer> analyzers;
+    private long searcherMaxStaleness = DirectoryFactory.defaultSearcherMaxStaleness();
+    private CommitPolicy commitPolicy;
 
     public LuceneConfigBuilder() {
     }
@@ -95,6 +99,17 @@ public final class LuceneConfigBuilder {
         return this;
     }
 
+    public LuceneConfigBuilder withSearcherMaxStaleness(final long maxStaleness,
+                                                        final TimeUnit unit) {
+        this.searcherMaxStaleness = unit.toMillis(maxStaleness);
+        return this;
+    }
+
+    public LuceneConfigBuilder withCommitPolicy(final CommitPolicy commitPolicy) {
+        this.commitPolicy = commitPolicy;
+        return this;
+    }
+
     public LuceneConfig build() {
         if (metaModelStore == null) {
             withoutMemoryMetaModel();
@@ -111,12 +126,17 @@ public final class LuceneConfigBuilder {
         if (analyzer == null) {
             withDefaultAnalyzer();
         }
+        if (commitPolicy == null) {
+            commitPolicy = CommitPolicy.defaultPolicy();
+        }
 
         return new LuceneConfig(metaModelStore,
                                 fieldFactory,
                                 new DirectoryFactory(type,
-                                                     analyzer),
-                                analyzer);
+                                                     analyzer,
+                                                     searcherMaxStaleness),
+                                analyzer,
+                                commitPolicy);
     }
 
     public void withDefaultDirectory() {
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.ext.metadata.backend.lucene.index;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherManager;
+import org.uberfire.commons.metrics.TimerMetric;
+
+import static org.uberfire.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * Near real time searchers of a single cluster, shared between queries.
+ * <p>
+ * Queries reuse the current searcher as long as it was refreshed within the max staleness; otherwise the caller
+ * refreshes it first, which only reopens the segments that changed. Writers that need to see their own changes use
+ * {@link #acquireFresh()}. Every acquired searcher must be given back through {@link #release(IndexSearcher)}.
+ */
+public class ClusterSearcherManager {
+
+    private final SearcherManager manager;
+    private final long maxStalenessNanos;
+    private volatile long lastRefresh;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final TimerMetric refreshLatency = new TimerMetric();
+
+    public ClusterSearcherManager(final IndexWriter writer,
+                                  final long maxStaleness,
+                                  final TimeUnit unit) {
+        try {
+            this.manager = new SearcherManager(checkNotNull("writer",
+                                                            writer),
+                                               true,
+                                               null);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        this.maxStalenessNanos = unit.toNanos(maxStaleness);
+        this.lastRefresh = System.nanoTime();
+    }
+
+    /**
+     * @return a searcher that is at most max staleness behind the index writer.
+     */
+    public IndexSearcher acquire() {
+        try {
+            final IndexSearcher current = manager.acquire();
+            if (System.nanoTime() - lastRefresh <= maxStalenessNanos) {
+                hits.increment();
+                return current;
+            }
+            refresh();
+            final IndexSearcher refreshed = manager.acquire();
+            if (refreshed == current) {
+                manager.release(refreshed);
+                hits.increment();
+                return current;
+            }
+            manager.release(current);
+            misses.increment();
+            return refreshed;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return a searcher that sees every change made so far by the index writer.
+     */
+    public IndexSearcher acquireFresh() {
+        try {
+            refresh();
+            return manager.acquire();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void release(final IndexSearcher searcher) {
+        try {
+            manager.release(searcher);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Refreshes the searcher unless another thread is already doing it; meant for background refreshes.
+     */
+    public void maybeRefresh() {
+        try {
+            final long start = System.nanoTime();
+            if (manager.maybeRefresh()) {
+                lastRefresh = start;
+                refreshLatency.record(System.nanoTime() - start);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void close() {
+        try {
+            manager.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return ratio of queries served without reopening the index reader.
+     */
+    public double getHitRate() {
+        final long currentHits = hits.sum();
+        final long total = currentHits + misses.sum();
+        return total == 0 ? 0 : (double) currentHits / total;
+    }
+
+    public TimerMetric getRefreshLatency() {
+        return refreshLatency;
+    }
+
+    private void refresh() throws IOException {
+        final long start = System.nanoTime();
+        manager.maybeRefreshBlocking();
+        lastRefresh = start;
+        refreshLatency.record(System.nanoTime() - start);
+    }
+}
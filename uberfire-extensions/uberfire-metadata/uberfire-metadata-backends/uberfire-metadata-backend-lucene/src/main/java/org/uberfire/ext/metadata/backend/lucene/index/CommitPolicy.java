@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.ext.metadata.backend.lucene.index;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.uberfire.commons.validation.PortablePreconditions.checkCondition;
+
+/**
+ * When changes made outside batch mode are committed (made durable) to a cluster index.
+ * <p>
+ * A commit happens once {@code maxPendingChanges} changes are pending or {@code maxDelay} milliseconds after the
+ * first pending change, whatever comes first. Changes are visible to searches right away through near real time
+ * readers; the policy only bounds how many of them a crash may lose. The default policy commits every change.
+ */
+public class CommitPolicy {
+
+    public static final String COMMIT_MAX_PENDING_CHANGES = "org.uberfire.metadata.index.commit.maxPendingChanges";
+    public static final String COMMIT_MAX_DELAY = "org.uberfire.metadata.index.commit.maxDelay";
+
+    private final int maxPendingChanges;
+    private final long maxDelay;
+
+    public CommitPolicy(final int maxPendingChanges,
+                        final long maxDelay,
+                        final TimeUnit unit) {
+        checkCondition("maxPendingChanges",
+                       maxPendingChanges > 0);
+        checkCondition("maxDelay",
+                       maxDelay >= 0);
+        this.maxPendingChanges = maxPendingChanges;
+        this.maxDelay = unit.toMillis(maxDelay);
+    }
+
+    public static CommitPolicy everyChange() {
+        return new CommitPolicy(1,
+                                0,
+                                TimeUnit.MILLISECONDS);
+    }
+
+    public static CommitPolicy defaultPolicy() {
+        final String maxPendingChanges = System.getProperty(COMMIT_MAX_PENDING_CHANGES);
+        final String maxDelay = System.getProperty(COMMIT_MAX_DELAY);
+        if (maxPendingChanges == null || maxPendingChanges.trim().isEmpty()) {
+            return everyChange();
+        }
+        return new CommitPolicy(Integer.parseInt(maxPendingChanges.trim()),
+                                maxDelay == null || maxDelay.trim().isEmpty() ? 1000 : Long.parseLong(maxDelay.trim()),
+                                TimeUnit.MILLISECONDS);
+    }
+
+    public int getMaxPendingChanges() {
+        return maxPendingChanges;
+    }
+
+    /**
+     * @return max time, in milliseconds, a change stays uncommitted; 0 means no time bound.
+     */
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    public boolean commitsEveryChange() {
+        return maxPendingChanges == 1;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.ext.metadata.backend.lucene.index;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.commons.metrics.TimerMetric;
+import org.uberfire.ext.metadata.model.KCluster;
+
+import static org.uberfire.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * Coalesces the commits of changes made outside batch mode, per cluster, following a {@link CommitPolicy}.
+ * Clusters don't wait on each other: commits of different clusters may run concurrently.
+ */
+public class CommitScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommitScheduler.class);
+
+    private final CommitPolicy policy;
+    private final Consumer<KCluster> committer;
+    private final Map<KCluster, AtomicInteger> pendingChanges = new ConcurrentHashMap<KCluster, AtomicInteger>();
+    private final ScheduledExecutorService timer;
+
+    private final LongAdder changes = new LongAdder();
+    private final TimerMetric commitLatency = new TimerMetric();
+
+    public CommitScheduler(final CommitPolicy policy,
+                           final Consumer<KCluster> committer) {
+        this.policy = checkNotNull("policy",
+                                   policy);
+        this.committer = checkNotNull("committer",
+                                      committer);
+        if (policy.commitsEveryChange() || policy.getMaxDelay() == 0) {
+            this.timer = null;
+        } else {
+            this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+                final Thread thread = new Thread(r,
+                                                 "lucene-index-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Notifies a change on the given cluster, that is committed now or later depending on the policy.
+     */
+    public void changed(final KCluster cluster) {
+        changes.increment();
+        if (policy.commitsEveryChange()) {
+            commit(cluster);
+            return;
+        }
+        final int pending = pendingChanges.computeIfAbsent(cluster,
+                                                           k -> new AtomicInteger()).incrementAndGet();
+        if (pending >= policy.getMaxPendingChanges()) {
+            commitPending(cluster);
+        } else if (pending == 1 && timer != null) {
+            timer.schedule(() -> commitPendingQuietly(cluster),
+                           policy.getMaxDelay(),
+                           TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Notifies that the given cluster was committed by other means, like the end of a batch.
+     */
+    public void committed(final KCluster cluster) {
+        final AtomicInteger pending = pendingChanges.get(cluster);
+        if (pending != null) {
+            pending.set(0);
+        }
+    }
+
+    /**
+     * Notifies that the given cluster was committed by other means, and how long that commit took.
+     */
+    public void committed(final KCluster cluster,
+                          final long durationNanos) {
+        commitLatency.record(durationNanos);
+        committed(cluster);
+    }
+
+    public void forget(final KCluster cluster) {
+        pendingChanges.remove(cluster);
+    }
+
+    /**
+     * Commits every cluster with pending changes.
+     */
+    public void flush() {
+        for (final KCluster cluster : pendingChanges.keySet()) {
+            commitPendingQuietly(cluster);
+        }
+    }
+
+    public void dispose() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        flush();
+    }
+
+    /**
+     * @return number of changes notified.
+     */
+    public long getChanges() {
+        return changes.sum();
+    }
+
+    /**
+     * @return duration of the commits, scheduled or notified through {@link #committed(KCluster, long)}; its count is
+     * the number of commits, that is lower than the number of changes when commits are coalesced.
+     */
+    public TimerMetric getCommitLatency() {
+        return commitLatency;
+    }
+
+    private void commitPending(final KCluster cluster) {
+        final AtomicInteger pending = pendingChanges.get(cluster);
+        if (pending != null && pending.getAndSet(0) > 0) {
+            commit(cluster);
+        }
+    }
+
+    private void commitPendingQuietly(final KCluster cluster) {
+        try {
+            commitPending(cluster);
+        } catch (final Exception ex) {
+            LOG.error("Commit of pending index changes failed for cluster '" + cluster.getClusterId() + "'.",
+                      ex);
+        }
+    }
+
+    private void commit(final KCluster cluster) {
+        final long start = System.nanoTime();
+        committer.accept(cluster);
+        commitLatency.record(System.nanoTime() - start);
+    }
+}
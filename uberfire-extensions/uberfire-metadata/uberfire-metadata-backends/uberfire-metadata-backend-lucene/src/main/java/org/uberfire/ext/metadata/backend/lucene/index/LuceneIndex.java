@@ -43,4 +43,6 @@ public interface LuceneIndex extends Index {
     IndexSearcher nrtSearcher();
 
     void nrtRelease(final IndexSearcher searcher);
+
+    ClusterSearcherManager searcherManager();
 }
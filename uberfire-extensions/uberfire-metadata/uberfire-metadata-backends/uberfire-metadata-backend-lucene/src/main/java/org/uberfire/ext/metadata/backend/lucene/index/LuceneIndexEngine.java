@@ -54,17 +54,31 @@ public class LuceneIndexEngine implements MetaIndexEngine {
     private final MetaModelStore metaModelStore;
     private final LuceneIndexManager indexManager;
     private final Map<KCluster, AtomicInteger> batchMode = new ConcurrentHashMap<KCluster, AtomicInteger>();
+    private final Map<KCluster, Object> clusterLocks = new ConcurrentHashMap<KCluster, Object>();
     private final Collection<Runnable> beforeDispose = new ArrayList<Runnable>();
+    private final CommitScheduler commitScheduler;
 
     public LuceneIndexEngine(final FieldFactory fieldFactory,
                              final MetaModelStore metaModelStore,
                              final LuceneIndexManager indexManager) {
+        this(fieldFactory,
+             metaModelStore,
+             indexManager,
+             CommitPolicy.defaultPolicy());
+    }
+
+    public LuceneIndexEngine(final FieldFactory fieldFactory,
+                             final MetaModelStore metaModelStore,
+                             final LuceneIndexManager indexManager,
+                             final CommitPolicy commitPolicy) {
         this.fieldFactory = checkNotNull("fieldFactory",
                                          fieldFactory);
         this.metaModelStore = checkNotNull("metaModelStore",
                                            metaModelStore);
         this.indexManager = checkNotNull("indexManager",
                                          indexManager);
+        this.commitScheduler = new CommitScheduler(commitPolicy,
+                                                   this::commitPendingChanges);
         PriorityDisposableRegistry.register(this);
     }
 
@@ -76,13 +90,11 @@ public class LuceneIndexEngine implements MetaIndexEngine {
 
     @Override
     public void startBatch(final KCluster cluster) {
-        final AtomicInteger batchStack = batchMode.get(cluster);
-        if (batchStack == null) {
-            batchMode.put(cluster,
-                          new AtomicInteger());
-        } else {
-            if (batchStack.get() < 0) {
-                batchStack.set(1);
+        synchronized (lockOf(cluster)) {
+            final AtomicInteger batchStack = batchMode.get(cluster);
+            if (batchStack == null) {
+                batchMode.put(cluster,
+                              new AtomicInteger(1));
             } else {
                 batchStack.incrementAndGet();
             }
@@ -166,7 +178,9 @@ public class LuceneIndexEngine implements MetaIndexEngine {
 
     @Override
     public void delete(KCluster cluster) {
+        commitScheduler.forget(cluster);
         indexManager.delete(cluster);
+        clusterLocks.remove(cluster);
     }
 
     @Override
@@ -200,29 +214,60 @@ public class LuceneIndexEngine implements MetaIndexEngine {
 
     @Override
     public void commit(final KCluster cluster) {
-        final Index index = indexManager.get(cluster);
-        if (index == null) {
-            return;
-        }
-        final AtomicInteger batchStack = batchMode.get(cluster);
-        if (batchStack != null) {
-            int value = batchStack.decrementAndGet();
-            if (value <= 0) {
-                index.commit();
+        synchronized (lockOf(cluster)) {
+            final AtomicInteger batchStack = batchMode.get(cluster);
+            if (batchStack != null) {
+                if (batchStack.decrementAndGet() > 0) {
+                    return;
+                }
+                //the outermost batch ends even if no index was ever created for it
                 batchMode.remove(cluster);
             }
-        } else {
+            final Index index = indexManager.get(cluster);
+            if (index == null) {
+                return;
+            }
+            final long start = System.nanoTime();
             index.commit();
+            commitScheduler.committed(cluster,
+                                      System.nanoTime() - start);
         }
     }
 
-    private synchronized void commitIfNotBatchMode(final KCluster cluster) {
-        final AtomicInteger batchStack = batchMode.get(cluster);
-        if (batchStack == null || batchStack.get() <= 0) {
-            commit(cluster);
+    private void commitIfNotBatchMode(final KCluster cluster) {
+        if (!isBatchMode(cluster)) {
+            commitScheduler.changed(cluster);
         }
     }
 
+    // Invoked by the scheduler; commits the index without ending a batch, that commits the changes on its own end
+    private void commitPendingChanges(final KCluster cluster) {
+        synchronized (lockOf(cluster)) {
+            if (isBatchMode(cluster)) {
+                return;
+            }
+            final Index index = indexManager.get(cluster);
+            if (index != null) {
+                index.commit();
+                commitScheduler.committed(cluster);
+            }
+        }
+    }
+
+    private Object lockOf(final KCluster cluster) {
+        return clusterLocks.computeIfAbsent(cluster,
+                                            k -> new Object());
+    }
+
+    private boolean isBatchMode(final KCluster cluster) {
+        final AtomicInteger batchStack = batchMode.get(cluster);
+        return batchStack != null && batchStack.get() > 0;
+    }
+
+    public CommitScheduler getCommitScheduler() {
+        return commitScheduler;
+    }
+
     @Override
     public void dispose() {
         if (!beforeDispose.isEmpty()) {
@@ -230,6 +275,7 @@ public class LuceneIndexEngine implements MetaIndexEngine {
                 activeDispose.run();
             }
         }
+        commitScheduler.dispose();
     }
 
     @Override
@@ -18,8 +18,8 @@ package org.uberfire.ext.metadata.backend.lucene.index;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -27,7 +27,6 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.MultiReader;
 import org.apache.lucene.search.IndexSearcher;
-import org.apache.lucene.search.SearcherFactory;
 import org.uberfire.ext.metadata.backend.lucene.model.KClusterImpl;
 import org.uberfire.ext.metadata.engine.Index;
 import org.uberfire.ext.metadata.engine.IndexManager;
@@ -105,25 +104,89 @@ public class LuceneIndexManager implements IndexManager {
             }
         }
 
-        final Collection<IndexReader> readers = new ArrayList<IndexReader>(clusters.size());
-        for (final KCluster cluster : clusters) {
-            final LuceneIndex index = indexes.get(cluster);
-            readers.add(index.nrtReader());
-        }
-
+        final List<ClusterSearcherManager> managers = new ArrayList<ClusterSearcherManager>(clusters.size());
+        final List<IndexSearcher> searchers = new ArrayList<IndexSearcher>(clusters.size());
         try {
-            return new SearcherFactory().newSearcher(new MultiReader(readers.toArray(new IndexReader[readers.size()])),
-                                                     null);
+            for (final KCluster cluster : clusters) {
+                final LuceneIndex index = indexes.get(cluster);
+                if (index == null) {
+                    continue;
+                }
+                final ClusterSearcherManager manager = index.searcherManager();
+                searchers.add(manager.acquire());
+                managers.add(manager);
+            }
+
+            if (searchers.size() == 1) {
+                return new ClusterSearcher(searchers.get(0).getIndexReader(),
+                                           false,
+                                           managers,
+                                           searchers);
+            }
+            final IndexReader[] readers = new IndexReader[searchers.size()];
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = searchers.get(i).getIndexReader();
+            }
+            return new ClusterSearcher(new MultiReader(readers,
+                                                       false),
+                                       true,
+                                       managers,
+                                       searchers);
         } catch (IOException e) {
+            releaseAll(managers,
+                       searchers);
             throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            releaseAll(managers,
+                       searchers);
+            throw e;
         }
     }
 
     public void release(final IndexSearcher index) {
         try {
-            index.getIndexReader().close();
+            if (index instanceof ClusterSearcher) {
+                final ClusterSearcher searcher = (ClusterSearcher) index;
+                try {
+                    if (searcher.ownsReader) {
+                        searcher.getIndexReader().close();
+                    }
+                } finally {
+                    releaseAll(searcher.managers,
+                               searcher.searchers);
+                }
+            } else {
+                index.getIndexReader().close();
+            }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
+
+    private void releaseAll(final List<ClusterSearcherManager> managers,
+                            final List<IndexSearcher> searchers) {
+        for (int i = 0; i < searchers.size(); i++) {
+            managers.get(i).release(searchers.get(i));
+        }
+    }
+
+    /**
+     * Searcher over the shared searchers of one or more clusters, that must be given back on release.
+     */
+    private static class ClusterSearcher extends IndexSearcher {
+
+        private final boolean ownsReader;
+        private final List<ClusterSearcherManager> managers;
+        private final List<IndexSearcher> searchers;
+
+        private ClusterSearcher(final IndexReader reader,
+                                final boolean ownsReader,
+                                final List<ClusterSearcherManager> managers,
+                                final List<IndexSearcher> searchers) {
+            super(reader);
+            this.ownsReader = ownsReader;
+            this.managers = managers;
+            this.searchers = searchers;
+        }
+    }
 }
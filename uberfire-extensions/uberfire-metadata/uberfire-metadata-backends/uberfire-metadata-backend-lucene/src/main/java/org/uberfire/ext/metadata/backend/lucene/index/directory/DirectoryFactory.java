@@ -20,6 +20,9 @@ import java.io.File;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.codecs.Codec;
@@ -37,15 +40,31 @@ import static org.uberfire.commons.validation.PortablePreconditions.checkNotNull
 public class DirectoryFactory implements LuceneIndexFactory {
 
     private static final String REPOSITORIES_ROOT_DIR = ".index";
+    private static final String SEARCHER_MAX_STALENESS = "org.uberfire.metadata.index.searcher.staleness";
 
     private final Map<KCluster, LuceneIndex> clusters = new ConcurrentHashMap<KCluster, LuceneIndex>();
     private final DirectoryType type;
     private final Analyzer analyzer;
+    private final long searcherMaxStaleness;
+    private final ScheduledExecutorService searcherRefresher;
 
     public DirectoryFactory(final DirectoryType type,
                             final Analyzer analyzer) {
+        this(type,
+             analyzer,
+             defaultSearcherMaxStaleness());
+    }
+
+    /**
+     * @param searcherMaxStaleness how long, in milliseconds, queries may reuse a searcher without refreshing it;
+     * when positive, searchers are also refreshed in background.
+     */
+    public DirectoryFactory(final DirectoryType type,
+                            final Analyzer analyzer,
+                            final long searcherMaxStaleness) {
         this.analyzer = analyzer;
         this.type = type;
+        this.searcherMaxStaleness = searcherMaxStaleness;
         final File[] files = defaultHostingDir().listFiles();
         if (files != null && files.length > 0) {
             for (final File file : files) {
@@ -53,10 +72,12 @@ public class DirectoryFactory implements LuceneIndexFactory {
                     final KCluster cluster = new KClusterImpl(file.getName());
                     clusters.put(cluster,
                                  type.newIndex(cluster,
-                                               newConfig(analyzer)));
+                                               newConfig(analyzer),
+                                               searcherMaxStaleness));
                 }
             }
         }
+        this.searcherRefresher = startSearcherRefresher();
     }
 
     public static File defaultHostingDir() {
@@ -69,6 +90,43 @@ public class DirectoryFactory implements LuceneIndexFactory {
         }
     }
 
+    public static long defaultSearcherMaxStaleness() {
+        final String value = System.getProperty(SEARCHER_MAX_STALENESS);
+        if (value == null || value.trim().isEmpty()) {
+            return 0;
+        }
+        return Long.parseLong(value.trim());
+    }
+
+    private ScheduledExecutorService startSearcherRefresher() {
+        if (searcherMaxStaleness <= 0) {
+            return null;
+        }
+        final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r,
+                                             "lucene-searcher-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long period = Math.max(1,
+                                     searcherMaxStaleness / 2);
+        refresher.scheduleWithFixedDelay(this::refreshSearchers,
+                                         period,
+                                         period,
+                                         TimeUnit.MILLISECONDS);
+        return refresher;
+    }
+
+    private void refreshSearchers() {
+        for (final LuceneIndex index : clusters.values()) {
+            try {
+                index.searcherManager().maybeRefresh();
+            } catch (final Exception ignored) {
+                // index may be disposed concurrently, next run will retry the live ones
+            }
+        }
+    }
+
     private IndexWriterConfig newConfig(final Analyzer analyzer) {
         final IndexWriterConfig config = new IndexWriterConfig(analyzer);
         final Codec codec = new Lucene53Codec() {
@@ -93,7 +151,8 @@ public class DirectoryFactory implements LuceneIndexFactory {
                                                           kcluster)));
 
         final LuceneIndex newIndex = type.newIndex(kcluster,
-                                                   newConfig(analyzer));
+                                                   newConfig(analyzer),
+                                                   searcherMaxStaleness);
         clusters.put(kcluster,
                      newIndex);
 
@@ -112,6 +171,9 @@ public class DirectoryFactory implements LuceneIndexFactory {
 
     @Override
     public synchronized void dispose() {
+        if (searcherRefresher != null) {
+            searcherRefresher.shutdownNow();
+        }
         for (final LuceneIndex luceneIndex : clusters.values()) {
             luceneIndex.dispose();
         }
@@ -17,15 +17,15 @@
 package org.uberfire.ext.metadata.backend.lucene.index.directory;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.search.IndexSearcher;
-import org.apache.lucene.search.SearcherFactory;
 import org.uberfire.ext.metadata.backend.lucene.index.BaseLuceneIndex;
+import org.uberfire.ext.metadata.backend.lucene.index.ClusterSearcherManager;
 import org.uberfire.ext.metadata.model.KCluster;
 
 import static org.uberfire.commons.validation.Preconditions.checkNotNull;
@@ -38,12 +38,23 @@ public class DirectoryLuceneIndex extends BaseLuceneIndex {
     private final KCluster cluster;
     private final IndexWriter writer;
     private final Directory directory;
+    private final ClusterSearcherManager searcherManager;
     private AtomicBoolean freshIndex;
     private AtomicBoolean isDisposed = new AtomicBoolean(false);
 
     public DirectoryLuceneIndex(final KCluster cluster,
                                 final Directory directory,
                                 final IndexWriterConfig config) {
+        this(cluster,
+             directory,
+             config,
+             0);
+    }
+
+    public DirectoryLuceneIndex(final KCluster cluster,
+                                final Directory directory,
+                                final IndexWriterConfig config,
+                                final long searcherMaxStaleness) {
         try {
             this.cluster = checkNotNull("cluster",
                                         cluster);
@@ -52,6 +63,9 @@ public class DirectoryLuceneIndex extends BaseLuceneIndex {
             this.writer = new IndexWriter(directory.getDirectory(),
                                           config);
             this.freshIndex = new AtomicBoolean(directory.freshIndex());
+            this.searcherManager = new ClusterSearcherManager(writer,
+                                                              searcherMaxStaleness,
+                                                              TimeUnit.MILLISECONDS);
         } catch (final Exception ex) {
             throw new RuntimeException(ex);
         }
@@ -69,18 +83,13 @@ public class DirectoryLuceneIndex extends BaseLuceneIndex {
 
     @Override
     public IndexReader nrtReader() {
-        try {
-            return DirectoryReader.open(writer,
-                                        true);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return nrtSearcher().getIndexReader();
     }
 
     @Override
     public void nrtRelease(final IndexReader reader) {
         try {
-            reader.close();
+            reader.decRef();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -88,21 +97,17 @@ public class DirectoryLuceneIndex extends BaseLuceneIndex {
 
     @Override
     public IndexSearcher nrtSearcher() {
-        try {
-            return new SearcherFactory().newSearcher(nrtReader(),
-                                                     null);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return searcherManager.acquireFresh();
     }
 
     @Override
     public void nrtRelease(final IndexSearcher searcher) {
-        try {
-            searcher.getIndexReader().close();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        searcherManager.release(searcher);
+    }
+
+    @Override
+    public ClusterSearcherManager searcherManager() {
+        return searcherManager;
     }
 
     @Override
@@ -117,6 +122,7 @@ public class DirectoryLuceneIndex extends BaseLuceneIndex {
 
     private void closeWriter() {
         try {
+            searcherManager.close();
             writer.commit();
             writer.close();
         } catch (IOException e) {
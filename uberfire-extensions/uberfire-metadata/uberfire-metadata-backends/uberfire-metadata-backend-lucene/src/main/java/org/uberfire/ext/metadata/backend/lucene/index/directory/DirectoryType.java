@@ -31,7 +31,8 @@ public enum DirectoryType {
     INMEMORY {
         @Override
         public LuceneIndex newIndex(final KCluster cluster,
-                                    final IndexWriterConfig config) {
+                                    final IndexWriterConfig config,
+                                    final long searcherMaxStaleness) {
             final Directory directory = new Directory(new RAMDirectory(),
                                                       new DeleteCommand() {
                                                           @Override
@@ -41,13 +42,15 @@ public enum DirectoryType {
                                                       true);
             return new DirectoryLuceneIndex(cluster,
                                             directory,
-                                            config);
+                                            config,
+                                            searcherMaxStaleness);
         }
     },
     NIO {
         @Override
         public LuceneIndex newIndex(final KCluster cluster,
-                                    final IndexWriterConfig config) {
+                                    final IndexWriterConfig config,
+                                    final long searcherMaxStaleness) {
 
             final File clusterDir = clusterDir(cluster.getClusterId());
             final NIOFSDirectory luceneDir;
@@ -69,13 +72,15 @@ public enum DirectoryType {
 
             return new DirectoryLuceneIndex(cluster,
                                             directory,
-                                            config);
+                                            config,
+                                            searcherMaxStaleness);
         }
     },
     MMAP {
         @Override
         public LuceneIndex newIndex(final KCluster cluster,
-                                    final IndexWriterConfig config) {
+                                    final IndexWriterConfig config,
+                                    final long searcherMaxStaleness) {
             final File clusterDir = clusterDir(cluster.getClusterId());
             final MMapDirectory luceneDir;
             try {
@@ -95,7 +100,8 @@ public enum DirectoryType {
 
             return new DirectoryLuceneIndex(cluster,
                                             directory,
-                                            config);
+                                            config,
+                                            searcherMaxStaleness);
         }
     };
 
@@ -108,6 +114,17 @@ public enum DirectoryType {
         return !clusterDir.exists();
     }
 
+    public LuceneIndex newIndex(final KCluster cluster,
+                                final IndexWriterConfig config) {
+        return newIndex(cluster,
+                        config,
+                        0);
+    }
+
+    /**
+     * @param searcherMaxStaleness how long, in milliseconds, queries may reuse a searcher without refreshing it.
+     */
     public abstract LuceneIndex newIndex(final KCluster cluster,
-                                         final IndexWriterConfig config);
+                                         final IndexWriterConfig config,
+                                         final long searcherMaxStaleness);
 }
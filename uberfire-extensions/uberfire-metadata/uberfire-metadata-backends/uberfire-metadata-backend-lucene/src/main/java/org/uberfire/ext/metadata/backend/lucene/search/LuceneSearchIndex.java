@@ -16,6 +16,7 @@
 
 package org.uberfire.ext.metadata.backend.lucene.search;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -29,7 +30,11 @@ import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocsCollector;
+import org.apache.lucene.search.TopFieldCollector;
 import org.apache.lucene.search.TopScoreDocCollector;
 import org.apache.lucene.search.TotalHitCountCollector;
 import org.apache.lucene.search.WildcardQuery;
@@ -38,6 +43,8 @@ import org.uberfire.ext.metadata.model.KObject;
 import org.uberfire.ext.metadata.search.ClusterSegment;
 import org.uberfire.ext.metadata.search.DateRange;
 import org.uberfire.ext.metadata.search.IOSearchService;
+import org.uberfire.ext.metadata.search.PageRequest;
+import org.uberfire.ext.metadata.search.PageResponse;
 import org.uberfire.ext.metadata.search.SearchIndex;
 
 import static java.util.Collections.emptyList;
@@ -125,6 +132,39 @@ public class LuceneSearchIndex implements SearchIndex {
                           clusterSegments);
     }
 
+    @Override
+    public PageResponse<KObject> searchByAttrsPage(final Map<String, ?> attrs,
+                                                   final PageRequest pageRequest,
+                                                   final ClusterSegment... clusterSegments) {
+        checkNotNull("pageRequest",
+                     pageRequest);
+        if (clusterSegments == null || clusterSegments.length == 0) {
+            return emptyPage(pageRequest);
+        }
+        if (attrs == null || attrs.size() == 0) {
+            return emptyPage(pageRequest);
+        }
+        return searchPage(buildQuery(attrs,
+                                     clusterSegments),
+                          pageRequest,
+                          clusterSegments);
+    }
+
+    @Override
+    public PageResponse<KObject> fullTextSearchPage(final String term,
+                                                    final PageRequest pageRequest,
+                                                    final ClusterSegment... clusterSegments) {
+        checkNotNull("pageRequest",
+                     pageRequest);
+        if (clusterSegments == null || clusterSegments.length == 0) {
+            return emptyPage(pageRequest);
+        }
+        return searchPage(buildQuery(term,
+                                     clusterSegments),
+                          pageRequest,
+                          clusterSegments);
+    }
+
     private int searchHits(final Query query,
                            final ClusterSegment... clusterSegments) {
         final IndexSearcher index = indexManager.getIndexSearcher(clusterSegments);
@@ -168,6 +208,62 @@ public class LuceneSearchIndex implements SearchIndex {
         return result;
     }
 
+    private PageResponse<KObject> searchPage(final Query query,
+                                             final PageRequest pageRequest,
+                                             final ClusterSegment... clusterSegments) {
+        if (pageRequest.getPageSize() == 0) {
+            return new PageResponse<KObject>(searchHits(query,
+                                                        clusterSegments),
+                                             pageRequest.getOffset(),
+                                             emptyList());
+        }
+        final IndexSearcher index = indexManager.getIndexSearcher(clusterSegments);
+        try {
+            final int numHits = (int) Math.min((long) pageRequest.getOffset() + pageRequest.getPageSize(),
+                                               Math.max(1,
+                                                        index.getIndexReader().maxDoc()));
+            final TopDocsCollector<?> collector = newCollector(pageRequest,
+                                                               numHits);
+            index.search(query,
+                         collector);
+            final ScoreDoc[] hits = collector.topDocs(pageRequest.getOffset(),
+                                                      pageRequest.getPageSize()).scoreDocs;
+            final List<KObject> rows = new ArrayList<KObject>(hits.length);
+            for (final ScoreDoc hit : hits) {
+                rows.add(toKObject(index.doc(hit.doc)));
+            }
+            return new PageResponse<KObject>(collector.getTotalHits(),
+                                             pageRequest.getOffset(),
+                                             rows);
+        } catch (final Exception ex) {
+            throw new RuntimeException("Error during Query!",
+                                       ex);
+        } finally {
+            indexManager.release(index);
+        }
+    }
+
+    private TopDocsCollector<?> newCollector(final PageRequest pageRequest,
+                                             final int numHits) throws IOException {
+        if (pageRequest.getSortField() == null) {
+            return TopScoreDocCollector.create(numHits);
+        }
+        final Sort sort = new Sort(new SortField(pageRequest.getSortField(),
+                                                 SortField.Type.STRING,
+                                                 pageRequest.isSortDescending()));
+        return TopFieldCollector.create(sort,
+                                        numHits,
+                                        false,
+                                        false,
+                                        false);
+    }
+
+    private PageResponse<KObject> emptyPage(final PageRequest pageRequest) {
+        return new PageResponse<KObject>(0,
+                                         pageRequest.getOffset(),
+                                         emptyList());
+    }
+
     private Query buildQuery(final Map<String, ?> attrs,
                              final ClusterSegment... clusterSegments) {
         final BooleanQuery query = new BooleanQuery();
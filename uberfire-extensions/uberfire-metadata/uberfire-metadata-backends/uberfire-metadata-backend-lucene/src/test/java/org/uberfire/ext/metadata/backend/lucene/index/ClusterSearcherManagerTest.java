@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.ext.metadata.backend.lucene.index;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ClusterSearcherManagerTest {
+
+    private IndexWriter writer;
+
+    @Before
+    public void setup() throws Exception {
+        writer = new IndexWriter(new RAMDirectory(),
+                                 new IndexWriterConfig(new StandardAnalyzer()));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        writer.close();
+    }
+
+    @Test
+    public void reusesSearcherWithinMaxStaleness() throws Exception {
+        final ClusterSearcherManager manager = new ClusterSearcherManager(writer,
+                                                                          1,
+                                                                          TimeUnit.HOURS);
+        final IndexSearcher first = manager.acquire();
+        manager.release(first);
+
+        addDocument("1");
+
+        final IndexSearcher second = manager.acquire();
+        assertSame(first,
+                   second);
+        assertEquals(0,
+                     second.getIndexReader().numDocs());
+        manager.release(second);
+
+        assertEquals(2,
+                     manager.getHits());
+        assertEquals(0,
+                     manager.getMisses());
+
+        final IndexSearcher fresh = manager.acquireFresh();
+        assertEquals(1,
+                     fresh.getIndexReader().numDocs());
+        manager.release(fresh);
+
+        manager.close();
+    }
+
+    @Test
+    public void refreshesOnlyWhenIndexChanged() throws Exception {
+        final ClusterSearcherManager manager = new ClusterSearcherManager(writer,
+                                                                          0,
+                                                                          TimeUnit.MILLISECONDS);
+        final IndexSearcher first = manager.acquire();
+        manager.release(first);
+
+        final IndexSearcher unchanged = manager.acquire();
+        assertSame(first,
+                   unchanged);
+        manager.release(unchanged);
+
+        addDocument("1");
+
+        final IndexSearcher changed = manager.acquire();
+        assertNotSame(first,
+                      changed);
+        assertEquals(1,
+                     changed.getIndexReader().numDocs());
+        manager.release(changed);
+
+        assertEquals(1,
+                     manager.getMisses());
+        assertEquals(2,
+                     manager.getHits());
+        assertTrue(manager.getRefreshLatency().getCount() >= 3);
+
+        manager.close();
+    }
+
+    private void addDocument(final String id) throws Exception {
+        final Document doc = new Document();
+        doc.add(new StringField("id",
+                                id,
+                                Field.Store.YES));
+        writer.addDocument(doc);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.ext.metadata.backend.lucene.index;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.uberfire.ext.metadata.backend.lucene.model.KClusterImpl;
+import org.uberfire.ext.metadata.model.KCluster;
+
+import static org.junit.Assert.*;
+
+public class CommitSchedulerTest {
+
+    private final KCluster cluster1 = new KClusterImpl("cluster1");
+    private final KCluster cluster2 = new KClusterImpl("cluster2");
+    private final Map<KCluster, AtomicInteger> commits = new ConcurrentHashMap<KCluster, AtomicInteger>();
+
+    @Test
+    public void defaultPolicyCommitsEveryChange() {
+        final CommitScheduler scheduler = new CommitScheduler(CommitPolicy.everyChange(),
+                                                              this::commit);
+        scheduler.changed(cluster1);
+        scheduler.changed(cluster1);
+
+        assertEquals(2,
+                     commits(cluster1));
+        assertEquals(2,
+                     scheduler.getCommitLatency().getCount());
+    }
+
+    @Test
+    public void coalescesByPendingChangesPerCluster() {
+        final CommitScheduler scheduler = new CommitScheduler(new CommitPolicy(3,
+                                                                               0,
+                                                                               TimeUnit.MILLISECONDS),
+                                                              this::commit);
+        for (int i = 0; i < 7; i++) {
+            scheduler.changed(cluster1);
+        }
+        scheduler.changed(cluster2);
+
+        assertEquals(2,
+                     commits(cluster1));
+        assertEquals(0,
+                     commits(cluster2));
+
+        scheduler.dispose();
+
+        assertEquals(3,
+                     commits(cluster1));
+        assertEquals(1,
+                     commits(cluster2));
+        assertEquals(8,
+                     scheduler.getChanges());
+    }
+
+    @Test
+    public void commitsAfterMaxDelay() throws InterruptedException {
+        final CountDownLatch committed = new CountDownLatch(1);
+        final CommitScheduler scheduler = new CommitScheduler(new CommitPolicy(100,
+                                                                               50,
+                                                                               TimeUnit.MILLISECONDS),
+                                                              cluster -> {
+                                                                  commit(cluster);
+                                                                  committed.countDown();
+                                                              });
+        scheduler.changed(cluster1);
+        scheduler.changed(cluster1);
+
+        assertTrue(committed.await(5,
+                                   TimeUnit.SECONDS));
+        assertEquals(1,
+                     commits(cluster1));
+
+        scheduler.dispose();
+        assertEquals(1,
+                     commits(cluster1));
+    }
+
+    @Test
+    public void externalCommitClearsPendingChanges() {
+        final CommitScheduler scheduler = new CommitScheduler(new CommitPolicy(10,
+                                                                               0,
+                                                                               TimeUnit.MILLISECONDS),
+                                                              this::commit);
+        scheduler.changed(cluster1);
+        scheduler.committed(cluster1);
+        scheduler.dispose();
+
+        assertEquals(0,
+                     commits(cluster1));
+    }
+
+    private void commit(final KCluster cluster) {
+        commits.computeIfAbsent(cluster,
+                                k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private int commits(final KCluster cluster) {
+        final AtomicInteger count = commits.get(cluster);
+        return count == null ? 0 : count.get();
+    }
+}
@@ -16,12 +16,17 @@
 
 package org.uberfire.ext.metadata.backend.lucene.index;
 
+import java.util.concurrent.TimeUnit;
+
 import org.apache.lucene.analysis.Analyzer;
 import org.junit.Test;
 import org.uberfire.commons.lifecycle.PriorityDisposableRegistry;
 import org.uberfire.ext.metadata.backend.lucene.LuceneConfig;
 import org.uberfire.ext.metadata.backend.lucene.fields.FieldFactory;
+import org.uberfire.ext.metadata.backend.lucene.model.KClusterImpl;
 import org.uberfire.ext.metadata.engine.MetaModelStore;
+import org.uberfire.ext.metadata.model.KCluster;
+import org.uberfire.ext.metadata.model.KObjectKey;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -37,4 +42,106 @@ public class LuceneIndexEngineTest {
 
         assertTrue(PriorityDisposableRegistry.getDisposables().contains(config));
     }
+
+    @Test
+    public void testChangesInBatchAreCommittedAtItsEnd() {
+        final KCluster cluster = new KClusterImpl("cluster");
+        final LuceneIndex index = mockIndex(cluster);
+        final LuceneIndexEngine engine = newEngine(cluster,
+                                                   index,
+                                                   CommitPolicy.everyChange());
+
+        engine.startBatch(cluster);
+        engine.delete(key("a"));
+        engine.delete(key("b"));
+
+        verify(index,
+               never()).commit();
+
+        engine.commit(cluster);
+
+        verify(index,
+               times(1)).commit();
+        assertEquals(1,
+                     engine.getCommitScheduler().getCommitLatency().getCount());
+    }
+
+    @Test
+    public void testNestedBatchesCommitOnce() {
+        final KCluster cluster = new KClusterImpl("cluster");
+        final LuceneIndex index = mockIndex(cluster);
+        final LuceneIndexEngine engine = newEngine(cluster,
+                                                   index,
+                                                   CommitPolicy.everyChange());
+
+        engine.startBatch(cluster);
+        engine.startBatch(cluster);
+        engine.delete(key("a"));
+        engine.commit(cluster);
+
+        verify(index,
+               never()).commit();
+
+        engine.commit(cluster);
+
+        verify(index,
+               times(1)).commit();
+    }
+
+    @Test
+    public void testScheduledCommitDoesNotEndBatch() {
+        final KCluster cluster = new KClusterImpl("cluster");
+        final LuceneIndex index = mockIndex(cluster);
+        final LuceneIndexEngine engine = newEngine(cluster,
+                                                   index,
+                                                   new CommitPolicy(10,
+                                                                    0,
+                                                                    TimeUnit.MILLISECONDS));
+
+        //a change is pending when a batch starts
+        engine.delete(key("a"));
+        engine.startBatch(cluster);
+        engine.delete(key("b"));
+        engine.getCommitScheduler().flush();
+
+        verify(index,
+               never()).commit();
+
+        //the batch is still running and commits its changes at its end
+        engine.delete(key("c"));
+        engine.commit(cluster);
+
+        verify(index,
+               times(1)).commit();
+
+        engine.delete(key("d"));
+        engine.getCommitScheduler().flush();
+
+        verify(index,
+               times(2)).commit();
+    }
+
+    private LuceneIndex mockIndex(final KCluster cluster) {
+        final LuceneIndex index = mock(LuceneIndex.class);
+        when(index.getCluster()).thenReturn(cluster);
+        return index;
+    }
+
+    private LuceneIndexEngine newEngine(final KCluster cluster,
+                                        final LuceneIndex index,
+                                        final CommitPolicy commitPolicy) {
+        final LuceneIndexManager indexManager = mock(LuceneIndexManager.class);
+        when(indexManager.indexOf(any(KObjectKey.class))).thenReturn(index);
+        when(indexManager.get(cluster)).thenReturn(index);
+        return new LuceneIndexEngine(mock(FieldFactory.class),
+                                     mock(MetaModelStore.class),
+                                     indexManager,
+                                     commitPolicy);
+    }
+
+    private KObjectKey key(final String id) {
+        final KObjectKey key = mock(KObjectKey.class);
+        when(key.getId()).thenReturn(id);
+        return key;
+    }
 }
@@ -48,12 +48,19 @@ public final class BatchIndex {
 
     private static final Logger LOG = LoggerFactory.getLogger(BatchIndex.class);
 
+    public static final String PIPELINE_PARALLELISM = "org.uberfire.metadata.index.batch.parallelism";
+    public static final String PIPELINE_QUEUE_CAPACITY = "org.uberfire.metadata.index.batch.queueCapacity";
+
     private final MetaIndexEngine indexEngine;
     private final IOService ioService;
     private final Class<? extends FileAttributeView>[] views;
     private final AtomicBoolean indexDisposed = new AtomicBoolean(false);
     private final Observer observer;
     private final ExecutorService executorService;
+    private int pipelineParallelism = Integer.parseInt(System.getProperty(PIPELINE_PARALLELISM,
+                                                                          "1"));
+    private int pipelineQueueCapacity = Integer.parseInt(System.getProperty(PIPELINE_QUEUE_CAPACITY,
+                                                                            "256"));
 
     public BatchIndex(final MetaIndexEngine indexEngine,
                       final IOService ioService,
@@ -139,69 +146,18 @@ public final class BatchIndex {
 
             final KCluster cluster = KObjectUtil.toKCluster(root.getFileSystem());
 
-            walkFileTree(checkNotNull("root",
-                                      root),
-                         new SimpleFileVisitor<Path>() {
-                             @Override
-                             public FileVisitResult visitFile(final Path file,
-                                                              final BasicFileAttributes attrs) throws IOException {
-                                 if (indexDisposed.get()) {
-                                     return FileVisitResult.TERMINATE;
-                                 }
-                                 try {
-                                     checkNotNull("file",
-                                                  file);
-                                     checkNotNull("attrs",
-                                                  attrs);
-
-                                     if (!file.getFileName().toString().startsWith(".")) {
-
-                                         LOG.debug("Indexing " + file.toUri());
-
-                                         //Default indexing
-                                         for (final Class<? extends FileAttributeView> view : views) {
-                                             ioService.getFileAttributeView(file,
-                                                                            view);
-                                         }
-                                         final FileAttribute<?>[] allAttrs = ioService.convert(ioService.readAttributes(file));
-                                         if (!indexDisposed.get()) {
-                                             indexEngine.index(KObjectUtil.toKObject(file,
-                                                                                     allAttrs));
-                                         } else {
-                                             return FileVisitResult.TERMINATE;
-                                         }
-
-                                         //Additional indexing
-                                         for (Indexer indexer : IndexersFactory.getIndexers()) {
-                                             if (file.getFileSystem().isOpen()) {
-                                                 if (indexer.supportsPath(file)) {
-                                                     final KObject kObject = indexer.toKObject(file);
-                                                     if (kObject != null) {
-                                                         if (!indexDisposed.get()) {
-                                                             indexEngine.index(kObject);
-                                                         } else {
-                                                             return FileVisitResult.TERMINATE;
-                                                         }
-                                                     }
-                                                 }
-                                             }
-                                         }
-                                     }
-                                 } catch (final Exception ex) {
-                                     if (indexDisposed.get()) {
-                                         logWarning("Batch index couldn't finish. [@" + root.toUri().toString() + "]");
-                                         return FileVisitResult.TERMINATE;
-                                     } else {
-                                         logError("Index fails. [@" + file.toString() + "]",
-                                                  ex);
-                                     }
-                                 }
-                                 if (indexDisposed.get()) {
-                                     return FileVisitResult.TERMINATE;
-                                 }
-                                 return FileVisitResult.CONTINUE;
-                             }
-                         });
+            if (pipelineParallelism > 1) {
+                new BatchIndexPipeline(indexEngine,
+                                       ioService,
+                                       views,
+                                       indexDisposed,
+                                       this::logError,
+                                       pipelineParallelism,
+                                       pipelineQueueCapacity).run(checkNotNull("root",
+                                                                               root));
+            } else {
+                indexSequentially(root);
+            }
 
             if (!indexDisposed.get()) {
                 logInformation("Completed indexing of " + root.toUri());
@@ -218,6 +174,7 @@ public final class BatchIndex {
             } else {
                 logError("Index fails - Index has an invalid state. [@" + root.toUri().toString() + "]",
                          ex);
+                endBatch(root);
             }
         } catch (final Exception ex) {
             if (indexDisposed.get()) {
@@ -225,10 +182,87 @@ public final class BatchIndex {
             } else {
                 logError("Index fails. [@" + root.toUri().toString() + "]",
                          ex);
+                endBatch(root);
             }
         }
     }
 
+    //A failed batch must still be ended, otherwise the cluster's changes would never be committed again
+    private void endBatch(final Path root) {
+        try {
+            indexEngine.commit(KObjectUtil.toKCluster(root.getFileSystem()));
+        } catch (final Exception ex) {
+            logError("Index commit fails. [@" + root.toUri().toString() + "]",
+                     ex);
+        }
+    }
+
+    private void indexSequentially(final Path root) {
+        walkFileTree(checkNotNull("root",
+                                  root),
+                     new SimpleFileVisitor<Path>() {
+                         @Override
+                         public FileVisitResult visitFile(final Path file,
+                                                          final BasicFileAttributes attrs) throws IOException {
+                             if (indexDisposed.get()) {
+                                 return FileVisitResult.TERMINATE;
+                             }
+                             try {
+                                 checkNotNull("file",
+                                              file);
+                                 checkNotNull("attrs",
+                                              attrs);
+
+                                 if (!file.getFileName().toString().startsWith(".")) {
+
+                                     LOG.debug("Indexing " + file.toUri());
+
+                                     //Default indexing
+                                     for (final Class<? extends FileAttributeView> view : views) {
+                                         ioService.getFileAttributeView(file,
+                                                                        view);
+                                     }
+                                     final FileAttribute<?>[] allAttrs = ioService.convert(ioService.readAttributes(file));
+                                     if (!indexDisposed.get()) {
+                                         indexEngine.index(KObjectUtil.toKObject(file,
+                                                                                 allAttrs));
+                                     } else {
+                                         return FileVisitResult.TERMINATE;
+                                     }
+
+                                     //Additional indexing
+                                     for (Indexer indexer : IndexersFactory.getIndexers()) {
+                                         if (file.getFileSystem().isOpen()) {
+                                             if (indexer.supportsPath(file)) {
+                                                 final KObject kObject = indexer.toKObject(file);
+                                                 if (kObject != null) {
+                                                     if (!indexDisposed.get()) {
+                                                         indexEngine.index(kObject);
+                                                     } else {
+                                                         return FileVisitResult.TERMINATE;
+                                                     }
+                                                 }
+                                             }
+                                         }
+                                     }
+                                 }
+                             } catch (final Exception ex) {
+                                 if (indexDisposed.get()) {
+                                     logWarning("Batch index couldn't finish. [@" + root.toUri().toString() + "]");
+                                     return FileVisitResult.TERMINATE;
+                                 } else {
+                                     logError("Index fails. [@" + file.toString() + "]",
+                                              ex);
+                                 }
+                             }
+                             if (indexDisposed.get()) {
+                                 return FileVisitResult.TERMINATE;
+                             }
+                             return FileVisitResult.CONTINUE;
+                         }
+                     });
+    }
+
     private void logInformation(final String message) {
         observer.information(message);
         LOG.info(message);
@@ -246,6 +280,13 @@ public final class BatchIndex {
                   throwable);
     }
 
+    //just for test purposes
+    void setPipeline(final int parallelism,
+                     final int queueCapacity) {
+        this.pipelineParallelism = parallelism;
+        this.pipelineQueueCapacity = queueCapacity;
+    }
+
     public void dispose() {
         indexEngine.dispose();
     }
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.ext.metadata.io;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.ext.metadata.engine.Indexer;
+import org.uberfire.ext.metadata.engine.MetaIndexEngine;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.FileVisitResult;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.SimpleFileVisitor;
+import org.uberfire.java.nio.file.attribute.BasicFileAttributes;
+import org.uberfire.java.nio.file.attribute.FileAttribute;
+import org.uberfire.java.nio.file.attribute.FileAttributeView;
+
+import static org.uberfire.java.nio.file.Files.walkFileTree;
+
+/**
+ * Indexes a tree through bounded stages: tree walking, attribute loading, {@link KObject} building and index writes.
+ * <p>
+ * Walking runs on its own thread, loading and building on {@code parallelism} threads each, and index writes on the
+ * calling thread, so the index engine is only ever used by one thread. Queues between stages hold at most
+ * {@code queueCapacity} items, which blocks faster stages until slower ones catch up. All stages stop as soon as the
+ * index is disposed.
+ */
+final class BatchIndexPipeline {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchIndexPipeline.class);
+    private static final long POLL_MILLIS = 100;
+
+    private final MetaIndexEngine indexEngine;
+    private final IOService ioService;
+    private final Class<? extends FileAttributeView>[] views;
+    private final AtomicBoolean indexDisposed;
+    private final BiConsumer<String, Throwable> errorHandler;
+    private final int parallelism;
+
+    private final BlockingQueue<Path> paths;
+    private final BlockingQueue<LoadedFile> loadedFiles;
+    private final BlockingQueue<KObject> kObjects;
+
+    private final AtomicBoolean aborted = new AtomicBoolean(false);
+    private final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+    private volatile boolean walkDone = false;
+    private volatile boolean loadDone = false;
+    private volatile boolean buildDone = false;
+
+    BatchIndexPipeline(final MetaIndexEngine indexEngine,
+                       final IOService ioService,
+                       final Class<? extends FileAttributeView>[] views,
+                       final AtomicBoolean indexDisposed,
+                       final BiConsumer<String, Throwable> errorHandler,
+                       final int parallelism,
+                       final int queueCapacity) {
+        this.indexEngine = indexEngine;
+        this.ioService = ioService;
+        this.views = views;
+        this.indexDisposed = indexDisposed;
+        this.errorHandler = errorHandler;
+        this.parallelism = parallelism;
+        this.paths = new ArrayBlockingQueue<Path>(queueCapacity);
+        this.loadedFiles = new ArrayBlockingQueue<LoadedFile>(queueCapacity);
+        this.kObjects = new ArrayBlockingQueue<KObject>(queueCapacity);
+    }
+
+    /**
+     * Indexes every file under root; returns once all of them are written, or the index is disposed.
+     */
+    void run(final Path root) throws Exception {
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ExecutorService stages = Executors.newFixedThreadPool(1 + parallelism * 2,
+                                                                    r -> {
+                                                                        final Thread thread = new Thread(r,
+                                                                                                         "BatchIndexPipeline-" + threadCount.incrementAndGet());
+                                                                        thread.setDaemon(true);
+                                                                        return thread;
+                                                                    });
+        try {
+            stages.execute(() -> walk(root));
+
+            final AtomicInteger activeLoaders = new AtomicInteger(parallelism);
+            final AtomicInteger activeBuilders = new AtomicInteger(parallelism);
+            for (int i = 0; i < parallelism; i++) {
+                stages.execute(() -> {
+                    try {
+                        load();
+                    } finally {
+                        if (activeLoaders.decrementAndGet() == 0) {
+                            loadDone = true;
+                        }
+                    }
+                });
+                stages.execute(() -> {
+                    try {
+                        build();
+                    } finally {
+                        if (activeBuilders.decrementAndGet() == 0) {
+                            buildDone = true;
+                        }
+                    }
+                });
+            }
+
+            write();
+        } finally {
+            aborted.set(true);
+            stages.shutdownNow();
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private void walk(final Path root) {
+        try {
+            walkFileTree(root,
+                         new SimpleFileVisitor<Path>() {
+                             @Override
+                             public FileVisitResult visitFile(final Path file,
+                                                              final BasicFileAttributes attrs) {
+                                 if (isStopped()) {
+                                     return FileVisitResult.TERMINATE;
+                                 }
+                                 if (!file.getFileName().toString().startsWith(".")) {
+                                     if (!put(paths,
+                                              file)) {
+                                         return FileVisitResult.TERMINATE;
+                                     }
+                                 }
+                                 return FileVisitResult.CONTINUE;
+                             }
+                         });
+        } catch (final Exception ex) {
+            fail(ex);
+        } finally {
+            walkDone = true;
+        }
+    }
+
+    private void load() {
+        while (true) {
+            final Path file = poll(paths);
+            if (file == null) {
+                if (isStopped() || (walkDone && paths.isEmpty())) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                LOG.debug("Indexing " + file.toUri());
+                for (final Class<? extends FileAttributeView> view : views) {
+                    ioService.getFileAttributeView(file,
+                                                   view);
+                }
+                final FileAttribute<?>[] allAttrs = ioService.convert(ioService.readAttributes(file));
+                if (!put(loadedFiles,
+                         new LoadedFile(file,
+                                        allAttrs))) {
+                    return;
+                }
+            } catch (final Exception ex) {
+                fileFailed(file,
+                           ex);
+            }
+        }
+    }
+
+    private void build() {
+        while (true) {
+            final LoadedFile loaded = poll(loadedFiles);
+            if (loaded == null) {
+                if (isStopped() || (loadDone && loadedFiles.isEmpty())) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                if (!put(kObjects,
+                         KObjectUtil.toKObject(loaded.file,
+                                               loaded.attrs))) {
+                    return;
+                }
+                for (final Indexer indexer : IndexersFactory.getIndexers()) {
+                    if (loaded.file.getFileSystem().isOpen() && indexer.supportsPath(loaded.file)) {
+                        final KObject kObject = indexer.toKObject(loaded.file);
+                        if (kObject != null && !put(kObjects,
+                                                    kObject)) {
+                            return;
+                        }
+                    }
+                }
+            } catch (final Exception ex) {
+                fileFailed(loaded.file,
+                           ex);
+            }
+        }
+    }
+
+    private void write() {
+        while (true) {
+            final KObject kObject = poll(kObjects);
+            if (kObject == null) {
+                if (isStopped() || (buildDone && kObjects.isEmpty())) {
+                    return;
+                }
+                continue;
+            }
+            if (indexDisposed.get()) {
+                return;
+            }
+            try {
+                indexEngine.index(kObject);
+            } catch (final Exception ex) {
+                if (indexDisposed.get()) {
+                    return;
+                }
+                errorHandler.accept("Index fails. [@" + kObject.getKey() + "]",
+                                    ex);
+            }
+        }
+    }
+
+    private <T> boolean put(final BlockingQueue<T> queue,
+                            final T item) {
+        try {
+            while (!isStopped()) {
+                if (queue.offer(item,
+                                POLL_MILLIS,
+                                TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private <T> T poll(final BlockingQueue<T> queue) {
+        try {
+            return queue.poll(POLL_MILLIS,
+                              TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            aborted.set(true);
+            return null;
+        }
+    }
+
+    private boolean isStopped() {
+        return aborted.get() || indexDisposed.get();
+    }
+
+    private void fileFailed(final Path file,
+                            final Exception ex) {
+        if (!indexDisposed.get()) {
+            errorHandler.accept("Index fails. [@" + file.toString() + "]",
+                                ex);
+        }
+    }
+
+    private void fail(final Exception ex) {
+        failure.compareAndSet(null,
+                              ex);
+        aborted.set(true);
+    }
+
+    private static class LoadedFile {
+
+        private final Path file;
+        private final FileAttribute<?>[] attrs;
+
+        private LoadedFile(final Path file,
+                           final FileAttribute<?>[] attrs) {
+            this.file = file;
+            this.attrs = attrs;
+        }
+    }
+}
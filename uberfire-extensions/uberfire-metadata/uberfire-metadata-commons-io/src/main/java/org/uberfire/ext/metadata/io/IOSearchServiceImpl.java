@@ -25,6 +25,8 @@ import java.util.Map;
 import org.uberfire.ext.metadata.model.KObject;
 import org.uberfire.ext.metadata.search.ClusterSegment;
 import org.uberfire.ext.metadata.search.IOSearchService;
+import org.uberfire.ext.metadata.search.PageRequest;
+import org.uberfire.ext.metadata.search.PageResponse;
 import org.uberfire.ext.metadata.search.SearchIndex;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.base.FileSystemId;
@@ -96,6 +98,41 @@ public class IOSearchServiceImpl implements IOSearchService {
                                               buildClusterSegments(roots));
     }
 
+    @Override
+    public PageResponse<Path> searchByAttrsPage(final Map<String, ?> attrs,
+                                                final PageRequest pageRequest,
+                                                final Path... roots) {
+        return toPaths(searchIndex.searchByAttrsPage(attrs,
+                                                     pageRequest,
+                                                     buildClusterSegments(roots)));
+    }
+
+    @Override
+    public PageResponse<Path> fullTextSearchPage(final String _term,
+                                                 final PageRequest pageRequest,
+                                                 final Path... roots) {
+        final String term = checkNotNull("term",
+                                         _term).trim();
+        if (term.isEmpty()) {
+            return new PageResponse<Path>(0,
+                                          pageRequest.getOffset(),
+                                          Collections.<Path>emptyList());
+        }
+        return toPaths(searchIndex.fullTextSearchPage(term,
+                                                      pageRequest,
+                                                      buildClusterSegments(roots)));
+    }
+
+    private PageResponse<Path> toPaths(final PageResponse<KObject> page) {
+        final List<Path> paths = new ArrayList<Path>(page.getRows().size());
+        for (final KObject kObject : page.getRows()) {
+            paths.add(ioService.get(URI.create(kObject.getKey())));
+        }
+        return new PageResponse<Path>(page.getTotalHits(),
+                                      page.getOffset(),
+                                      paths);
+    }
+
     private ClusterSegment[] buildClusterSegments(final Path[] roots) {
         if (roots == null || roots.length == 0) {
             return new ClusterSegment[0];
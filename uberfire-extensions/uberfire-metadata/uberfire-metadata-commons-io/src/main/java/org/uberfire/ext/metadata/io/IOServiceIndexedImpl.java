@@ -18,15 +18,12 @@ package org.uberfire.ext.metadata.io;
 
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.uberfire.commons.async.DescriptiveRunnable;
 import org.uberfire.ext.metadata.engine.Indexer;
 import org.uberfire.ext.metadata.engine.MetaIndexEngine;
 import org.uberfire.ext.metadata.engine.Observer;
@@ -35,10 +32,9 @@ import org.uberfire.ext.metadata.model.KObject;
 import org.uberfire.ext.metadata.model.KObjectKey;
 import org.uberfire.io.IOWatchService;
 import org.uberfire.io.impl.IOServiceDotFileImpl;
+import org.uberfire.io.impl.WatchServiceDispatcher;
 import org.uberfire.java.nio.IOException;
 import org.uberfire.java.nio.base.FSPath;
-import org.uberfire.java.nio.base.WatchContext;
-import org.uberfire.java.nio.base.dotfiles.DotFileUtils;
 import org.uberfire.java.nio.file.DeleteOption;
 import org.uberfire.java.nio.file.DirectoryNotEmptyException;
 import org.uberfire.java.nio.file.FileSystem;
@@ -47,16 +43,11 @@ import org.uberfire.java.nio.file.FileSystemNotFoundException;
 import org.uberfire.java.nio.file.NoSuchFileException;
 import org.uberfire.java.nio.file.Path;
 import org.uberfire.java.nio.file.ProviderNotFoundException;
-import org.uberfire.java.nio.file.StandardWatchEventKind;
-import org.uberfire.java.nio.file.WatchEvent;
-import org.uberfire.java.nio.file.WatchKey;
 import org.uberfire.java.nio.file.WatchService;
 import org.uberfire.java.nio.file.attribute.FileAttribute;
 import org.uberfire.java.nio.file.attribute.FileAttributeView;
 
 import static org.uberfire.commons.validation.PortablePreconditions.checkNotNull;
-import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_CREATE;
-import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_MODIFY;
 
 public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
 
@@ -64,6 +55,7 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
 
     private final MetaIndexEngine indexEngine;
     private final BatchIndex batchIndex;
+    private final IndexEventQueue indexEventQueue;
 
     private final Class<? extends FileAttributeView>[] views;
     private final List<FileSystem> watchedList = new ArrayList<FileSystem>();
@@ -71,6 +63,7 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
 
     private final Observer observer;
     private ExecutorService executorService;
+    private final WatchServiceDispatcher dispatcher;
 
     public IOServiceIndexedImpl(final MetaIndexEngine indexEngine,
                                 final ExecutorService executorService,
@@ -130,9 +123,15 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
                                          observer,
                                          executorService,
                                          views);
+        this.indexEventQueue = new IndexEventQueue(indexEngine,
+                                                   executorService,
+                                                   this::indexPath,
+                                                   this::deletePath);
         this.views = views;
 
         this.executorService = executorService;
+        this.dispatcher = new WatchServiceDispatcher(IOServiceIndexedImpl.class.getSimpleName(),
+                                                     executorService);
     }
 
     public IOServiceIndexedImpl(final String id,
@@ -150,8 +149,14 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
                                          observer,
                                          executorService,
                                          views);
+        this.indexEventQueue = new IndexEventQueue(indexEngine,
+                                                   executorService,
+                                                   this::indexPath,
+                                                   this::deletePath);
         this.views = views;
         this.executorService = executorService;
+        this.dispatcher = new WatchServiceDispatcher(IOServiceIndexedImpl.class.getSimpleName(),
+                                                     executorService);
     }
 
     public IOServiceIndexedImpl(final IOWatchService watchService,
@@ -169,9 +174,15 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
                                          observer,
                                          executorService,
                                          views);
+        this.indexEventQueue = new IndexEventQueue(indexEngine,
+                                                   executorService,
+                                                   this::indexPath,
+                                                   this::deletePath);
         this.views = views;
 
         this.executorService = executorService;
+        this.dispatcher = new WatchServiceDispatcher(IOServiceIndexedImpl.class.getSimpleName(),
+                                                     executorService);
     }
 
     public IOServiceIndexedImpl(final String id,
@@ -191,9 +202,15 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
                                          observer,
                                          executorService,
                                          views);
+        this.indexEventQueue = new IndexEventQueue(indexEngine,
+                                                   executorService,
+                                                   this::indexPath,
+                                                   this::deletePath);
         this.views = views;
 
         this.executorService = executorService;
+        this.dispatcher = new WatchServiceDispatcher(IOServiceIndexedImpl.class.getSimpleName(),
+                                                     executorService);
     }
 
     @Override
@@ -247,9 +264,11 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
 
     @Override
     public void dispose() {
+        dispatcher.close();
         for (final WatchService watchService : watchServices) {
             watchService.close();
         }
+        indexEventQueue.dispose();
         super.dispose();
     }
 
@@ -261,150 +280,53 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
         watchedList.add(fs);
         watchServices.add(ws);
 
-        final ExecutorService defaultInstance = this.executorService;
+        final KCluster cluster = KObjectUtil.toKCluster(fs);
+        dispatcher.register(ws,
+                            wk -> indexEventQueue.enqueue(cluster,
+                                                          wk.pollEvents()));
+        dispatcher.start();
+    }
 
-        defaultInstance.execute(new DescriptiveRunnable() {
-            @Override
-            public String getDescription() {
-                return "IOServiceIndexedImpl(" + ws.toString() + ")";
+    private void indexPath(final Path path) {
+        //Default indexing
+        for (final Class<? extends FileAttributeView> view : views) {
+            getFileAttributeView(path,
+                                 view);
+        }
+        final FileAttribute<?>[] allAttrs = convert(readAttributes(path));
+        indexEngine.index(KObjectUtil.toKObject(path,
+                                                allAttrs));
+
+        //Additional indexing
+        for (Indexer indexer : IndexersFactory.getIndexers()) {
+            if (isDisposed) {
+                return;
             }
+            if (indexer.supportsPath(path)) {
+                final KObject kObject = indexer.toKObject(path);
+                if (kObject != null) {
+                    indexEngine.index(kObject);
+                }
+            }
+        }
+    }
 
-            @Override
-            public void run() {
-                while (!isDisposed && !ws.isClose()) {
-                    final WatchKey wk;
-                    try {
-                        wk = ws.take();
-                    } catch (final Exception ex) {
-                        break;
-                    }
-
-                    final List<WatchEvent<?>> events = wk.pollEvents();
-                    DescriptiveRunnable job = new DescriptiveRunnable() {
-                        @Override
-                        public String getDescription() {
-                            return "IOServiceIndexedImpl(IndexOnEvent - " + ws.toString() + ")";
-                        }
-
-                        @Override
-                        public void run() {
-                            // Get a set of "real paths" to be indexed. The "dot path" associated with the "real path"
-                            // is automatically indexed because the "dot path" contains content for FileAttributeView(s)
-                            // linked to the "real path".
-                            final Set<Path> eventRealPaths = new HashSet<>();
-                            for (WatchEvent event : events) {
-                                final WatchContext context = ((WatchContext) event.context());
-                                if (event.kind() == ENTRY_MODIFY || event.kind() == ENTRY_CREATE) {
-                                    final Path path = context.getPath();
-                                    if (!path.getFileName().toString().startsWith(".")) {
-                                        eventRealPaths.add(path);
-                                    }
-                                }
-                            }
-
-                            for (WatchEvent object : events) {
-                                if (isDisposed()) {
-                                    return;
-                                }
-                                try {
-                                    final WatchContext context = ((WatchContext) object.context());
-                                    if (object.kind() == ENTRY_MODIFY || object.kind() == ENTRY_CREATE) {
-
-                                        // If the path to be indexed is a "dot path" but does not have an associated
-                                        // "real path" index the "real path" instead. This ensures when only a
-                                        // "dot path" is updated the FileAttributeView(s) are re-indexed.
-                                        Path path = context.getPath();
-                                        if (path.getFileName().toString().startsWith(".")) {
-                                            if (!IOServiceIndexedUtil.isBlackListed(path)) {
-                                                final Path realPath = DotFileUtils.undot(path);
-                                                if (!eventRealPaths.contains(realPath)) {
-                                                    path = realPath;
-                                                }
-                                            }
-                                        }
-
-                                        if (!path.getFileName().toString().startsWith(".")) {
-
-                                            //Default indexing
-                                            for (final Class<? extends FileAttributeView> view : views) {
-                                                getFileAttributeView(path,
-                                                                     view);
-                                            }
-                                            final FileAttribute<?>[] allAttrs = convert(readAttributes(path));
-                                            indexEngine.index(KObjectUtil.toKObject(path,
-                                                                                    allAttrs));
-
-                                            //Additional indexing
-                                            for (Indexer indexer : IndexersFactory.getIndexers()) {
-                                                if (isDisposed()) {
-                                                    return;
-                                                }
-                                                if (indexer.supportsPath(path)) {
-                                                    final KObject kObject = indexer.toKObject(path);
-                                                    if (kObject != null) {
-                                                        indexEngine.index(kObject);
-                                                    }
-                                                }
-                                            }
-                                        }
-                                    }
-
-                                    if (object.kind() == StandardWatchEventKind.ENTRY_RENAME) {
-                                        //Default indexing
-                                        final Path sourcePath = context.getOldPath();
-                                        final Path destinationPath = context.getPath();
-                                        indexEngine.rename(KObjectUtil.toKObjectKey(sourcePath),
-                                                           KObjectUtil.toKObject(destinationPath));
-
-                                        //Additional indexing
-                                        for (Indexer indexer : IndexersFactory.getIndexers()) {
-                                            if (isDisposed()) {
-                                                return;
-                                            }
-                                            if (indexer.supportsPath(destinationPath)) {
-                                                final KObjectKey kObjectSource = indexer.toKObjectKey(sourcePath);
-                                                final KObject kObjectDestination = indexer.toKObject(destinationPath);
-                                                if (kObjectSource != null && kObjectDestination != null) {
-                                                    indexEngine.rename(kObjectSource,
-                                                                       kObjectDestination);
-                                                }
-                                            }
-                                        }
-                                    }
-
-                                    if (object.kind() == StandardWatchEventKind.ENTRY_DELETE) {
-                                        //Default indexing
-                                        final Path oldPath = context.getOldPath();
-                                        indexEngine.delete(KObjectUtil.toKObjectKey(oldPath));
-
-                                        //Additional indexing
-                                        for (Indexer indexer : IndexersFactory.getIndexers()) {
-                                            if (isDisposed()) {
-                                                return;
-                                            }
-                                            if (indexer.supportsPath(oldPath)) {
-                                                final KObjectKey kObject = indexer.toKObjectKey(oldPath);
-                                                if (kObject != null) {
-                                                    indexEngine.delete(kObject);
-                                                }
-                                            }
-                                        }
-                                    }
-                                } catch (final Exception ex) {
-                                    LOGGER.error("Error during indexing. { " + object.toString() + " }",
-                                                 ex);
-                                }
-                            }
-                        }
-
-                        private boolean isDisposed() {
-                            return isDisposed || ws.isClose();
-                        }
-                    };
-                    defaultInstance.execute(job);
+    private void deletePath(final Path oldPath) {
+        //Default indexing
+        indexEngine.delete(KObjectUtil.toKObjectKey(oldPath));
+
+        //Additional indexing
+        for (Indexer indexer : IndexersFactory.getIndexers()) {
+            if (isDisposed) {
+                return;
+            }
+            if (indexer.supportsPath(oldPath)) {
+                final KObjectKey kObject = indexer.toKObjectKey(oldPath);
+                if (kObject != null) {
+                    indexEngine.delete(kObject);
                 }
             }
-        });
+        }
     }
 
     private synchronized void indexIfFresh(final FileSystem fs) {
@@ -449,6 +371,14 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
         return indexEngine;
     }
 
+    public IndexEventQueue getIndexEventQueue() {
+        return indexEventQueue;
+    }
+
+    public WatchServiceDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
     /**
      * A "No Operation" Observer, used by default
      */
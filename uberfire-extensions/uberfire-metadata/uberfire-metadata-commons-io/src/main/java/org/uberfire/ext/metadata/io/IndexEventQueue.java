@@ -0,0 +1,269 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.ext.metadata.io;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.commons.async.DescriptiveRunnable;
+import org.uberfire.commons.metrics.TimerMetric;
+import org.uberfire.ext.metadata.engine.MetaIndexEngine;
+import org.uberfire.ext.metadata.model.KCluster;
+import org.uberfire.java.nio.base.WatchContext;
+import org.uberfire.java.nio.base.dotfiles.DotFileUtils;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.WatchEvent;
+
+import static org.uberfire.commons.validation.PortablePreconditions.checkNotNull;
+import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_CREATE;
+import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_DELETE;
+import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_MODIFY;
+import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_RENAME;
+
+/**
+ * Per cluster queue of watch events to be indexed.
+ * <p>
+ * Events are collapsed per path while they wait, so a path changed several times is indexed once, with its latest
+ * state: creations and modifications become an index operation, deletions a delete operation, and renames a delete of
+ * the source plus an index of the target. Each cluster is drained by at most one job at a time, in the order paths were
+ * last changed, and every drained set of operations runs in a single engine batch.
+ */
+public class IndexEventQueue {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexEventQueue.class);
+
+    private final MetaIndexEngine indexEngine;
+    private final ExecutorService executorService;
+    private final Consumer<Path> indexOperation;
+    private final Consumer<Path> deleteOperation;
+    private final Map<KCluster, ClusterQueue> queues = new ConcurrentHashMap<KCluster, ClusterQueue>();
+    private final AtomicBoolean disposed = new AtomicBoolean(false);
+
+    private final LongAdder receivedEvents = new LongAdder();
+    private final LongAdder executedOperations = new LongAdder();
+    private final TimerMetric lag = new TimerMetric();
+
+    public IndexEventQueue(final MetaIndexEngine indexEngine,
+                           final ExecutorService executorService,
+                           final Consumer<Path> indexOperation,
+                           final Consumer<Path> deleteOperation) {
+        this.indexEngine = checkNotNull("indexEngine",
+                                        indexEngine);
+        this.executorService = checkNotNull("executorService",
+                                            executorService);
+        this.indexOperation = checkNotNull("indexOperation",
+                                           indexOperation);
+        this.deleteOperation = checkNotNull("deleteOperation",
+                                            deleteOperation);
+    }
+
+    public void enqueue(final KCluster cluster,
+                        final List<WatchEvent<?>> events) {
+        if (disposed.get() || events == null || events.isEmpty()) {
+            return;
+        }
+        receivedEvents.add(events.size());
+        final ClusterQueue queue = queues.computeIfAbsent(cluster,
+                                                          k -> new ClusterQueue());
+        synchronized (queue) {
+            for (final WatchEvent<?> event : events) {
+                queue.add(event);
+            }
+            if (queue.pending.isEmpty() || queue.scheduled) {
+                return;
+            }
+            queue.scheduled = true;
+        }
+        executorService.execute(new DescriptiveRunnable() {
+            @Override
+            public String getDescription() {
+                return "IndexEventQueue(" + cluster.getClusterId() + ")";
+            }
+
+            @Override
+            public void run() {
+                drain(cluster,
+                      queue);
+            }
+        });
+    }
+
+    public void dispose() {
+        disposed.set(true);
+        queues.clear();
+    }
+
+    /**
+     * @return number of operations waiting to be indexed, over all clusters.
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (final ClusterQueue queue : queues.values()) {
+            synchronized (queue) {
+                depth += queue.pending.size();
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * @return number of operations waiting to be indexed on the given cluster.
+     */
+    public int getQueueDepth(final KCluster cluster) {
+        final ClusterQueue queue = queues.get(cluster);
+        if (queue == null) {
+            return 0;
+        }
+        synchronized (queue) {
+            return queue.pending.size();
+        }
+    }
+
+    /**
+     * @return time between an event being queued and its batch starting to be indexed.
+     */
+    public TimerMetric getLag() {
+        return lag;
+    }
+
+    public long getReceivedEvents() {
+        return receivedEvents.sum();
+    }
+
+    public long getExecutedOperations() {
+        return executedOperations.sum();
+    }
+
+    private void drain(final KCluster cluster,
+                       final ClusterQueue queue) {
+        while (true) {
+            final Map<Path, Operation> batch;
+            final long oldest;
+            synchronized (queue) {
+                if (disposed.get() || queue.pending.isEmpty()) {
+                    queue.scheduled = false;
+                    return;
+                }
+                batch = queue.pending;
+                oldest = queue.oldestEvent;
+                queue.pending = new LinkedHashMap<Path, Operation>();
+            }
+            lag.record(System.nanoTime() - oldest);
+            execute(cluster,
+                    batch);
+        }
+    }
+
+    private void execute(final KCluster cluster,
+                         final Map<Path, Operation> batch) {
+        indexEngine.startBatch(cluster);
+        try {
+            for (final Map.Entry<Path, Operation> entry : batch.entrySet()) {
+                if (disposed.get()) {
+                    return;
+                }
+                try {
+                    if (entry.getValue() == Operation.INDEX) {
+                        indexOperation.accept(entry.getKey());
+                    } else {
+                        deleteOperation.accept(entry.getKey());
+                    }
+                } catch (final Exception ex) {
+                    LOGGER.error("Error during indexing. { " + entry.getValue() + " " + entry.getKey() + " }",
+                                 ex);
+                }
+                executedOperations.increment();
+            }
+        } finally {
+            try {
+                indexEngine.commit(cluster);
+            } catch (final Exception ex) {
+                if (!disposed.get()) {
+                    LOGGER.error("Error during index commit. { " + cluster.getClusterId() + " }",
+                                 ex);
+                }
+            }
+        }
+    }
+
+    private enum Operation {
+        INDEX,
+        DELETE
+    }
+
+    private static class ClusterQueue {
+
+        private Map<Path, Operation> pending = new LinkedHashMap<Path, Operation>();
+        private long oldestEvent;
+        private boolean scheduled = false;
+
+        private void add(final WatchEvent<?> event) {
+            final WatchContext context = (WatchContext) event.context();
+            if (event.kind() == ENTRY_CREATE || event.kind() == ENTRY_MODIFY) {
+                index(context.getPath());
+            } else if (event.kind() == ENTRY_DELETE) {
+                delete(context.getOldPath());
+            } else if (event.kind() == ENTRY_RENAME) {
+                delete(context.getOldPath());
+                index(context.getPath());
+            }
+        }
+
+        private void index(final Path path) {
+            // A "dot path" holds the content of FileAttributeView(s) linked to its "real path", so index the
+            // "real path" instead; it indexes the "dot path" content as well.
+            Path realPath = path;
+            if (isDotPath(realPath) && !IOServiceIndexedUtil.isBlackListed(realPath)) {
+                realPath = DotFileUtils.undot(realPath);
+            }
+            if (!isDotPath(realPath)) {
+                put(realPath,
+                    Operation.INDEX);
+            }
+        }
+
+        private void delete(final Path path) {
+            if (path != null && !isDotPath(path)) {
+                put(path,
+                    Operation.DELETE);
+            }
+        }
+
+        private void put(final Path path,
+                         final Operation operation) {
+            if (pending.isEmpty()) {
+                oldestEvent = System.nanoTime();
+            }
+            // re-inserted so the latest change of a path defines its position
+            pending.remove(path);
+            pending.put(path,
+                        operation);
+        }
+
+        private boolean isDotPath(final Path path) {
+            return path.getFileName() != null && path.getFileName().toString().startsWith(".");
+        }
+    }
+}
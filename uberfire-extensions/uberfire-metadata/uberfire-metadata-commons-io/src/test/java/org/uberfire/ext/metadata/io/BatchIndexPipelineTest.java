@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.ext.metadata.io;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.TotalHitCountCollector;
+import org.junit.Test;
+import org.uberfire.commons.async.DescriptiveThreadFactory;
+import org.uberfire.ext.metadata.backend.lucene.LuceneConfigBuilder;
+import org.uberfire.ext.metadata.backend.lucene.index.LuceneIndex;
+import org.uberfire.ext.metadata.engine.Index;
+import org.uberfire.ext.metadata.engine.Observer;
+import org.uberfire.io.IOService;
+import org.uberfire.io.attribute.DublinCoreView;
+import org.uberfire.io.impl.IOServiceDotFileImpl;
+
+import static org.junit.Assert.*;
+import static org.uberfire.ext.metadata.io.KObjectUtil.toKCluster;
+
+public class BatchIndexPipelineTest extends BaseIndexTest {
+
+    private static final int FILES = 30;
+
+    @Override
+    protected IOService ioService() {
+        if (ioService == null) {
+            config = new LuceneConfigBuilder()
+                    .withInMemoryMetaModelStore()
+                    .useDirectoryBasedIndex()
+                    .useInMemoryDirectory()
+                    .build();
+            ioService = new IOServiceDotFileImpl();
+        }
+        return ioService;
+    }
+
+    @Override
+    protected String[] getRepositoryNames() {
+        return new String[]{"temp-repo-pipeline-test"};
+    }
+
+    @Test
+    public void testPipelineIndex() throws Exception {
+        for (int i = 0; i < FILES; i++) {
+            ioService().write(ioService().get("git://temp-repo-pipeline-test/dir" + (i % 4) + "/file" + i + ".txt"),
+                              "content " + i);
+        }
+
+        final AtomicInteger errors = new AtomicInteger();
+        final BatchIndex batchIndex = new BatchIndex(config.getIndexEngine(),
+                                                     ioService(),
+                                                     new Observer() {
+                                                         @Override
+                                                         public void information(final String message) {
+
+                                                         }
+
+                                                         @Override
+                                                         public void warning(final String message) {
+
+                                                         }
+
+                                                         @Override
+                                                         public void error(final String message) {
+                                                             errors.incrementAndGet();
+                                                         }
+                                                     },
+                                                     Executors.newCachedThreadPool(new DescriptiveThreadFactory()),
+                                                     DublinCoreView.class);
+        //small queues to exercise backpressure between stages
+        batchIndex.setPipeline(3,
+                               2);
+
+        final AtomicInteger completed = new AtomicInteger();
+        batchIndex.run(ioService().get("git://temp-repo-pipeline-test/"),
+                       completed::incrementAndGet);
+
+        assertEquals(1,
+                     completed.get());
+        assertEquals(0,
+                     errors.get());
+
+        final Index index = config.getIndexManager().get(toKCluster(ioService().get("git://temp-repo-pipeline-test/").getFileSystem()));
+        final IndexSearcher searcher = ((LuceneIndex) index).nrtSearcher();
+        try {
+            final TotalHitCountCollector collector = new TotalHitCountCollector();
+            searcher.search(new MatchAllDocsQuery(),
+                            collector);
+            assertEquals(FILES,
+                         collector.getTotalHits());
+        } finally {
+            ((LuceneIndex) index).nrtRelease(searcher);
+        }
+    }
+}
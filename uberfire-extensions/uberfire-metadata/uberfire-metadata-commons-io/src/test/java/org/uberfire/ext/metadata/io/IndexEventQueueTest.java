@@ -0,0 +1,262 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.ext.metadata.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.uberfire.ext.metadata.backend.lucene.LuceneConfigBuilder;
+import org.uberfire.ext.metadata.backend.lucene.index.CommitScheduler;
+import org.uberfire.ext.metadata.backend.lucene.index.LuceneIndexEngine;
+import org.uberfire.ext.metadata.model.KCluster;
+import org.uberfire.io.IOService;
+import org.uberfire.io.impl.IOServiceDotFileImpl;
+import org.uberfire.java.nio.base.WatchContext;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.WatchEvent;
+
+import static org.junit.Assert.*;
+import static org.uberfire.ext.metadata.io.KObjectUtil.toKCluster;
+import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_CREATE;
+import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_DELETE;
+import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_MODIFY;
+import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_RENAME;
+
+public class IndexEventQueueTest extends BaseIndexTest {
+
+    private final List<String> operations = new ArrayList<String>();
+    private final ManualExecutor executor = new ManualExecutor();
+
+    @Override
+    protected IOService ioService() {
+        if (ioService == null) {
+            config = new LuceneConfigBuilder()
+                    .withInMemoryMetaModelStore()
+                    .useDirectoryBasedIndex()
+                    .useInMemoryDirectory()
+                    .build();
+            ioService = new IOServiceDotFileImpl();
+        }
+        return ioService;
+    }
+
+    @Override
+    protected String[] getRepositoryNames() {
+        return new String[]{"temp-repo-event-queue-test"};
+    }
+
+    @Test
+    public void testCoalesceEventsPerPath() {
+        final Path a = path("a.txt");
+        final Path b = path("b.txt");
+        final Path c = path("c.txt");
+        final KCluster cluster = toKCluster(a.getFileSystem());
+        final IndexEventQueue queue = newQueue();
+
+        queue.enqueue(cluster,
+                      Arrays.asList(event(ENTRY_CREATE,
+                                          a,
+                                          null),
+                                    event(ENTRY_MODIFY,
+                                          a,
+                                          null),
+                                    event(ENTRY_CREATE,
+                                          b,
+                                          null),
+                                    event(ENTRY_DELETE,
+                                          null,
+                                          a)));
+        queue.enqueue(cluster,
+                      Arrays.asList(event(ENTRY_RENAME,
+                                          c,
+                                          b),
+                                    event(ENTRY_MODIFY,
+                                          path(".c.txt"),
+                                          null)));
+
+        assertEquals(1,
+                     executor.jobs.size());
+        assertEquals(3,
+                     queue.getQueueDepth(cluster));
+
+        final long commits = commitScheduler().getCommitLatency().getCount();
+        final long changes = commitScheduler().getChanges();
+        executor.runAll();
+
+        //the whole drain is committed once, no change is committed on its own
+        assertEquals(commits + 1,
+                     commitScheduler().getCommitLatency().getCount());
+        assertEquals(changes,
+                     commitScheduler().getChanges());
+
+        assertEquals(Arrays.asList("delete:/a.txt",
+                                   "delete:/b.txt",
+                                   "index:/c.txt"),
+                     operations);
+        assertEquals(0,
+                     queue.getQueueDepth());
+        assertEquals(6,
+                     queue.getReceivedEvents());
+        assertEquals(3,
+                     queue.getExecutedOperations());
+        assertEquals(1,
+                     queue.getLag().getCount());
+    }
+
+    @Test
+    public void testDrainAgainAfterExecution() {
+        final Path a = path("a.txt");
+        final KCluster cluster = toKCluster(a.getFileSystem());
+        final IndexEventQueue queue = newQueue();
+        final long commits = commitScheduler().getCommitLatency().getCount();
+
+        queue.enqueue(cluster,
+                      Arrays.asList(event(ENTRY_MODIFY,
+                                          a,
+                                          null)));
+        executor.runAll();
+        queue.enqueue(cluster,
+                      Arrays.asList(event(ENTRY_MODIFY,
+                                          a,
+                                          null)));
+        executor.runAll();
+
+        assertEquals(Arrays.asList("index:/a.txt",
+                                   "index:/a.txt"),
+                     operations);
+        assertEquals(2,
+                     queue.getLag().getCount());
+        assertEquals(commits + 2,
+                     commitScheduler().getCommitLatency().getCount());
+    }
+
+    private IndexEventQueue newQueue() {
+        return new IndexEventQueue(config.getIndexEngine(),
+                                   executor,
+                                   path -> {
+                                       operations.add("index:" + path.toString());
+                                       config.getIndexEngine().index(KObjectUtil.toKObject(path));
+                                   },
+                                   path -> {
+                                       operations.add("delete:" + path.toString());
+                                       config.getIndexEngine().delete(KObjectUtil.toKObjectKey(path));
+                                   });
+    }
+
+    private CommitScheduler commitScheduler() {
+        return ((LuceneIndexEngine) config.getIndexEngine()).getCommitScheduler();
+    }
+
+    private Path path(final String name) {
+        return ioService().get("git://temp-repo-event-queue-test/" + name);
+    }
+
+    private WatchEvent<?> event(final WatchEvent.Kind<?> kind,
+                                final Path path,
+                                final Path oldPath) {
+        final WatchContext context = new WatchContext() {
+            @Override
+            public Path getPath() {
+                return path;
+            }
+
+            @Override
+            public Path getOldPath() {
+                return oldPath;
+            }
+
+            @Override
+            public String getSessionId() {
+                return null;
+            }
+
+            @Override
+            public String getMessage() {
+                return null;
+            }
+
+            @Override
+            public String getUser() {
+                return null;
+            }
+        };
+        return new WatchEvent<Object>() {
+            @Override
+            public Kind<Object> kind() {
+                return (Kind<Object>) kind;
+            }
+
+            @Override
+            public int count() {
+                return 1;
+            }
+
+            @Override
+            public Object context() {
+                return context;
+            }
+        };
+    }
+
+    /**
+     * Runs submitted jobs only when asked, so tests see the queue before it is drained.
+     */
+    private static class ManualExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> jobs = new ArrayList<Runnable>();
+
+        void runAll() {
+            while (!jobs.isEmpty()) {
+                jobs.remove(0).run();
+            }
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            jobs.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return jobs;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout,
+                                        final TimeUnit unit) {
+            return true;
+        }
+    }
+}
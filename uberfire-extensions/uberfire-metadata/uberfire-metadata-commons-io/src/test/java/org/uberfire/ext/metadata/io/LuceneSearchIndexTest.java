@@ -24,9 +24,12 @@ import java.util.Map;
 import org.jboss.byteman.contrib.bmunit.BMScript;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.uberfire.ext.metadata.backend.lucene.fields.FieldFactory;
 import org.uberfire.ext.metadata.model.KObject;
 import org.uberfire.ext.metadata.search.ClusterSegment;
 import org.uberfire.ext.metadata.search.IOSearchService;
+import org.uberfire.ext.metadata.search.PageRequest;
+import org.uberfire.ext.metadata.search.PageResponse;
 import org.uberfire.java.nio.base.FileSystemId;
 import org.uberfire.java.nio.base.SegmentedPath;
 import org.uberfire.java.nio.file.Path;
@@ -181,5 +184,49 @@ public class LuceneSearchIndexTest extends BaseIndexTest {
             assertEquals(2,
                          results.size());
         }
+
+        //Paged Search
+        {
+            final PageResponse<KObject> page = config.getSearchIndex().searchByAttrsPage(attributes,
+                                                                                         new PageRequest(0,
+                                                                                                         1,
+                                                                                                         FieldFactory.FILE_NAME_FIELD_SORTED,
+                                                                                                         false),
+                                                                                         cs1,
+                                                                                         cs2);
+            assertEquals(2,
+                         page.getTotalHits());
+            assertEquals(1,
+                         page.getRows().size());
+            assertTrue(page.hasMore());
+            assertTrue(page.getRows().get(0).getKey().endsWith("indexedFile1.txt"));
+        }
+
+        {
+            final PageResponse<KObject> page = config.getSearchIndex().fullTextSearchPage("*indexed*",
+                                                                                          new PageRequest(1,
+                                                                                                          10,
+                                                                                                          FieldFactory.FILE_NAME_FIELD_SORTED,
+                                                                                                          false),
+                                                                                          cs1,
+                                                                                          cs2);
+            assertEquals(2,
+                         page.getTotalHits());
+            assertEquals(1,
+                         page.getRows().size());
+            assertFalse(page.hasMore());
+            assertTrue(page.getRows().get(0).getKey().endsWith("indexedFile2.txt"));
+        }
+
+        {
+            final PageResponse<KObject> page = config.getSearchIndex().fullTextSearchPage("*indexed*",
+                                                                                          new PageRequest(0,
+                                                                                                          0),
+                                                                                          cs1,
+                                                                                          cs2);
+            assertEquals(2,
+                         page.getTotalHits());
+            assertTrue(page.getRows().isEmpty());
+        }
     }
 }
@@ -233,6 +233,8 @@ public class GroupEditorWorkflow implements IsWidget {
             Collection<Permission> pc = authzPolicy.getPermissions(group).collection();
             pc.clear();
             pc.addAll(groupPermissions.collection());
+            // Compile the changes into the policy the permission checks run against
+            permissionManager.setAuthorizationPolicy(authzPolicy);
 
             // Save the policy in the backend
             authorizationService.call(r -> {
@@ -215,6 +215,8 @@ public abstract class BaseRoleEditorWorkflow implements IsWidget {
             Collection<Permission> pc = authzPolicy.getPermissions(role).collection();
             pc.clear();
             pc.addAll(rolePermissions.collection());
+            // Compile the changes into the policy the permission checks run against
+            permissionManager.setAuthorizationPolicy(authzPolicy);
 
             // Save the policy in the backend
             authorizationService.call(r -> {
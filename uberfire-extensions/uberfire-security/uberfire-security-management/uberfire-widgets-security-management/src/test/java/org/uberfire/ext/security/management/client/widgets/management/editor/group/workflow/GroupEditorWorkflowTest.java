@@ -18,8 +18,12 @@ package org.uberfire.ext.security.management.client.widgets.management.editor.gr
 
 import com.google.gwt.user.client.ui.IsWidget;
 import com.google.gwtmockito.GwtMockitoTestRunner;
+import java.util.Collections;
 import org.jboss.errai.common.client.api.Caller;
+import org.jboss.errai.common.client.api.ErrorCallback;
+import org.jboss.errai.common.client.api.RemoteCallback;
 import org.jboss.errai.security.shared.api.Group;
+import org.jboss.errai.security.shared.api.identity.User;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -42,6 +46,8 @@ import org.uberfire.ext.security.management.client.widgets.popup.ConfirmBox;
 import org.uberfire.ext.security.management.client.widgets.popup.LoadingBox;
 import org.uberfire.mocks.EventSourceMock;
 import org.uberfire.mvp.Command;
+import org.uberfire.security.authz.AuthorizationResult;
+import org.uberfire.security.authz.Permission;
 import org.uberfire.security.authz.PermissionCollection;
 import org.uberfire.security.authz.PermissionManager;
 import org.uberfire.security.impl.authz.DefaultPermissionCollection;
@@ -214,6 +220,38 @@ public class GroupEditorWorkflowTest extends AbstractSecurityManagementTest {
                times(1)).fire(any(OnErrorEvent.class));
     }
 
+    @Test
+    public void testSavedPermissionsAreChecked() {
+        final AuthorizationService authorizationServiceImpl = mock(AuthorizationService.class);
+        when(authorizationService.call(any(RemoteCallback.class),
+                                       any(ErrorCallback.class))).thenReturn(authorizationServiceImpl);
+        final User user = mock(User.class);
+        when(user.getIdentifier()).thenReturn("user1");
+        when(user.getGroups()).thenReturn(Collections.singleton(group));
+        final Permission readHome = permissionManager.createPermission(homePerspective,
+                                                                       PerspectiveAction.READ,
+                                                                       true);
+        assertEquals(AuthorizationResult.ACCESS_ABSTAIN,
+                     permissionManager.checkPermission(readHome,
+                                                       user));
+
+        permissionCollection.add(permissionManager.createPermission(homePerspective,
+                                                                    PerspectiveAction.READ,
+                                                                    false));
+        when(groupEditorDriver.flush()).thenReturn(true);
+        when(groupEditorDriver.getValue()).thenReturn(group);
+        when(groupEditorDriver.getPermissions()).thenReturn(permissionCollection);
+        when(groupEditorDriver.getHomePerspective()).thenReturn(homePerspective);
+        when(groupEditorDriver.getGroupPriority()).thenReturn(1);
+        tested.group = group;
+        tested.doSave();
+
+        verify(authorizationServiceImpl).savePolicy(permissionManager.getAuthorizationPolicy());
+        assertEquals(AuthorizationResult.ACCESS_DENIED,
+                     permissionManager.checkPermission(readHome,
+                                                       user));
+    }
+
     @Test
     public void testHomePerspectiveGranted() {
         permissionCollection.add(permissionManager.createPermission(homePerspective,
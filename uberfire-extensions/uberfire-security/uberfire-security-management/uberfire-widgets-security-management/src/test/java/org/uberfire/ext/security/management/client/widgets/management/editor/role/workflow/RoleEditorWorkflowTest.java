@@ -18,8 +18,12 @@ package org.uberfire.ext.security.management.client.widgets.management.editor.ro
 
 import com.google.gwt.user.client.ui.IsWidget;
 import com.google.gwtmockito.GwtMockitoTestRunner;
+import java.util.Collections;
 import org.jboss.errai.common.client.api.Caller;
+import org.jboss.errai.common.client.api.ErrorCallback;
+import org.jboss.errai.common.client.api.RemoteCallback;
 import org.jboss.errai.security.shared.api.Role;
+import org.jboss.errai.security.shared.api.identity.User;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -37,6 +41,8 @@ import org.uberfire.ext.security.management.client.widgets.management.events.Sav
 import org.uberfire.ext.security.management.client.widgets.popup.ConfirmBox;
 import org.uberfire.ext.security.management.client.widgets.popup.LoadingBox;
 import org.uberfire.mocks.EventSourceMock;
+import org.uberfire.security.authz.AuthorizationResult;
+import org.uberfire.security.authz.Permission;
 import org.uberfire.security.authz.PermissionCollection;
 import org.uberfire.security.authz.PermissionManager;
 import org.uberfire.security.impl.authz.DefaultPermissionCollection;
@@ -166,6 +172,38 @@ public class RoleEditorWorkflowTest extends AbstractSecurityManagementTest {
         verify(errorEvent).fire(any(OnErrorEvent.class));
     }
 
+    @Test
+    public void testSavedPermissionsAreChecked() {
+        final AuthorizationService authorizationServiceImpl = mock(AuthorizationService.class);
+        when(authorizationService.call(any(RemoteCallback.class),
+                                       any(ErrorCallback.class))).thenReturn(authorizationServiceImpl);
+        final User user = mock(User.class);
+        when(user.getIdentifier()).thenReturn("user1");
+        when(user.getRoles()).thenReturn(Collections.singleton(role));
+        final Permission readHome = permissionManager.createPermission(homePerspective,
+                                                                       PerspectiveAction.READ,
+                                                                       true);
+        assertEquals(AuthorizationResult.ACCESS_ABSTAIN,
+                     permissionManager.checkPermission(readHome,
+                                                       user));
+
+        permissionCollection.add(permissionManager.createPermission(homePerspective,
+                                                                    PerspectiveAction.READ,
+                                                                    false));
+        when(roleEditorDriver.flush()).thenReturn(true);
+        when(roleEditorDriver.getValue()).thenReturn(role);
+        when(roleEditorDriver.getPermissions()).thenReturn(permissionCollection);
+        when(roleEditorDriver.getHomePerspective()).thenReturn(homePerspective);
+        when(roleEditorDriver.getRolePriority()).thenReturn(1);
+        tested.role = role;
+        tested.doSave();
+
+        verify(authorizationServiceImpl).savePolicy(permissionManager.getAuthorizationPolicy());
+        assertEquals(AuthorizationResult.ACCESS_DENIED,
+                     permissionManager.checkPermission(readHome,
+                                                       user));
+    }
+
     @Test
     public void testHomePerspectiveGranted() {
         permissionCollection.add(permissionManager.createPermission(homePerspective,
@@ -24,6 +24,11 @@ import org.uberfire.ext.wires.core.grids.client.widget.grid.renderers.columns.Gr
 
 /**
  * Base implementation of a grid column to avoid boiler-plate for more specific implementations.
+ * <p>
+ * {@link BaseGridData} indexes the widths of its visible columns to find offsets in O(log n), and is told of
+ * changes made through {@link #setWidth(double)} and {@link #setVisible(boolean)}. Sub-classes that override
+ * {@link #getWidth()} or {@link #isVisible()} must call {@link #notifyWidthChange()} whenever the value they report
+ * changes; otherwise {@link BaseGridData#getColumnOffset(int)} uses the stale width.
  */
 public class BaseGridColumn<T> implements GridColumn<T> {
 
@@ -41,6 +46,7 @@ public class BaseGridColumn<T> implements GridColumn<T> {
     private int index = -1;
     private List<HeaderMetaData> headerMetaData = new ArrayList<HeaderMetaData>();
     private GridColumnRenderer<T> columnRenderer;
+    private BaseGridDataOffsetsManager offsetsManager;
 
     public BaseGridColumn(final HeaderMetaData headerMetaData,
                           final GridColumnRenderer<T> columnRenderer,
@@ -86,6 +92,7 @@ public class BaseGridColumn<T> implements GridColumn<T> {
     @Override
     public void setWidth(final double width) {
         this.width = width;
+        notifyWidthChange();
     }
 
     @Override
@@ -154,6 +161,7 @@ public class BaseGridColumn<T> implements GridColumn<T> {
     @Override
     public void setVisible(final boolean isVisible) {
         this.isVisible = isVisible;
+        notifyWidthChange();
     }
 
     @Override
@@ -176,6 +184,25 @@ public class BaseGridColumn<T> implements GridColumn<T> {
         this.maximumWidth = maximumWidth;
     }
 
+    BaseGridDataOffsetsManager getOffsetsManager() {
+        return offsetsManager;
+    }
+
+    void setOffsetsManager(final BaseGridDataOffsetsManager offsetsManager) {
+        this.offsetsManager = offsetsManager;
+    }
+
+    /**
+     * Notify the {@link BaseGridData} holding this column that {@link #getWidth()} or {@link #isVisible()} changed.
+     * Needed by sub-classes changing them other than through {@link #setWidth(double)} or
+     * {@link #setVisible(boolean)}.
+     */
+    protected void notifyWidthChange() {
+        if (offsetsManager != null) {
+            offsetsManager.onColumnChange();
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -44,6 +44,7 @@ public class BaseGridData implements GridData {
 
     protected BaseGridDataIndexManager indexManager = new BaseGridDataIndexManager(this);
     protected BaseGridDataSelectionsManager selectionsManager = new BaseGridDataSelectionsManager(this);
+    protected BaseGridDataOffsetsManager offsetsManager = new BaseGridDataOffsetsManager(this);
 
     public BaseGridData() {
         this(true);
@@ -67,6 +68,7 @@ public class BaseGridData implements GridData {
     public void appendColumn(final GridColumn<?> column) {
         column.setIndex(columns.size());
         columns.add(column);
+        offsetsManager.onAddColumn(column);
     }
 
     @Override
@@ -75,6 +77,7 @@ public class BaseGridData implements GridData {
         column.setIndex(columns.size());
         columns.add(index,
                     column);
+        offsetsManager.onAddColumn(column);
     }
 
     @Override
@@ -91,6 +94,7 @@ public class BaseGridData implements GridData {
             ((HasDOMElementResources) column.getColumnRenderer()).destroyResources();
         }
         columns.remove(column);
+        offsetsManager.onDeleteColumn(column);
 
         //Destroy column data
         for (GridRow row : rows) {
@@ -138,6 +142,8 @@ public class BaseGridData implements GridData {
             this.columns.addAll(index - columns.size() + 1,
                                 columns);
         }
+
+        offsetsManager.onColumnChange();
     }
 
     @Override
@@ -153,6 +159,8 @@ public class BaseGridData implements GridData {
     @Override
     public void appendRow(final GridRow row) {
         this.rows.add(row);
+
+        offsetsManager.onAppendRow(row);
     }
 
     @Override
@@ -163,6 +171,7 @@ public class BaseGridData implements GridData {
 
         indexManager.onInsertRow(rowIndex);
         selectionsManager.onInsertRow(rowIndex);
+        offsetsManager.onInsertRow(row);
     }
 
     @Override
@@ -186,7 +195,7 @@ public class BaseGridData implements GridData {
                                       maxRowIndex);
 
         for (int _rowIndex = minRowIndex; _rowIndex <= maxRowIndex; _rowIndex++) {
-            rows.remove(minRowIndex);
+            offsetsManager.onDeleteRow(rows.remove(minRowIndex));
         }
 
         indexManager.onDeleteRow(range);
@@ -236,6 +245,7 @@ public class BaseGridData implements GridData {
                                 oldBlockExtent);
         selectionsManager.onMoveRows(rows,
                                      oldBlockExtent);
+        offsetsManager.onMoveRows();
     }
 
     @Override
@@ -265,6 +275,36 @@ public class BaseGridData implements GridData {
         return rows.get(rowIndex).getCells().get(_columnIndex);
     }
 
+    /**
+     * Get the y-offset of a row relative to the first row, in O(log n). Rows derived from {@link BaseGridRow}
+     * overriding {@link BaseGridRow#getHeight()} must report changes through {@link BaseGridRow#notifyHeightChange()}.
+     * @param rowIndex The index of the row; {@link #getRowCount()} gives the height of all rows.
+     * @return
+     */
+    public double getRowOffset(final int rowIndex) {
+        return offsetsManager.getRowOffset(rowIndex);
+    }
+
+    /**
+     * Get the index of the first row whose bottom edge is at, or beyond, a y-offset relative to the first row, in O(log n).
+     * @param offset The y-offset.
+     * @return The row index or {@link #getRowCount()} if the offset is beyond the last row.
+     */
+    public int getRowIndex(final double offset) {
+        return offsetsManager.getRowIndex(offset);
+    }
+
+    /**
+     * Get the x-offset of a column relative to the first column, ignoring hidden columns, in O(log n). Columns
+     * derived from {@link BaseGridColumn} overriding {@link BaseGridColumn#getWidth()} must report changes through
+     * {@link BaseGridColumn#notifyWidthChange()}.
+     * @param columnIndex The index of the column.
+     * @return
+     */
+    public double getColumnOffset(final int columnIndex) {
+        return offsetsManager.getColumnOffset(columnIndex);
+    }
+
     @Override
     public SelectedCell getSelectedCellsOrigin() {
         return selectedCells.isEmpty() ? null : selectedCells.get(0);
@@ -293,6 +333,8 @@ public class BaseGridData implements GridData {
         column.setIndex(columns.get(index).getIndex());
         columns.set(index,
                     column);
+        offsetsManager.onDeleteColumn(existing);
+        offsetsManager.onAddColumn(column);
 
         //Clear column data
         for (GridRow row : rows) {
@@ -311,6 +353,8 @@ public class BaseGridData implements GridData {
             return;
         }
         this.isMerged = isMerged;
+        //Row heights are reset when (un)merging; invalidate the offsets first so they're rebuilt once
+        offsetsManager.onMerge(isMerged);
         indexManager.onMerge(isMerged);
         selectionsManager.onMerge(isMerged);
     }
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.wires.core.grids.client.model.impl;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.uberfire.ext.wires.core.grids.client.model.GridColumn;
+import org.uberfire.ext.wires.core.grids.client.model.GridData;
+import org.uberfire.ext.wires.core.grids.client.model.GridRow;
+
+/**
+ * Helper class that maintains prefix sums of row heights and column widths following different mutations
+ * to {@link GridData}, so that offsets can be found in O(log n). Structural changes invalidate the index,
+ * which is rebuilt on the next lookup; height changes of rows are applied in place. Rows and columns not
+ * derived from {@link BaseGridRow} and {@link BaseGridColumn} cannot report changes and are summed linearly.
+ * Derived rows and columns only report the changes made through their setters; see
+ * {@link BaseGridRow#notifyHeightChange()} and {@link BaseGridColumn#notifyWidthChange()}.
+ */
+public class BaseGridDataOffsetsManager {
+
+    private final GridData gridData;
+
+    private final PrefixSumIndex rowHeights = new PrefixSumIndex();
+    private final Map<GridRow, Integer> rowIndexes = new IdentityHashMap<GridRow, Integer>();
+    private boolean isRowIndexValid = false;
+    private boolean isRowIndexTracked = false;
+
+    private final PrefixSumIndex columnWidths = new PrefixSumIndex();
+    private boolean isColumnIndexValid = false;
+    private boolean isColumnIndexTracked = false;
+
+    public BaseGridDataOffsetsManager(final GridData gridData) {
+        this.gridData = gridData;
+    }
+
+    public void onAppendRow(final GridRow row) {
+        track(row);
+        if (!isRowIndexValid || !isRowIndexTracked || !(row instanceof BaseGridRow)) {
+            isRowIndexValid = false;
+            return;
+        }
+        rowIndexes.put(row,
+                       rowHeights.size());
+        rowHeights.append(row.getHeight());
+    }
+
+    public void onInsertRow(final GridRow row) {
+        track(row);
+        isRowIndexValid = false;
+    }
+
+    public void onDeleteRow(final GridRow row) {
+        if (row instanceof BaseGridRow && ((BaseGridRow) row).getOffsetsManager() == this) {
+            ((BaseGridRow) row).setOffsetsManager(null);
+        }
+        isRowIndexValid = false;
+    }
+
+    public void onMoveRows() {
+        isRowIndexValid = false;
+    }
+
+    public void onMerge(final boolean isMerged) {
+        isRowIndexValid = false;
+    }
+
+    public void onRowHeightChange(final GridRow row) {
+        if (!isRowIndexValid) {
+            return;
+        }
+        final Integer rowIndex = rowIndexes.get(row);
+        if (rowIndex == null) {
+            isRowIndexValid = false;
+            return;
+        }
+        rowHeights.set(rowIndex,
+                       row.getHeight());
+    }
+
+    public void onAddColumn(final GridColumn<?> column) {
+        if (column instanceof BaseGridColumn) {
+            ((BaseGridColumn) column).setOffsetsManager(this);
+        }
+        isColumnIndexValid = false;
+    }
+
+    public void onDeleteColumn(final GridColumn<?> column) {
+        if (column instanceof BaseGridColumn && ((BaseGridColumn) column).getOffsetsManager() == this) {
+            ((BaseGridColumn) column).setOffsetsManager(null);
+        }
+        isColumnIndexValid = false;
+    }
+
+    public void onColumnChange() {
+        isColumnIndexValid = false;
+    }
+
+    /**
+     * Get the sum of the heights of the rows preceding the given row index.
+     * @param rowIndex The index of the row; the number of rows gives the height of all rows.
+     * @return
+     */
+    public double getRowOffset(final int rowIndex) {
+        if (!validateRowIndex()) {
+            final List<GridRow> rows = gridData.getRows();
+            double rowOffset = 0;
+            for (int i = 0; i < rowIndex; i++) {
+                rowOffset = rowOffset + rows.get(i).getHeight();
+            }
+            return rowOffset;
+        }
+        return rowHeights.sum(rowIndex);
+    }
+
+    /**
+     * Get the index of the first row whose bottom edge is at, or beyond, the given y-offset.
+     * @param offset A y-offset relative to the first row.
+     * @return The row index or the number of rows if the offset is beyond the last row.
+     */
+    public int getRowIndex(final double offset) {
+        if (!validateRowIndex()) {
+            final List<GridRow> rows = gridData.getRows();
+            double rowOffset = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                rowOffset = rowOffset + rows.get(i).getHeight();
+                if (rowOffset >= offset) {
+                    return i;
+                }
+            }
+            return rows.size();
+        }
+        return rowHeights.indexOf(offset);
+    }
+
+    /**
+     * Get the sum of the widths of the visible columns preceding the given column index.
+     * @param columnIndex The index of the column.
+     * @return
+     */
+    public double getColumnOffset(final int columnIndex) {
+        if (!validateColumnIndex()) {
+            final List<GridColumn<?>> columns = gridData.getColumns();
+            double columnOffset = 0;
+            for (int i = 0; i < columnIndex; i++) {
+                final GridColumn<?> column = columns.get(i);
+                if (column.isVisible()) {
+                    columnOffset = columnOffset + column.getWidth();
+                }
+            }
+            return columnOffset;
+        }
+        return columnWidths.sum(columnIndex);
+    }
+
+    private void track(final GridRow row) {
+        if (row instanceof BaseGridRow) {
+            ((BaseGridRow) row).setOffsetsManager(this);
+        }
+    }
+
+    //Rebuild the row index if it has been invalidated; returns false if the rows cannot be tracked
+    private boolean validateRowIndex() {
+        final List<GridRow> rows = gridData.getRows();
+        if (isRowIndexValid && rowHeights.size() == rows.size()) {
+            return isRowIndexTracked;
+        }
+        final double[] heights = new double[rows.size()];
+        rowIndexes.clear();
+        isRowIndexTracked = true;
+        for (int i = 0; i < rows.size(); i++) {
+            final GridRow row = rows.get(i);
+            if (!(row instanceof BaseGridRow && ((BaseGridRow) row).getOffsetsManager() == this)) {
+                isRowIndexTracked = false;
+            }
+            heights[i] = row.getHeight();
+            rowIndexes.put(row,
+                           i);
+        }
+        rowHeights.rebuild(heights,
+                           heights.length);
+        isRowIndexValid = true;
+        return isRowIndexTracked;
+    }
+
+    //Rebuild the column index if it has been invalidated; returns false if the columns cannot be tracked
+    private boolean validateColumnIndex() {
+        final List<GridColumn<?>> columns = gridData.getColumns();
+        if (isColumnIndexValid && columnWidths.size() == columns.size()) {
+            return isColumnIndexTracked;
+        }
+        final double[] widths = new double[columns.size()];
+        isColumnIndexTracked = true;
+        for (int i = 0; i < columns.size(); i++) {
+            final GridColumn<?> column = columns.get(i);
+            if (!(column instanceof BaseGridColumn && ((BaseGridColumn) column).getOffsetsManager() == this)) {
+                isColumnIndexTracked = false;
+            }
+            widths[i] = column.isVisible() ? column.getWidth() : 0;
+        }
+        columnWidths.rebuild(widths,
+                             widths.length);
+        isColumnIndexValid = true;
+        return isColumnIndexTracked;
+    }
+}
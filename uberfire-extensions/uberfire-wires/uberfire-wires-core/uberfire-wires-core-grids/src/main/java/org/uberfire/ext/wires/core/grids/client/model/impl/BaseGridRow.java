@@ -26,6 +26,12 @@ import org.uberfire.ext.wires.core.grids.client.model.GridRow;
 
 /**
  * Base implementation of a grid row to avoid boiler-plate for more specific implementations.
+ * <p>
+ * {@link BaseGridData} indexes the heights of its rows to find offsets in O(log n), and is told of changes made
+ * through {@link #setHeight(double)}, {@link #expand()} and {@link #reset()}. Sub-classes that override
+ * {@link #getHeight()}, or change {@link #height} directly, must call {@link #notifyHeightChange()} whenever the
+ * height they report changes; otherwise {@link BaseGridData#getRowOffset(int)} and
+ * {@link BaseGridData#getRowIndex(double)} use the stale height.
  */
 public class BaseGridRow implements GridRow {
 
@@ -35,6 +41,7 @@ public class BaseGridRow implements GridRow {
     private boolean hasMergedCells = false;
     private Stack<Double> heights = new Stack<Double>();
     private int collapseLevel = 0;
+    private BaseGridDataOffsetsManager offsetsManager;
 
     public BaseGridRow() {
         this(20);
@@ -58,6 +65,7 @@ public class BaseGridRow implements GridRow {
     @Override
     public void setHeight(final double height) {
         this.height = height;
+        notifyHeightChange();
     }
 
     @Override
@@ -94,6 +102,7 @@ public class BaseGridRow implements GridRow {
         for (GridCell<?> cell : cells.values()) {
             cell.expand();
         }
+        notifyHeightChange();
     }
 
     @Override
@@ -106,6 +115,7 @@ public class BaseGridRow implements GridRow {
         for (GridCell<?> cell : cells.values()) {
             cell.reset();
         }
+        notifyHeightChange();
     }
 
     //This is not part of the GridCell interface as we don't want to expose this for general use
@@ -129,4 +139,22 @@ public class BaseGridRow implements GridRow {
     void setHasMergedCells(final boolean hasMergedCells) {
         this.hasMergedCells = hasMergedCells;
     }
+
+    BaseGridDataOffsetsManager getOffsetsManager() {
+        return offsetsManager;
+    }
+
+    void setOffsetsManager(final BaseGridDataOffsetsManager offsetsManager) {
+        this.offsetsManager = offsetsManager;
+    }
+
+    /**
+     * Notify the {@link BaseGridData} holding this row that {@link #getHeight()} changed. Needed by sub-classes
+     * changing the height other than through {@link #setHeight(double)}, {@link #expand()} or {@link #reset()}.
+     */
+    protected void notifyHeightChange() {
+        if (offsetsManager != null) {
+            offsetsManager.onRowHeightChange(this);
+        }
+    }
 }
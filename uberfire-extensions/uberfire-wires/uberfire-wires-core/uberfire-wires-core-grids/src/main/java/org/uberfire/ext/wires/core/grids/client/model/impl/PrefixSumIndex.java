@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.wires.core.grids.client.model.impl;
+
+/**
+ * Fenwick tree over a list of non-negative values (e.g. row heights) supporting prefix sums,
+ * point updates and "which entry contains this offset" searches in O(log n).
+ */
+class PrefixSumIndex {
+
+    private double[] values = new double[0];
+    private double[] tree = new double[1];
+    private int size = 0;
+
+    /**
+     * Replace the content of the index in O(n).
+     * @param values The values; only the first {@code size} are used.
+     * @param size Number of values.
+     */
+    void rebuild(final double[] values,
+                 final int size) {
+        this.size = size;
+        this.values = new double[Math.max(size,
+                                          16)];
+        this.tree = new double[this.values.length + 1];
+        System.arraycopy(values,
+                         0,
+                         this.values,
+                         0,
+                         size);
+        for (int i = 1; i <= size; i++) {
+            tree[i] = tree[i] + values[i - 1];
+            final int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] = tree[parent] + tree[i];
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    double get(final int index) {
+        return values[index];
+    }
+
+    /**
+     * Add a value to the end of the index in O(log n) amortized.
+     * @param value The value.
+     */
+    void append(final double value) {
+        if (size == values.length) {
+            final double[] grown = new double[values.length * 2];
+            System.arraycopy(values,
+                             0,
+                             grown,
+                             0,
+                             size);
+            values = grown;
+            final double[] grownTree = new double[grown.length + 1];
+            System.arraycopy(tree,
+                             0,
+                             grownTree,
+                             0,
+                             size + 1);
+            tree = grownTree;
+        }
+        values[size] = value;
+        size++;
+        //The new node covers (size - lowbit(size), size]
+        tree[size] = sum(size - 1) - sum(size - (size & -size)) + value;
+    }
+
+    /**
+     * Set the value at an index in O(log n).
+     * @param index The index.
+     * @param value The new value.
+     */
+    void set(final int index,
+             final double value) {
+        final double delta = value - values[index];
+        if (delta == 0) {
+            return;
+        }
+        values[index] = value;
+        for (int i = index + 1; i <= size; i += i & -i) {
+            tree[i] = tree[i] + delta;
+        }
+    }
+
+    /**
+     * Sum of the first {@code count} values.
+     * @param count Number of values to sum.
+     * @return
+     */
+    double sum(final int count) {
+        double sum = 0;
+        for (int i = Math.min(count,
+                              size); i > 0; i -= i & -i) {
+            sum = sum + tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Find the first index whose values, summed from zero and inclusive of itself, reach the given offset.
+     * @param offset The offset.
+     * @return The index or {@link #size()} if the offset is beyond the sum of all values.
+     */
+    int indexOf(final double offset) {
+        int position = 0;
+        double remaining = offset;
+        for (int step = Integer.highestOneBit(Math.max(size,
+                                                       1)); step > 0; step >>= 1) {
+            final int next = position + step;
+            if (next <= size && tree[next] < remaining) {
+                position = next;
+                remaining = remaining - tree[next];
+            }
+        }
+        return position;
+    }
+}
@@ -24,6 +24,7 @@ import org.uberfire.ext.wires.core.grids.client.model.Bounds;
 import org.uberfire.ext.wires.core.grids.client.model.GridColumn;
 import org.uberfire.ext.wires.core.grids.client.model.GridData;
 import org.uberfire.ext.wires.core.grids.client.model.GridRow;
+import org.uberfire.ext.wires.core.grids.client.model.impl.BaseGridData;
 import org.uberfire.ext.wires.core.grids.client.widget.grid.GridWidget;
 import org.uberfire.ext.wires.core.grids.client.widget.grid.renderers.grids.GridRenderer;
 import org.uberfire.ext.wires.core.grids.client.widget.layer.GridLayer;
@@ -61,8 +62,11 @@ public class BaseGridRendererHelper {
      * @return
      */
     public double getColumnOffset(final int columnIndex) {
-        double columnOffset = 0;
         final GridData model = view.getModel();
+        if (model instanceof BaseGridData) {
+            return ((BaseGridData) model).getColumnOffset(columnIndex);
+        }
+        double columnOffset = 0;
         final List<GridColumn<?>> columns = model.getColumns();
         for (int i = 0; i < columnIndex; i++) {
             final GridColumn column = columns.get(i);
@@ -108,8 +112,11 @@ public class BaseGridRendererHelper {
      * @return
      */
     public double getRowOffset(final int rowIndex) {
-        double rowOffset = 0;
         final GridData model = view.getModel();
+        if (model instanceof BaseGridData) {
+            return ((BaseGridData) model).getRowOffset(rowIndex);
+        }
+        double rowOffset = 0;
         for (int i = 0; i < rowIndex; i++) {
             final GridRow row = model.getRow(i);
             rowOffset = rowOffset + row.getHeight();
@@ -185,30 +192,23 @@ public class BaseGridRendererHelper {
         }
 
         //Identify rows to render
-        GridRow row;
+        final double clipTop = vpY - view.getY() - (isFloatingHeader ? 0.0 : renderer.getHeaderHeight());
+        final double clipBottom = vpY - view.getY() - renderer.getHeaderHeight() + vpHeight;
         int minVisibleRowIndex = 0;
+        int maxVisibleRowIndex = 0;
         if (model.getRowCount() > 0) {
-            double clipTop = vpY - view.getY() - (isFloatingHeader ? 0.0 : renderer.getHeaderHeight());
-            while ((row = model.getRow(minVisibleRowIndex)).getHeight() < clipTop && minVisibleRowIndex < model.getRowCount() - 1) {
-                clipTop = clipTop - row.getHeight();
-                minVisibleRowIndex++;
-            }
-        }
-
-        int maxVisibleRowIndex = minVisibleRowIndex;
-        if (model.getRowCount() > 0) {
-            double clipBottom = vpY - view.getY() - renderer.getHeaderHeight() + vpHeight - getRowOffset(minVisibleRowIndex);
-            while ((row = model.getRow(maxVisibleRowIndex)).getHeight() < clipBottom && maxVisibleRowIndex < model.getRowCount() - 1) {
-                clipBottom = clipBottom - row.getHeight();
-                maxVisibleRowIndex++;
-            }
+            minVisibleRowIndex = getRowIndex(model,
+                                             clipTop);
+            maxVisibleRowIndex = Math.max(minVisibleRowIndex,
+                                          getRowIndex(model,
+                                                      clipBottom));
         }
 
         //Identify columns to render
         double x = 0;
+        double floatingColumnsWidth = 0;
         for (GridColumn<?> column : model.getColumns()) {
             allColumns.add(column);
-            final double floatingColumnsWidth = getWidth(floatingColumns);
             if (view.getX() + x + column.getWidth() >= vpX + floatingColumnsWidth) {
                 if (view.getX() + x < vpX + vpWidth) {
                     bodyColumns.add(column);
@@ -220,6 +220,9 @@ public class BaseGridRendererHelper {
                         allColumns.remove(column);
                         bodyColumns.remove(column);
                         floatingColumns.add(column);
+                        if (column.isVisible()) {
+                            floatingColumnsWidth = floatingColumnsWidth + column.getWidth();
+                        }
                     }
                 }
             }
@@ -229,7 +232,7 @@ public class BaseGridRendererHelper {
         }
 
         //If the floating columns obscure the body columns remove the float and just show the body columns
-        if (view.getX() + x - vpX < getWidth(floatingColumns)) {
+        if (view.getX() + x - vpX < floatingColumnsWidth) {
             allColumns.clear();
             bodyColumns.clear();
             floatingColumns.clear();
@@ -363,6 +366,29 @@ public class BaseGridRendererHelper {
                                      offsetX);
     }
 
+    /**
+     * Get the index of the first row whose bottom edge is at, or beyond, the given y-offset; or the last row.
+     * @param model The GridData; which must contain at least one row.
+     * @param offset A y-offset relative to the first row.
+     * @return
+     */
+    private int getRowIndex(final GridData model,
+                            final double offset) {
+        final int lastRowIndex = model.getRowCount() - 1;
+        if (model instanceof BaseGridData) {
+            return Math.min(((BaseGridData) model).getRowIndex(offset),
+                            lastRowIndex);
+        }
+        double rowOffset = 0;
+        for (int rowIndex = 0; rowIndex < lastRowIndex; rowIndex++) {
+            rowOffset = rowOffset + model.getRow(rowIndex).getHeight();
+            if (rowOffset >= offset) {
+                return rowIndex;
+            }
+        }
+        return lastRowIndex;
+    }
+
     /**
      * Get the visible bounds (canvas coordinate system) of the given GridWidget.
      * @return
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.wires.core.grids.client.model.impl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.uberfire.ext.wires.core.grids.client.model.GridRow;
+
+/**
+ * Measures row offset lookups on large grids: through the prefix sums of {@link BaseGridData}, including a resize
+ * before each lookup, against the linear sum of the preceding row heights the renderer used before.
+ * Not executed as part of the build, run it through {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GridOffsetsBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private BaseGridData model;
+
+    private int next = 0;
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(GridOffsetsBenchmark.class.getSimpleName())
+                           .build()).run();
+    }
+
+    @Setup
+    public void setup() {
+        model = new BaseGridData();
+        for (int rowIndex = 0; rowIndex < rows; rowIndex++) {
+            model.appendRow(new BaseGridRow(rowIndex % 5 == 0 ? 40.0 : 20.0));
+        }
+    }
+
+    @Benchmark
+    public double rowOffset() {
+        return model.getRowOffset(nextRowIndex());
+    }
+
+    @Benchmark
+    public int rowIndex() {
+        return model.getRowIndex(model.getRowOffset(nextRowIndex()));
+    }
+
+    @Benchmark
+    public double resizeAndRowOffset() {
+        final int rowIndex = nextRowIndex();
+        final GridRow row = model.getRow(rowIndex);
+        row.setHeight(row.getHeight() == 20.0 ? 30.0 : 20.0);
+        return model.getRowOffset(rows - 1);
+    }
+
+    @Benchmark
+    public double linearRowOffset() {
+        final int rowIndex = nextRowIndex();
+        final List<GridRow> modelRows = model.getRows();
+        double rowOffset = 0;
+        for (int i = 0; i < rowIndex; i++) {
+            rowOffset = rowOffset + modelRows.get(i).getHeight();
+        }
+        return rowOffset;
+    }
+
+    //Spread the lookups over the grid
+    private int nextRowIndex() {
+        next = (int) ((next + 7919L) % rows);
+        return next;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.wires.core.grids.client.model.impl;
+
+import org.junit.Test;
+import org.uberfire.ext.wires.core.grids.client.model.GridColumn;
+import org.uberfire.ext.wires.core.grids.client.model.GridRow;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class GridOffsetsTest extends BaseGridTest {
+
+    @Test
+    public void testRowOffsetsAppendAndInsert() {
+        final BaseGridData data = new BaseGridData();
+        data.appendRow(new BaseGridRow(10));
+        data.appendRow(new BaseGridRow(20));
+        assertRowOffsets(data);
+
+        data.insertRow(1,
+                       new BaseGridRow(30));
+        data.appendRow(new BaseGridRow(40));
+
+        assertEquals(0.0,
+                     data.getRowOffset(0),
+                     0.0);
+        assertEquals(10.0,
+                     data.getRowOffset(1),
+                     0.0);
+        assertEquals(40.0,
+                     data.getRowOffset(2),
+                     0.0);
+        assertEquals(60.0,
+                     data.getRowOffset(3),
+                     0.0);
+        assertEquals(100.0,
+                     data.getRowOffset(4),
+                     0.0);
+        assertRowOffsets(data);
+    }
+
+    @Test
+    public void testRowOffsetsDeleteAndMove() {
+        final BaseGridData data = new BaseGridData(false);
+        for (int i = 0; i < 10; i++) {
+            data.appendRow(new BaseGridRow(10 + i));
+        }
+        assertRowOffsets(data);
+
+        final GridRow deleted = data.getRow(3);
+        data.deleteRow(3);
+        assertRowOffsets(data);
+
+        //Changes to deleted rows should not affect the grid
+        deleted.setHeight(1000);
+        assertRowOffsets(data);
+
+        data.moveRowTo(0,
+                       data.getRow(5));
+        assertRowOffsets(data);
+    }
+
+    @Test
+    public void testRowOffsetsResize() {
+        final BaseGridData data = new BaseGridData();
+        for (int i = 0; i < 10; i++) {
+            data.appendRow(new BaseGridRow());
+        }
+        assertRowOffsets(data);
+
+        data.getRow(4).setHeight(55);
+        assertEquals(80.0,
+                     data.getRowOffset(4),
+                     0.0);
+        assertEquals(135.0,
+                     data.getRowOffset(5),
+                     0.0);
+        assertRowOffsets(data);
+    }
+
+    @Test
+    public void testRowOffsetsCollapseAndMerge() {
+        final BaseGridData data = new BaseGridData();
+        final GridColumn<String> gc1 = new MockMergableGridColumn<String>("col1",
+                                                                          100);
+        data.appendColumn(gc1);
+        for (int i = 0; i < 6; i++) {
+            data.appendRow(new BaseGridRow());
+            data.setCell(i,
+                         0,
+                         new BaseGridCellValue<String>(i < 4 ? "a" : "b"));
+        }
+
+        data.collapseCell(0,
+                          0);
+        for (int i = 1; i < 4; i++) {
+            data.getRow(i).setHeight(0);
+        }
+        assertEquals(20.0,
+                     data.getRowOffset(4),
+                     0.0);
+        assertRowOffsets(data);
+
+        data.setMerged(false);
+        assertEquals(80.0,
+                     data.getRowOffset(4),
+                     0.0);
+        assertRowOffsets(data);
+    }
+
+    @Test
+    public void testRowIndex() {
+        final BaseGridData data = new BaseGridData();
+        data.appendRow(new BaseGridRow(10));
+        data.appendRow(new BaseGridRow(0));
+        data.appendRow(new BaseGridRow(20));
+
+        assertEquals(0,
+                     data.getRowIndex(-5.0));
+        assertEquals(0,
+                     data.getRowIndex(0.0));
+        assertEquals(0,
+                     data.getRowIndex(10.0));
+        assertEquals(2,
+                     data.getRowIndex(10.5));
+        assertEquals(2,
+                     data.getRowIndex(30.0));
+        assertEquals(3,
+                     data.getRowIndex(30.5));
+    }
+
+    @Test
+    public void testRowOffsetsUntrackedRow() {
+        final BaseGridData data = new BaseGridData();
+        final GridRow row = mock(GridRow.class);
+        when(row.getHeight()).thenReturn(15.0);
+        data.appendRow(new BaseGridRow(10));
+        data.appendRow(row);
+        data.appendRow(new BaseGridRow(10));
+
+        assertEquals(35.0,
+                     data.getRowOffset(3),
+                     0.0);
+        assertEquals(1,
+                     data.getRowIndex(20.0));
+
+        //Rows not derived from BaseGridRow cannot report changes so are summed each time
+        when(row.getHeight()).thenReturn(5.0);
+        assertEquals(25.0,
+                     data.getRowOffset(3),
+                     0.0);
+        assertEquals(2,
+                     data.getRowIndex(20.0));
+    }
+
+    @Test
+    public void testColumnOffsets() {
+        final BaseGridData data = new BaseGridData();
+        final GridColumn<String> gc1 = new MockMergableGridColumn<String>("col1",
+                                                                          100);
+        final GridColumn<String> gc2 = new MockMergableGridColumn<String>("col2",
+                                                                          150);
+        final GridColumn<String> gc3 = new MockMergableGridColumn<String>("col3",
+                                                                          200);
+        data.appendColumn(gc1);
+        data.appendColumn(gc2);
+        data.appendColumn(gc3);
+
+        assertEquals(250.0,
+                     data.getColumnOffset(2),
+                     0.0);
+
+        gc2.setWidth(50);
+        assertEquals(150.0,
+                     data.getColumnOffset(2),
+                     0.0);
+
+        gc1.setVisible(false);
+        assertEquals(50.0,
+                     data.getColumnOffset(2),
+                     0.0);
+
+        data.moveColumnTo(0,
+                          gc3);
+        assertEquals(200.0,
+                     data.getColumnOffset(2),
+                     0.0);
+
+        data.deleteColumn(gc3);
+        assertEquals(0.0,
+                     data.getColumnOffset(1),
+                     0.0);
+    }
+
+    private void assertRowOffsets(final BaseGridData data) {
+        double offset = 0;
+        for (int rowIndex = 0; rowIndex < data.getRowCount(); rowIndex++) {
+            assertEquals("Row[" + rowIndex + "] offset differs to the sum of heights.",
+                         offset,
+                         data.getRowOffset(rowIndex),
+                         0.0);
+            offset = offset + data.getRow(rowIndex).getHeight();
+        }
+        assertEquals(offset,
+                     data.getRowOffset(data.getRowCount()),
+                     0.0);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.wires.core.grids.client.widget.grid.renderers.grids.impl;
+
+import com.ait.lienzo.test.LienzoMockitoTestRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.uberfire.ext.wires.core.grids.client.model.impl.BaseBounds;
+import org.uberfire.ext.wires.core.grids.client.model.impl.BaseGridColumn;
+import org.uberfire.ext.wires.core.grids.client.model.impl.BaseGridData;
+import org.uberfire.ext.wires.core.grids.client.model.impl.BaseGridRow;
+import org.uberfire.ext.wires.core.grids.client.model.impl.BaseHeaderMetaData;
+import org.uberfire.ext.wires.core.grids.client.widget.grid.GridWidget;
+import org.uberfire.ext.wires.core.grids.client.widget.grid.renderers.columns.GridColumnRenderer;
+import org.uberfire.ext.wires.core.grids.client.widget.grid.renderers.grids.GridRenderer;
+import org.uberfire.ext.wires.core.grids.client.widget.layer.impl.DefaultGridLayer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(LienzoMockitoTestRunner.class)
+public class BaseGridRendererHelperTest {
+
+    private static final int ROW_COUNT = 100000;
+
+    private static final double HEADER_HEIGHT = 64.0;
+
+    private static final double VIEWPORT_HEIGHT = 600.0;
+
+    @Mock
+    private GridWidget view;
+
+    @Mock
+    private DefaultGridLayer layer;
+
+    @Mock
+    private GridRenderer renderer;
+
+    @Mock
+    private GridColumnRenderer<String> columnRenderer;
+
+    private BaseGridData model;
+
+    private BaseGridRendererHelper helper;
+
+    private double viewportY = 0.0;
+
+    @Before
+    public void setup() {
+        model = new BaseGridData();
+        model.appendColumn(new BaseGridColumn<String>(new BaseHeaderMetaData("title"),
+                                                      columnRenderer,
+                                                      100.0));
+        for (int rowIndex = 0; rowIndex < ROW_COUNT; rowIndex++) {
+            model.appendRow(new BaseGridRow(rowIndex % 5 == 0 ? 40.0 : 20.0));
+        }
+
+        when(view.getModel()).thenReturn(model);
+        when(view.getLayer()).thenReturn(layer);
+        when(view.getRenderer()).thenReturn(renderer);
+        when(view.getWidth()).thenReturn(100.0);
+        when(view.getHeight()).thenReturn(HEADER_HEIGHT + model.getRowOffset(ROW_COUNT));
+        when(renderer.getHeaderHeight()).thenReturn(HEADER_HEIGHT);
+        when(renderer.getHeaderRowHeight()).thenReturn(HEADER_HEIGHT);
+        when(layer.getVisibleBounds()).thenAnswer(invocation -> new BaseBounds(0,
+                                                                               viewportY,
+                                                                               1000,
+                                                                               VIEWPORT_HEIGHT));
+
+        helper = new BaseGridRendererHelper(view);
+    }
+
+    @Test
+    public void checkRowOffsets() {
+        for (int rowIndex = 0; rowIndex < ROW_COUNT; rowIndex = rowIndex + 997) {
+            assertEquals(linearRowOffset(rowIndex),
+                         helper.getRowOffset(rowIndex),
+                         0.0);
+        }
+        assertEquals(linearRowOffset(ROW_COUNT),
+                     helper.getRowOffset(ROW_COUNT),
+                     0.0);
+    }
+
+    @Test
+    public void checkVisibleRowsWhenScrolling() {
+        final double gridHeight = view.getHeight();
+        for (viewportY = 0; viewportY < gridHeight; viewportY = viewportY + 1237.5) {
+            assertVisibleRows();
+        }
+        viewportY = gridHeight - 1.0;
+        assertVisibleRows();
+    }
+
+    @Test
+    public void checkVisibleRowsAfterResize() {
+        viewportY = 50000.0;
+        assertVisibleRows();
+
+        model.getRow(10).setHeight(1000.0);
+        assertVisibleRows();
+
+        model.deleteRow(20);
+        assertVisibleRows();
+    }
+
+    private void assertVisibleRows() {
+        final BaseGridRendererHelper.RenderingInformation ri = helper.getRenderingInformation();
+        assertNotNull(ri);
+
+        //Expected values as calculated by walking the rows from the top of the grid
+        int minVisibleRowIndex = 0;
+        double clipTop = viewportY - HEADER_HEIGHT;
+        while (model.getRow(minVisibleRowIndex).getHeight() < clipTop && minVisibleRowIndex < model.getRowCount() - 1) {
+            clipTop = clipTop - model.getRow(minVisibleRowIndex).getHeight();
+            minVisibleRowIndex++;
+        }
+        int maxVisibleRowIndex = minVisibleRowIndex;
+        double clipBottom = viewportY - HEADER_HEIGHT + VIEWPORT_HEIGHT - linearRowOffset(minVisibleRowIndex);
+        while (model.getRow(maxVisibleRowIndex).getHeight() < clipBottom && maxVisibleRowIndex < model.getRowCount() - 1) {
+            clipBottom = clipBottom - model.getRow(maxVisibleRowIndex).getHeight();
+            maxVisibleRowIndex++;
+        }
+
+        assertEquals(minVisibleRowIndex,
+                     ri.getMinVisibleRowIndex());
+        assertEquals(maxVisibleRowIndex,
+                     ri.getMaxVisibleRowIndex());
+        assertEquals(maxVisibleRowIndex - minVisibleRowIndex + 1,
+                     ri.getVisibleRowOffsets().size());
+        assertEquals(linearRowOffset(minVisibleRowIndex),
+                     ri.getVisibleRowOffsets().get(0),
+                     0.0);
+    }
+
+    private double linearRowOffset(final int rowIndex) {
+        double rowOffset = 0;
+        for (int i = 0; i < rowIndex; i++) {
+            rowOffset = rowOffset + model.getRow(i).getHeight();
+        }
+        return rowOffset;
+    }
+}
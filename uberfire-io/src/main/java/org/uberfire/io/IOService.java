@@ -22,6 +22,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -190,6 +191,49 @@ public interface IOService extends PriorityDisposable {
             DirectoryNotEmptyException, AtomicMoveNotSupportedException,
             IOException, SecurityException;
 
+    /**
+     * Copies every source to its target. Paths must belong to the same file system; when its provider supports
+     * {@link org.uberfire.java.nio.base.BulkFileOperations} all copies are applied as a single change.
+     */
+    default void copyAll(final Map<Path, Path> sourceToTarget,
+                         final CopyOption... options)
+            throws UnsupportedOperationException, FileAlreadyExistsException,
+            DirectoryNotEmptyException, IOException, SecurityException {
+        for (final Map.Entry<Path, Path> entry : sourceToTarget.entrySet()) {
+            copy(entry.getKey(),
+                 entry.getValue(),
+                 options);
+        }
+    }
+
+    /**
+     * Moves every source to its target, see {@link #copyAll(Map, CopyOption...)}.
+     */
+    default void moveAll(final Map<Path, Path> sourceToTarget,
+                         final CopyOption... options)
+            throws UnsupportedOperationException, FileAlreadyExistsException,
+            DirectoryNotEmptyException, AtomicMoveNotSupportedException,
+            IOException, SecurityException {
+        for (final Map.Entry<Path, Path> entry : sourceToTarget.entrySet()) {
+            move(entry.getKey(),
+                 entry.getValue(),
+                 options);
+        }
+    }
+
+    /**
+     * Deletes every path, see {@link #copyAll(Map, CopyOption...)}.
+     */
+    default void deleteAll(final Collection<Path> paths,
+                           final DeleteOption... options)
+            throws IllegalArgumentException, NoSuchFileException,
+            DirectoryNotEmptyException, IOException, SecurityException {
+        for (final Path path : paths) {
+            delete(path,
+                   options);
+        }
+    }
+
     <V extends FileAttributeView> V getFileAttributeView(final Path path,
                                                          final Class<V> type)
             throws IllegalArgumentException;
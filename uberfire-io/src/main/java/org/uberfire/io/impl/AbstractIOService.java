@@ -25,6 +25,7 @@ import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
@@ -41,9 +42,11 @@ import org.uberfire.io.IOWatchService;
 import org.uberfire.io.lock.BatchLockControl;
 import org.uberfire.java.nio.IOException;
 import org.uberfire.java.nio.base.AbstractPath;
+import org.uberfire.java.nio.base.BulkFileOperations;
 import org.uberfire.java.nio.base.FileSystemState;
 import org.uberfire.java.nio.channels.SeekableByteChannel;
 import org.uberfire.java.nio.file.CopyOption;
+import org.uberfire.java.nio.file.DeleteOption;
 import org.uberfire.java.nio.file.DirectoryNotEmptyException;
 import org.uberfire.java.nio.file.DirectoryStream;
 import org.uberfire.java.nio.file.FileAlreadyExistsException;
@@ -172,7 +175,7 @@ public abstract class AbstractIOService implements IOServiceIdentifiable,
         }
 
         try {
-            cleanUpAndUnsetBatchModeOnFileSystems();
+            cleanUpAndUnsetBatchModeOnFileSystems(batchLockControl.getLockedFileSystems());
         } catch (Exception e) {
             throw new RuntimeException("Exception cleaning and unsetting batch mode on FS.",
                                        e);
@@ -181,13 +184,15 @@ public abstract class AbstractIOService implements IOServiceIdentifiable,
         }
     }
 
-    private void cleanUpAndUnsetBatchModeOnFileSystems() {
+    private void cleanUpAndUnsetBatchModeOnFileSystems(final List<FileSystem> lockedFileSystems) {
         if (!fileSystems.isEmpty()) {
             cleanupClosedFileSystems();
         }
 
-        for (final FileSystem fs : fileSystems) {
-            unsetBatchModeOn(fs);
+        for (final FileSystem fs : lockedFileSystems) {
+            if (fs.isOpen()) {
+                unsetBatchModeOn(fs);
+            }
         }
     }
 
@@ -537,6 +542,85 @@ public abstract class AbstractIOService implements IOServiceIdentifiable,
                           options);
     }
 
+    @Override
+    public void copyAll(final Map<Path, Path> sourceToTarget,
+                        final CopyOption... options)
+            throws UnsupportedOperationException, FileAlreadyExistsException, DirectoryNotEmptyException,
+            IOException, SecurityException {
+        final BulkFileOperations bulkOperations = bulkOperationsOf(sourceToTarget);
+        if (bulkOperations != null) {
+            bulkOperations.copyAll(sourceToTarget,
+                                   options);
+            return;
+        }
+        for (final Map.Entry<Path, Path> entry : sourceToTarget.entrySet()) {
+            copy(entry.getKey(),
+                 entry.getValue(),
+                 options);
+        }
+    }
+
+    @Override
+    public void moveAll(final Map<Path, Path> sourceToTarget,
+                        final CopyOption... options)
+            throws UnsupportedOperationException, FileAlreadyExistsException, DirectoryNotEmptyException,
+            IOException, SecurityException {
+        final BulkFileOperations bulkOperations = bulkOperationsOf(sourceToTarget);
+        if (bulkOperations != null) {
+            bulkOperations.moveAll(sourceToTarget,
+                                   options);
+            return;
+        }
+        for (final Map.Entry<Path, Path> entry : sourceToTarget.entrySet()) {
+            move(entry.getKey(),
+                 entry.getValue(),
+                 options);
+        }
+    }
+
+    @Override
+    public void deleteAll(final Collection<Path> paths,
+                          final DeleteOption... options)
+            throws IllegalArgumentException, NoSuchFileException, DirectoryNotEmptyException,
+            IOException, SecurityException {
+        final BulkFileOperations bulkOperations = bulkOperationsOf(paths);
+        if (bulkOperations != null) {
+            bulkOperations.deleteAll(paths,
+                                     options);
+            return;
+        }
+        for (final Path path : paths) {
+            delete(path,
+                   options);
+        }
+    }
+
+    protected BulkFileOperations bulkOperationsOf(final Map<Path, Path> sourceToTarget) {
+        final List<Path> paths = new ArrayList<Path>(sourceToTarget.size() * 2);
+        paths.addAll(sourceToTarget.keySet());
+        paths.addAll(sourceToTarget.values());
+        return bulkOperationsOf(paths);
+    }
+
+    /**
+     * @return the provider of the given paths when they all share one file system whose provider supports
+     * {@link BulkFileOperations}, null otherwise.
+     */
+    protected BulkFileOperations bulkOperationsOf(final Collection<Path> paths) {
+        FileSystem fileSystem = null;
+        for (final Path path : paths) {
+            if (fileSystem == null) {
+                fileSystem = path.getFileSystem();
+            } else if (!fileSystem.equals(path.getFileSystem())) {
+                return null;
+            }
+        }
+        if (fileSystem != null && fileSystem.provider() instanceof BulkFileOperations) {
+            return (BulkFileOperations) fileSystem.provider();
+        }
+        return null;
+    }
+
     @Override
     public Path write(final Path path,
                       final byte[] bytes,
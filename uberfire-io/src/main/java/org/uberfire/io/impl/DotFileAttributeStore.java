@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.io.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.uberfire.commons.config.ConfigProperties;
+import org.uberfire.java.nio.base.Properties;
+import org.uberfire.java.nio.base.dotfiles.DotFileAware;
+import org.uberfire.java.nio.file.Files;
+import org.uberfire.java.nio.file.NoSuchFileException;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.attribute.BasicFileAttributes;
+
+import static org.uberfire.java.nio.base.dotfiles.DotFileUtils.dot;
+
+/**
+ * Caches the parsed properties of dot files by URI, together with the version of the dot file they were read from: its
+ * content id on {@link DotFileAware} file systems, its modification time and size elsewhere. A lookup of an unchanged
+ * dot file costs an attribute read instead of reading and deserializing the file.
+ * <p>
+ * Returned properties are copies, the values themselves are shared.
+ */
+public class DotFileAttributeStore {
+
+    public static final String MAX_ENTRIES = "org.uberfire.io.dotfile.cache.maxEntries";
+
+    private static final ConfigProperties CONFIG = new ConfigProperties(System.getProperties());
+    private static final int DEFAULT_MAX_ENTRIES = CONFIG.get(MAX_ENTRIES,
+                                                              "1000").getIntValue();
+
+    private final Map<String, Entry> entries;
+
+    public DotFileAttributeStore() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public DotFileAttributeStore(final int maxEntries) {
+        this.entries = new LinkedHashMap<String, Entry>(16,
+                                                        0.75f,
+                                                        true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the properties stored in the dot file of the given path, empty if it has none.
+     */
+    public Properties read(final Path path) {
+        final Path dot = dot(path);
+        final String key = dot.toUri().toString();
+        final Object version = version(dot);
+        if (version == null) {
+            remove(key);
+            return new Properties();
+        }
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null || !entry.version.equals(version)) {
+            final Properties properties = new Properties();
+            properties.load(Files.newInputStream(dot));
+            entry = new Entry(version,
+                              properties);
+            synchronized (entries) {
+                entries.put(key,
+                            entry);
+            }
+        }
+        return new Properties(entry.properties);
+    }
+
+    /**
+     * Forgets the dot file of the given path, to be called whenever it's written or deleted.
+     */
+    public void invalidate(final Path path) {
+        remove(dot(path).toUri().toString());
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void remove(final String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    private Object version(final Path dot) {
+        final BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(dot,
+                                         BasicFileAttributes.class);
+        } catch (final NoSuchFileException ex) {
+            return null;
+        }
+        if (attrs.fileKey() != null && dot.getFileSystem().provider() instanceof DotFileAware) {
+            return attrs.fileKey();
+        }
+        return attrs.lastModifiedTime().toMillis() + ":" + attrs.size();
+    }
+
+    private static class Entry {
+
+        private final Object version;
+        private final Properties properties;
+
+        private Entry(final Object version,
+                      final Properties properties) {
+            this.version = version;
+            this.properties = properties;
+        }
+    }
+}
@@ -16,7 +16,9 @@
 
 package org.uberfire.io.impl;
 
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
@@ -27,8 +29,10 @@ import org.uberfire.io.IOWatchService;
 import org.uberfire.java.nio.IOException;
 import org.uberfire.java.nio.base.AbstractBasicFileAttributeView;
 import org.uberfire.java.nio.base.AttrHolder;
+import org.uberfire.java.nio.base.BulkFileOperations;
 import org.uberfire.java.nio.base.NeedsPreloadedAttrs;
 import org.uberfire.java.nio.base.Properties;
+import org.uberfire.java.nio.base.dotfiles.DotFileAware;
 import org.uberfire.java.nio.base.dotfiles.DotFileOption;
 import org.uberfire.java.nio.channels.SeekableByteChannel;
 import org.uberfire.java.nio.file.AtomicMoveNotSupportedException;
@@ -54,6 +58,8 @@ public class IOServiceDotFileImpl
         extends AbstractIOService
         implements IOService {
 
+    private final DotFileAttributeStore attributeStore = new DotFileAttributeStore();
+
     public IOServiceDotFileImpl() {
         super();
     }
@@ -77,13 +83,19 @@ public class IOServiceDotFileImpl
                        final DeleteOption... options)
             throws IllegalArgumentException, NoSuchFileException, DirectoryNotEmptyException,
             IOException, SecurityException {
-        Files.delete(path,
-                     options);
-        try {
-            Files.deleteIfExists(dot(path),
-                                 options);
-        } catch (Exception ex) {
+        if (foldsDotFile(path)) {
+            Files.delete(path,
+                         buildDeleteOptions(options));
+        } else {
+            Files.delete(path,
+                         options);
+            try {
+                Files.deleteIfExists(dot(path),
+                                     options);
+            } catch (Exception ex) {
+            }
         }
+        attributeStore.invalidate(path);
         if (path instanceof AttrHolder) {
             ((AttrHolder) path).getAttrStorage().clear();
         }
@@ -93,13 +105,17 @@ public class IOServiceDotFileImpl
     public boolean deleteIfExists(final Path path,
                                   final DeleteOption... options)
             throws IllegalArgumentException, DirectoryNotEmptyException, IOException, SecurityException {
+        final boolean folded = foldsDotFile(path);
         final boolean result = Files.deleteIfExists(path,
-                                                    options);
-        try {
-            Files.deleteIfExists(dot(path),
-                                 options);
-        } catch (Exception ex) {
+                                                    folded ? buildDeleteOptions(options) : options);
+        if (!folded || !result) {
+            try {
+                Files.deleteIfExists(dot(path),
+                                     options);
+            } catch (Exception ex) {
+            }
         }
+        attributeStore.invalidate(path);
         if (path instanceof AttrHolder) {
             ((AttrHolder) path).getAttrStorage().clear();
         }
@@ -114,13 +130,23 @@ public class IOServiceDotFileImpl
             FileAlreadyExistsException, IOException, SecurityException {
         checkNotNull("path",
                      path);
-        final Properties properties = new Properties();
-        if (exists(dot(path))) {
-            properties.load(newInputStream(dot(path)));
-        }
+        final Properties properties = attributeStore.read(path);
         final FileAttribute<?>[] allAttrs = consolidate(properties,
                                                         attrs);
 
+        if (!properties.isEmpty() && properties.equals(toProperties(allAttrs))) {
+            // the dot file already holds these attributes, only the content gets written
+            if (path instanceof AttrHolder) {
+                ((AttrHolder) path).getAttrStorage().loadContent(properties);
+            }
+            final Set<OpenOption> contentOptions = new HashSet<OpenOption>(options);
+            contentOptions.remove(new DotFileOption());
+            return Files.newByteChannel(path,
+                                        contentOptions,
+                                        allAttrs);
+        }
+
+        attributeStore.invalidate(path);
         final SeekableByteChannel result = Files.newByteChannel(path,
                                                                 buildOptions(options),
                                                                 allAttrs);
@@ -152,6 +178,7 @@ public class IOServiceDotFileImpl
         final Path result = Files.createDirectories(dir,
                                                     attrs);
 
+        attributeStore.invalidate(dir);
         buildDotFile(dir,
                      newOutputStream(dot(dir)),
                      attrs);
@@ -165,17 +192,28 @@ public class IOServiceDotFileImpl
                      final CopyOption... options)
             throws UnsupportedOperationException, FileAlreadyExistsException,
             DirectoryNotEmptyException, IOException, SecurityException {
-        if (Files.exists(dot(source))) {
-            Files.copy(dot(source),
-                       dot(target),
-                       forceBuildOptions(options));
-        } else if (Files.exists(dot(target))) {
-            Files.delete(dot(target));
-        }
+        final Path result;
+        if (foldsDotFile(source)) {
+            if (!Files.exists(dot(source)) && Files.exists(dot(target))) {
+                Files.delete(dot(target));
+            }
+            result = Files.copy(source,
+                                target,
+                                buildOptions(options));
+        } else {
+            if (Files.exists(dot(source))) {
+                Files.copy(dot(source),
+                           dot(target),
+                           forceBuildOptions(options));
+            } else if (Files.exists(dot(target))) {
+                Files.delete(dot(target));
+            }
 
-        final Path result = Files.copy(source,
-                                       target,
-                                       options);
+            result = Files.copy(source,
+                                target,
+                                options);
+        }
+        attributeStore.invalidate(target);
 
         return result;
     }
@@ -186,21 +224,101 @@ public class IOServiceDotFileImpl
                      final CopyOption... options)
             throws UnsupportedOperationException, FileAlreadyExistsException,
             DirectoryNotEmptyException, AtomicMoveNotSupportedException, IOException, SecurityException {
-        if (Files.exists(dot(source))) {
-            Files.move(dot(source),
-                       dot(target),
-                       forceBuildOptions(options));
-        } else if (Files.exists(dot(target))) {
-            Files.delete(dot(target));
-        }
+        final Path result;
+        if (foldsDotFile(source)) {
+            if (!Files.exists(dot(source)) && Files.exists(dot(target))) {
+                Files.delete(dot(target));
+            }
+            result = Files.move(source,
+                                target,
+                                buildOptions(options));
+        } else {
+            if (Files.exists(dot(source))) {
+                Files.move(dot(source),
+                           dot(target),
+                           forceBuildOptions(options));
+            } else if (Files.exists(dot(target))) {
+                Files.delete(dot(target));
+            }
 
-        final Path result = Files.move(source,
-                                       target,
-                                       options);
+            result = Files.move(source,
+                                target,
+                                options);
+        }
+        attributeStore.invalidate(source);
+        attributeStore.invalidate(target);
 
         return result;
     }
 
+    @Override
+    public void copyAll(final Map<Path, Path> sourceToTarget,
+                        final CopyOption... options)
+            throws UnsupportedOperationException, FileAlreadyExistsException,
+            DirectoryNotEmptyException, IOException, SecurityException {
+        final BulkFileOperations bulkOperations = bulkOperationsOf(sourceToTarget);
+        if (bulkOperations != null && foldsDotFiles(sourceToTarget.keySet())) {
+            deleteOrphanDotFiles(sourceToTarget);
+            bulkOperations.copyAll(sourceToTarget,
+                                   buildOptions(options));
+        } else {
+            for (final Map.Entry<Path, Path> entry : sourceToTarget.entrySet()) {
+                copy(entry.getKey(),
+                     entry.getValue(),
+                     options);
+            }
+        }
+        for (final Path target : sourceToTarget.values()) {
+            attributeStore.invalidate(target);
+        }
+    }
+
+    @Override
+    public void moveAll(final Map<Path, Path> sourceToTarget,
+                        final CopyOption... options)
+            throws UnsupportedOperationException, FileAlreadyExistsException,
+            DirectoryNotEmptyException, AtomicMoveNotSupportedException, IOException, SecurityException {
+        final BulkFileOperations bulkOperations = bulkOperationsOf(sourceToTarget);
+        if (bulkOperations != null && foldsDotFiles(sourceToTarget.keySet())) {
+            deleteOrphanDotFiles(sourceToTarget);
+            bulkOperations.moveAll(sourceToTarget,
+                                   buildOptions(options));
+        } else {
+            for (final Map.Entry<Path, Path> entry : sourceToTarget.entrySet()) {
+                move(entry.getKey(),
+                     entry.getValue(),
+                     options);
+            }
+        }
+        for (final Map.Entry<Path, Path> entry : sourceToTarget.entrySet()) {
+            attributeStore.invalidate(entry.getKey());
+            attributeStore.invalidate(entry.getValue());
+        }
+    }
+
+    @Override
+    public void deleteAll(final Collection<Path> paths,
+                          final DeleteOption... options)
+            throws IllegalArgumentException, NoSuchFileException, DirectoryNotEmptyException,
+            IOException, SecurityException {
+        final BulkFileOperations bulkOperations = bulkOperationsOf(paths);
+        if (bulkOperations != null && foldsDotFiles(paths)) {
+            bulkOperations.deleteAll(paths,
+                                     buildDeleteOptions(options));
+            for (final Path path : paths) {
+                attributeStore.invalidate(path);
+                if (path instanceof AttrHolder) {
+                    ((AttrHolder) path).getAttrStorage().clear();
+                }
+            }
+        } else {
+            for (final Path path : paths) {
+                delete(path,
+                       options);
+            }
+        }
+    }
+
     @Override
     public <V extends FileAttributeView> V getFileAttributeView(final Path path,
                                                                 final Class<V> type)
@@ -239,8 +357,7 @@ public class IOServiceDotFileImpl
             if (isAttrHolder && ((AttrHolder) path).getAttrStorage().getContent().size() > 0) {
                 return ((AttrHolder) path).getAttrStorage().getAllContent();
             }
-            final Properties content = new Properties();
-            content.load(newInputStream(dot(path)));
+            final Properties content = attributeStore.read(path);
             content.putAll(original);
 
             if (isAttrHolder) {
@@ -320,6 +437,17 @@ public class IOServiceDotFileImpl
         return result;
     }
 
+    protected DeleteOption[] buildDeleteOptions(final DeleteOption... options) {
+        final DeleteOption[] result = new DeleteOption[options.length + 1];
+        System.arraycopy(options,
+                         0,
+                         result,
+                         0,
+                         options.length);
+        result[result.length - 1] = new DotFileOption();
+        return result;
+    }
+
     protected CopyOption[] forceBuildOptions(final CopyOption[] options) {
         final CopyOption[] result = new CopyOption[options.length + 1];
         System.arraycopy(options,
@@ -339,9 +467,46 @@ public class IOServiceDotFileImpl
         return path.getFileSystem().provider().getScheme().equals("file");
     }
 
+    /**
+     * Whether the provider of the given path handles its dot file within the same operation, see {@link DotFileAware}.
+     */
+    protected boolean foldsDotFile(final Path path) {
+        return path.getFileName() != null && path.getFileSystem().provider() instanceof DotFileAware;
+    }
+
+    protected boolean foldsDotFiles(final Collection<Path> paths) {
+        for (final Path path : paths) {
+            if (!foldsDotFile(path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A target keeping the dot file of a previous path would otherwise get attributes its source never had.
+     */
+    private void deleteOrphanDotFiles(final Map<Path, Path> sourceToTarget) {
+        for (final Map.Entry<Path, Path> entry : sourceToTarget.entrySet()) {
+            if (!Files.exists(dot(entry.getKey())) && Files.exists(dot(entry.getValue()))) {
+                Files.delete(dot(entry.getValue()));
+            }
+        }
+    }
+
+    protected Properties toProperties(final FileAttribute<?>... attrs) {
+        final Properties properties = new Properties();
+        for (final FileAttribute<?> attr : attrs) {
+            if (attr.value() instanceof Serializable) {
+                properties.put(attr.name(),
+                               attr.value());
+            }
+        }
+        return properties;
+    }
+
     protected void loadDotFile(final Path path) {
-        final Properties content = new Properties();
-        content.load(newInputStream(dot(path)));
+        final Properties content = attributeStore.read(path);
 
         if (path instanceof AttrHolder) {
             ((AttrHolder) path).getAttrStorage().loadContent(content);
@@ -376,10 +541,7 @@ public class IOServiceDotFileImpl
             Files.createDirectory(dir,
                                   attrs);
         } catch (final FileAlreadyExistsException ex) {
-            final Properties properties = new Properties();
-            if (exists(dot(dir))) {
-                properties.load(newInputStream(dot(dir)));
-            }
+            final Properties properties = attributeStore.read(dir);
             allAttrs = consolidate(properties,
                                    attrs);
             if (!skipAlreadyExistsException) {
@@ -387,6 +549,7 @@ public class IOServiceDotFileImpl
             }
         }
 
+        attributeStore.invalidate(dir);
         buildDotFile(dir,
                      newOutputStream(dot(dir)),
                      allAttrs);
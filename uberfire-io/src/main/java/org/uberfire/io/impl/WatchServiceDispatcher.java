@@ -0,0 +1,358 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.io.impl;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.commons.async.DescriptiveRunnable;
+import org.uberfire.commons.config.ConfigProperties;
+import org.uberfire.commons.metrics.TimerMetric;
+import org.uberfire.java.nio.file.WatchKey;
+import org.uberfire.java.nio.file.WatchService;
+
+import static org.uberfire.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * Serves any number of {@link WatchService}s from a single dispatch loop, instead of parking one thread in
+ * {@link WatchService#take()} per file system.
+ * <p>
+ * The loop polls every registered service without blocking (backing off while they are all idle) and moves the
+ * keys into a bounded queue per service; once that queue is full the service is left alone until its consumer
+ * catches up. Keys are handed to the consumer on the executor, one at a time per service, so each file system
+ * sees its events in order while different file systems are consumed in parallel.
+ */
+public class WatchServiceDispatcher {
+
+    public static final String DISPATCH_MAX_IDLE = "org.uberfire.watcher.dispatch.maxIdle";
+    public static final String DISPATCH_QUEUE_SIZE = "org.uberfire.watcher.dispatch.queueSize";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WatchServiceDispatcher.class);
+    private static final ConfigProperties CONFIG = new ConfigProperties(System.getProperties());
+    private static final long DEFAULT_MAX_IDLE = CONFIG.get(DISPATCH_MAX_IDLE,
+                                                            "50").getIntValue();
+    private static final int DEFAULT_QUEUE_SIZE = CONFIG.get(DISPATCH_QUEUE_SIZE,
+                                                             "1000").getIntValue();
+
+    // keys delivered per executor task before giving the thread back, so one busy file system can't hog it
+    private static final int MAX_KEYS_PER_TASK = 64;
+
+    private final String name;
+    private final Executor executor;
+    private final long maxIdle;
+    private final int queueSize;
+    private final Map<WatchService, Registration> registrations = new ConcurrentHashMap<>();
+    private final Object idleMonitor = new Object();
+    private boolean started = false;
+    private volatile boolean closed = false;
+
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final TimerMetric deliveryTime = new TimerMetric();
+    private volatile int maxBacklog = 0;
+
+    public WatchServiceDispatcher(final String name,
+                                  final Executor executor) {
+        this(name,
+             executor,
+             DEFAULT_MAX_IDLE,
+             DEFAULT_QUEUE_SIZE);
+    }
+
+    public WatchServiceDispatcher(final String name,
+                                  final Executor executor,
+                                  final long maxIdle,
+                                  final int queueSize) {
+        this.name = checkNotNull("name",
+                                 name);
+        this.executor = checkNotNull("executor",
+                                     executor);
+        this.maxIdle = Math.max(1,
+                                maxIdle);
+        this.queueSize = Math.max(1,
+                                  queueSize);
+    }
+
+    /**
+     * Starts the dispatch loop; services registered before are picked up from then on. Does nothing if already
+     * started.
+     */
+    public synchronized void start() {
+        if (started || closed) {
+            return;
+        }
+        started = true;
+        executor.execute(new DescriptiveRunnable() {
+            @Override
+            public String getDescription() {
+                return "WatchServiceDispatcher(" + name + ")";
+            }
+
+            @Override
+            public void run() {
+                dispatch();
+            }
+        });
+    }
+
+    public void register(final WatchService ws,
+                         final Consumer<WatchKey> consumer) {
+        checkNotNull("ws",
+                     ws);
+        checkNotNull("consumer",
+                     consumer);
+        if (closed) {
+            return;
+        }
+        registrations.putIfAbsent(ws,
+                                  new Registration(ws,
+                                                   consumer));
+        wakeUp();
+    }
+
+    public void unregister(final WatchService ws) {
+        final Registration registration = registrations.remove(ws);
+        if (registration != null) {
+            registration.cancel();
+        }
+    }
+
+    public boolean isRegistered(final WatchService ws) {
+        return registrations.containsKey(ws);
+    }
+
+    /**
+     * Makes an idle loop look for new keys right away instead of waiting for its back-off to expire.
+     */
+    public void wakeUp() {
+        synchronized (idleMonitor) {
+            idleMonitor.notifyAll();
+        }
+    }
+
+    public void close() {
+        closed = true;
+        for (final WatchService ws : registrations.keySet()) {
+            unregister(ws);
+        }
+        wakeUp();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getRegistrations() {
+        return registrations.size();
+    }
+
+    /**
+     * Keys taken from the watch services that are still waiting for their consumer.
+     */
+    public int getBacklog() {
+        int backlog = 0;
+        for (final Registration registration : registrations.values()) {
+            backlog += registration.queue.size();
+        }
+        return backlog;
+    }
+
+    public int getBacklog(final WatchService ws) {
+        final Registration registration = registrations.get(ws);
+        return registration == null ? 0 : registration.queue.size();
+    }
+
+    /**
+     * Highest backlog a single watch service reached; equal to the queue size means it got throttled.
+     */
+    public int getMaxBacklog() {
+        return maxBacklog;
+    }
+
+    public long getDispatched() {
+        return dispatched.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Time consumers spent on each key.
+     */
+    public TimerMetric getDeliveryTime() {
+        return deliveryTime;
+    }
+
+    private void dispatch() {
+        long idle = 1;
+        while (!closed) {
+            boolean found = false;
+            for (final Registration registration : registrations.values()) {
+                found |= registration.fill();
+            }
+
+            if (found) {
+                idle = 1;
+                continue;
+            }
+            synchronized (idleMonitor) {
+                try {
+                    idleMonitor.wait(idle);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            idle = Math.min(idle * 2,
+                            maxIdle);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "WatchServiceDispatcher{" +
+                "name='" + name + '\'' +
+                ", registrations=" + registrations.size() +
+                ", backlog=" + getBacklog() +
+                ", dispatched=" + getDispatched() +
+                '}';
+    }
+
+    private class Registration {
+
+        private final WatchService ws;
+        private final Consumer<WatchKey> consumer;
+        private final BlockingQueue<WatchKey> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        private volatile boolean cancelled = false;
+
+        Registration(final WatchService ws,
+                     final Consumer<WatchKey> consumer) {
+            this.ws = ws;
+            this.consumer = consumer;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        boolean fill() {
+            if (cancelled) {
+                return false;
+            }
+            boolean found = false;
+            while (queue.remainingCapacity() > 0) {
+                final WatchKey key;
+                try {
+                    if (ws.isClose()) {
+                        unregister(ws);
+                        break;
+                    }
+                    key = ws.poll();
+                } catch (final Exception ex) {
+                    // closed underneath us
+                    unregister(ws);
+                    break;
+                }
+                if (key == null) {
+                    break;
+                }
+                queue.offer(key);
+                found = true;
+            }
+            if (found) {
+                final int backlog = queue.size();
+                if (backlog > maxBacklog) {
+                    maxBacklog = backlog;
+                }
+                schedule();
+            }
+            return found;
+        }
+
+        void schedule() {
+            if (cancelled || !scheduled.compareAndSet(false,
+                                                      true)) {
+                return;
+            }
+            try {
+                executor.execute(new DescriptiveRunnable() {
+                    @Override
+                    public String getDescription() {
+                        return name + "(" + ws.toString() + ")";
+                    }
+
+                    @Override
+                    public void run() {
+                        drain();
+                    }
+                });
+            } catch (final RejectedExecutionException ex) {
+                scheduled.set(false);
+                LOGGER.error("Can't deliver watch events of " + ws + ", executor rejected the task.",
+                             ex);
+            }
+        }
+
+        void drain() {
+            try {
+                int delivered = 0;
+                WatchKey key;
+                while (!cancelled && delivered < MAX_KEYS_PER_TASK && (key = queue.poll()) != null) {
+                    deliver(key);
+                    delivered++;
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            if (!cancelled && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        void deliver(final WatchKey key) {
+            final long start = System.nanoTime();
+            try {
+                consumer.accept(key);
+            } catch (final Exception ex) {
+                failures.increment();
+                LOGGER.error("Unexpected error during WatchService execution",
+                             ex);
+            } finally {
+                deliveryTime.record(System.nanoTime() - start);
+                dispatched.increment();
+            }
+
+            // a key that can't be reset means the watched file system is gone
+            if (!key.reset()) {
+                unregister(ws);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            queue.clear();
+        }
+    }
+}
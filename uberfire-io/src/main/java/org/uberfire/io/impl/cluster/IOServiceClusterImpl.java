@@ -25,6 +25,7 @@ import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -54,6 +55,7 @@ import org.uberfire.commons.message.MessageType;
 import org.uberfire.io.IOService;
 import org.uberfire.io.impl.IOServiceLockable;
 import org.uberfire.java.nio.IOException;
+import org.uberfire.java.nio.base.Abortable;
 import org.uberfire.java.nio.base.FileSystemId;
 import org.uberfire.java.nio.base.FileSystemState;
 import org.uberfire.java.nio.base.FileSystemStateAware;
@@ -676,6 +678,69 @@ public class IOServiceClusterImpl implements IOService {
                                                                             }));
     }
 
+    @Override
+    public void copyAll(final Map<Path, Path> sourceToTarget,
+                        final CopyOption... options) throws UnsupportedOperationException, FileAlreadyExistsException, DirectoryNotEmptyException, IOException, SecurityException {
+        if (sourceToTarget.isEmpty() || isBatch(sourceToTarget.keySet().iterator().next().getFileSystem())) {
+            service.copyAll(sourceToTarget,
+                            options);
+            return;
+        }
+
+        new FileSystemSyncLock<Void>(service.getId(),
+                                     sourceToTarget.keySet().iterator().next().getFileSystem()).execute(clusterService,
+                                                                                                        new FutureTask<Void>(new Callable<Void>() {
+                                                                                                            @Override
+                                                                                                            public Void call() throws Exception {
+                                                                                                                service.copyAll(sourceToTarget,
+                                                                                                                                options);
+                                                                                                                return null;
+                                                                                                            }
+                                                                                                        }));
+    }
+
+    @Override
+    public void moveAll(final Map<Path, Path> sourceToTarget,
+                        final CopyOption... options) throws UnsupportedOperationException, FileAlreadyExistsException, DirectoryNotEmptyException, AtomicMoveNotSupportedException, IOException, SecurityException {
+        if (sourceToTarget.isEmpty() || isBatch(sourceToTarget.keySet().iterator().next().getFileSystem())) {
+            service.moveAll(sourceToTarget,
+                            options);
+            return;
+        }
+
+        new FileSystemSyncLock<Void>(service.getId(),
+                                     sourceToTarget.keySet().iterator().next().getFileSystem()).execute(clusterService,
+                                                                                                        new FutureTask<Void>(new Callable<Void>() {
+                                                                                                            @Override
+                                                                                                            public Void call() throws Exception {
+                                                                                                                service.moveAll(sourceToTarget,
+                                                                                                                                options);
+                                                                                                                return null;
+                                                                                                            }
+                                                                                                        }));
+    }
+
+    @Override
+    public void deleteAll(final Collection<Path> paths,
+                          final DeleteOption... options) throws IllegalArgumentException, NoSuchFileException, DirectoryNotEmptyException, IOException, SecurityException {
+        if (paths.isEmpty() || isBatch(paths.iterator().next().getFileSystem())) {
+            service.deleteAll(paths,
+                              options);
+            return;
+        }
+
+        new FileSystemSyncLock<Void>(service.getId(),
+                                     paths.iterator().next().getFileSystem()).execute(clusterService,
+                                                                                      new FutureTask<Void>(new Callable<Void>() {
+                                                                                          @Override
+                                                                                          public Void call() throws Exception {
+                                                                                              service.deleteAll(paths,
+                                                                                                                options);
+                                                                                              return null;
+                                                                                          }
+                                                                                      }));
+    }
+
     @Override
     public <V extends FileAttributeView> V getFileAttributeView(final Path path,
                                                                 final Class<V> type) throws IllegalArgumentException {
@@ -1080,12 +1145,33 @@ public class IOServiceClusterImpl implements IOService {
                                         final OpenOption... options) throws IllegalArgumentException, UnsupportedOperationException, IOException, SecurityException {
         final OutputStream out = service.newOutputStream(path,
                                                          options);
-        return new OutputStream() {
+        return new AbortableOutputStream() {
             @Override
             public void write(final int b) throws java.io.IOException {
                 out.write(b);
             }
 
+            @Override
+            public void write(final byte[] b,
+                              final int off,
+                              final int len) throws java.io.IOException {
+                out.write(b,
+                          off,
+                          len);
+            }
+
+            @Override
+            public void flush() throws java.io.IOException {
+                out.flush();
+            }
+
+            @Override
+            public void abort() {
+                if (out instanceof Abortable) {
+                    ((Abortable) out).abort();
+                }
+            }
+
             @Override
             public void close() throws java.io.IOException {
                 if (isBatch(path.getFileSystem())) {
@@ -1357,4 +1443,8 @@ public class IOServiceClusterImpl implements IOService {
             return null;
         }
     }
+
+    abstract static class AbortableOutputStream extends OutputStream implements Abortable {
+
+    }
 }
@@ -16,27 +16,210 @@
 
 package org.uberfire.io.lock;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.uberfire.commons.metrics.TimerMetric;
+import org.uberfire.java.nio.base.FileSystemId;
 import org.uberfire.java.nio.file.FileSystem;
 
+/**
+ * Batch locks striped by file system: batches on unrelated file systems don't block each other.
+ * <p>
+ * Locks requested together are always taken in the same global order, so multi file system batches can't deadlock
+ * against each other. Nested batches are tracked per thread; every lock acquired by a thread is held until its
+ * outermost batch ends, as the file systems stay in batch mode until then. Nested batches that add file systems not
+ * locked by the outer batch can't be ordered against other threads, so they should be avoided.
+ */
 public class BatchLockControl {
 
-    private ReentrantLock lock = new ReentrantLock(true);
+    private final boolean fair;
+    private final AtomicLong lockSequence = new AtomicLong();
+    private final Map<Object, FileSystemLock> locks = new ConcurrentHashMap<>();
+    private final ThreadLocal<ThreadBatch> threadBatch = ThreadLocal.withInitial(ThreadBatch::new);
+
+    private final TimerMetric waitTime = new TimerMetric();
+
+    public BatchLockControl() {
+        this(true);
+    }
+
+    public BatchLockControl(final boolean fair) {
+        this.fair = fair;
+    }
 
     public void lock(final FileSystem... fileSystems) {
-        lock.lock();
+        final ThreadBatch batch = threadBatch.get();
+        final List<FileSystemLock> toAcquire = new ArrayList<>();
+        if (fileSystems != null) {
+            for (final FileSystem fileSystem : fileSystems) {
+                if (fileSystem == null) {
+                    continue;
+                }
+                final FileSystemLock lock = locks.computeIfAbsent(keyOf(fileSystem),
+                                                                  k -> new FileSystemLock(lockSequence.incrementAndGet(),
+                                                                                          fair));
+                if (!batch.acquired.containsKey(lock) && !toAcquire.contains(lock)) {
+                    toAcquire.add(lock);
+                    batch.fileSystems.put(lock,
+                                          fileSystem);
+                }
+            }
+        }
+        toAcquire.sort(Comparator.comparingLong(l -> l.order));
+
+        final List<FileSystemLock> acquired = new ArrayList<>(toAcquire.size());
+        try {
+            for (final FileSystemLock lock : toAcquire) {
+                lock.lock(waitTime);
+                acquired.add(lock);
+            }
+        } catch (final RuntimeException ex) {
+            releaseAll(acquired);
+            for (final FileSystemLock lock : toAcquire) {
+                batch.fileSystems.remove(lock);
+            }
+            throw ex;
+        }
+
+        for (final FileSystemLock lock : acquired) {
+            batch.acquired.put(lock,
+                               Boolean.TRUE);
+        }
+        batch.depth++;
     }
 
     public void unlock() {
-        lock.unlock();
+        final ThreadBatch batch = threadBatch.get();
+        if (batch.depth == 0) {
+            throw new IllegalMonitorStateException("There is no batch lock held by the current thread.");
+        }
+        batch.depth--;
+        if (batch.depth == 0) {
+            try {
+                releaseAll(new ArrayList<>(batch.acquired.keySet()));
+            } finally {
+                threadBatch.remove();
+            }
+        }
     }
 
+    /**
+     * @return true if the current thread holds a batch lock.
+     */
     public boolean isLocked() {
-        return lock.isLocked();
+        return threadBatch.get().depth > 0;
     }
 
+    /**
+     * @return the number of nested batches started by the current thread.
+     */
     public int getHoldCount() {
-        return lock.getHoldCount();
+        return threadBatch.get().depth;
+    }
+
+    /**
+     * @return the file systems locked by the current thread, including the ones locked by nested batches.
+     */
+    public List<FileSystem> getLockedFileSystems() {
+        return Collections.unmodifiableList(new ArrayList<>(threadBatch.get().fileSystems.values()));
+    }
+
+    /**
+     * @return true if any thread holds the batch lock of the given file system.
+     */
+    public boolean isLocked(final FileSystem fileSystem) {
+        final FileSystemLock lock = locks.get(keyOf(fileSystem));
+        return lock != null && lock.lock.isLocked();
+    }
+
+    /**
+     * @return the number of threads waiting for the batch lock of the given file system.
+     */
+    public int getQueueLength(final FileSystem fileSystem) {
+        final FileSystemLock lock = locks.get(keyOf(fileSystem));
+        return lock == null ? 0 : lock.lock.getQueueLength();
+    }
+
+    /**
+     * @return time spent waiting for the batch lock of the given file system.
+     */
+    public TimerMetric getWaitTime(final FileSystem fileSystem) {
+        final FileSystemLock lock = locks.get(keyOf(fileSystem));
+        return lock == null ? new TimerMetric() : lock.waitTime;
+    }
+
+    /**
+     * @return time spent waiting for batch locks, across all file systems.
+     */
+    public TimerMetric getWaitTime() {
+        return waitTime;
+    }
+
+    private void releaseAll(final List<FileSystemLock> acquired) {
+        final ListIterator<FileSystemLock> iterator = acquired.listIterator(acquired.size());
+        while (iterator.hasPrevious()) {
+            iterator.previous().lock.unlock();
+        }
+    }
+
+    private Object keyOf(final FileSystem fileSystem) {
+        if (fileSystem instanceof FileSystemId) {
+            return ((FileSystemId) fileSystem).id();
+        }
+        return fileSystem;
+    }
+
+    private static class FileSystemLock {
+
+        private final long order;
+        private final ReentrantLock lock;
+        private final TimerMetric waitTime = new TimerMetric();
+
+        private FileSystemLock(final long order,
+                               final boolean fair) {
+            this.order = order;
+            this.lock = new ReentrantLock(fair);
+        }
+
+        private void lock(final TimerMetric globalWaitTime) {
+            if (tryLockWithoutWaiting()) {
+                waitTime.record(0);
+                globalWaitTime.record(0);
+                return;
+            }
+            final long start = System.nanoTime();
+            lock.lock();
+            final long waited = System.nanoTime() - start;
+            waitTime.record(waited);
+            globalWaitTime.record(waited);
+        }
+
+        private boolean tryLockWithoutWaiting() {
+            try {
+                // timed tryLock honours the fairness policy, unlike tryLock()
+                return lock.tryLock(0,
+                                    TimeUnit.NANOSECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private static class ThreadBatch {
+
+        private int depth = 0;
+        private final Map<FileSystemLock, Boolean> acquired = new LinkedHashMap<>();
+        private final Map<FileSystemLock, FileSystem> fileSystems = new LinkedHashMap<>();
     }
 }
@@ -26,11 +26,13 @@ import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.uberfire.java.nio.base.version.VersionAttributeView;
 import org.uberfire.java.nio.file.FileSystem;
 import org.uberfire.java.nio.file.Path;
 import org.uberfire.java.nio.file.attribute.FileAttribute;
 
 import static org.junit.Assert.*;
+import static org.uberfire.java.nio.base.dotfiles.DotFileUtils.dot;
 
 /**
  *
@@ -166,6 +168,76 @@ public class GitIOServiceDotFileTest extends CommonIOExceptionsServiceDotFileTes
         assertFalse(attrsValue2.containsKey("my_new_key"));
     }
 
+    @Test
+    public void testDotFileRewrittenOnlyWhenAttributesChange() {
+        final Path path = ioService().get(URI.create("git://repo-test/dotfile-rewrite.txt"));
+        final Map<String, Object> attrs = new HashMap<String, Object>();
+        attrs.put("dcore.author",
+                  "me");
+
+        ioService().write(path,
+                          "content",
+                          attrs);
+        ioService().write(path,
+                          "new content",
+                          attrs);
+
+        assertEquals(2,
+                     history(path));
+        assertEquals(1,
+                     history(dot(path)));
+        assertEquals("me",
+                     ioService().readAttributes(path).get("dcore.author"));
+
+        attrs.put("dcore.author",
+                  "someone else");
+        ioService().write(path,
+                          "new content",
+                          attrs);
+
+        assertEquals(3,
+                     history(path));
+        assertEquals(2,
+                     history(dot(path)));
+        assertEquals("someone else",
+                     ioService().readAttributes(ioService().get(path.toUri())).get("dcore.author"));
+
+        final Path target = ioService().get(URI.create("git://repo-test/dotfile-rewrite-moved.txt"));
+        ioService().move(path,
+                         target);
+        assertFalse(ioService().exists(dot(path)));
+        assertEquals("someone else",
+                     ioService().readAttributes(target).get("dcore.author"));
+
+        ioService().delete(target);
+        assertFalse(ioService().exists(dot(target)));
+    }
+
+    @Test
+    public void testDeleteIfExistsRemovesEmptyDirectoryAndDotFileInOneCommit() {
+        final Path dir = ioService().get(URI.create("git://repo-test/dotfile-empty-dir"));
+        final Map<String, Object> attrs = new HashMap<String, Object>();
+        attrs.put("dcore.author",
+                  "me");
+
+        ioService().createDirectory(dir,
+                                    attrs);
+        assertTrue(ioService().exists(dot(dir)));
+        final int commits = history(getRootPath());
+
+        assertTrue(ioService().deleteIfExists(dir));
+
+        assertFalse(ioService().exists(dir));
+        assertFalse(ioService().exists(dot(dir)));
+        assertEquals(commits + 1,
+                     history(getRootPath()));
+    }
+
+    private int history(final Path path) {
+        return ioService().getFileAttributeView(path,
+                                                VersionAttributeView.class).readAttributes().history().records().size();
+    }
+
     @Override
     public Path getFilePath() {
 
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.io.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.java.nio.IOException;
+import org.uberfire.java.nio.file.ClosedWatchServiceException;
+import org.uberfire.java.nio.file.InterruptedException;
+import org.uberfire.java.nio.file.WatchEvent;
+import org.uberfire.java.nio.file.WatchKey;
+import org.uberfire.java.nio.file.WatchService;
+import org.uberfire.java.nio.file.Watchable;
+
+import static org.junit.Assert.*;
+
+public class WatchServiceDispatcherTest {
+
+    private ExecutorService executor;
+    private WatchServiceDispatcher dispatcher;
+
+    @Before
+    public void setup() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void cleanup() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testKeysAreDeliveredInOrderPerWatchService() throws Exception {
+        dispatcher = new WatchServiceDispatcher("test",
+                                                executor,
+                                                5,
+                                                10);
+        final int keysPerService = 500;
+        final int services = 20;
+        final CountDownLatch latch = new CountDownLatch(keysPerService * services);
+        final List<List<Integer>> received = new ArrayList<>();
+
+        for (int i = 0; i < services; i++) {
+            final TestWatchService ws = new TestWatchService();
+            final List<Integer> sequence = Collections.synchronizedList(new ArrayList<>());
+            received.add(sequence);
+            dispatcher.register(ws,
+                                wk -> {
+                                    sequence.add(((TestWatchKey) wk).sequence);
+                                    latch.countDown();
+                                });
+            for (int k = 0; k < keysPerService; k++) {
+                ws.keys.add(new TestWatchKey(k));
+            }
+        }
+        dispatcher.start();
+
+        assertTrue(latch.await(30,
+                               TimeUnit.SECONDS));
+        for (final List<Integer> sequence : received) {
+            assertEquals(keysPerService,
+                         sequence.size());
+            for (int k = 0; k < keysPerService; k++) {
+                assertEquals(k,
+                             sequence.get(k).intValue());
+            }
+        }
+        assertEquals(keysPerService * services,
+                     dispatcher.getDispatched());
+        assertEquals(keysPerService * services,
+                     dispatcher.getDeliveryTime().getCount());
+        assertEquals(0,
+                     dispatcher.getBacklog());
+        assertEquals(services,
+                     dispatcher.getRegistrations());
+    }
+
+    @Test
+    public void testBacklogIsBounded() throws Exception {
+        dispatcher = new WatchServiceDispatcher("test",
+                                                executor,
+                                                5,
+                                                5);
+        final CountDownLatch consumerStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final TestWatchService ws = new TestWatchService();
+        for (int k = 0; k < 100; k++) {
+            ws.keys.add(new TestWatchKey(k));
+        }
+        dispatcher.register(ws,
+                            wk -> {
+                                consumerStarted.countDown();
+                                try {
+                                    release.await();
+                                } catch (final java.lang.InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                            });
+        dispatcher.start();
+
+        assertTrue(consumerStarted.await(10,
+                                         TimeUnit.SECONDS));
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (dispatcher.getBacklog(ws) < 5 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+
+        // one key with the consumer, five queued, the rest left in the watch service
+        assertEquals(5,
+                     dispatcher.getBacklog(ws));
+        assertEquals(5,
+                     dispatcher.getMaxBacklog());
+        assertEquals(94,
+                     ws.keys.size());
+
+        release.countDown();
+        final long drained = System.currentTimeMillis() + 10000;
+        while (dispatcher.getDispatched() < 100 && System.currentTimeMillis() < drained) {
+            Thread.sleep(10);
+        }
+        assertEquals(100,
+                     dispatcher.getDispatched());
+    }
+
+    @Test
+    public void testClosedWatchServiceIsUnregistered() throws Exception {
+        dispatcher = new WatchServiceDispatcher("test",
+                                                executor,
+                                                5,
+                                                10);
+        final TestWatchService ws = new TestWatchService();
+        dispatcher.register(ws,
+                            wk -> {
+                            });
+        dispatcher.start();
+        assertTrue(dispatcher.isRegistered(ws));
+
+        ws.closed = true;
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (dispatcher.isRegistered(ws) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(dispatcher.isRegistered(ws));
+    }
+
+    private static class TestWatchService implements WatchService {
+
+        private final Queue<WatchKey> keys = new ConcurrentLinkedQueue<>();
+        private volatile boolean closed = false;
+
+        @Override
+        public WatchKey poll() throws ClosedWatchServiceException {
+            return keys.poll();
+        }
+
+        @Override
+        public WatchKey poll(final long timeout,
+                             final TimeUnit unit) throws ClosedWatchServiceException, InterruptedException {
+            return keys.poll();
+        }
+
+        @Override
+        public WatchKey take() throws ClosedWatchServiceException, InterruptedException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isClose() {
+            return closed;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+        }
+    }
+
+    private static class TestWatchKey implements WatchKey {
+
+        private final int sequence;
+
+        TestWatchKey(final int sequence) {
+            this.sequence = sequence;
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public List<WatchEvent<?>> pollEvents() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean reset() {
+            return true;
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public Watchable watchable() {
+            return null;
+        }
+    }
+}
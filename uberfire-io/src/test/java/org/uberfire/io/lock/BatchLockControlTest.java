@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.io.lock;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.java.nio.file.FileSystem;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class BatchLockControlTest {
+
+    private BatchLockControl lockControl;
+    private FileSystem fs1;
+    private FileSystem fs2;
+
+    @Before
+    public void setup() {
+        lockControl = new BatchLockControl();
+        fs1 = mock(FileSystem.class);
+        fs2 = mock(FileSystem.class);
+    }
+
+    @Test
+    public void nestedBatchesKeepHoldCount() {
+        assertFalse(lockControl.isLocked());
+
+        lockControl.lock(fs1);
+        lockControl.lock(fs1,
+                         fs2);
+
+        assertEquals(2,
+                     lockControl.getHoldCount());
+        assertEquals(2,
+                     lockControl.getLockedFileSystems().size());
+
+        lockControl.unlock();
+        assertTrue(lockControl.isLocked());
+        assertTrue(lockControl.isLocked(fs2));
+
+        lockControl.unlock();
+        assertFalse(lockControl.isLocked());
+        assertFalse(lockControl.isLocked(fs1));
+        assertFalse(lockControl.isLocked(fs2));
+        assertTrue(lockControl.getLockedFileSystems().isEmpty());
+    }
+
+    @Test(expected = IllegalMonitorStateException.class)
+    public void unlockWithoutLock() {
+        lockControl.unlock();
+    }
+
+    @Test
+    public void differentFileSystemsDoNotBlockEachOther() throws InterruptedException {
+        lockControl.lock(fs1);
+
+        final CountDownLatch locked = new CountDownLatch(1);
+        final Thread other = new Thread(() -> {
+            lockControl.lock(fs2);
+            locked.countDown();
+            lockControl.unlock();
+        });
+        other.start();
+
+        assertTrue(locked.await(5,
+                                TimeUnit.SECONDS));
+        lockControl.unlock();
+    }
+
+    @Test
+    public void sameFileSystemBlocks() throws InterruptedException {
+        lockControl.lock(fs1);
+
+        final AtomicBoolean acquired = new AtomicBoolean(false);
+        final Thread other = new Thread(() -> {
+            lockControl.lock(fs2,
+                             fs1);
+            acquired.set(true);
+            lockControl.unlock();
+        });
+        other.start();
+
+        Thread.sleep(100);
+        assertFalse(acquired.get());
+        assertEquals(1,
+                     lockControl.getQueueLength(fs1));
+
+        lockControl.unlock();
+        other.join(5000);
+
+        assertTrue(acquired.get());
+        assertEquals(3,
+                     lockControl.getWaitTime().getCount());
+        assertTrue(lockControl.getWaitTime(fs1).getMax(TimeUnit.MILLISECONDS) > 0);
+    }
+}
@@ -161,7 +161,7 @@ public abstract class BaseSimpleFileSystem implements FileSystem,
     @Override
     public WatchService newWatchService()
             throws UnsupportedOperationException, IOException {
-        throw new UnsupportedOperationException();
+        return new SimpleWatchService(this);
     }
 
     @Override
@@ -0,0 +1,548 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.file;
+
+import java.io.File;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.commons.config.ConfigProperties;
+import org.uberfire.java.nio.IOException;
+import org.uberfire.java.nio.base.GeneralPathImpl;
+import org.uberfire.java.nio.base.PathWatchService;
+import org.uberfire.java.nio.base.WatchContext;
+import org.uberfire.java.nio.file.ClosedWatchServiceException;
+import org.uberfire.java.nio.file.FileSystem;
+import org.uberfire.java.nio.file.InterruptedException;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.WatchEvent;
+import org.uberfire.java.nio.file.WatchKey;
+import org.uberfire.java.nio.file.WatchService;
+import org.uberfire.java.nio.file.Watchable;
+
+import static org.uberfire.commons.validation.Preconditions.checkCondition;
+import static org.uberfire.commons.validation.Preconditions.checkNotNull;
+import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_CREATE;
+import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_DELETE;
+import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_MODIFY;
+
+/**
+ * {@link WatchService} for the plain file system, backed by the JDK native watch facility (inotify, kqueue, ...).
+ * <p>
+ * Watches the directories registered through {@link Path#register(WatchService, WatchEvent.Kind[])}, and every
+ * directory below them, including directories created after the registration; all event kinds are reported.
+ * Native events are coalesced per file until the tree has been quiet for a while (or a batch grows too old or too
+ * large) and are then published as one {@link WatchKey} per registered directory, carrying the same
+ * {@link WatchContext} events the git file system emits: only files are reported, a deleted file has an old path
+ * only and a created file a new path only.
+ * <p>
+ * A directory that can't be watched, e.g. once the inotify watch limit is reached, fails its registration; when it
+ * was created later on, it is logged and counted by {@link #getRegistrationFailures()}.
+ */
+public class SimpleWatchService implements PathWatchService {
+
+    public static final String WATCH_QUIET_PERIOD = "org.uberfire.nio.file.watch.quietPeriod";
+    public static final String WATCH_MAX_BATCH = "org.uberfire.nio.file.watch.maxBatch";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimpleWatchService.class);
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ConfigProperties CONFIG = new ConfigProperties(System.getProperties());
+    private static final long DEFAULT_QUIET_PERIOD = CONFIG.get(WATCH_QUIET_PERIOD,
+                                                                "100").getIntValue();
+    private static final int DEFAULT_MAX_BATCH = CONFIG.get(WATCH_MAX_BATCH,
+                                                            "1000").getIntValue();
+
+    // batches are published at the latest after this many quiet periods, even if the tree never settles
+    private static final int MAX_BATCH_AGE = 10;
+
+    private static final WatchKey CLOSED = new SimpleWatchKey(null,
+                                                              null,
+                                                              new ArrayList<>());
+
+    private final FileSystem fs;
+    private final java.nio.file.WatchService watcher;
+    private final long quietPeriod;
+    private final int maxBatch;
+    private final BlockingQueue<WatchKey> keys = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    private volatile boolean closed = false;
+
+    private final Set<java.nio.file.Path> directories = ConcurrentHashMap.newKeySet();
+    private final Map<java.nio.file.Path, Path> roots = new ConcurrentHashMap<>();
+
+    // only touched by the dispatcher thread
+    private final Map<java.nio.file.Path, WatchEvent.Kind<Path>> pending = new LinkedHashMap<>();
+    private long oldestPending;
+
+    private final LongAdder nativeEvents = new LongAdder();
+    private final LongAdder publishedEvents = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+    private final LongAdder registrationFailures = new LongAdder();
+
+    SimpleWatchService(final FileSystem fs,
+                       final File... dirs) {
+        this(fs,
+             DEFAULT_QUIET_PERIOD,
+             DEFAULT_MAX_BATCH,
+             dirs);
+    }
+
+    SimpleWatchService(final FileSystem fs,
+                       final long quietPeriod,
+                       final int maxBatch,
+                       final File... dirs) {
+        this.fs = checkNotNull("fs",
+                               fs);
+        checkNotNull("dirs",
+                     dirs);
+        checkCondition("quietPeriod must be positive",
+                       quietPeriod > 0);
+        checkCondition("maxBatch must be positive",
+                       maxBatch > 0);
+        this.quietPeriod = quietPeriod;
+        this.maxBatch = maxBatch;
+        try {
+            this.watcher = java.nio.file.FileSystems.getDefault().newWatchService();
+        } catch (final java.io.IOException e) {
+            throw new IOException(e);
+        }
+        try {
+            for (final File dir : dirs) {
+                register(GeneralPathImpl.newFromFile(fs,
+                                                     dir));
+            }
+        } catch (final IOException e) {
+            close();
+            throw e;
+        }
+
+        this.dispatcher = new Thread(this::dispatch,
+                                     "file-watch-" + THREAD_COUNT.incrementAndGet());
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    @Override
+    public WatchKey register(final Path path,
+                             final WatchEvent.Kind<?>... events) throws ClosedWatchServiceException, IOException {
+        checkNotNull("path",
+                     path);
+        checkCondition("path must belong to " + fs,
+                       fs.equals(path.getFileSystem()));
+        if (closed) {
+            throw new ClosedWatchServiceException("This service is closed.");
+        }
+        final java.nio.file.Path dir = path.toFile().toPath().toAbsolutePath().normalize();
+        try {
+            registerTree(dir,
+                         false);
+        } catch (final java.io.IOException e) {
+            throw new IOException("Can't watch " + path,
+                                  e);
+        }
+        roots.put(dir,
+                  path);
+        return new SimpleWatchKey(this,
+                                  path,
+                                  new ArrayList<>());
+    }
+
+    @Override
+    public WatchKey poll() throws ClosedWatchServiceException {
+        return checkKey(keys.poll());
+    }
+
+    @Override
+    public WatchKey poll(final long timeout,
+                         final TimeUnit unit) throws ClosedWatchServiceException, InterruptedException {
+        try {
+            return checkKey(keys.poll(timeout,
+                                      unit));
+        } catch (final java.lang.InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedException();
+        }
+    }
+
+    @Override
+    public WatchKey take() throws ClosedWatchServiceException, InterruptedException {
+        try {
+            return checkKey(keys.take());
+        } catch (final java.lang.InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedException();
+        }
+    }
+
+    private WatchKey checkKey(final WatchKey key) {
+        if (key == CLOSED || (key == null && closed)) {
+            // leave the marker in place so every other blocked consumer wakes up as well
+            keys.offer(CLOSED);
+            throw new ClosedWatchServiceException("This service is closed.");
+        }
+        return key;
+    }
+
+    @Override
+    public boolean isClose() {
+        return closed;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        keys.offer(CLOSED);
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (final java.io.IOException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    /**
+     * Number of raw events received from the native watch service.
+     */
+    public long getNativeEvents() {
+        return nativeEvents.sum();
+    }
+
+    /**
+     * Number of events published after coalescing.
+     */
+    public long getPublishedEvents() {
+        return publishedEvents.sum();
+    }
+
+    /**
+     * Number of times the native watch service dropped events.
+     */
+    public long getOverflows() {
+        return overflows.sum();
+    }
+
+    /**
+     * Number of directories created below a registered one that couldn't be watched.
+     */
+    public long getRegistrationFailures() {
+        return registrationFailures.sum();
+    }
+
+    private void dispatch() {
+        try {
+            while (!closed) {
+                final java.nio.file.WatchKey key;
+                if (pending.isEmpty()) {
+                    key = watcher.take();
+                } else {
+                    key = watcher.poll(quietPeriod,
+                                       TimeUnit.MILLISECONDS);
+                }
+
+                if (key != null) {
+                    process(key);
+                }
+
+                if (!pending.isEmpty() && (key == null || pending.size() >= maxBatch ||
+                        System.nanoTime() - oldestPending >= TimeUnit.MILLISECONDS.toNanos(quietPeriod * MAX_BATCH_AGE))) {
+                    flush();
+                }
+            }
+        } catch (final java.nio.file.ClosedWatchServiceException | java.lang.InterruptedException e) {
+            // closed
+        } catch (final RuntimeException e) {
+            LOGGER.error("Unexpected error on " + toString() + ", no further events will be published.",
+                         e);
+        }
+    }
+
+    private void process(final java.nio.file.WatchKey key) {
+        final java.nio.file.Path dir = (java.nio.file.Path) key.watchable();
+        for (final java.nio.file.WatchEvent<?> event : key.pollEvents()) {
+            nativeEvents.increment();
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflows.increment();
+                LOGGER.warn("Native watch service overflow on " + dir + ", some changes were not notified.");
+                continue;
+            }
+
+            final java.nio.file.Path child = dir.resolve((java.nio.file.Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                if (Files.isDirectory(child,
+                                      LinkOption.NOFOLLOW_LINKS)) {
+                    // files may have landed before the new directory got registered
+                    try {
+                        registerTree(child,
+                                     true);
+                    } catch (final java.io.IOException e) {
+                        registrationFailures.increment();
+                        LOGGER.warn("Can't watch " + child + ", its changes won't be notified.",
+                                    e);
+                    }
+                } else {
+                    record(child,
+                           ENTRY_CREATE);
+                }
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                if (!directories.remove(child)) {
+                    record(child,
+                           ENTRY_DELETE);
+                }
+            } else if (!directories.contains(child)) {
+                record(child,
+                       ENTRY_MODIFY);
+            }
+        }
+
+        if (!key.reset()) {
+            directories.remove(dir);
+        }
+    }
+
+    private void registerTree(final java.nio.file.Path start,
+                              final boolean notify) throws java.io.IOException {
+        Files.walkFileTree(start,
+                           new SimpleFileVisitor<java.nio.file.Path>() {
+                               @Override
+                               public FileVisitResult preVisitDirectory(final java.nio.file.Path dir,
+                                                                        final BasicFileAttributes attrs) throws java.io.IOException {
+                                   if (!directories.contains(dir)) {
+                                       dir.register(watcher,
+                                                    StandardWatchEventKinds.ENTRY_CREATE,
+                                                    StandardWatchEventKinds.ENTRY_DELETE,
+                                                    StandardWatchEventKinds.ENTRY_MODIFY);
+                                       directories.add(dir);
+                                   }
+                                   return FileVisitResult.CONTINUE;
+                               }
+
+                               @Override
+                               public FileVisitResult visitFile(final java.nio.file.Path file,
+                                                                final BasicFileAttributes attrs) {
+                                   if (notify && !attrs.isDirectory()) {
+                                       record(file,
+                                              ENTRY_CREATE);
+                                   }
+                                   return FileVisitResult.CONTINUE;
+                               }
+
+                               @Override
+                               public FileVisitResult visitFileFailed(final java.nio.file.Path file,
+                                                                      final java.io.IOException e) throws java.io.IOException {
+                                   if (file.equals(start)) {
+                                       throw e;
+                                   }
+                                   LOGGER.debug("Can't watch " + file,
+                                                e);
+                                   return FileVisitResult.CONTINUE;
+                               }
+                           });
+    }
+
+    private void record(final java.nio.file.Path file,
+                        final WatchEvent.Kind<Path> kind) {
+        if (pending.isEmpty()) {
+            oldestPending = System.nanoTime();
+        }
+        final WatchEvent.Kind<Path> previous = pending.get(file);
+        if (previous == null) {
+            pending.put(file,
+                        kind);
+        } else if (previous == ENTRY_CREATE) {
+            // created and gone again within one batch: nothing to report
+            if (kind == ENTRY_DELETE) {
+                pending.remove(file);
+            }
+        } else if (previous == ENTRY_DELETE) {
+            // replaced within one batch
+            pending.put(file,
+                        kind == ENTRY_CREATE ? ENTRY_MODIFY : kind);
+        } else if (kind == ENTRY_DELETE) {
+            pending.put(file,
+                        ENTRY_DELETE);
+        }
+    }
+
+    private void flush() {
+        final Map<Path, List<WatchEvent<?>>> eventsByRoot = new LinkedHashMap<>();
+        for (final Map.Entry<java.nio.file.Path, WatchEvent.Kind<Path>> entry : pending.entrySet()) {
+            final Path path = GeneralPathImpl.newFromFile(fs,
+                                                          entry.getKey().toFile());
+            final WatchEvent.Kind<Path> kind = entry.getValue();
+            eventsByRoot.computeIfAbsent(rootOf(entry.getKey()),
+                                         k -> new ArrayList<>()).add(new SimpleWatchEvent(kind,
+                                                                                          kind == ENTRY_DELETE ? null : path,
+                                                                                          kind == ENTRY_CREATE ? null : path));
+        }
+        pending.clear();
+
+        if (closed) {
+            return;
+        }
+        for (final Map.Entry<Path, List<WatchEvent<?>>> entry : eventsByRoot.entrySet()) {
+            publishedEvents.add(entry.getValue().size());
+            keys.offer(new SimpleWatchKey(this,
+                                          entry.getKey(),
+                                          entry.getValue()));
+        }
+    }
+
+    // the innermost registered directory holding the file
+    private Path rootOf(final java.nio.file.Path file) {
+        for (java.nio.file.Path dir = file.getParent(); dir != null; dir = dir.getParent()) {
+            final Path root = roots.get(dir);
+            if (root != null) {
+                return root;
+            }
+        }
+        return GeneralPathImpl.newFromFile(fs,
+                                           file.getParent().toFile());
+    }
+
+    @Override
+    public String toString() {
+        return "WatchService{" +
+                "FileSystem=" + fs.toString() +
+                ", watchables=" + roots.values() +
+                '}';
+    }
+
+    private static class SimpleWatchKey implements WatchKey {
+
+        private final SimpleWatchService service;
+        private final Path watchable;
+        private final List<WatchEvent<?>> events;
+
+        SimpleWatchKey(final SimpleWatchService service,
+                       final Path watchable,
+                       final List<WatchEvent<?>> events) {
+            this.service = service;
+            this.watchable = watchable;
+            this.events = events;
+        }
+
+        @Override
+        public boolean isValid() {
+            return !service.isClose();
+        }
+
+        @Override
+        public List<WatchEvent<?>> pollEvents() {
+            return new ArrayList<>(events);
+        }
+
+        @Override
+        public boolean reset() {
+            return !service.isClose();
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public Watchable watchable() {
+            return watchable;
+        }
+    }
+
+    private static class SimpleWatchEvent implements WatchEvent<WatchContext>,
+                                                     WatchContext {
+
+        private final Kind kind;
+        private final Path path;
+        private final Path oldPath;
+
+        SimpleWatchEvent(final Kind kind,
+                         final Path path,
+                         final Path oldPath) {
+            this.kind = kind;
+            this.path = path;
+            this.oldPath = oldPath;
+        }
+
+        @Override
+        public Kind kind() {
+            return kind;
+        }
+
+        @Override
+        public int count() {
+            return 1;
+        }
+
+        @Override
+        public WatchContext context() {
+            return this;
+        }
+
+        @Override
+        public Path getPath() {
+            return path;
+        }
+
+        @Override
+        public Path getOldPath() {
+            return oldPath;
+        }
+
+        @Override
+        public String getSessionId() {
+            return null;
+        }
+
+        @Override
+        public String getMessage() {
+            return null;
+        }
+
+        @Override
+        public String getUser() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return "WatchEvent{" +
+                    "newPath=" + path +
+                    ", oldPath=" + oldPath +
+                    ", kind=" + kind +
+                    '}';
+        }
+    }
+}
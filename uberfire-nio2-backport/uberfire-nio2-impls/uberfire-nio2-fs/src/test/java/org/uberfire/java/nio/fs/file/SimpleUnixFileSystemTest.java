@@ -112,12 +112,6 @@ public class SimpleUnixFileSystemTest {
                                  "/").getUserPrincipalLookupService();
     }
 
-    @Test(expected = UnsupportedOperationException.class)
-    public void newWatchServiceUnsupportedOp() {
-        new SimpleUnixFileSystem(fsProvider,
-                                 "/").newWatchService();
-    }
-
     @Test(expected = UnsupportedOperationException.class)
     public void removeElementFromRootIteratorUnsupportedOp() {
         new SimpleUnixFileSystem(fsProvider,
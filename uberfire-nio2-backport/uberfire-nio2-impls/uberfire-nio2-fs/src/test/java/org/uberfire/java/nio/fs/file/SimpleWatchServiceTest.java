@@ -0,0 +1,243 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.file;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.java.nio.IOException;
+import org.uberfire.java.nio.base.WatchContext;
+import org.uberfire.java.nio.file.ClosedWatchServiceException;
+import org.uberfire.java.nio.file.FileSystem;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.WatchEvent;
+import org.uberfire.java.nio.file.WatchKey;
+import org.uberfire.java.nio.file.WatchService;
+import org.uberfire.java.nio.file.spi.FileSystemProvider;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_CREATE;
+import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_DELETE;
+
+public class SimpleWatchServiceTest {
+
+    private File root;
+    private FileSystem fileSystem;
+    private SimpleWatchService watchService;
+
+    @Before
+    public void setup() throws Exception {
+        root = Files.createTempDirectory("watch").toFile().getCanonicalFile();
+        fileSystem = new SimpleUnixFileSystem(mock(FileSystemProvider.class),
+                                              root.getAbsolutePath());
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        if (watchService != null) {
+            watchService.close();
+        }
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test
+    public void testFileSystemWatchesRegisteredPaths() throws Exception {
+        final File watched = new File(root,
+                                      "watched");
+        final File other = new File(root,
+                                    "other");
+        assertThat(watched.mkdir()).isTrue();
+        assertThat(other.mkdir()).isTrue();
+
+        final WatchService ws = fileSystem.newWatchService();
+        try {
+            final Path watchedPath = fileSystem.getPath(watched.getAbsolutePath());
+            final WatchKey key = watchedPath.register(ws,
+                                                      ENTRY_CREATE,
+                                                      ENTRY_DELETE);
+            assertThat(key.watchable()).isEqualTo(watchedPath);
+
+            FileUtils.write(new File(other,
+                                     "ignored.txt"),
+                            "content");
+            FileUtils.write(new File(watched,
+                                     "file.txt"),
+                            "content");
+
+            final WatchKey published = ws.poll(10,
+                                               TimeUnit.SECONDS);
+            assertThat(published).isNotNull();
+            assertThat(published.watchable()).isEqualTo(watchedPath);
+            final List<WatchEvent<?>> events = published.pollEvents();
+            assertThat(events).hasSize(1);
+            assertThat(events.get(0).kind()).isEqualTo(ENTRY_CREATE);
+            assertThat(((WatchContext) events.get(0).context()).getPath().getFileName().toString()).isEqualTo("file.txt");
+            assertThat(ws.poll(500,
+                               TimeUnit.MILLISECONDS)).isNull();
+        } finally {
+            ws.close();
+        }
+    }
+
+    @Test
+    public void testRegistrationFailureIsReported() throws Exception {
+        watchService = new SimpleWatchService(fileSystem);
+        try {
+            fileSystem.getPath(new File(root,
+                                        "missing").getAbsolutePath()).register(watchService,
+                                                                               ENTRY_CREATE);
+            fail("missing directory can't be watched");
+        } catch (final IOException ex) {
+        }
+    }
+
+    @Test
+    public void testEventsAreCoalescedPerFile() throws Exception {
+        watchService = new SimpleWatchService(fileSystem,
+                                              500,
+                                              1000,
+                                              root);
+
+        final File file = new File(root,
+                                   "file.txt");
+        FileUtils.write(file,
+                        "content");
+        FileUtils.write(file,
+                        "more content",
+                        true);
+        final File transientFile = new File(root,
+                                            "transient.txt");
+        FileUtils.write(transientFile,
+                        "content");
+        assertThat(transientFile.delete()).isTrue();
+
+        final List<WatchEvent<?>> events = collect(watchService,
+                                                   1);
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).kind()).isEqualTo(ENTRY_CREATE);
+        final WatchContext context = (WatchContext) events.get(0).context();
+        assertThat(context.getOldPath()).isNull();
+        assertThat(context.getPath()).isEqualTo(fileSystem.getPath(file.getAbsolutePath()));
+        assertThat(watchService.getNativeEvents()).isGreaterThan(watchService.getPublishedEvents());
+
+        assertThat(file.delete()).isTrue();
+        final List<WatchEvent<?>> deleted = collect(watchService,
+                                                    1);
+        assertThat(deleted).hasSize(1);
+        assertThat(deleted.get(0).kind()).isEqualTo(ENTRY_DELETE);
+        assertThat(((WatchContext) deleted.get(0).context()).getPath()).isNull();
+        assertThat(((WatchContext) deleted.get(0).context()).getOldPath()).isEqualTo(fileSystem.getPath(file.getAbsolutePath()));
+    }
+
+    @Test
+    public void testNewDirectoriesAreWatched() throws Exception {
+        final File existing = new File(root,
+                                       "existing");
+        assertThat(existing.mkdir()).isTrue();
+        watchService = new SimpleWatchService(fileSystem,
+                                              50,
+                                              1000,
+                                              root);
+
+        FileUtils.write(new File(existing,
+                                 "a.txt"),
+                        "content");
+        final File nested = new File(root,
+                                     "new/nested");
+        assertThat(nested.mkdirs()).isTrue();
+        FileUtils.write(new File(nested,
+                                 "b.txt"),
+                        "content");
+
+        final List<WatchEvent<?>> events = collect(watchService,
+                                                   2);
+        assertThat(events).hasSize(2);
+        final List<String> paths = new ArrayList<>();
+        for (final WatchEvent<?> event : events) {
+            assertThat(event.kind()).isEqualTo(ENTRY_CREATE);
+            paths.add(((WatchContext) event.context()).getPath().getFileName().toString());
+        }
+        assertThat(paths).containsOnly("a.txt",
+                                       "b.txt");
+
+        FileUtils.write(new File(nested,
+                                 "c.txt"),
+                        "content");
+        final List<WatchEvent<?>> more = collect(watchService,
+                                                 1);
+        assertThat(more).hasSize(1);
+        assertThat(((WatchContext) more.get(0).context()).getPath().getFileName().toString()).isEqualTo("c.txt");
+    }
+
+    @Test
+    public void testCloseReleasesConsumers() throws Exception {
+        watchService = new SimpleWatchService(fileSystem,
+                                              50,
+                                              1000,
+                                              root);
+        final List<Throwable> errors = new ArrayList<>();
+        final Thread consumer = new Thread(() -> {
+            try {
+                watchService.take();
+            } catch (final Throwable t) {
+                errors.add(t);
+            }
+        });
+        consumer.start();
+
+        watchService.close();
+        consumer.join(5000);
+
+        assertThat(watchService.isClose()).isTrue();
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0)).isInstanceOf(ClosedWatchServiceException.class);
+        try {
+            watchService.poll();
+            fail("service is closed");
+        } catch (final ClosedWatchServiceException ex) {
+        }
+    }
+
+    private List<WatchEvent<?>> collect(final WatchService ws,
+                                        final int expected) {
+        final List<WatchEvent<?>> events = new ArrayList<>();
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (events.size() < expected && System.currentTimeMillis() < deadline) {
+            final WatchKey key = ws.poll(100,
+                                         TimeUnit.MILLISECONDS);
+            if (key != null) {
+                events.addAll(key.pollEvents());
+            }
+        }
+        // anything else that was (wrongly) published along with them
+        final WatchKey extra = ws.poll(1000,
+                                       TimeUnit.MILLISECONDS);
+        if (extra != null) {
+            events.addAll(extra.pollEvents());
+        }
+        return events;
+    }
+}
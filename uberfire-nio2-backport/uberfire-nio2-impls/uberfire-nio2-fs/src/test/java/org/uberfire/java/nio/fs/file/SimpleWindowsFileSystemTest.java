@@ -94,12 +94,6 @@ public class SimpleWindowsFileSystemTest {
                                     "c:\\").getUserPrincipalLookupService();
     }
 
-    @Test(expected = UnsupportedOperationException.class)
-    public void newWatchServiceUnsupportedOp() {
-        new SimpleWindowsFileSystem(fsProvider,
-                                    "c:\\").newWatchService();
-    }
-
     @Test(expected = UnsupportedOperationException.class)
     public void removeElementFromRootIteratorUnsupportedOp() {
         new SimpleWindowsFileSystem(fsProvider,
@@ -126,7 +126,7 @@ public class JGitBasicAttributeView extends AbstractBasicFileAttributeView<JGitP
 
             @Override
             public Object fileKey() {
-                return pathInfo.getObjectId() == null ? null : pathInfo.getObjectId().toString();
+                return pathInfo.getObjectId() == null ? null : pathInfo.getObjectId().name();
             }
         };
     }
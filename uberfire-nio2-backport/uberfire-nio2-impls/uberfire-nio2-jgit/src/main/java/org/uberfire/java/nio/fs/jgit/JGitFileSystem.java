@@ -30,7 +30,6 @@ import java.util.TimeZone;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.jgit.lib.Ref;
@@ -57,6 +56,7 @@ import org.uberfire.java.nio.file.Watchable;
 import org.uberfire.java.nio.file.attribute.UserPrincipalLookupService;
 import org.uberfire.java.nio.file.spi.FileSystemProvider;
 import org.uberfire.java.nio.fs.jgit.util.Git;
+import org.uberfire.java.nio.fs.jgit.util.RepositoryLock;
 import org.uberfire.java.nio.fs.jgit.util.model.CommitInfo;
 
 import static java.util.Arrays.asList;
@@ -89,13 +89,29 @@ public class JGitFileSystem implements FileSystem,
     private CommitInfo batchCommitInfo = null;
     private Map<Path, Boolean> hadCommitOnBatchState = new ConcurrentHashMap<Path, Boolean>();
 
-    private final Lock lock = new Lock();
+    private final RepositoryLock lock;
 
     JGitFileSystem(final JGitFileSystemProvider provider,
                    final Map<String, String> fullHostNames,
                    final Git git,
                    final String name,
                    final CredentialsProvider credential) {
+        this(provider,
+             fullHostNames,
+             git,
+             name,
+             credential,
+             new RepositoryLock());
+    }
+
+    JGitFileSystem(final JGitFileSystemProvider provider,
+                   final Map<String, String> fullHostNames,
+                   final Git git,
+                   final String name,
+                   final CredentialsProvider credential,
+                   final RepositoryLock lock) {
+        this.lock = checkNotNull("lock",
+                                 lock);
         this.provider = checkNotNull("provider",
                                      provider);
         this.git = checkNotNull("git",
@@ -422,6 +438,13 @@ public class JGitFileSystem implements FileSystem,
         return result;
     }
 
+    /**
+     * @return true if some watch service may receive published events.
+     */
+    public boolean hasWatchServices() {
+        return !events.isEmpty();
+    }
+
     public void publishEvents(final Path watchable,
                               final List<WatchEvent<?>> elist) {
         if (this.events.isEmpty()) {
@@ -563,31 +586,41 @@ public class JGitFileSystem implements FileSystem,
         return state;
     }
 
+    /**
+     * Locks the whole repository, waiting for all branch writers to finish.
+     */
     public void lock() {
-        try {
-            lock.lock();
-        } catch (final java.lang.InterruptedException ignored) {
-        }
+        lock.lockRepository();
+    }
+
+    /**
+     * Locks the whole repository only if it is free.
+     * @return true if the lock was taken.
+     */
+    public boolean tryLock() {
+        return lock.tryLockRepository();
     }
 
     public void unlock() {
-        lock.unlock();
+        lock.unlockRepository();
     }
 
-    private static class Lock {
+    /**
+     * Locks the given branch for writing; writers of other branches aren't blocked.
+     */
+    public void lock(final String branch) {
+        lock.lockBranch(branch);
+    }
 
-        private final AtomicBoolean isLocked = new AtomicBoolean(false);
+    public void unlock(final String branch) {
+        lock.unlockBranch(branch);
+    }
 
-        public synchronized void lock() throws java.lang.InterruptedException {
-            while (!isLocked.compareAndSet(false,
-                                           true)) {
-                wait();
-            }
-        }
+    public boolean isLocked() {
+        return lock.isRepositoryLocked();
+    }
 
-        public synchronized void unlock() {
-            isLocked.set(false);
-            notifyAll();
-        }
+    public RepositoryLock getLock() {
+        return lock;
     }
 }
@@ -17,23 +17,22 @@
 package org.uberfire.java.nio.fs.jgit;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.FilterOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
 import java.net.Authenticator;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -43,10 +42,12 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import com.jcraft.jsch.Session;
@@ -59,7 +60,10 @@ import org.eclipse.jgit.errors.UnsupportedCredentialItem;
 import org.eclipse.jgit.internal.ketch.KetchLeaderCache;
 import org.eclipse.jgit.internal.ketch.KetchSystem;
 import org.eclipse.jgit.internal.storage.file.WindowCache;
+import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectLoader;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
@@ -89,17 +93,20 @@ import org.uberfire.commons.config.ConfigProperties;
 import org.uberfire.commons.config.ConfigProperties.ConfigProperty;
 import org.uberfire.commons.data.Pair;
 import org.uberfire.commons.lifecycle.Disposable;
+import org.uberfire.commons.metrics.TimerMetric;
 import org.uberfire.java.nio.EncodingUtil;
 import org.uberfire.java.nio.IOException;
+import org.uberfire.java.nio.base.Abortable;
 import org.uberfire.java.nio.base.AbstractPath;
 import org.uberfire.java.nio.base.BasicFileAttributesImpl;
+import org.uberfire.java.nio.base.BulkFileOperations;
 import org.uberfire.java.nio.base.ExtendedAttributeView;
 import org.uberfire.java.nio.base.FileDiff;
 import org.uberfire.java.nio.base.FileSystemState;
-import org.uberfire.java.nio.base.SeekableByteChannelFileBasedImpl;
 import org.uberfire.java.nio.base.WatchContext;
 import org.uberfire.java.nio.base.attributes.HiddenAttributeView;
 import org.uberfire.java.nio.base.attributes.HiddenAttributes;
+import org.uberfire.java.nio.base.dotfiles.DotFileAware;
 import org.uberfire.java.nio.base.dotfiles.DotFileOption;
 import org.uberfire.java.nio.base.options.CherryPickCopyOption;
 import org.uberfire.java.nio.base.options.CommentedOption;
@@ -140,8 +147,13 @@ import org.uberfire.java.nio.file.attribute.FileAttributeView;
 import org.uberfire.java.nio.fs.jgit.daemon.git.Daemon;
 import org.uberfire.java.nio.fs.jgit.daemon.ssh.BaseGitCommand;
 import org.uberfire.java.nio.fs.jgit.daemon.ssh.GitSSHService;
+import org.uberfire.java.nio.fs.jgit.util.BlobByteChannel;
+import org.uberfire.java.nio.fs.jgit.util.GarbageCollectionScheduler;
 import org.uberfire.java.nio.fs.jgit.util.Git;
+import org.uberfire.java.nio.fs.jgit.util.OpenRepositoryCache;
 import org.uberfire.java.nio.fs.jgit.util.ProxyAuthenticator;
+import org.uberfire.java.nio.fs.jgit.util.RepositoryLock;
+import org.uberfire.java.nio.fs.jgit.util.SpillableByteChannel;
 import org.uberfire.java.nio.fs.jgit.util.commands.PathUtil;
 import org.uberfire.java.nio.fs.jgit.util.exceptions.GitException;
 import org.uberfire.java.nio.fs.jgit.util.model.CommitContent;
@@ -172,6 +184,8 @@ import static org.uberfire.java.nio.fs.jgit.util.model.PathType.DIRECTORY;
 import static org.uberfire.java.nio.fs.jgit.util.model.PathType.NOT_FOUND;
 
 public class JGitFileSystemProvider implements SecuredFileSystemProvider,
+                                               DotFileAware,
+                                               BulkFileOperations,
                                                Disposable {
 
     private static final Logger LOG = LoggerFactory.getLogger(JGitFileSystemProvider.class);
@@ -211,6 +225,24 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
     public static final String SSH_ALGORITHM = "DSA";
     public static final String SSH_CERT_PASSPHRASE = "";
     public static final String DEFAULT_COMMIT_LIMIT_TO_GC = "20";
+    public static final String GIT_WRITE_SPILL_THRESHOLD = "org.uberfire.nio.git.write.spill.threshold";
+    public static final String DEFAULT_WRITE_SPILL_THRESHOLD = "1048576";
+    public static final String GIT_GC_MAX_CONCURRENT = "org.uberfire.nio.git.gc.maxConcurrent";
+    public static final String GIT_GC_IDLE_TIME = "org.uberfire.nio.git.gc.idle";
+    public static final String GIT_GC_LOOSE_OBJECTS = "org.uberfire.nio.git.gc.looseObjects";
+    public static final String GIT_GC_PACKS = "org.uberfire.nio.git.gc.packs";
+    public static final String DEFAULT_GC_MAX_CONCURRENT = "1";
+    public static final String DEFAULT_GC_IDLE_TIME = "2000";
+    public static final String DEFAULT_GC_LOOSE_OBJECTS = "0";
+    public static final String DEFAULT_GC_PACKS = "0";
+    public static final String GIT_MAX_OPEN_REPOSITORIES = "org.uberfire.nio.git.repositories.maxOpen";
+    public static final String DEFAULT_MAX_OPEN_REPOSITORIES = "0";
+    public static final String GIT_LOCK_FAIR = "org.uberfire.nio.git.lock.fair";
+    public static final String GIT_LOCK_TIMEOUT = "org.uberfire.nio.git.lock.timeout";
+    public static final String DEFAULT_LOCK_FAIR = "false";
+    public static final String DEFAULT_LOCK_TIMEOUT = "0";
+    public static final String GIT_EVENTS_CHUNK_SIZE = "org.uberfire.nio.git.events.chunk";
+    public static final String DEFAULT_EVENTS_CHUNK_SIZE = "1000";
     private static final String GIT_ENV_KEY_MIGRATE_FROM = "migrate-from";
 
     private File gitReposParentDir;
@@ -218,6 +250,14 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
     private File hookDir;
 
     private int commitLimit;
+    private long writeSpillThreshold;
+    private GarbageCollectionScheduler gcScheduler;
+    private OpenRepositoryCache openRepositories;
+    private boolean lockFair;
+    private long lockTimeout;
+    private int notificationChunkSize;
+    private final TimerMetric notificationTime = new TimerMetric();
+    private final LongAdder notifiedEvents = new LongAdder();
     private boolean daemonEnabled;
     private int daemonPort;
     private String daemonHostAddr;
@@ -235,6 +275,7 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
     private final Map<String, JGitFileSystem> fileSystems = new ConcurrentHashMap<>();
     private final Set<JGitFileSystem> closedFileSystems = new HashSet<>();
     private final Map<Repository, JGitFileSystem> repoIndex = new ConcurrentHashMap<>();
+    private final Map<String, File> unopenedRepositories = new ConcurrentHashMap<>();
 
     private final Map<String, String> fullHostNames = new HashMap<String, String>();
 
@@ -294,6 +335,24 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                                                             SSH_CERT_PASSPHRASE);
         final ConfigProperty commitLimitProp = config.get("org.uberfire.nio.git.gc.limit",
                                                           DEFAULT_COMMIT_LIMIT_TO_GC);
+        final ConfigProperty writeSpillThresholdProp = config.get(GIT_WRITE_SPILL_THRESHOLD,
+                                                                  DEFAULT_WRITE_SPILL_THRESHOLD);
+        final ConfigProperty gcMaxConcurrentProp = config.get(GIT_GC_MAX_CONCURRENT,
+                                                              DEFAULT_GC_MAX_CONCURRENT);
+        final ConfigProperty gcIdleTimeProp = config.get(GIT_GC_IDLE_TIME,
+                                                         DEFAULT_GC_IDLE_TIME);
+        final ConfigProperty gcLooseObjectsProp = config.get(GIT_GC_LOOSE_OBJECTS,
+                                                             DEFAULT_GC_LOOSE_OBJECTS);
+        final ConfigProperty gcPacksProp = config.get(GIT_GC_PACKS,
+                                                      DEFAULT_GC_PACKS);
+        final ConfigProperty maxOpenRepositoriesProp = config.get(GIT_MAX_OPEN_REPOSITORIES,
+                                                                  DEFAULT_MAX_OPEN_REPOSITORIES);
+        final ConfigProperty lockFairProp = config.get(GIT_LOCK_FAIR,
+                                                       DEFAULT_LOCK_FAIR);
+        final ConfigProperty lockTimeoutProp = config.get(GIT_LOCK_TIMEOUT,
+                                                          DEFAULT_LOCK_TIMEOUT);
+        final ConfigProperty notificationChunkSizeProp = config.get(GIT_EVENTS_CHUNK_SIZE,
+                                                                    DEFAULT_EVENTS_CHUNK_SIZE);
 
         final ConfigProperty httpProxyUserProp = config.get("http.proxyUser",
                                                             null);
@@ -322,6 +381,16 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
         gitReposParentDir = new File(bareReposDirProp.getValue(),
                                      reposDirNameProp.getValue());
         commitLimit = commitLimitProp.getIntValue();
+        writeSpillThreshold = writeSpillThresholdProp.getLongValue();
+        gcScheduler = new GarbageCollectionScheduler(gcMaxConcurrentProp.getIntValue(),
+                                                     gcIdleTimeProp.getLongValue(),
+                                                     gcLooseObjectsProp.getIntValue(),
+                                                     gcPacksProp.getIntValue());
+        openRepositories = new OpenRepositoryCache(maxOpenRepositoriesProp.getIntValue());
+        lockFair = lockFairProp.getBooleanValue();
+        lockTimeout = lockTimeoutProp.getLongValue();
+        notificationChunkSize = Math.max(1,
+                                         notificationChunkSizeProp.getIntValue());
 
         daemonEnabled = enabledProp.getBooleanValue();
         if (daemonEnabled) {
@@ -375,7 +444,9 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
         synchronized (oldHeadsOfPendingDiffsLock) {
             oldHeadsOfPendingDiffs.remove(fileSystem);
         }
-        if (closedFileSystems.size() == fileSystems.size()) {
+        gcScheduler.forget(fileSystem);
+        openRepositories.forget(fileSystem);
+        if (closedFileSystems.size() == fileSystems.size() && unopenedRepositories.isEmpty()) {
             forceStopDaemon();
             shutdownSSH();
         }
@@ -426,7 +497,7 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                 throws RepositoryNotFoundException,
                 ServiceNotAuthorizedException, ServiceNotEnabledException,
                 ServiceMayNotContinueException {
-            final JGitFileSystem fs = fileSystems.get(name);
+            final JGitFileSystem fs = lookupFileSystem(name);
             if (fs == null) {
                 throw new RepositoryNotFoundException(name);
             }
@@ -537,41 +608,84 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
      * {@link #gitReposParentDir}. Call this method any time you add or remove git repositories without using this
      * class. If you only ever add or remove git repositories using the methods of this class, there is no need to call
      * this method.
+     * <p>
+     * Repositories found are only registered by name; each one is opened, and its garbage collection requested, the
+     * first time its filesystem is looked up.
      */
     public final void rescanForExistingRepositories() {
         fileSystems.clear();
+        unopenedRepositories.clear();
+        openRepositories.clear();
         final List<Pair<String, String>> repos = getRepositories(gitReposParentDir);
         if (repos != null) {
             for (Pair<String, String> repo : repos) {
                 final File repoDir = new File(gitReposParentDir,
                                               repo.getK1() + repo.getK2());
-                try {
-                    if (repoDir.isDirectory()) {
-                        final String name = repo.getK1() + repo.getK2().substring(0,
-                                                                                  repo.getK2().indexOf(DOT_GIT_EXT));
-                        final JGitFileSystem fs = new JGitFileSystem(this,
-                                                                     fullHostNames,
-                                                                     Git.createRepository(repoDir),
-                                                                     name,
-                                                                     buildCredential(null));
-                        LOG.debug("Running GIT GC on '" + name + "'");
-                        fs.getGit().gc();
-                        LOG.debug("Registering existing GIT filesystem '" + name + "' at " + repoDir);
-                        fileSystems.put(name,
-                                        fs);
-                        repoIndex.put(fs.getGit().getRepository(),
-                                      fs);
-                    } else {
-                        LOG.debug("Not registering " + repoDir + " as a GIT filesystem because it is not a directory");
-                    }
-                } catch (final Exception ex) {
-                    LOG.error("Not registering " + repoDir + " as a GIT filesystem failed",
-                              ex);
+                if (repoDir.isDirectory()) {
+                    final String name = repo.getK1() + repo.getK2().substring(0,
+                                                                              repo.getK2().indexOf(DOT_GIT_EXT));
+                    LOG.debug("Registering existing GIT filesystem '" + name + "' at " + repoDir);
+                    unopenedRepositories.put(name,
+                                             repoDir);
+                } else {
+                    LOG.debug("Not registering " + repoDir + " as a GIT filesystem because it is not a directory");
                 }
             }
         }
     }
 
+    /**
+     * Returns the filesystem registered under the given name, opening it if it was found by
+     * {@link #rescanForExistingRepositories()} and never used since; null if there is none.
+     */
+    private JGitFileSystem lookupFileSystem(final String name) {
+        JGitFileSystem fs = fileSystems.get(name);
+        if (fs == null && unopenedRepositories.containsKey(name)) {
+            fs = openRegisteredFileSystem(name);
+        }
+        if (fs != null) {
+            openRepositories.touch(fs);
+        }
+        return fs;
+    }
+
+    private synchronized JGitFileSystem openRegisteredFileSystem(final String name) {
+        final JGitFileSystem opened = fileSystems.get(name);
+        if (opened != null) {
+            return opened;
+        }
+        final File repoDir = unopenedRepositories.get(name);
+        if (repoDir == null) {
+            return null;
+        }
+        try {
+            LOG.debug("Opening existing GIT filesystem '" + name + "' at " + repoDir);
+            final JGitFileSystem fs = new JGitFileSystem(this,
+                                                         fullHostNames,
+                                                         Git.createRepository(repoDir),
+                                                         name,
+                                                         buildCredential(null),
+                                                         new RepositoryLock(lockFair,
+                                                                            lockTimeout));
+            fileSystems.put(name,
+                            fs);
+            repoIndex.put(fs.getGit().getRepository(),
+                          fs);
+            unopenedRepositories.remove(name);
+            gcScheduler.request(fs);
+            return fs;
+        } catch (final Exception ex) {
+            unopenedRepositories.remove(name);
+            LOG.error("Not registering " + repoDir + " as a GIT filesystem failed",
+                      ex);
+            return null;
+        }
+    }
+
+    private boolean containsFileSystem(final String name) {
+        return fileSystems.containsKey(name) || unopenedRepositories.containsKey(name);
+    }
+
     private List<Pair<String, String>> getRepositories(File root) {
         List<Pair<String, String>> repositories = new ArrayList<>();
 
@@ -608,19 +722,32 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
     private void buildAndStartSSH() {
         final ReceivePackFactory receivePackFactory = (ReceivePackFactory<BaseGitCommand>) (req, db) -> new ReceivePack(db) {{
             final JGitFileSystem fs = repoIndex.get(db);
-            final Map<String, RevCommit> oldTreeRefs = new HashMap<>();
+            // sorted, so concurrent pushes lock their branches in the same order
+            final Map<String, RevCommit> oldTreeRefs = new TreeMap<>();
 
             setPreReceiveHook((rp, commands2) -> {
-                fs.lock();
                 for (final ReceiveCommand command : commands2) {
-                    final RevCommit lastCommit = fs.getGit().getLastCommit(command.getRefName());
                     oldTreeRefs.put(command.getRefName(),
-                                    lastCommit);
+                                    null);
+                }
+                try {
+                    for (final String refName : oldTreeRefs.keySet()) {
+                        fs.lock(refName);
+                        oldTreeRefs.put(refName,
+                                        fs.getGit().getLastCommit(refName));
+                    }
+                } catch (final RuntimeException ex) {
+                    for (final String refName : oldTreeRefs.keySet()) {
+                        fs.unlock(refName);
+                    }
+                    throw ex;
                 }
             });
 
             setPostReceiveHook((rp, commands) -> {
-                fs.unlock();
+                for (final String refName : oldTreeRefs.keySet()) {
+                    fs.unlock(refName);
+                }
                 final String userName = req.getUser().getName();
                 for (Map.Entry<String, RevCommit> oldTreeRef : oldTreeRefs.entrySet()) {
                     final List<RevCommit> commits = fs.getGit().listCommits(oldTreeRef.getValue(),
@@ -692,10 +819,26 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
         for (JGitFileSystem fs : getOpenFileSystems()) {
             fs.close();
         }
+        gcScheduler.cancelAll();
+        openRepositories.clear();
         shutdownSSH();
         forceStopDaemon();
     }
 
+    /**
+     * Returns the bound of repositories holding open pack files, which exposes its metrics.
+     */
+    public OpenRepositoryCache getOpenRepositoryCache() {
+        return openRepositories;
+    }
+
+    /**
+     * Returns the scheduler of background garbage collections, which exposes their metrics.
+     */
+    public GarbageCollectionScheduler getGarbageCollectionScheduler() {
+        return gcScheduler;
+    }
+
     /**
      * Returns the directory that contains all the git repositories managed by this file system provider.
      */
@@ -743,7 +886,7 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
         migrateIfNeeded(env,
                         name);
 
-        if (fileSystems.containsKey(name)) {
+        if (containsFileSystem(name)) {
             throw new FileSystemAlreadyExistsException("No filesystem for uri (" + uri + ") found.");
         }
 
@@ -790,7 +933,9 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                                                      fullHostNames,
                                                      git,
                                                      name,
-                                                     credential);
+                                                     credential,
+                                                     new RepositoryLock(lockFair,
+                                                                        lockTimeout));
         fileSystems.put(name,
                         fs);
         repoIndex.put(fs.getGit().getRepository(),
@@ -837,7 +982,7 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
             URI migrateFromURI = (URI) env.get(GIT_ENV_KEY_MIGRATE_FROM);
             final String oldRepoName = extractRepoName(migrateFromURI);
 
-            if (fileSystems.containsKey(oldRepoName) && !fileSystems.containsKey(name)) {
+            if (containsFileSystem(oldRepoName) && !containsFileSystem(name)) {
                 this.migrateOldRepository(oldRepoName,
                                           name);
             }
@@ -880,6 +1025,7 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                                newRepository.toPath(),
                                REPLACE_EXISTING);
                     this.fileSystems.remove(oldName);
+                    this.unopenedRepositories.remove(oldName);
                 } catch (java.io.IOException e) {
                     throw new GitException("A problem occurred trying to migrate repositories",
                                            e);
@@ -898,11 +1044,11 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
         checkURI("uri",
                  uri);
 
-        JGitFileSystem fileSystem = fileSystems.get(extractRepoNameWithFolder(uri));
+        JGitFileSystem fileSystem = lookupFileSystem(extractRepoNameWithFolder(uri));
 
         if (fileSystem == null) {
 
-            fileSystem = fileSystems.get(extractRepoNameWithoutFolder(uri));
+            fileSystem = lookupFileSystem(extractRepoNameWithoutFolder(uri));
             if (fileSystem == null) {
                 throw new FileSystemNotFoundException("No filesystem for uri (" + uri + ") found.");
             }
@@ -966,10 +1112,10 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
 
         Path path;
 
-        JGitFileSystem fileSystem = fileSystems.get(extractRepoNameWithFolder(uri));
+        JGitFileSystem fileSystem = lookupFileSystem(extractRepoNameWithFolder(uri));
 
         if (fileSystem == null) {
-            fileSystem = fileSystems.get(extractRepoNameWithoutFolder(uri));
+            fileSystem = lookupFileSystem(extractRepoNameWithoutFolder(uri));
 
             if (fileSystem == null) {
                 throw new FileSystemNotFoundException("No filesystem for uri (" + uri + ") found.");
@@ -1018,27 +1164,69 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
             throw new NotDirectoryException(path.toString());
         }
 
-        try {
-            final File file = File.createTempFile("gitz",
-                                                  "woot");
-            return new FilterOutputStream(new FileOutputStream(file)) {
-                @Override
-                public void close() throws java.io.IOException {
+        final SpillableByteChannel content = new SpillableByteChannel(writeSpillThreshold);
+        return new CommitOnCloseOutputStream(Channels.newOutputStream(content)) {
+            private boolean closed = false;
+
+            @Override
+            public void write(final byte[] b,
+                              final int off,
+                              final int len) throws java.io.IOException {
+                out.write(b,
+                          off,
+                          len);
+            }
+
+            @Override
+            public void close() throws java.io.IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
                     super.close();
 
                     commit(gPath,
                            buildCommitInfo("{" + toPathImpl(path).getPath() + "}",
                                            Arrays.asList(options)),
-                           new DefaultCommitContent(new HashMap<String, File>() {{
-                               put(gPath.getPath(),
-                                   file);
-                           }}));
+                           new DefaultCommitContent(Collections.emptyMap(),
+                                                    insertBlobs(gPath,
+                                                                Collections.singletonMap(gPath.getPath(),
+                                                                                         content))));
+                } finally {
+                    content.dispose();
                 }
-            };
-        } catch (java.io.IOException e) {
-            throw new IOException("Could not create file or output stream.",
-                                  e);
+            }
+
+            @Override
+            public void abort() {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                content.dispose();
+            }
+        };
+    }
+
+    private abstract static class CommitOnCloseOutputStream extends FilterOutputStream implements Abortable {
+
+        CommitOnCloseOutputStream(final OutputStream out) {
+            super(out);
+        }
+    }
+
+    private Map<String, ObjectId> insertBlobs(final JGitPathImpl gPath,
+                                              final Map<String, SpillableByteChannel> contents) throws java.io.IOException {
+        final Map<String, ObjectId> blobs = new HashMap<>(contents.size());
+        try (final ObjectInserter inserter = gPath.getFileSystem().getGit().getRepository().newObjectInserter()) {
+            for (final Map.Entry<String, SpillableByteChannel> pathAndContent : contents.entrySet()) {
+                blobs.put(pathAndContent.getKey(),
+                          pathAndContent.getValue().insertBlob(inserter));
+            }
+            inserter.flush();
         }
+        return blobs;
     }
 
     private CommitInfo buildCommitInfo(final String defaultMessage,
@@ -1120,7 +1308,8 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
 
         try {
             if (options != null && options.contains(READ)) {
-                return openAByteChannel(path);
+                return openAByteChannel(path,
+                                        result);
             } else {
                 return createANewByteChannel(path,
                                              options,
@@ -1138,50 +1327,62 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
     private SeekableByteChannel createANewByteChannel(final Path path,
                                                       final Set<? extends OpenOption> options,
                                                       final JGitPathImpl gPath,
-                                                      final FileAttribute<?>[] attrs) throws java.io.IOException {
-        final File file = File.createTempFile("gitz",
-                                              "woot");
-
-        return new SeekableByteChannelFileBasedImpl(new RandomAccessFile(file,
-                                                                         "rw").getChannel()) {
+                                                      final FileAttribute<?>[] attrs) {
+        return new SpillableByteChannel(writeSpillThreshold) {
             @Override
             public void close() throws java.io.IOException {
-                super.close();
-
-                File tempDot = null;
-                final boolean hasDotContent;
-                if (options != null && options.contains(new DotFileOption())) {
-                    deleteIfExists(dot(path),
-                                   extractCommentedOption(options));
-                    tempDot = File.createTempFile("meta",
-                                                  "dot");
-                    hasDotContent = buildDotFile(path,
-                                                 new FileOutputStream(tempDot),
-                                                 attrs);
-                } else {
-                    hasDotContent = false;
+                if (!isOpen()) {
+                    return;
                 }
+                super.close();
 
-                final File dotfile = tempDot;
+                final SpillableByteChannel dotContent = new SpillableByteChannel(writeSpillThreshold);
+                try {
+                    final boolean withDotFile = options != null && options.contains(new DotFileOption());
+                    final boolean hasDotContent = withDotFile && attrs != null && attrs.length > 0 &&
+                            buildDotFile(path,
+                                         Channels.newOutputStream(dotContent),
+                                         attrs);
+
+                    final Map<String, SpillableByteChannel> contents = new HashMap<>();
+                    contents.put(gPath.getPath(),
+                                 this);
+                    final Map<String, File> deletes = new HashMap<>();
+                    if (hasDotContent) {
+                        contents.put(toPathImpl(dot(gPath)).getPath(),
+                                     dotContent);
+                    } else if (withDotFile) {
+                        // the dot file is replaced, or removed, in the same commit as the content
+                        deletes.put(toPathImpl(dot(gPath)).getPath(),
+                                    null);
+                    }
 
-                commit(gPath,
-                       buildCommitInfo("{" + toPathImpl(path).getPath() + "}",
-                                       options),
-                       new DefaultCommitContent(new HashMap<String, File>() {{
-                           put(gPath.getPath(),
-                               file);
-                           if (hasDotContent) {
-                               put(toPathImpl(dot(gPath)).getPath(),
-                                   dotfile);
-                           }
-                       }}));
+                    commit(gPath,
+                           buildCommitInfo("{" + toPathImpl(path).getPath() + "}",
+                                           options),
+                           new DefaultCommitContent(deletes,
+                                                    insertBlobs(gPath,
+                                                                contents)));
+                } finally {
+                    dotContent.dispose();
+                    dispose();
+                }
             }
         };
     }
 
-    private SeekableByteChannelFileBasedImpl openAByteChannel(Path path) throws FileNotFoundException {
-        return new SeekableByteChannelFileBasedImpl(new RandomAccessFile(path.toFile(),
-                                                                         "r").getChannel());
+    private SeekableByteChannel openAByteChannel(final Path path,
+                                                 final PathInfo pathInfo) throws java.io.IOException {
+        if (pathInfo.getObjectId() == null) {
+            throw new NoSuchFileException(path.toString());
+        }
+        final JGitPathImpl gPath = toPathImpl(path);
+        final ObjectLoader loader = gPath.getFileSystem().getGit().getRepository().open(pathInfo.getObjectId(),
+                                                                                        Constants.OBJ_BLOB);
+        if (pathInfo.getSize() <= writeSpillThreshold) {
+            return SpillableByteChannel.readOnly(loader.getCachedBytes());
+        }
+        return new BlobByteChannel(loader);
     }
 
     private boolean shouldCreateOrOpenAByteChannel(Set<? extends OpenOption> options) {
@@ -1419,9 +1620,17 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
 
     private void deleteResource(final JGitPathImpl path,
                                 final DeleteOption... options) {
-        delete(path,
+        final Map<String, File> content = new HashMap<>();
+        content.put(path.getPath(),
+                    null);
+        if (Arrays.asList(options).contains(new DotFileOption())) {
+            content.put(toPathImpl(dot(path)).getPath(),
+                        null);
+        }
+        commit(path,
                buildCommitInfo("delete {" + path.getPath() + "}",
-                               Arrays.asList(options)));
+                               Arrays.asList(options)),
+               new DefaultCommitContent(content));
     }
 
     private boolean deleteNonEmptyDirectory(final DeleteOption... options) {
@@ -1443,10 +1652,10 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
         }
 
         try {
-            path.getFileSystem().lock();
+            path.getFileSystem().lock(path.getRefTree());
             path.getFileSystem().getGit().deleteRef(branch);
         } finally {
-            path.getFileSystem().unlock();
+            path.getFileSystem().unlock(path.getRefTree());
         }
     }
 
@@ -1494,7 +1703,8 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
             final List<PathInfo> content = path.getFileSystem().getGit().listPathContent(path.getRefTree(),
                                                                                          path.getPath());
             if (content.size() == 1 && content.get(0).getPath().equals(path.getPath().substring(1) + "/.gitkeep")) {
-                delete(path.resolve(".gitkeep"));
+                deleteResource(path,
+                               options);
                 return true;
             }
             throw new DirectoryNotEmptyException(path.toString());
@@ -1564,11 +1774,11 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                        final JGitPathImpl target) {
 
         try {
-            target.getFileSystem().lock();
+            target.getFileSystem().lock(target.getRefTree());
             source.getFileSystem().getGit().merge(source.getRefTree(),
                                                   target.getRefTree());
         } finally {
-            target.getFileSystem().unlock();
+            target.getFileSystem().unlock(target.getRefTree());
         }
     }
 
@@ -1576,11 +1786,11 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                             final JGitPathImpl target,
                             final String... commits) {
         try {
-            target.getFileSystem().lock();
+            target.getFileSystem().lock(target.getRefTree());
             source.getFileSystem().getGit().cherryPick(target,
                                                        commits);
         } finally {
-            target.getFileSystem().unlock();
+            target.getFileSystem().unlock(target.getRefTree());
         }
     }
 
@@ -1618,14 +1828,18 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
             throw new NoSuchFileException(target.toString());
         }
 
-        if (!source.getRefTree().equals(target.getRefTree())) {
-            copyAssetContent(source,
-                             target,
-                             options);
-        } else if (!source.getFileSystem().equals(target.getFileSystem())) {
+        final boolean withDotFile = contains(options,
+                                             new DotFileOption()) && exists(dot(source));
+
+        if (!source.getRefTree().equals(target.getRefTree()) || !source.getFileSystem().equals(target.getFileSystem())) {
             copyAssetContent(source,
                              target,
                              options);
+            if (withDotFile) {
+                copyAssetContent(toPathImpl(dot(source)),
+                                 toPathImpl(dot(target)),
+                                 forceReplaceExisting(options));
+            }
         } else {
             final Map<JGitPathImpl, JGitPathImpl> sourceDest = new HashMap<JGitPathImpl, JGitPathImpl>();
             if (sourceResult.getPathType() == DIRECTORY) {
@@ -1636,6 +1850,10 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                 sourceDest.put(source,
                                target);
             }
+            if (withDotFile) {
+                sourceDest.put(toPathImpl(dot(source)),
+                               toPathImpl(dot(target)));
+            }
 
             copyFiles(source,
                       target,
@@ -1675,6 +1893,17 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                  options);
     }
 
+    private CopyOption[] forceReplaceExisting(final CopyOption[] options) {
+        if (contains(options,
+                     StandardCopyOption.REPLACE_EXISTING)) {
+            return options;
+        }
+        final CopyOption[] result = Arrays.copyOf(options,
+                                                  options.length + 1);
+        result[options.length] = StandardCopyOption.REPLACE_EXISTING;
+        return result;
+    }
+
     private boolean contains(final CopyOption[] options,
                              final CopyOption opt) {
         for (final CopyOption option : options) {
@@ -1789,11 +2018,11 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
     private void createBranch(final JGitPathImpl source,
                               final JGitPathImpl target) {
         try {
-            target.getFileSystem().lock();
+            target.getFileSystem().lock(target.getRefTree());
             source.getFileSystem().getGit().createRef(source.getRefTree(),
                                                       target.getRefTree());
         } finally {
-            target.getFileSystem().unlock();
+            target.getFileSystem().unlock(target.getRefTree());
         }
     }
 
@@ -1889,11 +2118,19 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
             throw new NoSuchFileException(target.toString());
         }
 
+        final boolean withDotFile = contains(options,
+                                             new DotFileOption());
+
         if (!source.getRefTree().equals(target.getRefTree())) {
             copy(source,
                  target,
                  options);
-            delete(source);
+            if (withDotFile) {
+                delete(source,
+                       new DotFileOption());
+            } else {
+                delete(source);
+            }
         } else {
             final Map<JGitPathImpl, JGitPathImpl> fromTo = new HashMap<JGitPathImpl, JGitPathImpl>();
             if (sourceResult.getPathType() == DIRECTORY) {
@@ -1904,6 +2141,10 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                 fromTo.put(source,
                            target);
             }
+            if (withDotFile && exists(dot(source))) {
+                fromTo.put(toPathImpl(dot(source)),
+                           toPathImpl(dot(target)));
+            }
 
             moveFiles(source,
                       target,
@@ -1966,6 +2207,153 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                new CopyCommitContent(result));
     }
 
+    @Override
+    public void copyAll(final Map<Path, Path> sourceToTarget,
+                        final CopyOption... options)
+            throws UnsupportedOperationException, FileAlreadyExistsException, NoSuchFileException, IOException, SecurityException {
+        checkNotNull("sourceToTarget",
+                     sourceToTarget);
+        if (sourceToTarget.isEmpty()) {
+            return;
+        }
+
+        final Map<String, String> result = mapAssets(sourceToTarget,
+                                                     options);
+        commit(toPathImpl(sourceToTarget.keySet().iterator().next()),
+               buildCommitInfo("copy of " + sourceToTarget.size() + " paths",
+                               Arrays.asList(options)),
+               new CopyCommitContent(result));
+    }
+
+    @Override
+    public void moveAll(final Map<Path, Path> sourceToTarget,
+                        final CopyOption... options)
+            throws UnsupportedOperationException, FileAlreadyExistsException, NoSuchFileException, IOException, SecurityException {
+        checkNotNull("sourceToTarget",
+                     sourceToTarget);
+        if (sourceToTarget.isEmpty()) {
+            return;
+        }
+
+        final Map<String, String> result = mapAssets(sourceToTarget,
+                                                     options);
+        commit(toPathImpl(sourceToTarget.keySet().iterator().next()),
+               buildCommitInfo("moving of " + sourceToTarget.size() + " paths",
+                               Arrays.asList(options)),
+               new MoveCommitContent(result));
+    }
+
+    @Override
+    public void deleteAll(final Collection<Path> paths,
+                          final DeleteOption... options)
+            throws NoSuchFileException, DirectoryNotEmptyException, IOException, SecurityException {
+        checkNotNull("paths",
+                     paths);
+        if (paths.isEmpty()) {
+            return;
+        }
+
+        final boolean withDotFile = Arrays.asList(options).contains(new DotFileOption());
+        final JGitPathImpl first = toPathImpl(paths.iterator().next());
+        final Map<String, File> content = new HashMap<>(withDotFile ? paths.size() * 2 : paths.size());
+        for (final Path path : paths) {
+            final JGitPathImpl gPath = toPathImpl(path);
+            checkSameBranch(first,
+                            gPath);
+            if (isBranch(gPath)) {
+                throw new IOException("Branches can't be deleted along with other paths.");
+            }
+
+            final PathInfo result = gPath.getFileSystem().getGit().getPathInfo(gPath.getRefTree(),
+                                                                               gPath.getPath());
+            if (result.getPathType().equals(NOT_FOUND)) {
+                throw new NoSuchFileException(gPath.toString());
+            }
+            if (result.getPathType().equals(PathType.DIRECTORY) && !deleteNonEmptyDirectory(options)) {
+                final List<PathInfo> directoryContent = gPath.getFileSystem().getGit().listPathContent(gPath.getRefTree(),
+                                                                                                       gPath.getPath());
+                if (!(directoryContent.size() == 1 && directoryContent.get(0).getPath().equals(gPath.getPath().substring(1) + "/.gitkeep"))) {
+                    throw new DirectoryNotEmptyException(gPath.toString());
+                }
+            }
+
+            content.put(gPath.getPath(),
+                        null);
+            if (withDotFile) {
+                content.put(toPathImpl(dot(gPath)).getPath(),
+                            null);
+            }
+        }
+
+        commit(first,
+               buildCommitInfo("delete of " + paths.size() + " paths",
+                               Arrays.asList(options)),
+               new DefaultCommitContent(content));
+    }
+
+    /**
+     * Validates every source and target of a bulk copy or move and expands directories to their files, so the whole
+     * operation fails before anything gets committed.
+     */
+    private Map<String, String> mapAssets(final Map<Path, Path> sourceToTarget,
+                                          final CopyOption... options) {
+        final boolean withDotFile = contains(options,
+                                             new DotFileOption());
+        final JGitPathImpl first = toPathImpl(sourceToTarget.keySet().iterator().next());
+        final Map<JGitPathImpl, JGitPathImpl> fromTo = new HashMap<JGitPathImpl, JGitPathImpl>();
+        for (final Map.Entry<Path, Path> entry : sourceToTarget.entrySet()) {
+            final JGitPathImpl source = toPathImpl(entry.getKey());
+            final JGitPathImpl target = toPathImpl(entry.getValue());
+            checkSameBranch(first,
+                            source);
+            checkSameBranch(first,
+                            target);
+
+            final PathInfo sourceResult = source.getFileSystem().getGit().getPathInfo(source.getRefTree(),
+                                                                                      source.getPath());
+            final PathInfo targetResult = target.getFileSystem().getGit().getPathInfo(target.getRefTree(),
+                                                                                      target.getPath());
+
+            if (!isRoot(target) && targetResult.getPathType() != NOT_FOUND) {
+                if (!contains(options,
+                              StandardCopyOption.REPLACE_EXISTING)) {
+                    throw new FileAlreadyExistsException(target.toString());
+                }
+            }
+
+            if (sourceResult.getPathType() == NOT_FOUND) {
+                throw new NoSuchFileException(source.toString());
+            }
+
+            if (sourceResult.getPathType() == DIRECTORY) {
+                fromTo.putAll(mapDirectoryContent(source,
+                                                  target,
+                                                  options));
+            } else {
+                fromTo.put(source,
+                           target);
+            }
+            if (withDotFile && exists(dot(source))) {
+                fromTo.put(toPathImpl(dot(source)),
+                           toPathImpl(dot(target)));
+            }
+        }
+
+        final Map<String, String> result = new HashMap<String, String>(fromTo.size());
+        for (final Map.Entry<JGitPathImpl, JGitPathImpl> fromToEntry : fromTo.entrySet()) {
+            result.put(PathUtil.normalize(fromToEntry.getKey().getPath()),
+                       PathUtil.normalize(fromToEntry.getValue().getPath()));
+        }
+        return result;
+    }
+
+    private void checkSameBranch(final JGitPathImpl first,
+                                 final JGitPathImpl path) {
+        if (!first.getFileSystem().equals(path.getFileSystem()) || !first.getRefTree().equals(path.getRefTree())) {
+            throw new IOException("Bulk operations need all paths on the same branch.");
+        }
+    }
+
     @Override
     public boolean isSameFile(final Path pathA,
                               final Path pathB)
@@ -2232,8 +2620,9 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
     private void lockAndSquash(final Path path,
                                final SquashOption value) {
         final JGitFileSystem fileSystem = (JGitFileSystem) path.getFileSystem();
+        final String branch = toPathImpl(path).getRefTree();
         try {
-            fileSystem.lock();
+            fileSystem.lock(branch);
             final JGitPathImpl gSource = toPathImpl(path);
             String commitMessage = checkNotEmpty("commitMessage",
                                                  value.getMessage());
@@ -2243,7 +2632,7 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                                                     startCommit,
                                                     commitMessage);
         } finally {
-            fileSystem.unlock();
+            fileSystem.unlock(branch);
         }
     }
 
@@ -2439,6 +2828,7 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
 
     private JGitPathImpl toPathImpl(final Path path) {
         if (path instanceof JGitPathImpl) {
+            openRepositories.touch(((JGitPathImpl) path).getFileSystem());
             return (JGitPathImpl) path;
         }
         throw new IllegalArgumentException("Path not supported by current provider.");
@@ -2465,26 +2855,16 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
         return DEFAULT_SCHEME_SIZE;
     }
 
-    private void delete(final JGitPathImpl path,
-                        final CommitInfo commitInfo) {
-        commit(path,
-               commitInfo,
-               new DefaultCommitContent(new HashMap<String, File>() {{
-                   put(path.getPath(),
-                       null);
-               }}));
-    }
-
     private void commit(final JGitPathImpl path,
                         final CommitInfo commitInfo,
                         final CommitContent commitContent) {
 
         final JGitFileSystem fileSystem = path.getFileSystem();
+        final String branchName = path.getRefTree();
         try {
-            fileSystem.lock();
+            fileSystem.lock(branchName);
 
             final Git git = fileSystem.getGit();
-            final String branchName = path.getRefTree();
             final boolean batchState = fileSystem.isOnBatch();
             final boolean amend = batchState && fileSystem.isHadCommitOnBatchState(path.getRoot());
 
@@ -2507,9 +2887,10 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
 
             if (!batchState) {
                 if (hasCommit) {
+                    gcScheduler.changed(fileSystem);
                     int value = fileSystem.incrementAndGetCommitCount();
                     if (value >= commitLimit) {
-                        git.gc();
+                        gcScheduler.request(fileSystem);
                         fileSystem.resetCommitCount();
                     }
                 }
@@ -2557,7 +2938,7 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                                                     hasCommit);
             }
         } finally {
-            fileSystem.unlock();
+            fileSystem.unlock(branchName);
         }
     }
 
@@ -2590,9 +2971,10 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
             }
 
             for (JGitFileSystem fileSystem : oldHeadsOfPendingDiffs.keySet()) {
+                gcScheduler.changed(fileSystem);
                 int value = fileSystem.incrementAndGetCommitCount();
                 if (value >= commitLimit) {
-                    fileSystem.getGit().gc();
+                    gcScheduler.request(fileSystem);
                     fileSystem.resetCommitCount();
                 }
             }
@@ -2622,9 +3004,15 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                                                   host,
                                                   false);
 
+        if (!fs.hasWatchServices()) {
+            return;
+        }
+
+        final long start = System.nanoTime();
         final List<DiffEntry> diff = fs.getGit().listDiffs(oldHead,
                                                            newHead);
-        final List<WatchEvent<?>> events = new ArrayList<>(diff.size());
+        List<WatchEvent<?>> events = new ArrayList<>(Math.min(diff.size(),
+                                                              notificationChunkSize));
 
         for (final DiffEntry diffEntry : diff) {
             final Path oldPath;
@@ -2640,12 +3028,18 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
 
             final Path newPath;
             if (!diffEntry.getNewPath().equals(DiffEntry.DEV_NULL)) {
-                final PathInfo pathInfo = fs.getGit().getPathInfo(tree,
-                                                                  diffEntry.getNewPath());
+                // the diff walk already resolved the id; looking it up again would walk the tree from its root
+                final ObjectId objectId;
+                if (diffEntry.getNewId() != null && diffEntry.getNewId().isComplete()) {
+                    objectId = diffEntry.getNewId().toObjectId();
+                } else {
+                    objectId = fs.getGit().getPathInfo(tree,
+                                                       diffEntry.getNewPath()).getObjectId();
+                }
                 newPath = JGitPathImpl.create(fs,
-                                              "/" + pathInfo.getPath(),
+                                              "/" + diffEntry.getNewPath(),
                                               host,
-                                              pathInfo.getObjectId(),
+                                              objectId,
                                               false);
             } else {
                 newPath = null;
@@ -2718,11 +3112,31 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                             '}';
                 }
             });
+
+            if (events.size() >= notificationChunkSize) {
+                fs.publishEvents(root,
+                                 events);
+                events = new ArrayList<>(notificationChunkSize);
+            }
         }
         if (!events.isEmpty()) {
             fs.publishEvents(root,
                              events);
         }
+
+        notifiedEvents.add(diff.size());
+        notificationTime.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the time spent translating commits into watch events, one record per notified commit range.
+     */
+    public TimerMetric getNotificationTime() {
+        return notificationTime;
+    }
+
+    public long getNotifiedEvents() {
+        return notifiedEvents.sum();
     }
 
     GitSSHService getGitSSHService() {
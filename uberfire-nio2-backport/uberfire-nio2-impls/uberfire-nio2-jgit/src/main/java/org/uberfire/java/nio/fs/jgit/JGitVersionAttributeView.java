@@ -17,7 +17,6 @@
 package org.uberfire.java.nio.fs.jgit;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -32,6 +31,7 @@ import org.uberfire.java.nio.base.version.VersionRecord;
 import org.uberfire.java.nio.file.NoSuchFileException;
 import org.uberfire.java.nio.file.attribute.BasicFileAttributeView;
 import org.uberfire.java.nio.file.attribute.FileTime;
+import org.uberfire.java.nio.fs.jgit.util.ThrowableSupplier;
 import org.uberfire.java.nio.fs.jgit.util.model.PathInfo;
 import org.uberfire.java.nio.fs.jgit.util.model.PathType;
 
@@ -72,77 +72,36 @@ public class JGitVersionAttributeView extends VersionAttributeView<JGitPathImpl>
         }
 
         final Ref refId = fs.getGit().getRef(branchName);
-        final List<VersionRecord> records = new ArrayList<>();
-
-        if (refId != null) {
-            try {
-                for (final RevCommit commit : fs.getGit().listCommits(refId,
-                                                                      pathInfo.getPath())) {
-                    records.add(new VersionRecord() {
-                        @Override
-                        public String id() {
-                            return commit.name();
-                        }
-
-                        @Override
-                        public String author() {
-                            return commit.getAuthorIdent().getName();
-                        }
-
-                        @Override
-                        public String email() {
-                            return commit.getAuthorIdent().getEmailAddress();
-                        }
-
-                        @Override
-                        public String comment() {
-                            return commit.getFullMessage();
-                        }
-
-                        @Override
-                        public Date date() {
-                            return commit.getAuthorIdent().getWhen();
-                        }
-
-                        @Override
-                        public String uri() {
-                            return fs.getPath(commit.name(),
-                                              path).toUri().toString();
-                        }
-                    });
-                }
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        Collections.reverse(records);
 
         return new VersionAttributes() {
+            private List<VersionRecord> records = null;
+
             @Override
             public VersionHistory history() {
+                if (records == null) {
+                    records = buildRecords(fs,
+                                           refId,
+                                           pathInfo.getPath(),
+                                           path);
+                }
                 return () -> records;
             }
 
             @Override
             public FileTime lastModifiedTime() {
-                if (records.size() > 0) {
-                    return new FileTimeImpl(records.get(records.size() - 1).date().getTime());
-                }
-                return null;
+                return toFileTime(() -> fs.getGit().getLastCommit(refId,
+                                                                  pathInfo.getPath()));
             }
 
             @Override
-            public FileTime lastAccessTime() {
-                return lastModifiedTime();
+            public FileTime creationTime() {
+                return toFileTime(() -> fs.getGit().getFirstCommit(refId,
+                                                                   pathInfo.getPath()));
             }
 
             @Override
-            public FileTime creationTime() {
-                if (records.size() > 0) {
-                    return new FileTimeImpl(records.get(0).date().getTime());
-                }
-                return null;
+            public FileTime lastAccessTime() {
+                return lastModifiedTime();
             }
 
             @Override
@@ -176,4 +135,66 @@ public class JGitVersionAttributeView extends VersionAttributeView<JGitPathImpl>
             }
         };
     }
+
+    private List<VersionRecord> buildRecords(final JGitFileSystem fs,
+                                             final Ref refId,
+                                             final String gitPath,
+                                             final String path) {
+        final List<VersionRecord> records = new ArrayList<>();
+        if (refId == null) {
+            return records;
+        }
+        try {
+            for (final RevCommit commit : fs.getGit().listPathHistory(refId,
+                                                                      gitPath)) {
+                records.add(new VersionRecord() {
+                    @Override
+                    public String id() {
+                        return commit.name();
+                    }
+
+                    @Override
+                    public String author() {
+                        return commit.getAuthorIdent().getName();
+                    }
+
+                    @Override
+                    public String email() {
+                        return commit.getAuthorIdent().getEmailAddress();
+                    }
+
+                    @Override
+                    public String comment() {
+                        return commit.getFullMessage();
+                    }
+
+                    @Override
+                    public Date date() {
+                        return commit.getAuthorIdent().getWhen();
+                    }
+
+                    @Override
+                    public String uri() {
+                        return fs.getPath(commit.name(),
+                                          path).toUri().toString();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return records;
+    }
+
+    private FileTime toFileTime(final ThrowableSupplier<RevCommit> commit) {
+        try {
+            final RevCommit result = commit.get();
+            if (result != null) {
+                return new FileTimeImpl(result.getAuthorIdent().getWhen().getTime());
+            }
+            return null;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.uberfire.java.nio.IOException;
+import org.uberfire.java.nio.channels.SeekableByteChannel;
+
+/**
+ * Read only channel over a blob, streamed from the object database instead of being loaded in memory. Seeking
+ * forward skips over the stream; seeking backward reopens it.
+ */
+public class BlobByteChannel implements SeekableByteChannel {
+
+    private final ObjectLoader loader;
+    private final long size;
+
+    private InputStream in = null;
+    private long streamPosition = 0;
+    private long position = 0;
+    private boolean open = true;
+
+    public BlobByteChannel(final ObjectLoader loader) {
+        this.loader = loader;
+        this.size = loader.getSize();
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(final long newPosition) throws IOException {
+        ensureOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("newPosition");
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(final long size) throws IOException {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws java.io.IOException {
+        ensureOpen();
+        if (position >= size) {
+            return -1;
+        }
+        seek();
+        final int length = (int) Math.min(dst.remaining(),
+                                          size - position);
+        final byte[] bytes = new byte[length];
+        int read = 0;
+        while (read < length) {
+            final int n = in.read(bytes,
+                                  read,
+                                  length - read);
+            if (n < 0) {
+                break;
+            }
+            read += n;
+        }
+        if (read == 0 && length > 0) {
+            return -1;
+        }
+        dst.put(bytes,
+                0,
+                read);
+        position += read;
+        streamPosition = position;
+        return read;
+    }
+
+    @Override
+    public int write(final ByteBuffer src) throws java.io.IOException {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws java.io.IOException {
+        open = false;
+        if (in != null) {
+            in.close();
+            in = null;
+        }
+    }
+
+    private void seek() throws java.io.IOException {
+        if (in == null || position < streamPosition) {
+            if (in != null) {
+                in.close();
+            }
+            in = loader.openStream();
+            streamPosition = 0;
+        }
+        while (streamPosition < position) {
+            final long skipped = in.skip(position - streamPosition);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    break;
+                }
+                streamPosition++;
+            } else {
+                streamPosition += skipped;
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!open) {
+            throw new IOException(new ClosedChannelException());
+        }
+    }
+}
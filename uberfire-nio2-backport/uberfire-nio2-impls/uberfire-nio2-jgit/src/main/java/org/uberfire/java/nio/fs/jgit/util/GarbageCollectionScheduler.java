@@ -0,0 +1,235 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.GC;
+import org.eclipse.jgit.internal.storage.reftree.RefTreeDatabase;
+import org.eclipse.jgit.lib.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.commons.metrics.TimerMetric;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystem;
+
+/**
+ * Runs repository garbage collections in the background, so writers never wait for them.
+ * <p>
+ * A requested collection starts once the repository had no change for {@code idleTime} milliseconds, or after ten
+ * times that delay on a repository that never goes idle. It is skipped when the repository is under every enabled
+ * threshold of loose objects and pack files (0 or less disables a threshold; with none enabled it always runs). At
+ * most {@code maxConcurrent} collections run at once, over all repositories. Objects are repacked and pruned without
+ * holding the file system lock; only packing refs, which races with ref updates, runs under it.
+ */
+public class GarbageCollectionScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GarbageCollectionScheduler.class);
+    private static final int MAX_IDLE_WAITS = 10;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final long idleTime;
+    private final int looseObjectsThreshold;
+    private final int packFilesThreshold;
+    private final Map<JGitFileSystem, RepositoryState> states = new ConcurrentHashMap<>();
+
+    private final TimerMetric duration = new TimerMetric();
+    private final LongAdder reclaimedBytes = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public GarbageCollectionScheduler(final int maxConcurrent,
+                                      final long idleTime,
+                                      final int looseObjectsThreshold,
+                                      final int packFilesThreshold) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1,
+                                                                 maxConcurrent),
+                                                        r -> {
+                                                            final Thread thread = new Thread(r,
+                                                                                             "jgit-gc-" + threadCount.incrementAndGet());
+                                                            thread.setDaemon(true);
+                                                            thread.setPriority(Thread.MIN_PRIORITY);
+                                                            return thread;
+                                                        });
+        this.executor.setKeepAliveTime(60,
+                                       TimeUnit.SECONDS);
+        this.executor.allowCoreThreadTimeOut(true);
+        this.executor.setRemoveOnCancelPolicy(true);
+        this.idleTime = idleTime;
+        this.looseObjectsThreshold = looseObjectsThreshold;
+        this.packFilesThreshold = packFilesThreshold;
+    }
+
+    /**
+     * Records a change on the file system, postponing its pending collection until it is idle again.
+     */
+    public void changed(final JGitFileSystem fs) {
+        state(fs).lastChange = System.currentTimeMillis();
+    }
+
+    /**
+     * Requests a collection of the file system; does nothing if one is already pending.
+     */
+    public void request(final JGitFileSystem fs) {
+        final RepositoryState state = state(fs);
+        if (!state.pending.compareAndSet(false,
+                                         true)) {
+            return;
+        }
+        state.requestedAt = System.currentTimeMillis();
+        executor.schedule(() -> run(fs,
+                                    state),
+                          idleTime,
+                          TimeUnit.MILLISECONDS);
+    }
+
+    public void forget(final JGitFileSystem fs) {
+        states.remove(fs);
+    }
+
+    /**
+     * Drops every pending collection; collections already running complete.
+     */
+    public void cancelAll() {
+        states.clear();
+        executor.getQueue().clear();
+    }
+
+    public boolean isPending(final JGitFileSystem fs) {
+        final RepositoryState state = states.get(fs);
+        return state != null && state.pending.get();
+    }
+
+    /**
+     * @return duration of the collections that ran.
+     */
+    public TimerMetric getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return bytes of loose and packed objects removed by collections, as reported by repository statistics.
+     */
+    public long getReclaimedBytes() {
+        return reclaimedBytes.sum();
+    }
+
+    /**
+     * @return collections skipped because the repository was under every enabled threshold.
+     */
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    private RepositoryState state(final JGitFileSystem fs) {
+        return states.computeIfAbsent(fs,
+                                      k -> new RepositoryState());
+    }
+
+    private void run(final JGitFileSystem fs,
+                     final RepositoryState state) {
+        if (states.get(fs) != state) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final long idleFor = now - state.lastChange;
+        if (idleFor < idleTime && now - state.requestedAt < idleTime * MAX_IDLE_WAITS) {
+            executor.schedule(() -> run(fs,
+                                        state),
+                              idleTime - idleFor,
+                              TimeUnit.MILLISECONDS);
+            return;
+        }
+        // cleared first, so changes made during this collection can request the next one
+        state.pending.set(false);
+        synchronized (state) {
+            try {
+                collect(fs);
+            } catch (final Exception ex) {
+                failures.increment();
+                LOG.error("Garbage collection of '" + fs.getName() + "' failed.",
+                          ex);
+            }
+        }
+    }
+
+    private void collect(final JGitFileSystem fs) throws Exception {
+        final Repository repository = fs.getGit().getRepository();
+        if (repository.getRefDatabase() instanceof RefTreeDatabase) {
+            return;
+        }
+        if (!(repository instanceof FileRepository)) {
+            final long start = System.nanoTime();
+            fs.getGit().gc();
+            duration.record(System.nanoTime() - start);
+            return;
+        }
+
+        final GC gc = new GC((FileRepository) repository);
+        final GC.RepoStatistics before = gc.getStatistics();
+        if (isUnderThresholds(before.numberOfLooseObjects,
+                              before.numberOfPackFiles)) {
+            skipped.increment();
+            return;
+        }
+
+        final long start = System.nanoTime();
+        gc.repack();
+        gc.prune(Collections.emptySet());
+        fs.lock();
+        try {
+            gc.packRefs();
+        } finally {
+            fs.unlock();
+        }
+        duration.record(System.nanoTime() - start);
+
+        final GC.RepoStatistics after = gc.getStatistics();
+        reclaimedBytes.add(Math.max(0,
+                                    (before.sizeOfLooseObjects + before.sizeOfPackedObjects) -
+                                            (after.sizeOfLooseObjects + after.sizeOfPackedObjects)));
+        LOG.debug("Garbage collection of '" + fs.getName() + "' took " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms.");
+    }
+
+    boolean isUnderThresholds(final long looseObjects,
+                              final long packFiles) {
+        if (looseObjectsThreshold <= 0 && packFilesThreshold <= 0) {
+            return false;
+        }
+        return (looseObjectsThreshold <= 0 || looseObjects < looseObjectsThreshold) &&
+                (packFilesThreshold <= 0 || packFiles < packFilesThreshold);
+    }
+
+    private static class RepositoryState {
+
+        private final AtomicBoolean pending = new AtomicBoolean(false);
+        private volatile long lastChange = 0;
+        private volatile long requestedAt = 0;
+    }
+}
@@ -157,6 +157,18 @@ public interface Git {
 
     RevCommit getFirstCommit(final Ref ref) throws IOException;
 
+    /**
+     * @return commits of the given ref that changed the path, oldest first.
+     */
+    List<RevCommit> listPathHistory(final Ref ref,
+                                    final String path) throws IOException;
+
+    RevCommit getFirstCommit(final Ref ref,
+                             final String path) throws IOException;
+
+    RevCommit getLastCommit(final Ref ref,
+                            final String path) throws IOException;
+
     List<Ref> listRefs();
 
     List<ObjectId> resolveObjectIds(final String... commits);
@@ -41,6 +41,7 @@ import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.internal.ketch.KetchLeader;
 import org.eclipse.jgit.internal.ketch.KetchLeaderCache;
 import org.eclipse.jgit.internal.storage.reftree.RefTreeDatabase;
+import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
@@ -93,6 +94,10 @@ public class GitImpl implements Git {
     private static final String DEFAULT_JGIT_RETRY_SLEEP_TIME = "50";
     private static int JGIT_RETRY_TIMES = initRetryValue();
     private static final int JGIT_RETRY_SLEEP_TIME = initSleepTime();
+    private static final String DEFAULT_TREE_CACHE_SIZE = "10000";
+    private static final int TREE_CACHE_SIZE = initTreeCacheSize();
+    private static final String DEFAULT_HISTORY_CACHE_SIZE = "1000000";
+    private static final int HISTORY_CACHE_SIZE = initHistoryCacheSize();
     private boolean isEnabled = false;
 
     private static int initSleepTime() {
@@ -101,6 +106,26 @@ public class GitImpl implements Git {
                           DEFAULT_JGIT_RETRY_SLEEP_TIME).getIntValue();
     }
 
+    private static int initTreeCacheSize() {
+        final ConfigProperties config = new ConfigProperties(System.getProperties());
+        try {
+            return config.get("org.uberfire.nio.git.cache.tree.size",
+                              DEFAULT_TREE_CACHE_SIZE).getIntValue();
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    private static int initHistoryCacheSize() {
+        final ConfigProperties config = new ConfigProperties(System.getProperties());
+        try {
+            return config.get("org.uberfire.nio.git.cache.history.size",
+                              DEFAULT_HISTORY_CACHE_SIZE).getIntValue();
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
     private static int initRetryValue() {
         final ConfigProperties config = new ConfigProperties(System.getProperties());
         final String osName = config.get("os.name",
@@ -122,6 +147,9 @@ public class GitImpl implements Git {
     private org.eclipse.jgit.api.Git git;
     private KetchLeaderCache leaders;
     private final AtomicBoolean isHeadInitialized = new AtomicBoolean(false);
+    private final PathHistoryIndex pathHistoryIndex = new PathHistoryIndex(this,
+                                                                           HISTORY_CACHE_SIZE);
+    private final TreeLookupCache treeLookupCache = new TreeLookupCache(TREE_CACHE_SIZE);
 
     public GitImpl(final org.eclipse.jgit.api.Git git) {
         this(git,
@@ -148,6 +176,7 @@ public class GitImpl implements Git {
     public void deleteRef(final Ref ref) {
         new DeleteBranch(this,
                          ref).execute();
+        pathHistoryIndex.remove(ref.getName());
     }
 
     @Override
@@ -345,6 +374,27 @@ public class GitImpl implements Git {
                                   ref).execute();
     }
 
+    @Override
+    public List<RevCommit> listPathHistory(final Ref ref,
+                                           final String path) throws IOException {
+        return pathHistoryIndex.listCommits(ref,
+                                            path);
+    }
+
+    @Override
+    public RevCommit getFirstCommit(final Ref ref,
+                                    final String path) throws IOException {
+        return pathHistoryIndex.getFirstCommit(ref,
+                                               path);
+    }
+
+    @Override
+    public RevCommit getLastCommit(final Ref ref,
+                                   final String path) throws IOException {
+        return pathHistoryIndex.getLastCommit(ref,
+                                              path);
+    }
+
     @Override
     public List<Ref> listRefs() {
         return new ListRefs(git.getRepository()).execute();
@@ -392,7 +442,8 @@ public class GitImpl implements Git {
         return retryIfNeeded(RuntimeException.class,
                              () -> new GetPathInfo(this,
                                                    branchName,
-                                                   path).execute());
+                                                   path,
+                                                   treeLookupCache).execute());
     }
 
     @Override
@@ -401,7 +452,15 @@ public class GitImpl implements Git {
         return retryIfNeeded(RuntimeException.class,
                              () -> new ListPathContent(this,
                                                        branchName,
-                                                       path).execute());
+                                                       path,
+                                                       treeLookupCache).execute());
+    }
+
+    /**
+     * Returns the cache of tree lookups, which exposes its hit and miss counts.
+     */
+    public TreeLookupCache getTreeLookupCache() {
+        return treeLookupCache;
     }
 
     @Override
@@ -427,6 +486,8 @@ public class GitImpl implements Git {
                                        branch,
                                        commit).execute();
         }
+        pathHistoryIndex.refUpdated(Constants.R_HEADS + branch,
+                                    commit);
     }
 
     @Override
@@ -451,6 +512,8 @@ public class GitImpl implements Git {
     @Override
     public void updateRepo(final Repository repo) {
         this.git = new org.eclipse.jgit.api.Git(repo);
+        pathHistoryIndex.clear();
+        treeLookupCache.clear();
     }
 
     @Override
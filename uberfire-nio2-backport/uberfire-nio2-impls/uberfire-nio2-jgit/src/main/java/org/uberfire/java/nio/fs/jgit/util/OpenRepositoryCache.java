@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystem;
+
+/**
+ * Bounds the number of repositories holding open pack files and cached pack windows.
+ * <p>
+ * Repositories are tracked in least recently used order. Once more than {@code maxOpen} of them are tracked, the
+ * least recently used ones that aren't locked get their object database closed, which releases file descriptors and
+ * pack windows; it reopens by itself on the next read. A {@code maxOpen} of 0 or less means no bound.
+ */
+public class OpenRepositoryCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OpenRepositoryCache.class);
+
+    private final int maxOpen;
+    private final LinkedHashMap<JGitFileSystem, Boolean> open = new LinkedHashMap<>(16,
+                                                                                     0.75f,
+                                                                                     true);
+
+    private final LongAdder opens = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public OpenRepositoryCache(final int maxOpen) {
+        this.maxOpen = maxOpen;
+    }
+
+    /**
+     * Marks the file system as used now, releasing the least recently used ones if over the bound.
+     */
+    public void touch(final JGitFileSystem fs) {
+        if (maxOpen <= 0) {
+            return;
+        }
+        synchronized (open) {
+            if (open.put(fs,
+                         Boolean.TRUE) == null) {
+                opens.increment();
+            }
+            if (open.size() <= maxOpen) {
+                return;
+            }
+            final Iterator<Map.Entry<JGitFileSystem, Boolean>> iterator = open.entrySet().iterator();
+            while (open.size() > maxOpen && iterator.hasNext()) {
+                final JGitFileSystem eldest = iterator.next().getKey();
+                if (eldest != fs && release(eldest)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public void forget(final JGitFileSystem fs) {
+        synchronized (open) {
+            open.remove(fs);
+        }
+    }
+
+    public void clear() {
+        synchronized (open) {
+            open.clear();
+        }
+    }
+
+    public int getOpenCount() {
+        synchronized (open) {
+            return open.size();
+        }
+    }
+
+    /**
+     * @return times a repository started being tracked, either on first use or after being released.
+     */
+    public long getOpens() {
+        return opens.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private boolean release(final JGitFileSystem fs) {
+        // a locked file system is being written, so it isn't idle
+        if (!fs.tryLock()) {
+            return false;
+        }
+        try {
+            fs.getGit().getRepository().getObjectDatabase().close();
+            evictions.increment();
+            return true;
+        } catch (final Exception ex) {
+            LOG.warn("Releasing repository of '" + fs.getName() + "' failed.",
+                     ex);
+            return true;
+        } finally {
+            fs.unlock();
+        }
+    }
+}
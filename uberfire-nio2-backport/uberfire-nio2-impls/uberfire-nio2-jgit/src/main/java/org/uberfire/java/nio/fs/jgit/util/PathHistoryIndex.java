@@ -0,0 +1,317 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import static org.uberfire.java.nio.fs.jgit.util.commands.PathUtil.normalize;
+
+/**
+ * Per repository index of the commits that changed each path, per ref.
+ * <p>
+ * A ref is indexed on first use by walking its commit graph once; each later lookup first indexes only the commits
+ * added to the ref since the previous one, and indexes the ref again from scratch if it was rewritten. A directory
+ * lists every commit that changed a file under it, and the root (empty path) every commit of the ref, as a path
+ * filtered log does. A merge commit is listed for a path only when the path differs from all of its parents.
+ * <p>
+ * Only commit ids are held, a ref weighting the number of (path, commit) pairs it indexes; refs are evicted in least
+ * recently used order once the index holds more than {@code maxEntries} pairs, 0 or less disables it. A deleted or
+ * rewritten ref is dropped right away.
+ */
+public class PathHistoryIndex {
+
+    private final Git git;
+    private final int maxEntries;
+    private final LinkedHashMap<String, RefHistory> refs = new LinkedHashMap<>(16,
+                                                                              0.75f,
+                                                                              true);
+    private int weight = 0;
+
+    public PathHistoryIndex(final Git git,
+                            final int maxEntries) {
+        this.git = git;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return commits of the given ref that changed the path, oldest first.
+     */
+    public List<RevCommit> listCommits(final Ref ref,
+                                       final String path) throws IOException {
+        final List<ObjectId> commits = lookup(ref,
+                                              path);
+        if (commits.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<RevCommit> result = new ArrayList<>(commits.size());
+        try (final RevWalk rw = new RevWalk(git.getRepository())) {
+            for (final ObjectId commit : commits) {
+                result.add(rw.parseCommit(commit));
+            }
+        }
+        return result;
+    }
+
+    public RevCommit getFirstCommit(final Ref ref,
+                                    final String path) throws IOException {
+        final List<ObjectId> commits = lookup(ref,
+                                              path);
+        return commits.isEmpty() ? null : parse(commits.get(0));
+    }
+
+    public RevCommit getLastCommit(final Ref ref,
+                                   final String path) throws IOException {
+        final List<ObjectId> commits = lookup(ref,
+                                              path);
+        return commits.isEmpty() ? null : parse(commits.get(commits.size() - 1));
+    }
+
+    /**
+     * Drops the history of a ref that was moved to the given commit, unless the move only added commits to it.
+     */
+    public void refUpdated(final String refName,
+                           final ObjectId commit) throws IOException {
+        final RefHistory history;
+        synchronized (refs) {
+            history = refs.get(refName);
+        }
+        if (history == null) {
+            return;
+        }
+        final ObjectId tip;
+        synchronized (history) {
+            tip = history.tip;
+        }
+        if (tip != null && !isAncestor(tip,
+                                       commit)) {
+            remove(refName);
+        }
+    }
+
+    public void remove(final String refName) {
+        synchronized (refs) {
+            final RefHistory history = refs.remove(refName);
+            if (history != null) {
+                weight -= history.weight;
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (refs) {
+            refs.clear();
+            weight = 0;
+        }
+    }
+
+    /**
+     * @return current weight, that is the number of (path, commit) pairs held.
+     */
+    public int getWeight() {
+        synchronized (refs) {
+            return weight;
+        }
+    }
+
+    private RevCommit parse(final ObjectId commit) throws IOException {
+        try (final RevWalk rw = new RevWalk(git.getRepository())) {
+            return rw.parseCommit(commit);
+        }
+    }
+
+    private List<ObjectId> lookup(final Ref ref,
+                                  final String path) throws IOException {
+        if (ref == null || ref.getObjectId() == null) {
+            return Collections.emptyList();
+        }
+        final RefHistory history;
+        synchronized (refs) {
+            history = refs.computeIfAbsent(ref.getName(),
+                                           k -> new RefHistory());
+        }
+        final List<ObjectId> commits;
+        final int previousWeight;
+        synchronized (history) {
+            previousWeight = history.weight;
+            update(history,
+                   ref.getObjectId());
+            final List<ObjectId> indexed = history.commitsByPath.get(normalize(path));
+            commits = indexed == null ? Collections.emptyList() : new ArrayList<>(indexed);
+        }
+        resize(ref.getName(),
+               history,
+               previousWeight);
+        return commits;
+    }
+
+    private void update(final RefHistory history,
+                        final ObjectId tip) throws IOException {
+        if (tip.equals(history.tip)) {
+            return;
+        }
+        final ObjectId since = isAncestor(history.tip,
+                                          tip) ? history.tip : null;
+        if (since == null) {
+            history.commitsByPath.clear();
+            history.weight = 0;
+        }
+        index(history,
+              since,
+              tip);
+        history.tip = tip.copy();
+    }
+
+    private void resize(final String refName,
+                        final RefHistory history,
+                        final int previousWeight) {
+        synchronized (refs) {
+            if (refs.get(refName) != history) {
+                return;
+            }
+            final int currentWeight;
+            synchronized (history) {
+                currentWeight = history.weight;
+            }
+            weight += currentWeight - previousWeight;
+            final Iterator<RefHistory> iterator = refs.values().iterator();
+            while (weight > maxEntries && iterator.hasNext()) {
+                weight -= iterator.next().weight;
+                iterator.remove();
+            }
+        }
+    }
+    private boolean isAncestor(final ObjectId ancestor,
+                               final ObjectId tip) throws IOException {
+        if (ancestor == null) {
+            return false;
+        }
+        try (final RevWalk rw = new RevWalk(git.getRepository())) {
+            return rw.isMergedInto(rw.parseCommit(ancestor),
+                                   rw.parseCommit(tip));
+        } catch (final MissingObjectException ex) {
+            return false;
+        }
+    }
+
+    private void index(final RefHistory history,
+                       final ObjectId since,
+                       final ObjectId tip) throws IOException {
+        try (final RevWalk rw = new RevWalk(git.getRepository())) {
+            rw.sort(RevSort.TOPO);
+            rw.sort(RevSort.REVERSE,
+                    true);
+            rw.markStart(rw.parseCommit(tip));
+            if (since != null) {
+                rw.markUninteresting(rw.parseCommit(since));
+            }
+            final ObjectReader reader = rw.getObjectReader();
+            for (final RevCommit commit : rw) {
+                for (final RevCommit parent : commit.getParents()) {
+                    rw.parseHeaders(parent);
+                }
+                final ObjectId id = commit.copy();
+                add(history,
+                    "",
+                    id);
+                final Set<String> paths = new HashSet<>();
+                for (final String changed : changedPaths(reader,
+                                                         commit)) {
+                    String current = changed;
+                    while (!current.isEmpty() && paths.add(current)) {
+                        add(history,
+                            current,
+                            id);
+                        final int index = current.lastIndexOf('/');
+                        current = index < 0 ? "" : current.substring(0,
+                                                                     index);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<String> changedPaths(final ObjectReader reader,
+                                      final RevCommit commit) throws IOException {
+        final List<String> paths = new ArrayList<>();
+        final int parents = commit.getParentCount();
+        try (final TreeWalk tw = new TreeWalk(reader)) {
+            tw.setRecursive(true);
+            tw.setFilter(TreeFilter.ANY_DIFF);
+            if (parents == 0) {
+                tw.addTree(new EmptyTreeIterator());
+            } else {
+                for (final RevCommit parent : commit.getParents()) {
+                    tw.addTree(parent.getTree());
+                }
+            }
+            final int self = tw.addTree(commit.getTree());
+            while (tw.next()) {
+                if (differsFromAll(tw,
+                                   self)) {
+                    paths.add(tw.getPathString());
+                }
+            }
+        }
+        return paths;
+    }
+
+    private boolean differsFromAll(final TreeWalk tw,
+                                   final int self) {
+        for (int i = 0; i < self; i++) {
+            if (tw.getRawMode(i) == tw.getRawMode(self) && tw.idEqual(i,
+                                                                      self)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(final RefHistory history,
+                     final String path,
+                     final ObjectId commit) {
+        history.commitsByPath.computeIfAbsent(path,
+                                              k -> new ArrayList<>()).add(commit);
+        history.weight++;
+    }
+
+    private static class RefHistory {
+
+        private final Map<String, List<ObjectId>> commitsByPath = new HashMap<>();
+        private ObjectId tip;
+        private int weight = 0;
+    }
+}
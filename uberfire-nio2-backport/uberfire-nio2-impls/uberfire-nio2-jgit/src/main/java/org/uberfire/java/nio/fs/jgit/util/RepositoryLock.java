@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.uberfire.commons.metrics.TimerMetric;
+import org.uberfire.java.nio.IOException;
+
+import static org.eclipse.jgit.lib.Repository.shortenRefName;
+
+/**
+ * Locks of a repository: one per branch, plus one over the whole repository.
+ * <p>
+ * Writers of a branch share the repository lock and hold the branch one exclusively, so writers of different branches
+ * run in parallel. Operations touching several refs or the repository state (batch mode, fetches, ref packing) hold
+ * the repository lock exclusively, which waits for, and holds off, all branch writers. Reads don't lock at all.
+ * <p>
+ * Locks are reentrant and owned by the acquiring thread. With a timeout greater than 0, giving up on a lock raises an
+ * {@link IOException}, as does an interruption; releasing a lock the thread doesn't hold does nothing, so a failed
+ * acquisition can be paired with a release in a {@code finally} block.
+ */
+public class RepositoryLock {
+
+    private final boolean fair;
+    private final long timeout;
+    private final ReentrantReadWriteLock repository;
+    private final Map<String, ReentrantReadWriteLock> branches = new ConcurrentHashMap<>();
+
+    private final TimerMetric waitTime = new TimerMetric();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public RepositoryLock() {
+        this(false,
+             0);
+    }
+
+    /**
+     * @param fair whether waiting threads acquire locks in arrival order.
+     * @param timeout max time, in milliseconds, to wait for a lock; 0 means no limit.
+     */
+    public RepositoryLock(final boolean fair,
+                          final long timeout) {
+        this.fair = fair;
+        this.timeout = timeout;
+        this.repository = new ReentrantReadWriteLock(fair);
+    }
+
+    public void lockRepository() {
+        acquire(repository.writeLock(),
+                "repository");
+    }
+
+    /**
+     * Takes the repository lock only if no one holds or waits for it, nor for any branch lock.
+     * @return true if the lock was taken.
+     */
+    public boolean tryLockRepository() {
+        return repository.writeLock().tryLock();
+    }
+
+    public void unlockRepository() {
+        if (repository.isWriteLockedByCurrentThread()) {
+            repository.writeLock().unlock();
+        }
+    }
+
+    public boolean isRepositoryLocked() {
+        return repository.isWriteLocked();
+    }
+
+    public void lockBranch(final String branch) {
+        acquire(repository.readLock(),
+                "repository");
+        try {
+            acquire(branch(branch).writeLock(),
+                    branch);
+        } catch (final RuntimeException ex) {
+            repository.readLock().unlock();
+            throw ex;
+        }
+    }
+
+    public void unlockBranch(final String branch) {
+        final ReentrantReadWriteLock lock = branches.get(shortenRefName(branch));
+        if (lock != null && lock.isWriteLockedByCurrentThread()) {
+            lock.writeLock().unlock();
+            repository.readLock().unlock();
+        }
+    }
+
+    public boolean isBranchLocked(final String branch) {
+        final ReentrantReadWriteLock lock = branches.get(shortenRefName(branch));
+        return lock != null && lock.isWriteLocked();
+    }
+
+    public boolean isFair() {
+        return fair;
+    }
+
+    /**
+     * @return time spent waiting for locks that weren't free.
+     */
+    public TimerMetric getWaitTime() {
+        return waitTime;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * @return acquisitions that had to wait for another thread.
+     */
+    public long getContended() {
+        return contended.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    private ReentrantReadWriteLock branch(final String branch) {
+        return branches.computeIfAbsent(shortenRefName(branch),
+                                        k -> new ReentrantReadWriteLock(fair));
+    }
+
+    private void acquire(final Lock lock,
+                         final String name) {
+        acquisitions.increment();
+        try {
+            // a zero timeout tryLock honors fairness, unlike tryLock()
+            if (lock.tryLock(0,
+                             TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            contended.increment();
+            final long start = System.nanoTime();
+            try {
+                if (timeout <= 0) {
+                    lock.lockInterruptibly();
+                } else if (!lock.tryLock(timeout,
+                                         TimeUnit.MILLISECONDS)) {
+                    timeouts.increment();
+                    throw new IOException("Timed out after " + timeout + "ms waiting for the lock of '" + name + "'.");
+                }
+            } finally {
+                waitTime.record(System.nanoTime() - start);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the lock of '" + name + "'.");
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.util.Arrays;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.uberfire.java.nio.IOException;
+import org.uberfire.java.nio.channels.SeekableByteChannel;
+
+/**
+ * Seekable channel that keeps its content in memory up to a threshold and moves it to a temporary file once a write
+ * goes beyond it. The content outlives {@link #close()}, so it can be inserted as a blob afterwards; {@link #dispose()}
+ * deletes the temporary file, if any.
+ */
+public class SpillableByteChannel implements SeekableByteChannel {
+
+    private static final int INITIAL_CAPACITY = 512;
+
+    private final long threshold;
+    private final boolean writable;
+
+    private byte[] buffer;
+    private int size = 0;
+    private long position = 0;
+
+    private File file = null;
+    private FileChannel fileChannel = null;
+    private boolean open = true;
+
+    public SpillableByteChannel(final long threshold) {
+        this.threshold = threshold;
+        this.writable = true;
+        this.buffer = new byte[(int) Math.min(INITIAL_CAPACITY,
+                                              Math.max(threshold,
+                                                       0))];
+    }
+
+    private SpillableByteChannel(final byte[] content) {
+        this.threshold = content.length;
+        this.writable = false;
+        this.buffer = content;
+        this.size = content.length;
+    }
+
+    /**
+     * @return a read only channel over the given content.
+     */
+    public static SpillableByteChannel readOnly(final byte[] content) {
+        return new SpillableByteChannel(content);
+    }
+
+    public boolean isInMemory() {
+        return file == null;
+    }
+
+    /**
+     * Inserts the content written so far as a blob.
+     */
+    public ObjectId insertBlob(final ObjectInserter inserter) throws java.io.IOException {
+        if (isInMemory()) {
+            return inserter.insert(Constants.OBJ_BLOB,
+                                   buffer,
+                                   0,
+                                   size);
+        }
+        if (fileChannel.isOpen()) {
+            fileChannel.force(false);
+        }
+        try (final InputStream in = new FileInputStream(file)) {
+            return inserter.insert(Constants.OBJ_BLOB,
+                                   file.length(),
+                                   in);
+        }
+    }
+
+    public void dispose() {
+        open = false;
+        buffer = null;
+        if (fileChannel != null) {
+            try {
+                fileChannel.close();
+            } catch (final java.io.IOException ignored) {
+            }
+        }
+        if (file != null) {
+            file.delete();
+        }
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        if (!isInMemory()) {
+            try {
+                return fileChannel.position();
+            } catch (java.io.IOException e) {
+                throw new IOException(e);
+            }
+        }
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(final long newPosition) throws IOException {
+        ensureOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("newPosition");
+        }
+        if (!isInMemory()) {
+            try {
+                fileChannel.position(newPosition);
+            } catch (java.io.IOException e) {
+                throw new IOException(e);
+            }
+        } else {
+            position = newPosition;
+        }
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        if (!isInMemory()) {
+            try {
+                return fileChannel.size();
+            } catch (java.io.IOException e) {
+                throw new IOException(e);
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(final long newSize) throws IOException {
+        ensureOpen();
+        if (!writable) {
+            throw new NonWritableChannelException();
+        }
+        if (!isInMemory()) {
+            try {
+                fileChannel.truncate(newSize);
+            } catch (java.io.IOException e) {
+                throw new IOException(e);
+            }
+        } else {
+            if (newSize < size) {
+                size = (int) newSize;
+            }
+            position = Math.min(position,
+                                newSize);
+        }
+        return this;
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws java.io.IOException {
+        ensureOpen();
+        if (!isInMemory()) {
+            return fileChannel.read(dst);
+        }
+        if (position >= size) {
+            return -1;
+        }
+        final int length = (int) Math.min(dst.remaining(),
+                                          size - position);
+        dst.put(buffer,
+                (int) position,
+                length);
+        position += length;
+        return length;
+    }
+
+    @Override
+    public int write(final ByteBuffer src) throws java.io.IOException {
+        ensureOpen();
+        if (!writable) {
+            throw new NonWritableChannelException();
+        }
+        final int length = src.remaining();
+        if (isInMemory() && position + length > threshold) {
+            spill();
+        }
+        if (!isInMemory()) {
+            return fileChannel.write(src);
+        }
+        final int end = (int) position + length;
+        if (end > buffer.length) {
+            buffer = Arrays.copyOf(buffer,
+                                   (int) Math.min(threshold,
+                                                  Math.max(end,
+                                                           (long) buffer.length * 2)));
+        }
+        if (position > size) {
+            Arrays.fill(buffer,
+                        size,
+                        (int) position,
+                        (byte) 0);
+        }
+        src.get(buffer,
+                (int) position,
+                length);
+        position = end;
+        size = Math.max(size,
+                        end);
+        return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws java.io.IOException {
+        open = false;
+        if (fileChannel != null) {
+            fileChannel.close();
+        }
+    }
+
+    private void spill() throws java.io.IOException {
+        file = File.createTempFile("gitz",
+                                   "woot");
+        try {
+            fileChannel = new RandomAccessFile(file,
+                                               "rw").getChannel();
+            fileChannel.write(ByteBuffer.wrap(buffer,
+                                              0,
+                                              size));
+            fileChannel.position(position);
+        } catch (final java.io.IOException e) {
+            dispose();
+            throw e;
+        }
+        buffer = null;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!open) {
+            throw new IOException(new ClosedChannelException());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.uberfire.java.nio.fs.jgit.util.model.PathInfo;
+
+/**
+ * Caches lookups of a repository trees: path infos and directory listings keyed by (tree id, path), and blob sizes
+ * keyed by blob id.
+ * <p>
+ * Git objects are immutable, so entries never need invalidation; a branch moving to another tree just stops reading
+ * the entries of the previous one, which are evicted in least recently used order. The cache holds at most
+ * {@code maxEntries} path infos, a listing weighting one plus its size; 0 or less disables it.
+ */
+public class TreeLookupCache {
+
+    private static final byte PATH_INFO = 0;
+    private static final byte LISTING = 1;
+    private static final byte BLOB_SIZE = 2;
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256,
+                                                                          0.75f,
+                                                                          true);
+    private int weight = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TreeLookupCache(final int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public PathInfo getPathInfo(final ObjectId tree,
+                                final String path,
+                                final Loader<PathInfo> loader) throws IOException {
+        return get(new Key(tree,
+                           path,
+                           PATH_INFO),
+                   loader,
+                   1);
+    }
+
+    /**
+     * @return an unmodifiable listing.
+     */
+    public List<PathInfo> listPathContent(final ObjectId tree,
+                                          final String path,
+                                          final Loader<List<PathInfo>> loader) throws IOException {
+        final Key key = new Key(tree,
+                                path,
+                                LISTING);
+        final Entry cached = lookup(key);
+        if (cached != null) {
+            return (List<PathInfo>) cached.value;
+        }
+        final List<PathInfo> listing = Collections.unmodifiableList(loader.load());
+        store(key,
+              listing,
+              1 + listing.size());
+        return listing;
+    }
+
+    public long getBlobSize(final ObjectId blob,
+                            final Loader<Long> loader) throws IOException {
+        return get(new Key(blob,
+                           "",
+                           BLOB_SIZE),
+                   loader,
+                   1);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            weight = 0;
+        }
+    }
+
+    /**
+     * @return current weight, that is the number of path infos, blob sizes and listed paths held.
+     */
+    public int getWeight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private <T> T get(final Key key,
+                      final Loader<T> loader,
+                      final int entryWeight) throws IOException {
+        final Entry cached = lookup(key);
+        if (cached != null) {
+            return (T) cached.value;
+        }
+        final T value = loader.load();
+        store(key,
+              value,
+              entryWeight);
+        return value;
+    }
+
+    private Entry lookup(final Key key) {
+        if (maxEntries <= 0) {
+            misses.increment();
+            return null;
+        }
+        final Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return entry;
+    }
+
+    private void store(final Key key,
+                       final Object value,
+                       final int entryWeight) {
+        if (maxEntries <= 0 || value == null || entryWeight > maxEntries) {
+            return;
+        }
+        synchronized (entries) {
+            final Entry previous = entries.put(key,
+                                               new Entry(value,
+                                                         entryWeight));
+            weight += entryWeight - (previous != null ? previous.weight : 0);
+            final Iterator<Entry> iterator = entries.values().iterator();
+            while (weight > maxEntries && iterator.hasNext()) {
+                weight -= iterator.next().weight;
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Loader<T> {
+
+        T load() throws IOException;
+    }
+
+    private static class Entry {
+
+        private final Object value;
+        private final int weight;
+
+        private Entry(final Object value,
+                      final int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private static class Key {
+
+        private final ObjectId id;
+        private final String path;
+        private final byte kind;
+
+        private Key(final ObjectId id,
+                    final String path,
+                    final byte kind) {
+            this.id = id.copy();
+            this.path = path;
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return kind == key.kind && id.equals(key.id) && path.equals(key.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * id.hashCode() + path.hashCode()) + kind;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectInserter;
 import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.uberfire.commons.config.ConfigProperties;
 import org.uberfire.java.nio.fs.jgit.util.Git;
 import org.uberfire.java.nio.fs.jgit.util.model.CommitContent;
 import org.uberfire.java.nio.fs.jgit.util.model.CommitInfo;
@@ -42,6 +43,10 @@ import static java.util.Collections.reverse;
 
 public class Commit {
 
+    public static final String INCREMENTAL_COMMIT_TREE = "org.uberfire.nio.git.commit.tree.incremental";
+    private static final String DEFAULT_INCREMENTAL_COMMIT_TREE = "false";
+    private static boolean useIncrementalCommitTree = initIncrementalCommitTree();
+
     private final Git git;
     private final String branchName;
     private final CommitInfo commitInfo;
@@ -105,7 +110,12 @@ public class Commit {
             final ObjectId headId = git.getRepository().resolve(branchName + "^{commit}");
 
             final Optional<ObjectId> tree;
-            if (content instanceof DefaultCommitContent) {
+            if (useIncrementalCommitTree && isIncrementalContent(content)) {
+                tree = new CreateIncrementalCommitTree(git,
+                                                       originId,
+                                                       odi,
+                                                       content).execute();
+            } else if (content instanceof DefaultCommitContent) {
                 tree = new CreateDefaultCommitTree(git,
                                                    originId,
                                                    odi,
@@ -162,6 +172,23 @@ public class Commit {
         return hadEffecitiveCommit;
     }
 
+    private static boolean initIncrementalCommitTree() {
+        final ConfigProperties config = new ConfigProperties(System.getProperties());
+        return config.get(INCREMENTAL_COMMIT_TREE,
+                          DEFAULT_INCREMENTAL_COMMIT_TREE).getBooleanValue();
+    }
+
+    private static boolean isIncrementalContent(final CommitContent content) {
+        return content instanceof DefaultCommitContent ||
+                content instanceof MoveCommitContent ||
+                content instanceof CopyCommitContent;
+    }
+
+    //just for test purposes
+    static void setUseIncrementalCommitTree(final boolean value) {
+        useIncrementalCommitTree = value;
+    }
+
     private PersonIdent buildPersonIdent(final Git git,
                                          final String name,
                                          final String _email,
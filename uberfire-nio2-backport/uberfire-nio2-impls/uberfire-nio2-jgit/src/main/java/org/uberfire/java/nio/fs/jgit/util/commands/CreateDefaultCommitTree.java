@@ -73,6 +73,12 @@ public class CreateDefaultCommitTree extends BaseCreateCommitTree<DefaultCommitC
                 }
             }
 
+            for (final Map.Entry<String, ObjectId> pathAndBlob : commitContent.getBlobs().entrySet()) {
+                paths.put(PathUtil.normalize(pathAndBlob.getKey()),
+                          Pair.<File, ObjectId>newPair(null,
+                                                       pathAndBlob.getValue()));
+            }
+
             iterateOverTreeWalk(git,
                                 headId,
                                 (walkPath, hTree) -> {
@@ -88,19 +94,17 @@ public class CreateDefaultCommitTree extends BaseCreateCommitTree<DefaultCommitC
                                     }
                                 });
 
-            paths.forEach((key, value) -> {
-                if (value.getK1() != null) {
-                    editor.add(new DirCacheEditor.PathEdit(new DirCacheEntry(key)) {
-                        @Override
-                        public void apply(final DirCacheEntry ent) {
-                            ent.setLength(value.getK1().length());
-                            ent.setLastModified(value.getK1().lastModified());
-                            ent.setFileMode(REGULAR_FILE);
-                            ent.setObjectId(value.getK2());
-                        }
-                    });
+            paths.forEach((key, value) -> editor.add(new DirCacheEditor.PathEdit(new DirCacheEntry(key)) {
+                @Override
+                public void apply(final DirCacheEntry ent) {
+                    if (value.getK1() != null) {
+                        ent.setLength(value.getK1().length());
+                        ent.setLastModified(value.getK1().lastModified());
+                    }
+                    ent.setFileMode(REGULAR_FILE);
+                    ent.setObjectId(value.getK2());
                 }
-            });
+            }));
 
             editor.finish();
         } catch (Exception e) {
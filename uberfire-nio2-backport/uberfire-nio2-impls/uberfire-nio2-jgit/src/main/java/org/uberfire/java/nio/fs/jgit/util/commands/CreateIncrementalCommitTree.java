@@ -0,0 +1,390 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util.commands;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.TreeFormatter;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.uberfire.java.nio.fs.jgit.util.Git;
+import org.uberfire.java.nio.fs.jgit.util.model.CommitContent;
+import org.uberfire.java.nio.fs.jgit.util.model.CopyCommitContent;
+import org.uberfire.java.nio.fs.jgit.util.model.DefaultCommitContent;
+import org.uberfire.java.nio.fs.jgit.util.model.MoveCommitContent;
+
+import static org.eclipse.jgit.lib.FileMode.REGULAR_FILE;
+
+/**
+ * Builds a commit tree by only reading and rewriting the trees found along the changed paths. Every subtree that
+ * isn't touched by the commit content keeps its original ObjectId, so the cost of a commit depends on the depth and
+ * width of the changed directories instead of the total number of files in the repository.
+ * <p>
+ * Produces the same trees as {@link CreateDefaultCommitTree}, {@link CreateMoveCommitTree} and
+ * {@link CreateCopyCommitTree}.
+ */
+public class CreateIncrementalCommitTree extends BaseCreateCommitTree<CommitContent> {
+
+    public CreateIncrementalCommitTree(final Git git,
+                                       final ObjectId headId,
+                                       final ObjectInserter inserter,
+                                       final CommitContent commitContent) {
+        super(git,
+              headId,
+              inserter,
+              commitContent);
+    }
+
+    public Optional<ObjectId> execute() {
+        try (final ObjectReader reader = odi.newReader()) {
+            final ObjectId baseTree = resolveBaseTree(reader);
+            final TreeEdit root = new TreeEdit();
+
+            if (commitContent instanceof DefaultCommitContent) {
+                if (!applyDefaultContent(reader,
+                                         baseTree,
+                                         root,
+                                         (DefaultCommitContent) commitContent)) {
+                    return Optional.empty();
+                }
+            } else if (commitContent instanceof MoveCommitContent) {
+                applyMoveContent(reader,
+                                 baseTree,
+                                 root,
+                                 ((MoveCommitContent) commitContent).getContent());
+            } else if (commitContent instanceof CopyCommitContent) {
+                applyCopyContent(reader,
+                                 baseTree,
+                                 root,
+                                 ((CopyCommitContent) commitContent).getContent());
+            } else {
+                throw new IllegalArgumentException("Unsupported commit content: " + commitContent.getClass().getName());
+            }
+
+            final ObjectId newTree = writeTree(reader,
+                                               baseTree,
+                                               root);
+            if (newTree == null) {
+                return Optional.of(odi.insert(new TreeFormatter()));
+            }
+            return Optional.of(newTree);
+        } catch (final IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private ObjectId resolveBaseTree(final ObjectReader reader) throws IOException {
+        if (headId == null) {
+            return null;
+        }
+        try (final RevWalk revWalk = new RevWalk(reader)) {
+            return revWalk.parseTree(headId).getId();
+        }
+    }
+
+    /**
+     * @return false if the content doesn't change anything on the base tree
+     */
+    private boolean applyDefaultContent(final ObjectReader reader,
+                                        final ObjectId baseTree,
+                                        final TreeEdit root,
+                                        final DefaultCommitContent content) throws IOException {
+        boolean hasChanges = false;
+        for (final Map.Entry<String, File> pathAndContent : content.getContent().entrySet()) {
+            final String gPath = PathUtil.normalize(pathAndContent.getKey());
+            if (pathAndContent.getValue() == null) {
+                if (lookup(reader,
+                           baseTree,
+                           gPath) != null) {
+                    root.delete(gPath);
+                    hasChanges = true;
+                }
+            } else {
+                hasChanges |= putBlob(reader,
+                                      baseTree,
+                                      root,
+                                      gPath,
+                                      insertBlob(pathAndContent.getValue()));
+            }
+        }
+        for (final Map.Entry<String, ObjectId> pathAndBlob : content.getBlobs().entrySet()) {
+            hasChanges |= putBlob(reader,
+                                  baseTree,
+                                  root,
+                                  PathUtil.normalize(pathAndBlob.getKey()),
+                                  pathAndBlob.getValue());
+        }
+        return hasChanges;
+    }
+
+    private boolean putBlob(final ObjectReader reader,
+                            final ObjectId baseTree,
+                            final TreeEdit root,
+                            final String gPath,
+                            final ObjectId blobId) throws IOException {
+        final TreeEntry current = lookup(reader,
+                                         baseTree,
+                                         gPath);
+        if (current == null || !current.objectId.equals(blobId)) {
+            root.put(gPath,
+                     new TreeEntry(REGULAR_FILE,
+                                   blobId));
+            return true;
+        }
+        return false;
+    }
+
+    private void applyMoveContent(final ObjectReader reader,
+                                  final ObjectId baseTree,
+                                  final TreeEdit root,
+                                  final Map<String, String> content) throws IOException {
+        final Map<String, TreeEntry> moved = new LinkedHashMap<>(content.size());
+        for (final Map.Entry<String, String> fromTo : content.entrySet()) {
+            final TreeEntry source = lookup(reader,
+                                            baseTree,
+                                            fromTo.getKey());
+            if (source != null) {
+                root.delete(fromTo.getKey());
+                moved.put(fromTo.getValue(),
+                          source);
+            }
+        }
+        moved.forEach(root::put);
+    }
+
+    private void applyCopyContent(final ObjectReader reader,
+                                  final ObjectId baseTree,
+                                  final TreeEdit root,
+                                  final Map<String, String> content) throws IOException {
+        for (final Map.Entry<String, String> sourceDest : content.entrySet()) {
+            final TreeEntry source = lookup(reader,
+                                            baseTree,
+                                            sourceDest.getKey());
+            if (source != null) {
+                root.put(sourceDest.getValue(),
+                         source);
+            }
+        }
+    }
+
+    private ObjectId insertBlob(final File file) throws IOException {
+        try (final InputStream inputStream = new FileInputStream(file)) {
+            return odi.insert(Constants.OBJ_BLOB,
+                              file.length(),
+                              inputStream);
+        }
+    }
+
+    private TreeEntry lookup(final ObjectReader reader,
+                             final ObjectId baseTree,
+                             final String path) throws IOException {
+        if (baseTree == null || path.isEmpty()) {
+            return null;
+        }
+        try (final TreeWalk treeWalk = TreeWalk.forPath(reader,
+                                                        path,
+                                                        baseTree)) {
+            if (treeWalk == null) {
+                return null;
+            }
+            return new TreeEntry(treeWalk.getFileMode(0),
+                                 treeWalk.getObjectId(0));
+        }
+    }
+
+    /**
+     * Writes the tree resulting from applying <code>edit</code> to <code>baseTree</code>, recursing only into the
+     * subtrees that have pending edits.
+     * @return the new tree id, or null if the resulting tree is empty
+     */
+    private ObjectId writeTree(final ObjectReader reader,
+                               final ObjectId baseTree,
+                               final TreeEdit edit) throws IOException {
+        final Map<String, TreeEntry> entries = new HashMap<>();
+        if (baseTree != null) {
+            final CanonicalTreeParser parser = new CanonicalTreeParser(null,
+                                                                       reader,
+                                                                       baseTree);
+            while (!parser.eof()) {
+                entries.put(parser.getEntryPathString(),
+                            new TreeEntry(parser.getEntryFileMode(),
+                                          parser.getEntryObjectId()));
+                parser.next();
+            }
+        }
+
+        for (final Map.Entry<String, TreeEdit> child : edit.children.entrySet()) {
+            final String name = child.getKey();
+            final TreeEdit childEdit = child.getValue();
+            if (childEdit.isDelete()) {
+                entries.remove(name);
+            } else if (childEdit.isPut()) {
+                entries.put(name,
+                            childEdit.entry);
+            } else {
+                final TreeEntry current = entries.get(name);
+                final ObjectId childBase = current != null && current.isTree() ? current.objectId : null;
+                final ObjectId newChild = writeTree(reader,
+                                                    childBase,
+                                                    childEdit);
+                if (newChild == null) {
+                    entries.remove(name);
+                } else {
+                    entries.put(name,
+                                new TreeEntry(FileMode.TREE,
+                                              newChild));
+                }
+            }
+        }
+
+        if (entries.isEmpty()) {
+            return null;
+        }
+
+        final List<SortableEntry> sorted = new ArrayList<>(entries.size());
+        entries.forEach((name, entry) -> sorted.add(new SortableEntry(Constants.encode(name),
+                                                                      entry)));
+        sorted.sort(SortableEntry::compareTo);
+
+        final TreeFormatter formatter = new TreeFormatter();
+        for (final SortableEntry entry : sorted) {
+            formatter.append(entry.name,
+                             entry.entry.fileMode,
+                             entry.entry.objectId);
+        }
+
+        final ObjectId newTree = formatter.computeId(odi);
+        if (newTree.equals(baseTree)) {
+            return baseTree;
+        }
+        return odi.insert(formatter);
+    }
+
+    private static class TreeEntry {
+
+        private final FileMode fileMode;
+        private final ObjectId objectId;
+
+        private TreeEntry(final FileMode fileMode,
+                          final ObjectId objectId) {
+            this.fileMode = fileMode;
+            this.objectId = objectId.copy();
+        }
+
+        private boolean isTree() {
+            return (fileMode.getBits() & FileMode.TYPE_MASK) == FileMode.TYPE_TREE;
+        }
+    }
+
+    /**
+     * Pending change for a single tree entry: either a delete, a put of a new entry, or a set of nested changes for
+     * a subtree.
+     */
+    private static class TreeEdit {
+
+        private final Map<String, TreeEdit> children = new HashMap<>();
+        private TreeEntry entry = null;
+        private boolean delete = false;
+
+        private boolean isDelete() {
+            return delete;
+        }
+
+        private boolean isPut() {
+            return entry != null;
+        }
+
+        private void put(final String path,
+                         final TreeEntry newEntry) {
+            final TreeEdit leaf = resolve(path);
+            leaf.children.clear();
+            leaf.delete = false;
+            leaf.entry = newEntry;
+        }
+
+        private void delete(final String path) {
+            final TreeEdit leaf = resolve(path);
+            leaf.children.clear();
+            leaf.entry = null;
+            leaf.delete = true;
+        }
+
+        private TreeEdit resolve(final String path) {
+            TreeEdit current = this;
+            for (final String segment : path.split("/")) {
+                if (current.isPut() || current.isDelete()) {
+                    // a nested change turns a replaced or removed entry back into a directory
+                    current.entry = null;
+                    current.delete = false;
+                }
+                current = current.children.computeIfAbsent(segment,
+                                                           k -> new TreeEdit());
+            }
+            return current;
+        }
+    }
+
+    private static class SortableEntry implements Comparable<SortableEntry> {
+
+        private final byte[] name;
+        private final TreeEntry entry;
+
+        private SortableEntry(final byte[] name,
+                              final TreeEntry entry) {
+            this.name = name;
+            this.entry = entry;
+        }
+
+        /**
+         * Git tree order: byte-wise name comparison where trees sort as if their name ended with '/'.
+         */
+        @Override
+        public int compareTo(final SortableEntry other) {
+            final int length = Math.min(name.length,
+                                        other.name.length);
+            for (int i = 0; i < length; i++) {
+                final int cmp = (name[i] & 0xff) - (other.name[i] & 0xff);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return lastChar(length) - other.lastChar(length);
+        }
+
+        private int lastChar(final int pos) {
+            if (pos < name.length) {
+                return name[pos] & 0xff;
+            }
+            return entry.isTree() ? '/' : 0;
+        }
+    }
+}
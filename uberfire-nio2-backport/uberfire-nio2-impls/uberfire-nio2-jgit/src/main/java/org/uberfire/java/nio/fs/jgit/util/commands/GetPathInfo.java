@@ -23,6 +23,7 @@ import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.treewalk.filter.PathFilter;
 import org.uberfire.java.nio.fs.jgit.util.Git;
+import org.uberfire.java.nio.fs.jgit.util.TreeLookupCache;
 import org.uberfire.java.nio.fs.jgit.util.model.PathInfo;
 import org.uberfire.java.nio.fs.jgit.util.model.PathType;
 
@@ -33,13 +34,25 @@ public class GetPathInfo {
     private final Git git;
     private final String branchName;
     private final String path;
+    private final TreeLookupCache cache;
 
     public GetPathInfo(final Git git,
                        final String branchName,
                        final String path) {
+        this(git,
+             branchName,
+             path,
+             new TreeLookupCache(0));
+    }
+
+    public GetPathInfo(final Git git,
+                       final String branchName,
+                       final String path,
+                       final TreeLookupCache cache) {
         this.git = git;
         this.branchName = branchName;
         this.path = path;
+        this.cache = cache;
     }
 
     public PathInfo execute() throws IOException {
@@ -58,6 +71,14 @@ public class GetPathInfo {
                                 gitPath,
                                 PathType.NOT_FOUND);
         }
+        return cache.getPathInfo(tree,
+                                 gitPath,
+                                 () -> walk(tree,
+                                            gitPath));
+    }
+
+    private PathInfo walk(final ObjectId tree,
+                          final String gitPath) throws IOException {
         try (final TreeWalk tw = new TreeWalk(git.getRepository())) {
             tw.setFilter(PathFilter.create(gitPath));
             tw.reset(tree);
@@ -70,8 +91,10 @@ public class GetPathInfo {
                     } else if (tw.getFileMode(0).equals(FileMode.TYPE_FILE) ||
                             tw.getFileMode(0).equals(FileMode.EXECUTABLE_FILE) ||
                             tw.getFileMode(0).equals(FileMode.REGULAR_FILE)) {
-                        final long size = tw.getObjectReader().getObjectSize(tw.getObjectId(0),
-                                                                             OBJ_BLOB);
+                        final ObjectId blob = tw.getObjectId(0);
+                        final long size = cache.getBlobSize(blob,
+                                                            () -> tw.getObjectReader().getObjectSize(blob,
+                                                                                                     OBJ_BLOB));
                         return new PathInfo(tw.getObjectId(0),
                                             gitPath,
                                             PathType.FILE,
@@ -24,6 +24,7 @@ import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.treewalk.filter.PathFilter;
 import org.uberfire.java.nio.fs.jgit.util.Git;
+import org.uberfire.java.nio.fs.jgit.util.TreeLookupCache;
 import org.uberfire.java.nio.fs.jgit.util.model.PathInfo;
 
 public class ListPathContent {
@@ -31,23 +32,43 @@ public class ListPathContent {
     private final Git git;
     private final String branchName;
     private final String path;
+    private final TreeLookupCache cache;
 
     public ListPathContent(final Git git,
                            final String branchName,
                            final String path) {
+        this(git,
+             branchName,
+             path,
+             new TreeLookupCache(0));
+    }
+
+    public ListPathContent(final Git git,
+                           final String branchName,
+                           final String path,
+                           final TreeLookupCache cache) {
         this.git = git;
         this.branchName = branchName;
         this.path = path;
+        this.cache = cache;
     }
 
     public List<PathInfo> execute() throws IOException {
 
         final String gitPath = PathUtil.normalize(path);
-        final List<PathInfo> result = new ArrayList<>();
         final ObjectId tree = git.getTreeFromRef(branchName);
         if (tree == null) {
-            return result;
+            return new ArrayList<>();
         }
+        return cache.listPathContent(tree,
+                                     gitPath,
+                                     () -> walk(tree,
+                                                gitPath));
+    }
+
+    private List<PathInfo> walk(final ObjectId tree,
+                                final String gitPath) throws IOException {
+        final List<PathInfo> result = new ArrayList<>();
         try (final TreeWalk tw = new TreeWalk(git.getRepository())) {
             boolean found = false;
             if (gitPath.isEmpty()) {
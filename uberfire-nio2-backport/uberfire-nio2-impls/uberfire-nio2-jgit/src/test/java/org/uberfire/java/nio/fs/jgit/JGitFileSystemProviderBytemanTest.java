@@ -18,14 +18,12 @@ package org.uberfire.java.nio.fs.jgit;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.lang.reflect.Field;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
@@ -304,24 +302,8 @@ public class JGitFileSystemProviderBytemanTest extends AbstractTestInfra {
         }
 
         // fs must be unlocked
-        Object lock = null;
-        try {
-            Field field = JGitFileSystem.class.getDeclaredField("lock");
-            field.setAccessible(true);
-            lock = field.get(fs);
-        } catch (Exception e) {
-            fail(e.getMessage());
-        }
-        Object isLocked = null;
-        try {
-            Field field = lock.getClass().getDeclaredField("isLocked");
-            field.setAccessible(true);
-            isLocked = field.get(lock);
-        } catch (Exception e) {
-            fail(e.getMessage());
-        }
-
-        assertFalse(((AtomicBoolean) isLocked).get());
+        assertFalse(fs.isLocked());
+        assertFalse(fs.getLock().isBranchLocked("master"));
     }
 
     private VersionRecord makeVersionRecord(final String author,
@@ -19,15 +19,31 @@ package org.uberfire.java.nio.fs.jgit;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
+import org.uberfire.java.nio.base.dotfiles.DotFileOption;
 import org.uberfire.java.nio.base.options.CherryPickCopyOption;
 import org.uberfire.java.nio.base.version.VersionAttributes;
+import org.uberfire.java.nio.channels.SeekableByteChannel;
 import org.uberfire.java.nio.file.DirectoryNotEmptyException;
 import org.uberfire.java.nio.file.DirectoryStream;
 import org.uberfire.java.nio.file.FileAlreadyExistsException;
 import org.uberfire.java.nio.file.NoSuchFileException;
+import org.uberfire.java.nio.file.OpenOption;
 import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.StandardOpenOption;
+import org.uberfire.java.nio.file.attribute.FileAttribute;
+import org.uberfire.java.nio.fs.jgit.util.Git;
+
+import static org.uberfire.java.nio.base.dotfiles.DotFileUtils.dot;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.fest.assertions.api.Assertions.fail;
@@ -578,6 +594,128 @@ public class JGitFileSystemProviderCpMvTest extends AbstractTestInfra {
         }
     }
 
+    @Test
+    public void testDotFileOptionCommitsDotFileAlongWithPath() throws IOException {
+        final URI newRepo = URI.create("git://dotfile-fold-test-repo");
+        provider.newFileSystem(newRepo,
+                               EMPTY_ENV);
+        final Git git = ((JGitFileSystem) provider.getFileSystem(newRepo)).getGit();
+
+        final Path path = provider.getPath(URI.create("git://master@dotfile-fold-test-repo/myfile.txt"));
+        final SeekableByteChannel channel = provider.newByteChannel(path,
+                                                                    Collections.singleton(new DotFileOption()),
+                                                                    new FileAttribute<String>() {
+                                                                        @Override
+                                                                        public String name() {
+                                                                            return "dcore.author";
+                                                                        }
+
+                                                                        @Override
+                                                                        public String value() {
+                                                                            return "me";
+                                                                        }
+                                                                    });
+        channel.write(ByteBuffer.wrap("content".getBytes()));
+        channel.close();
+        assertThat(provider.exists(dot(path))).isTrue();
+        int commits = commitCount(git);
+
+        final Path copy = provider.getPath(URI.create("git://master@dotfile-fold-test-repo/copy.txt"));
+        provider.copy(path,
+                      copy,
+                      new DotFileOption());
+        assertThat(provider.exists(dot(copy))).isTrue();
+        assertThat(commitCount(git)).isEqualTo(++commits);
+
+        final Path moved = provider.getPath(URI.create("git://master@dotfile-fold-test-repo/moved.txt"));
+        provider.move(copy,
+                      moved,
+                      new DotFileOption());
+        assertThat(provider.exists(dot(moved))).isTrue();
+        assertThat(provider.exists(dot(copy))).isFalse();
+        assertThat(commitCount(git)).isEqualTo(++commits);
+
+        provider.delete(moved,
+                        new DotFileOption());
+        assertThat(provider.exists(moved)).isFalse();
+        assertThat(provider.exists(dot(moved))).isFalse();
+        assertThat(commitCount(git)).isEqualTo(++commits);
+
+        // rewriting without attributes drops the dot file in the same commit
+        final SeekableByteChannel rewrite = provider.newByteChannel(path,
+                                                                    new HashSet<OpenOption>(Arrays.asList(new DotFileOption(),
+                                                                                                          StandardOpenOption.TRUNCATE_EXISTING)));
+        rewrite.write(ByteBuffer.wrap("new content".getBytes()));
+        rewrite.close();
+        assertThat(provider.exists(dot(path))).isFalse();
+        assertThat(commitCount(git)).isEqualTo(++commits);
+    }
+
+    @Test
+    public void testBulkOperationsCommitOnce() throws IOException {
+        final URI newRepo = URI.create("git://bulk-test-repo");
+        provider.newFileSystem(newRepo,
+                               EMPTY_ENV);
+        final Git git = ((JGitFileSystem) provider.getFileSystem(newRepo)).getGit();
+
+        final Map<Path, Path> copies = new LinkedHashMap<Path, Path>();
+        for (int i = 0; i < 10; i++) {
+            final Path path = provider.getPath(URI.create("git://master@bulk-test-repo/dir/file" + i + ".txt"));
+            final OutputStream out = provider.newOutputStream(path);
+            out.write(("content" + i).getBytes());
+            out.close();
+            copies.put(path,
+                       provider.getPath(URI.create("git://master@bulk-test-repo/copies/file" + i + ".txt")));
+        }
+        int commits = commitCount(git);
+
+        provider.copyAll(copies,
+                         new DotFileOption());
+        for (final Path target : copies.values()) {
+            assertThat(provider.exists(target)).isTrue();
+        }
+        assertThat(commitCount(git)).isEqualTo(++commits);
+
+        final Map<Path, Path> moves = new LinkedHashMap<Path, Path>();
+        for (final Path target : copies.values()) {
+            moves.put(target,
+                      provider.getPath(URI.create(target.toUri().toString().replace("/copies/",
+                                                                                    "/moved/"))));
+        }
+        provider.moveAll(moves,
+                         new DotFileOption());
+        for (final Map.Entry<Path, Path> entry : moves.entrySet()) {
+            assertThat(provider.exists(entry.getKey())).isFalse();
+            assertThat(provider.exists(entry.getValue())).isTrue();
+        }
+        assertThat(commitCount(git)).isEqualTo(++commits);
+
+        provider.deleteAll(new ArrayList<Path>(moves.values()),
+                           new DotFileOption());
+        for (final Path path : moves.values()) {
+            assertThat(provider.exists(path)).isFalse();
+        }
+        assertThat(commitCount(git)).isEqualTo(++commits);
+
+        // nothing is committed when any path fails validation
+        final List<Path> paths = new ArrayList<Path>(copies.keySet());
+        paths.add(provider.getPath(URI.create("git://master@bulk-test-repo/dir/missing.txt")));
+        try {
+            provider.deleteAll(paths);
+            failBecauseExceptionWasNotThrown(NoSuchFileException.class);
+        } catch (NoSuchFileException e) {
+        }
+        for (final Path path : copies.keySet()) {
+            assertThat(provider.exists(path)).isTrue();
+        }
+        assertThat(commitCount(git)).isEqualTo(commits);
+    }
+
+    private int commitCount(final Git git) {
+        return git.listCommits(null,
+                               git.getLastCommit("master")).size();
+    }
+
     static String convertStreamToString(java.io.InputStream is) {
         java.util.Scanner s = new java.util.Scanner(is).useDelimiter("\\A");
         return s.hasNext() ? s.next() : "";
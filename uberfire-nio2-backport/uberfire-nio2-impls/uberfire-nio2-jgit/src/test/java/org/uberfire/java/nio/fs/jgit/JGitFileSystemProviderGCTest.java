@@ -19,17 +19,27 @@ package org.uberfire.java.nio.fs.jgit;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.Map;
 
 import org.junit.Test;
 import org.uberfire.java.nio.file.DirectoryStream;
 import org.uberfire.java.nio.file.FileSystemAlreadyExistsException;
 import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.fs.jgit.util.GarbageCollectionScheduler;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.fest.assertions.api.Assertions.failBecauseExceptionWasNotThrown;
 
 public class JGitFileSystemProviderGCTest extends AbstractTestInfra {
 
+    @Override
+    public Map<String, String> getGitPreferences() {
+        final Map<String, String> gitPrefs = super.getGitPreferences();
+        gitPrefs.put(JGitFileSystemProvider.GIT_GC_IDLE_TIME,
+                     "50");
+        return gitPrefs;
+    }
+
     @Test
     public void testGC() throws IOException {
         final URI newRepo = URI.create("git://gc-repo-name");
@@ -75,4 +85,27 @@ public class JGitFileSystemProviderGCTest extends AbstractTestInfra {
         outStream2.close();
         assertThat(fs.getNumberOfCommitsSinceLastGC()).isEqualTo(1);
     }
+
+    @Test
+    public void testGCRunsInBackgroundOnceIdle() throws Exception {
+        final JGitFileSystem fs = (JGitFileSystem) provider.newFileSystem(URI.create("git://async-gc-repo"),
+                                                                          EMPTY_ENV);
+        final GarbageCollectionScheduler scheduler = provider.getGarbageCollectionScheduler();
+
+        for (int i = 0; i < 20; i++) {
+            final OutputStream outStream = provider.newOutputStream(provider.getPath(URI.create("git://async-gc-repo/file" + i + ".txt")));
+            outStream.write(("content " + i).getBytes());
+            outStream.close();
+        }
+        assertThat(fs.getNumberOfCommitsSinceLastGC()).isEqualTo(0);
+
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (scheduler.getDuration().getCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertThat(scheduler.getDuration().getCount()).isEqualTo(1);
+        assertThat(scheduler.isPending(fs)).isFalse();
+        assertThat(scheduler.getFailures()).isEqualTo(0);
+    }
 }
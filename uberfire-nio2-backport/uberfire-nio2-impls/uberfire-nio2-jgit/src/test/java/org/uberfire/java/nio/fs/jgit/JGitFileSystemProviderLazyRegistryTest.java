@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.uberfire.java.nio.file.FileSystem;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.fs.jgit.util.OpenRepositoryCache;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class JGitFileSystemProviderLazyRegistryTest extends AbstractTestInfra {
+
+    @Override
+    public Map<String, String> getGitPreferences() {
+        final Map<String, String> gitPrefs = super.getGitPreferences();
+        gitPrefs.put(JGitFileSystemProvider.GIT_MAX_OPEN_REPOSITORIES,
+                     "1");
+        return gitPrefs;
+    }
+
+    @Test
+    public void existingRepositoriesAreOpenedOnFirstAccess() throws Exception {
+        createRepository("lazy-repo-a");
+        createRepository("lazy-repo-b");
+
+        provider.rescanForExistingRepositories();
+
+        assertThat(provider.getOpenFileSystems()).isEmpty();
+
+        final FileSystem fs = provider.getFileSystem(URI.create("git://lazy-repo-a"));
+
+        assertThat(provider.getOpenFileSystems()).hasSize(1).contains(fs);
+        assertThat(read("git://lazy-repo-a/file.txt")).isEqualTo("content of lazy-repo-a");
+        assertThat(provider.getFileSystem(URI.create("git://lazy-repo-a"))).isSameAs(fs);
+    }
+
+    @Test
+    public void idleRepositoriesAreReleasedOverTheBound() throws Exception {
+        createRepository("lazy-repo-a");
+        createRepository("lazy-repo-b");
+
+        provider.rescanForExistingRepositories();
+        final OpenRepositoryCache cache = provider.getOpenRepositoryCache();
+        final long evictions = cache.getEvictions();
+        final long opens = cache.getOpens();
+
+        assertThat(read("git://lazy-repo-a/file.txt")).isEqualTo("content of lazy-repo-a");
+        assertThat(read("git://lazy-repo-b/file.txt")).isEqualTo("content of lazy-repo-b");
+
+        assertThat(cache.getOpenCount()).isEqualTo(1);
+        assertThat(cache.getEvictions()).isEqualTo(evictions + 1);
+
+        // a released repository reopens by itself
+        assertThat(read("git://lazy-repo-a/file.txt")).isEqualTo("content of lazy-repo-a");
+        assertThat(cache.getOpenCount()).isEqualTo(1);
+        assertThat(cache.getEvictions()).isEqualTo(evictions + 2);
+        assertThat(cache.getOpens()).isEqualTo(opens + 3);
+    }
+
+    private void createRepository(final String name) throws Exception {
+        provider.newFileSystem(URI.create("git://" + name),
+                               EMPTY_ENV);
+        final OutputStream out = provider.newOutputStream(provider.getPath(URI.create("git://" + name + "/file.txt")));
+        out.write(("content of " + name).getBytes());
+        out.close();
+    }
+
+    private String read(final String uri) throws Exception {
+        final Path path = provider.getPath(URI.create(uri));
+        try (InputStream in = provider.newInputStream(path)) {
+            return IOUtils.toString(in);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.uberfire.java.nio.base.FileSystemState;
+import org.uberfire.java.nio.base.WatchContext;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.StandardWatchEventKind;
+import org.uberfire.java.nio.file.WatchEvent;
+import org.uberfire.java.nio.file.WatchKey;
+import org.uberfire.java.nio.file.WatchService;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class JGitFileSystemProviderNotificationTest extends AbstractTestInfra {
+
+    @Override
+    public Map<String, String> getGitPreferences() {
+        final Map<String, String> gitPrefs = super.getGitPreferences();
+        gitPrefs.put(JGitFileSystemProvider.GIT_EVENTS_CHUNK_SIZE,
+                     "2");
+        return gitPrefs;
+    }
+
+    @Test
+    public void eventsArePublishedInChunks() throws Exception {
+        final JGitFileSystem fs = (JGitFileSystem) provider.newFileSystem(URI.create("git://notification-repo"),
+                                                                          EMPTY_ENV);
+        final WatchService ws = fs.newWatchService();
+
+        final Path root = provider.getPath(URI.create("git://master@notification-repo/"));
+        provider.setAttribute(root,
+                              FileSystemState.FILE_SYSTEM_STATE_ATTR,
+                              FileSystemState.BATCH);
+        for (int i = 0; i < 5; i++) {
+            final OutputStream out = provider.newOutputStream(provider.getPath(URI.create("git://master@notification-repo/file" + i + ".txt")));
+            out.write(("content " + i).getBytes());
+            out.close();
+        }
+        provider.setAttribute(root,
+                              FileSystemState.FILE_SYSTEM_STATE_ATTR,
+                              FileSystemState.NORMAL);
+
+        final List<Integer> chunkSizes = new ArrayList<>();
+        final List<String> created = new ArrayList<>();
+        WatchKey key;
+        while ((key = ws.poll()) != null) {
+            final List<WatchEvent<?>> events = key.pollEvents();
+            chunkSizes.add(events.size());
+            for (final WatchEvent<?> event : events) {
+                assertThat(event.kind()).isEqualTo(StandardWatchEventKind.ENTRY_CREATE);
+                created.add(((WatchContext) event.context()).getPath().getFileName().toString());
+            }
+        }
+
+        assertThat(chunkSizes).containsExactly(2,
+                                               2,
+                                               1);
+        assertThat(created).containsOnly("file0.txt",
+                                         "file1.txt",
+                                         "file2.txt",
+                                         "file3.txt",
+                                         "file4.txt");
+        assertThat(provider.getNotificationTime().getCount()).isEqualTo(1);
+        assertThat(provider.getNotifiedEvents()).isEqualTo(5);
+    }
+
+    @Test
+    public void nothingIsComputedWithoutWatchers() throws Exception {
+        provider.newFileSystem(URI.create("git://unwatched-repo"),
+                               EMPTY_ENV);
+
+        final OutputStream out = provider.newOutputStream(provider.getPath(URI.create("git://master@unwatched-repo/file.txt")));
+        out.write("content".getBytes());
+        out.close();
+
+        assertThat(provider.getNotificationTime().getCount()).isEqualTo(0);
+    }
+}
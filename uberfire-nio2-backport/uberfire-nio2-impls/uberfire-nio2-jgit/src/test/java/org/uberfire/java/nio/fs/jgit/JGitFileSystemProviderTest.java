@@ -35,10 +35,13 @@ import java.util.Set;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
 import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.uberfire.java.nio.base.Abortable;
 import org.uberfire.java.nio.base.FileSystemState;
 import org.uberfire.java.nio.base.NotImplementedException;
 import org.uberfire.java.nio.base.attributes.HiddenAttributeView;
@@ -765,6 +768,27 @@ public class JGitFileSystemProviderTest extends AbstractTestInfra {
         }
     }
 
+    @Test
+    public void testAbortNewOutputStream() throws Exception {
+        final URI newRepo = URI.create("git://outstream-abort-repo");
+        provider.newFileSystem(newRepo,
+                               EMPTY_ENV);
+
+        final Path path = provider.getPath(URI.create("git://master@outstream-abort-repo/some/path/myfile.txt"));
+
+        final OutputStream outStream = provider.newOutputStream(path);
+        assertThat(outStream).isInstanceOf(Abortable.class);
+        outStream.write("partial content".getBytes());
+        ((Abortable) outStream).abort();
+        outStream.close();
+
+        try {
+            provider.newInputStream(path);
+            failBecauseExceptionWasNotThrown(NoSuchFileException.class);
+        } catch (NoSuchFileException ignored) {
+        }
+    }
+
     @Test
     public void testNewOutputStreamWithJGitOp() throws Exception {
         final File parentFolder = createTempDirectory();
@@ -1410,6 +1434,26 @@ public class JGitFileSystemProviderTest extends AbstractTestInfra {
         assertThat(attrsRoot.size()).isEqualTo(-1L);
     }
 
+    @Test
+    public void testFileKeyIsTheBlobId() throws IOException {
+        final URI newRepo = URI.create("git://filekey-test-repo");
+        provider.newFileSystem(newRepo,
+                               EMPTY_ENV);
+
+        final Path path = provider.getPath(URI.create("git://master@filekey-test-repo/myfile1.txt"));
+
+        final OutputStream outStream = provider.newOutputStream(path);
+        outStream.write("my cool content".getBytes());
+        outStream.close();
+
+        final BasicFileAttributeView view = provider.getFileAttributeView(path,
+                                                                          BasicFileAttributeView.class);
+
+        final String blobId = new ObjectInserter.Formatter().idFor(Constants.OBJ_BLOB,
+                                                                   "my cool content".getBytes()).name();
+        assertThat(view.readAttributes().fileKey()).isEqualTo(blobId);
+    }
+
     @Test
     public void testReadAttributesMap() throws IOException {
         final URI newRepo = URI.create("git://readattrsmap-test-repo");
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.util.FileUtils;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.uberfire.java.nio.file.Path;
+
+/**
+ * Measures a file upload landing in a commit, the way the upload servlet used to do it (whole request body read into
+ * a byte array, then written) against streaming it through {@link JGitFileSystemProvider#newOutputStream} with a
+ * fixed buffer. The request body is generated on the fly, so only the write path holds the payload.
+ * <p>
+ * Throughput is the inverse of the reported time per upload; the peak heap used during each iteration is reported as
+ * the {@code peakHeapMB} counter. Not executed as part of the build, run it through {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class UploadBenchmark {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    @Param({"104857600"})
+    public int uploadSize;
+
+    private File repoDir;
+    private JGitFileSystemProvider provider;
+    private Path path;
+    private byte[] block;
+    private int counter = 0;
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(UploadBenchmark.class.getSimpleName())
+                           .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        repoDir = Files.createTempDirectory("upload-benchmark").toFile();
+        final Map<String, String> gitPrefs = new HashMap<>();
+        gitPrefs.put(JGitFileSystemProvider.GIT_DAEMON_ENABLED,
+                     "false");
+        gitPrefs.put(JGitFileSystemProvider.GIT_SSH_ENABLED,
+                     "false");
+        gitPrefs.put(JGitFileSystemProvider.GIT_NIO_DIR,
+                     repoDir.getAbsolutePath());
+        provider = new JGitFileSystemProvider(gitPrefs);
+        provider.newFileSystem(URI.create("git://upload-repo"),
+                               Collections.emptyMap());
+        path = provider.getPath(URI.create("git://upload-repo/uploads/upload.bin"));
+
+        block = new byte[65536];
+        new Random(42).nextBytes(block);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        provider.shutdown();
+        FileUtils.delete(repoDir,
+                         FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+
+    @Benchmark
+    public void buffered(final HeapCounters heap) throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        copy(newRequestBody(),
+             body);
+        try (final OutputStream out = provider.newOutputStream(path)) {
+            out.write(body.toByteArray());
+        }
+        heap.record();
+    }
+
+    @Benchmark
+    public void streamed(final HeapCounters heap) throws IOException {
+        try (final OutputStream out = provider.newOutputStream(path)) {
+            copy(newRequestBody(),
+                 out);
+        }
+        heap.record();
+    }
+
+    private InputStream newRequestBody() {
+        // a changed byte per upload, so every upload produces a commit
+        block[0] = (byte) counter++;
+        return new InputStream() {
+            private long remaining = uploadSize;
+
+            @Override
+            public int read() {
+                final byte[] b = new byte[1];
+                return read(b,
+                            0,
+                            1) == -1 ? -1 : b[0] & 0xFF;
+            }
+
+            @Override
+            public int read(final byte[] b,
+                            final int off,
+                            final int len) {
+                if (remaining == 0) {
+                    return -1;
+                }
+                final int position = (int) ((uploadSize - remaining) % block.length);
+                final int n = (int) Math.min(Math.min(len,
+                                                      block.length - position),
+                                             remaining);
+                System.arraycopy(block,
+                                 position,
+                                 b,
+                                 off,
+                                 n);
+                remaining -= n;
+                return n;
+            }
+        };
+    }
+
+    private static void copy(final InputStream in,
+                             final OutputStream out) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer,
+                      0,
+                      read);
+        }
+    }
+
+    /**
+     * Peak heap used during an iteration, reported by JMH next to the time per upload.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapCounters {
+
+        public long peakHeapMB;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            System.gc();
+            for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                pool.resetPeakUsage();
+            }
+            peakHeapMB = 0;
+        }
+
+        void record() {
+            long peak = 0;
+            for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peak += pool.getPeakUsage().getUsed();
+                }
+            }
+            peakHeapMB = Math.max(peakHeapMB,
+                                  peak >> 20);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.uberfire.java.nio.channels.SeekableByteChannel;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.StandardOpenOption;
+
+/**
+ * Measures asset saves through {@link JGitFileSystemProvider#newOutputStream} and
+ * {@link JGitFileSystemProvider#newByteChannel} for small and large payloads, with content kept in memory (spill
+ * threshold above the payload size) or always spilled to a temporary file (threshold 0).
+ * <p>
+ * Not executed as part of the build, run it through {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WriteThroughputBenchmark {
+
+    @Param({"1024", "65536", "4194304"})
+    public int payloadSize;
+
+    @Param({"0", "8388608"})
+    public long spillThreshold;
+
+    private File repoDir;
+    private JGitFileSystemProvider provider;
+    private Path path;
+    private byte[] payload;
+    private int counter = 0;
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(WriteThroughputBenchmark.class.getSimpleName())
+                           .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        repoDir = Files.createTempDirectory("write-throughput-benchmark").toFile();
+        final Map<String, String> gitPrefs = new HashMap<>();
+        gitPrefs.put(JGitFileSystemProvider.GIT_DAEMON_ENABLED,
+                     "false");
+        gitPrefs.put(JGitFileSystemProvider.GIT_SSH_ENABLED,
+                     "false");
+        gitPrefs.put(JGitFileSystemProvider.GIT_NIO_DIR,
+                     repoDir.getAbsolutePath());
+        gitPrefs.put(JGitFileSystemProvider.GIT_WRITE_SPILL_THRESHOLD,
+                     String.valueOf(spillThreshold));
+        provider = new JGitFileSystemProvider(gitPrefs);
+        provider.newFileSystem(URI.create("git://bench-repo"),
+                               Collections.emptyMap());
+        path = provider.getPath(URI.create("git://bench-repo/assets/asset.bin"));
+
+        payload = new byte[payloadSize];
+        new Random(42).nextBytes(payload);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        provider.shutdown();
+        FileUtils.delete(repoDir,
+                         FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+
+    @Benchmark
+    public void outputStream() throws IOException {
+        // a changed byte per save, so every save produces a commit
+        payload[0] = (byte) counter++;
+        try (final OutputStream out = provider.newOutputStream(path)) {
+            out.write(payload);
+        }
+    }
+
+    @Benchmark
+    public void byteChannel() throws IOException {
+        payload[0] = (byte) counter++;
+        try (final SeekableByteChannel channel = provider.newByteChannel(path,
+                                                                         Collections.singleton(StandardOpenOption.TRUNCATE_EXISTING))) {
+            channel.write(ByteBuffer.wrap(payload));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.junit.Test;
+import org.uberfire.java.nio.fs.jgit.AbstractTestInfra;
+
+import static org.junit.Assert.*;
+
+public class BlobByteChannelTest extends AbstractTestInfra {
+
+    @Test
+    public void testReadsAndSeeksOverTheBlob() throws Exception {
+        final Git git = Git.createRepository(new File(createTempDirectory(),
+                                                      "blob.git"));
+        final ObjectId blobId;
+        try (final ObjectInserter inserter = git.getRepository().newObjectInserter()) {
+            blobId = inserter.insert(Constants.OBJ_BLOB,
+                                     "hello world".getBytes());
+            inserter.flush();
+        }
+
+        final BlobByteChannel channel = new BlobByteChannel(git.getRepository().open(blobId,
+                                                                                     Constants.OBJ_BLOB));
+        assertEquals(11,
+                     channel.size());
+
+        assertEquals("hello",
+                     read(channel,
+                          5));
+        channel.position(6);
+        assertEquals("world",
+                     read(channel,
+                          16));
+        assertEquals(-1,
+                     channel.read(ByteBuffer.allocate(4)));
+
+        channel.position(2);
+        assertEquals("llo",
+                     read(channel,
+                          3));
+        assertEquals(5,
+                     channel.position());
+
+        try {
+            channel.write(ByteBuffer.wrap("x".getBytes()));
+            fail("read only channel");
+        } catch (final NonWritableChannelException ignored) {
+        }
+        channel.close();
+        assertFalse(channel.isOpen());
+    }
+
+    private String read(final BlobByteChannel channel,
+                        final int length) throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        final int read = channel.read(buffer);
+        return new String(buffer.array(),
+                          0,
+                          read);
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.jgit.lib.RefDatabase;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.Test;
+import org.uberfire.java.nio.fs.jgit.AbstractTestInfra;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystem;
+import org.uberfire.java.nio.fs.jgit.util.commands.Commit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class GarbageCollectionSchedulerTest extends AbstractTestInfra {
+
+    @Test
+    public void repositoryUnderEveryEnabledThresholdIsSkipped() throws Exception {
+        final JGitFileSystem fs = fileSystem(repository("skip.git",
+                                                        1));
+
+        // only the loose objects threshold is enabled, the pack files one is 0
+        final GarbageCollectionScheduler scheduler = new GarbageCollectionScheduler(1,
+                                                                                    0,
+                                                                                    500,
+                                                                                    0);
+        scheduler.request(fs);
+        await(() -> scheduler.getSkipped() == 1);
+
+        assertEquals(0,
+                     scheduler.getDuration().getCount());
+        assertFalse(scheduler.isPending(fs));
+    }
+
+    @Test
+    public void repositoryOverAnEnabledThresholdIsCollected() throws Exception {
+        final JGitFileSystem fs = fileSystem(repository("collect.git",
+                                                        1));
+
+        final GarbageCollectionScheduler scheduler = new GarbageCollectionScheduler(1,
+                                                                                    0,
+                                                                                    1,
+                                                                                    0);
+        scheduler.request(fs);
+        await(() -> scheduler.getDuration().getCount() == 1);
+
+        assertEquals(0,
+                     scheduler.getSkipped());
+        assertEquals(0,
+                     scheduler.getFailures());
+    }
+
+    @Test
+    public void repositoryIsAlwaysCollectedWithoutThresholds() throws Exception {
+        final JGitFileSystem fs = fileSystem(Git.createRepository(new File(createTempDirectory(),
+                                                                           "empty.git")));
+
+        final GarbageCollectionScheduler scheduler = new GarbageCollectionScheduler(1,
+                                                                                    0,
+                                                                                    0,
+                                                                                    0);
+        scheduler.request(fs);
+        await(() -> scheduler.getDuration().getCount() == 1);
+
+        assertEquals(0,
+                     scheduler.getSkipped());
+    }
+
+    @Test
+    public void collectionReportsReclaimedBytes() throws Exception {
+        // similar blobs are stored as deltas once packed, so the pack is far smaller than the loose objects
+        final JGitFileSystem fs = fileSystem(repository("reclaim.git",
+                                                        20));
+
+        final GarbageCollectionScheduler scheduler = new GarbageCollectionScheduler(1,
+                                                                                    0,
+                                                                                    0,
+                                                                                    0);
+        scheduler.request(fs);
+        await(() -> scheduler.getDuration().getCount() == 1);
+
+        assertTrue(scheduler.getReclaimedBytes() > 0);
+        assertTrue(scheduler.getDuration().getTotal(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    public void collectionWaitsUntilTheRepositoryIsIdle() throws Exception {
+        final AtomicLong collectedAt = new AtomicLong();
+        final JGitFileSystem fs = fileSystem(() -> collectedAt.set(System.currentTimeMillis()));
+
+        final GarbageCollectionScheduler scheduler = new GarbageCollectionScheduler(1,
+                                                                                    200,
+                                                                                    0,
+                                                                                    0);
+        scheduler.request(fs);
+        long lastChange = 0;
+        for (int i = 0; i < 8; i++) {
+            lastChange = System.currentTimeMillis();
+            scheduler.changed(fs);
+            Thread.sleep(50);
+        }
+        assertEquals(0,
+                     collectedAt.get());
+        assertTrue(scheduler.isPending(fs));
+
+        await(() -> collectedAt.get() != 0);
+        assertTrue(collectedAt.get() - lastChange >= 200);
+        assertEquals(1,
+                     scheduler.getDuration().getCount());
+    }
+
+    @Test
+    public void collectionsAreCappedOverAllRepositories() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final Runnable gc = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(),
+                                        Math::max);
+            try {
+                release.await(10,
+                              TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        };
+
+        final GarbageCollectionScheduler scheduler = new GarbageCollectionScheduler(2,
+                                                                                    0,
+                                                                                    0,
+                                                                                    0);
+        for (int i = 0; i < 4; i++) {
+            scheduler.request(fileSystem(gc));
+        }
+        await(() -> running.get() == 2);
+        Thread.sleep(100);
+        assertEquals(2,
+                     running.get());
+
+        release.countDown();
+        await(() -> scheduler.getDuration().getCount() == 4);
+        assertEquals(2,
+                     maxRunning.get());
+    }
+
+    private Git repository(final String name,
+                           final int files) throws IOException {
+        final Git git = Git.createRepository(new File(createTempDirectory(),
+                                                      name));
+        final Random random = new Random(42);
+        final StringBuilder base = new StringBuilder();
+        for (int i = 0; i < 16 * 1024; i++) {
+            base.append((char) ('a' + random.nextInt(26)));
+        }
+        final HashMap<String, File> content = new HashMap<>();
+        for (int i = 0; i < files; i++) {
+            content.put("file" + i + ".txt",
+                        tempFile(base.toString() + i));
+        }
+        new Commit(git,
+                   "master",
+                   "name",
+                   "name@example.com",
+                   "content",
+                   null,
+                   null,
+                   false,
+                   content).execute();
+        return git;
+    }
+
+    private JGitFileSystem fileSystem(final Git git) {
+        final JGitFileSystem fs = mock(JGitFileSystem.class);
+        when(fs.getGit()).thenReturn(git);
+        when(fs.getName()).thenReturn(git.getRepository().getDirectory().getName());
+        return fs;
+    }
+
+    /**
+     * A file system whose repository isn't file based, so collections go through {@link Git#gc()}.
+     */
+    private JGitFileSystem fileSystem(final Runnable gc) {
+        final Repository repository = mock(Repository.class);
+        when(repository.getRefDatabase()).thenReturn(mock(RefDatabase.class));
+        final Git git = mock(Git.class);
+        when(git.getRepository()).thenReturn(repository);
+        doAnswer(invocation -> {
+            gc.run();
+            return null;
+        }).when(git).gc();
+        final JGitFileSystem fs = mock(JGitFileSystem.class);
+        when(fs.getGit()).thenReturn(git);
+        when(fs.getName()).thenReturn("mock");
+        return fs;
+    }
+
+    private void await(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.Test;
+import org.uberfire.java.nio.fs.jgit.AbstractTestInfra;
+import org.uberfire.java.nio.fs.jgit.util.commands.Commit;
+
+import static org.junit.Assert.*;
+
+public class PathHistoryIndexTest extends AbstractTestInfra {
+
+    @Test
+    public void testHistoryMatchesLog() throws IOException, GitAPIException {
+        final Git git = Git.createRepository(new File(createTempDirectory(),
+                                                      "history.git"));
+        commit(git,
+               "1st commit",
+               "dir/a.txt",
+               "b.txt");
+        commit(git,
+               "2nd commit",
+               "dir/a.txt");
+        commit(git,
+               "3rd commit",
+               "c.txt");
+
+        for (final String path : new String[]{"dir/a.txt", "b.txt", "c.txt", "dir", "/dir/a.txt", "/", ""}) {
+            assertHistory(git,
+                          path);
+        }
+        assertEquals(3,
+                     git.listPathHistory(git.getRef("master"),
+                                         "/").size());
+
+        commit(git,
+               "4th commit",
+               "b.txt");
+
+        assertHistory(git,
+                      "b.txt");
+        final Ref master = git.getRef("master");
+        assertEquals("1st commit",
+                     git.getFirstCommit(master,
+                                        "b.txt").getFullMessage());
+        assertEquals("4th commit",
+                     git.getLastCommit(master,
+                                       "b.txt").getFullMessage());
+        assertEquals("2nd commit",
+                     git.getLastCommit(master,
+                                       "dir").getFullMessage());
+        assertNull(git.getLastCommit(master,
+                                     "missing.txt"));
+    }
+
+    @Test
+    public void testRewrittenRefIsIndexedAgain() throws IOException, GitAPIException {
+        final Git git = Git.createRepository(new File(createTempDirectory(),
+                                                      "rewrite.git"));
+        commit(git,
+               "1st commit",
+               "a.txt");
+        final RevCommit first = git.getLastCommit("master");
+        commit(git,
+               "2nd commit",
+               "a.txt");
+        assertEquals(2,
+                     git.listPathHistory(git.getRef("master"),
+                                         "a.txt").size());
+
+        git.refUpdate("master",
+                      first);
+
+        assertEquals(Collections.singletonList(first),
+                     git.listPathHistory(git.getRef("master"),
+                                         "a.txt"));
+    }
+
+    @Test
+    public void testIndexIsBoundedAndDropsRewrittenRefs() throws IOException, GitAPIException {
+        final Git git = Git.createRepository(new File(createTempDirectory(),
+                                                      "bounded.git"));
+        commit(git,
+               "1st commit",
+               "a.txt");
+        final RevCommit first = git.getLastCommit("master");
+        commit(git,
+               "2nd commit",
+               "a.txt");
+
+        // two commits, each listed for the root and for "a.txt"
+        final PathHistoryIndex index = new PathHistoryIndex(git,
+                                                            4);
+        assertEquals(2,
+                     index.listCommits(git.getRef("master"),
+                                       "a.txt").size());
+        assertEquals(4,
+                     index.getWeight());
+
+        index.refUpdated("refs/heads/master",
+                         git.getLastCommit("master"));
+        assertEquals(4,
+                     index.getWeight());
+        index.refUpdated("refs/heads/master",
+                         first);
+        assertEquals(0,
+                     index.getWeight());
+
+        index.listCommits(git.getRef("master"),
+                          "a.txt");
+        index.remove("refs/heads/master");
+        assertEquals(0,
+                     index.getWeight());
+
+        final PathHistoryIndex small = new PathHistoryIndex(git,
+                                                            3);
+        assertEquals(Collections.singletonList("2nd commit"),
+                     messages(small.listCommits(git.getRef("master"),
+                                                "a.txt").subList(1,
+                                                                 2)));
+        assertEquals(0,
+                     small.getWeight());
+    }
+
+    private List<String> messages(final List<RevCommit> commits) {
+        final List<String> messages = new ArrayList<>();
+        for (final RevCommit commit : commits) {
+            messages.add(commit.getFullMessage());
+        }
+        return messages;
+    }
+
+    private void assertHistory(final Git git,
+                               final String path) throws IOException, GitAPIException {
+        final Ref master = git.getRef("master");
+        final List<RevCommit> expected = new ArrayList<>(git.listCommits(master,
+                                                                         path.equals("/") ? "" : path.startsWith("/") ? path.substring(1) : path));
+        Collections.reverse(expected);
+        assertEquals(path,
+                     expected,
+                     git.listPathHistory(master,
+                                         path));
+    }
+
+    private void commit(final Git git,
+                        final String message,
+                        final String... paths) throws IOException {
+        final HashMap<String, File> content = new HashMap<>();
+        for (final String path : paths) {
+            content.put(path,
+                        tempFile(message + " " + path));
+        }
+        new Commit(git,
+                   "master",
+                   "name",
+                   "name@example.com",
+                   message,
+                   null,
+                   null,
+                   false,
+                   content).execute();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.uberfire.java.nio.IOException;
+
+import static org.junit.Assert.*;
+
+public class RepositoryLockTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void writersOfDifferentBranchesDontWaitForEachOther() throws Exception {
+        final RepositoryLock lock = new RepositoryLock(false,
+                                                       1000);
+        lock.lockBranch("master");
+        try {
+            final Future<?> other = executor.submit(() -> {
+                lock.lockBranch("refs/heads/dev");
+                lock.unlockBranch("refs/heads/dev");
+            });
+            other.get(5,
+                      TimeUnit.SECONDS);
+        } finally {
+            lock.unlockBranch("master");
+        }
+        assertEquals(0,
+                     lock.getContended());
+    }
+
+    @Test
+    public void writersOfTheSameBranchWait() throws Exception {
+        final RepositoryLock lock = new RepositoryLock(true,
+                                                       0);
+        final CountDownLatch acquired = new CountDownLatch(1);
+        lock.lockBranch("master");
+        final Future<?> other = executor.submit(() -> {
+            lock.lockBranch("refs/heads/master");
+            acquired.countDown();
+            lock.unlockBranch("refs/heads/master");
+        });
+
+        assertFalse(acquired.await(100,
+                                   TimeUnit.MILLISECONDS));
+        lock.unlockBranch("master");
+        other.get(5,
+                  TimeUnit.SECONDS);
+
+        assertEquals(1,
+                     lock.getContended());
+        assertEquals(1,
+                     lock.getWaitTime().getCount());
+    }
+
+    @Test
+    public void repositoryLockExcludesBranchWriters() throws Exception {
+        final RepositoryLock lock = new RepositoryLock(false,
+                                                       50);
+        lock.lockBranch("master");
+        final Future<Boolean> repository = executor.submit(lock::tryLockRepository);
+        assertFalse(repository.get(5,
+                                   TimeUnit.SECONDS));
+        lock.unlockBranch("master");
+
+        lock.lockRepository();
+        try {
+            executor.submit(() -> lock.lockBranch("dev")).get(5,
+                                                              TimeUnit.SECONDS);
+            fail("branch lock should time out");
+        } catch (final java.util.concurrent.ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof IOException);
+        } finally {
+            lock.unlockRepository();
+        }
+        assertEquals(1,
+                     lock.getTimeouts());
+        assertFalse(lock.isRepositoryLocked());
+    }
+
+    @Test
+    public void releasingALockNotHeldDoesNothing() {
+        final RepositoryLock lock = new RepositoryLock();
+        lock.unlockRepository();
+        lock.unlockBranch("master");
+
+        lock.lockBranch("master");
+        lock.unlockBranch("master");
+        lock.unlockBranch("master");
+
+        assertTrue(lock.tryLockRepository());
+        lock.unlockRepository();
+        assertFalse(lock.isBranchLocked("master"));
+    }
+}
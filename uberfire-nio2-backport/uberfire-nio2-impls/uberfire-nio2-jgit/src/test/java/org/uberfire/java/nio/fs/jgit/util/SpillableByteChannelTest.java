@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.junit.Test;
+import org.uberfire.java.nio.fs.jgit.AbstractTestInfra;
+
+import static org.junit.Assert.*;
+
+public class SpillableByteChannelTest extends AbstractTestInfra {
+
+    @Test
+    public void testKeepsSmallContentInMemory() throws Exception {
+        final SpillableByteChannel channel = new SpillableByteChannel(16);
+        channel.write(ByteBuffer.wrap("hello world".getBytes()));
+        channel.position(0);
+        channel.write(ByteBuffer.wrap("HELLO".getBytes()));
+        channel.close();
+
+        assertTrue(channel.isInMemory());
+        assertBlob("HELLO world",
+                   channel);
+        channel.dispose();
+    }
+
+    @Test
+    public void testSpillsBeyondThreshold() throws Exception {
+        final SpillableByteChannel channel = new SpillableByteChannel(8);
+        channel.write(ByteBuffer.wrap("hello".getBytes()));
+        assertTrue(channel.isInMemory());
+        channel.write(ByteBuffer.wrap(" world".getBytes()));
+        assertFalse(channel.isInMemory());
+        assertEquals(11,
+                     channel.size());
+        channel.close();
+
+        assertBlob("hello world",
+                   channel);
+        channel.dispose();
+    }
+
+    @Test
+    public void testReadOnly() throws Exception {
+        final SpillableByteChannel channel = SpillableByteChannel.readOnly("content".getBytes());
+        final ByteBuffer buffer = ByteBuffer.allocate(16);
+        channel.position(3);
+
+        assertEquals(4,
+                     channel.read(buffer));
+        assertEquals("tent",
+                     new String(buffer.array(),
+                                0,
+                                4));
+        assertEquals(-1,
+                     channel.read(buffer));
+        try {
+            channel.write(ByteBuffer.wrap("x".getBytes()));
+            fail("read only channel");
+        } catch (final NonWritableChannelException ignored) {
+        }
+    }
+
+    private void assertBlob(final String expected,
+                            final SpillableByteChannel channel) throws Exception {
+        final Git git = Git.createRepository(new File(createTempDirectory(),
+                                                      "spill.git"));
+        try (final ObjectInserter inserter = git.getRepository().newObjectInserter()) {
+            final ObjectId blobId = channel.insertBlob(inserter);
+            inserter.flush();
+            assertEquals(expected,
+                         new String(git.getRepository().open(blobId,
+                                                             Constants.OBJ_BLOB).getBytes()));
+        }
+    }
+}
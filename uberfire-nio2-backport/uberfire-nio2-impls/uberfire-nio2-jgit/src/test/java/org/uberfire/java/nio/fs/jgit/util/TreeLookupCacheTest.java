@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Test;
+import org.uberfire.java.nio.fs.jgit.util.model.PathInfo;
+import org.uberfire.java.nio.fs.jgit.util.model.PathType;
+
+import static org.junit.Assert.*;
+
+public class TreeLookupCacheTest {
+
+    private final ObjectId tree1 = ObjectId.fromString("1111111111111111111111111111111111111111");
+    private final ObjectId tree2 = ObjectId.fromString("2222222222222222222222222222222222222222");
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void pathInfoIsLoadedOncePerTreeAndPath() throws Exception {
+        final TreeLookupCache cache = new TreeLookupCache(10);
+
+        final PathInfo first = cache.getPathInfo(tree1,
+                                                 "a/b.txt",
+                                                 () -> load("a/b.txt"));
+        final PathInfo second = cache.getPathInfo(tree1,
+                                                  "a/b.txt",
+                                                  () -> load("a/b.txt"));
+        cache.getPathInfo(tree2,
+                          "a/b.txt",
+                          () -> load("a/b.txt"));
+
+        assertSame(first,
+                   second);
+        assertEquals(2,
+                     loads.get());
+        assertEquals(1,
+                     cache.getHits());
+        assertEquals(2,
+                     cache.getMisses());
+    }
+
+    @Test
+    public void listingsWeighTheirSizeAndEvictLeastRecentlyUsed() throws Exception {
+        final TreeLookupCache cache = new TreeLookupCache(5);
+
+        cache.getPathInfo(tree1,
+                          "a",
+                          () -> load("a"));
+        cache.getPathInfo(tree1,
+                          "b",
+                          () -> load("b"));
+        // touch "a", so "b" is the eldest
+        cache.getPathInfo(tree1,
+                          "a",
+                          () -> load("a"));
+
+        final List<PathInfo> listing = cache.listPathContent(tree1,
+                                                             "dir",
+                                                             () -> Arrays.asList(load("dir/x"),
+                                                                                 load("dir/y")));
+        assertEquals(5,
+                     cache.getWeight());
+        assertEquals(0,
+                     cache.getEvictions());
+
+        cache.getPathInfo(tree2,
+                          "c",
+                          () -> load("c"));
+        assertEquals(1,
+                     cache.getEvictions());
+        assertEquals(5,
+                     cache.getWeight());
+
+        final int loadsBefore = loads.get();
+        cache.getPathInfo(tree1,
+                          "a",
+                          () -> load("a"));
+        assertSame(listing,
+                   cache.listPathContent(tree1,
+                                         "dir",
+                                         () -> Arrays.asList(load("dir/x"))));
+        assertEquals(loadsBefore,
+                     loads.get());
+        cache.getPathInfo(tree1,
+                          "b",
+                          () -> load("b"));
+        assertEquals(loadsBefore + 1,
+                     loads.get());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void listingsAreUnmodifiable() throws Exception {
+        final TreeLookupCache cache = new TreeLookupCache(5);
+        cache.listPathContent(tree1,
+                              "dir",
+                              () -> Arrays.asList(load("dir/x"))).clear();
+    }
+
+    @Test
+    public void blobSizesAreCachedByBlobId() throws Exception {
+        final TreeLookupCache cache = new TreeLookupCache(5);
+
+        assertEquals(42,
+                     cache.getBlobSize(tree1,
+                                       () -> (long) loads.incrementAndGet() + 41));
+        assertEquals(42,
+                     cache.getBlobSize(tree1,
+                                       () -> (long) loads.incrementAndGet() + 41));
+        assertEquals(1,
+                     loads.get());
+    }
+
+    @Test
+    public void disabledCacheAlwaysLoads() throws Exception {
+        final TreeLookupCache cache = new TreeLookupCache(0);
+        cache.getPathInfo(tree1,
+                          "a",
+                          () -> load("a"));
+        cache.getPathInfo(tree1,
+                          "a",
+                          () -> load("a"));
+
+        assertEquals(2,
+                     loads.get());
+        assertEquals(0,
+                     cache.getWeight());
+    }
+
+    private PathInfo load(final String path) {
+        loads.incrementAndGet();
+        return new PathInfo(null,
+                            path,
+                            PathType.FILE);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util.commands;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheBuilder;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.uberfire.java.nio.fs.jgit.util.Git;
+import org.uberfire.java.nio.fs.jgit.util.model.DefaultCommitContent;
+
+import static org.eclipse.jgit.lib.FileMode.REGULAR_FILE;
+
+/**
+ * Compares the cost of building the tree of a single file save between {@link CreateDefaultCommitTree} (full tree
+ * walk) and {@link CreateIncrementalCommitTree} (changed paths only) for growing repository sizes.
+ * <p>
+ * Not executed as part of the build, run it through {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CommitTreeBenchmark {
+
+    @Param({"1000", "10000", "40000"})
+    public int repositorySize;
+
+    private File repoDir;
+    private Git git;
+    private ObjectId headTree;
+    private DefaultCommitContent singleFileSave;
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(CommitTreeBenchmark.class.getSimpleName())
+                           .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        repoDir = Files.createTempDirectory("commit-tree-benchmark").toFile();
+        git = Git.createRepository(new File(repoDir,
+                                            "bench.git"));
+
+        final DirCache dirCache = DirCache.newInCore();
+        final DirCacheBuilder builder = dirCache.builder();
+        try (final ObjectInserter inserter = git.getRepository().newObjectInserter()) {
+            for (int i = 0; i < repositorySize; i++) {
+                final DirCacheEntry entry = new DirCacheEntry(pathOf(i));
+                entry.setFileMode(REGULAR_FILE);
+                entry.setObjectId(inserter.insert(Constants.OBJ_BLOB,
+                                                  Constants.encode("content " + i)));
+                builder.add(entry);
+            }
+            builder.finish();
+            headTree = dirCache.writeTree(inserter);
+            inserter.flush();
+        }
+
+        final File content = File.createTempFile("commit-tree",
+                                                 "benchmark");
+        try (final OutputStream out = new FileOutputStream(content)) {
+            out.write(Constants.encode("updated content"));
+        }
+        singleFileSave = new DefaultCommitContent(new HashMap<String, File>() {{
+            put(pathOf(repositorySize / 2),
+                content);
+        }});
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        git.getRepository().close();
+        FileUtils.delete(repoDir,
+                         FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+
+    @Benchmark
+    public Optional<ObjectId> fullTreeWalk() {
+        try (final ObjectInserter inserter = git.getRepository().newObjectInserter()) {
+            return new CreateDefaultCommitTree(git,
+                                               headTree,
+                                               inserter,
+                                               singleFileSave).execute();
+        }
+    }
+
+    @Benchmark
+    public Optional<ObjectId> incremental() {
+        try (final ObjectInserter inserter = git.getRepository().newObjectInserter()) {
+            return new CreateIncrementalCommitTree(git,
+                                                   headTree,
+                                                   inserter,
+                                                   singleFileSave).execute();
+        }
+    }
+
+    private static String pathOf(final int i) {
+        return "module" + (i / 1000) + "/package" + (i / 100) + "/asset" + i + ".txt";
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util.commands;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Optional;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.java.nio.fs.jgit.AbstractTestInfra;
+import org.uberfire.java.nio.fs.jgit.util.Git;
+import org.uberfire.java.nio.fs.jgit.util.model.CommitInfo;
+import org.uberfire.java.nio.fs.jgit.util.model.CopyCommitContent;
+import org.uberfire.java.nio.fs.jgit.util.model.DefaultCommitContent;
+import org.uberfire.java.nio.fs.jgit.util.model.MoveCommitContent;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class CreateIncrementalCommitTreeTest extends AbstractTestInfra {
+
+    private Git git;
+    private ObjectId headId;
+
+    @Before
+    public void setup() throws Exception {
+        git = Git.createRepository(createTempDirectory());
+
+        new Commit(git,
+                   "master",
+                   new CommitInfo(null,
+                                  "name",
+                                  "name@example.com",
+                                  "initial",
+                                  null,
+                                  null),
+                   false,
+                   null,
+                   new DefaultCommitContent(new HashMap<String, File>() {{
+                       put("root.txt",
+                           tempFile("root"));
+                       put("a/file1.txt",
+                           tempFile("content1"));
+                       put("a/file2.txt",
+                           tempFile("content2"));
+                       put("a/b/file3.txt",
+                           tempFile("content3"));
+                       put("a.txt",
+                           tempFile("sorts before the a tree"));
+                       put("c/d/e/file4.txt",
+                           tempFile("content4"));
+                   }})).execute();
+
+        headId = git.getLastCommit("master");
+    }
+
+    @Test
+    public void testUpdateExistingFile() throws Exception {
+        assertSameTree(new DefaultCommitContent(new HashMap<String, File>() {{
+            put("a/b/file3.txt",
+                tempFile("new content"));
+        }}));
+    }
+
+    @Test
+    public void testAddFilesOnNewDirectories() throws Exception {
+        assertSameTree(new DefaultCommitContent(new HashMap<String, File>() {{
+            put("/a/new/file.txt",
+                tempFile("new"));
+            put("x/y/z.txt",
+                tempFile("new2"));
+            put("a-b.txt",
+                tempFile("sorts between a.txt and a"));
+        }}));
+    }
+
+    @Test
+    public void testDeleteFileAndDirectory() throws Exception {
+        assertSameTree(new DefaultCommitContent(new HashMap<String, File>() {{
+            put("a/file1.txt",
+                null);
+            put("c",
+                null);
+        }}));
+    }
+
+    @Test
+    public void testDeleteLastFileRemovesEmptyDirectories() throws Exception {
+        assertSameTree(new DefaultCommitContent(new HashMap<String, File>() {{
+            put("c/d/e/file4.txt",
+                null);
+        }}));
+    }
+
+    @Test
+    public void testNoChanges() throws Exception {
+        final DefaultCommitContent content = new DefaultCommitContent(new HashMap<String, File>() {{
+            put("a/file2.txt",
+                tempFile("content2"));
+            put("not/there.txt",
+                null);
+        }});
+
+        try (final ObjectInserter inserter = git.getRepository().newObjectInserter()) {
+            assertThat(new CreateDefaultCommitTree(git,
+                                                   headId,
+                                                   inserter,
+                                                   content).execute().isPresent()).isFalse();
+            assertThat(new CreateIncrementalCommitTree(git,
+                                                       headId,
+                                                       inserter,
+                                                       content).execute().isPresent()).isFalse();
+        }
+    }
+
+    @Test
+    public void testFirstCommit() throws Exception {
+        headId = null;
+        assertSameTree(new DefaultCommitContent(new HashMap<String, File>() {{
+            put("a/file1.txt",
+                tempFile("content1"));
+            put("b.txt",
+                tempFile("b"));
+        }}));
+    }
+
+    @Test
+    public void testMove() throws Exception {
+        assertSameTree(new MoveCommitContent(new HashMap<String, String>() {{
+            put("a/b/file3.txt",
+                "c/file3.txt");
+            put("a/file1.txt",
+                "a/renamed.txt");
+        }}));
+    }
+
+    @Test
+    public void testCopy() throws Exception {
+        assertSameTree(new CopyCommitContent(new HashMap<String, String>() {{
+            put("a/b/file3.txt",
+                "z/file3.txt");
+            put("root.txt",
+                "a/b/root.txt");
+        }}));
+    }
+
+    private void assertSameTree(final DefaultCommitContent content) throws Exception {
+        try (final ObjectInserter inserter = git.getRepository().newObjectInserter()) {
+            final Optional<ObjectId> expected = new CreateDefaultCommitTree(git,
+                                                                            headId,
+                                                                            inserter,
+                                                                            content).execute();
+            final Optional<ObjectId> actual = new CreateIncrementalCommitTree(git,
+                                                                              headId,
+                                                                              inserter,
+                                                                              content).execute();
+            assertThat(expected.isPresent()).isTrue();
+            assertThat(actual.get()).isEqualTo(expected.get());
+        }
+    }
+
+    private void assertSameTree(final MoveCommitContent content) throws Exception {
+        try (final ObjectInserter inserter = git.getRepository().newObjectInserter()) {
+            final Optional<ObjectId> expected = new CreateMoveCommitTree(git,
+                                                                         headId,
+                                                                         inserter,
+                                                                         content).execute();
+            final Optional<ObjectId> actual = new CreateIncrementalCommitTree(git,
+                                                                              headId,
+                                                                              inserter,
+                                                                              content).execute();
+            assertThat(actual.get()).isEqualTo(expected.get());
+        }
+    }
+
+    private void assertSameTree(final CopyCommitContent content) throws Exception {
+        try (final ObjectInserter inserter = git.getRepository().newObjectInserter()) {
+            final Optional<ObjectId> expected = new CreateCopyCommitTree(git,
+                                                                         headId,
+                                                                         inserter,
+                                                                         content).execute();
+            final Optional<ObjectId> actual = new CreateIncrementalCommitTree(git,
+                                                                              headId,
+                                                                              inserter,
+                                                                              content).execute();
+            assertThat(actual.get()).isEqualTo(expected.get());
+        }
+    }
+}
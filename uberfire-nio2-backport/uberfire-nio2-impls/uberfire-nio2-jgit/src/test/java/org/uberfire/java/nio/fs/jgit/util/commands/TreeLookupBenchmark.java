@@ -0,0 +1,182 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheBuilder;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.uberfire.java.nio.fs.jgit.util.Git;
+import org.uberfire.java.nio.fs.jgit.util.TreeLookupCache;
+import org.uberfire.java.nio.fs.jgit.util.model.PathInfo;
+
+import static org.eclipse.jgit.lib.FileMode.REGULAR_FILE;
+
+/**
+ * Compares {@link GetPathInfo} and {@link ListPathContent} lookups with and without a {@link TreeLookupCache}, over a
+ * deep directory layout and a working set of paths larger than the cache or not.
+ * <p>
+ * Not executed as part of the build, run it through {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TreeLookupBenchmark {
+
+    private static final int FILES = 10000;
+    private static final int FAN_OUT = 4;
+
+    @Param({"4", "8"})
+    public int depth;
+
+    @Param({"1000", "20000"})
+    public int cacheSize;
+
+    private File repoDir;
+    private Git git;
+    private TreeLookupCache cache;
+    private int next = 0;
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(TreeLookupBenchmark.class.getSimpleName())
+                           .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        repoDir = Files.createTempDirectory("tree-lookup-benchmark").toFile();
+        git = Git.createRepository(new File(repoDir,
+                                            "bench.git"));
+
+        final DirCache dirCache = DirCache.newInCore();
+        final DirCacheBuilder builder = dirCache.builder();
+        try (final ObjectInserter inserter = git.getRepository().newObjectInserter()) {
+            for (int i = 0; i < FILES; i++) {
+                final DirCacheEntry entry = new DirCacheEntry(pathOf(i));
+                entry.setFileMode(REGULAR_FILE);
+                entry.setObjectId(inserter.insert(Constants.OBJ_BLOB,
+                                                  Constants.encode("content " + i)));
+                builder.add(entry);
+            }
+            builder.finish();
+
+            final PersonIdent author = new PersonIdent("bench",
+                                                       "bench@example.com");
+            final CommitBuilder commit = new CommitBuilder();
+            commit.setTreeId(dirCache.writeTree(inserter));
+            commit.setAuthor(author);
+            commit.setCommitter(author);
+            commit.setMessage("benchmark content");
+            final ObjectId commitId = inserter.insert(commit);
+            inserter.flush();
+
+            final RefUpdate update = git.getRepository().updateRef(Constants.R_HEADS + "master");
+            update.setNewObjectId(commitId);
+            update.forceUpdate();
+        }
+        cache = new TreeLookupCache(cacheSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        git.getRepository().close();
+        FileUtils.delete(repoDir,
+                         FileUtils.RECURSIVE | FileUtils.RETRY);
+    }
+
+    @Benchmark
+    public PathInfo pathInfoUncached() throws IOException {
+        return new GetPathInfo(git,
+                               "master",
+                               nextPath()).execute();
+    }
+
+    @Benchmark
+    public PathInfo pathInfoCached() throws IOException {
+        return new GetPathInfo(git,
+                               "master",
+                               nextPath(),
+                               cache).execute();
+    }
+
+    @Benchmark
+    public List<PathInfo> listingUncached() throws IOException {
+        return new ListPathContent(git,
+                                   "master",
+                                   parentOf(nextPath())).execute();
+    }
+
+    @Benchmark
+    public List<PathInfo> listingCached() throws IOException {
+        return new ListPathContent(git,
+                                   "master",
+                                   parentOf(nextPath()),
+                                   cache).execute();
+    }
+
+    private String nextPath() {
+        next = (next + 7919) % FILES;
+        return pathOf(next);
+    }
+
+    private static String parentOf(final String path) {
+        return path.substring(0,
+                              path.lastIndexOf('/'));
+    }
+
+    private String pathOf(final int i) {
+        final StringBuilder path = new StringBuilder();
+        int remaining = i;
+        for (int level = 0; level < depth; level++) {
+            path.append("dir").append(remaining % FAN_OUT).append('/');
+            remaining /= FAN_OUT;
+        }
+        return path.append("asset").append(i).append(".txt").toString();
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.base;
+
+/**
+ * Implemented by output streams that persist their content only on close (e.g. as a single commit), so a caller that
+ * fails half way through writing can discard the content instead of persisting a truncated file.
+ */
+public interface Abortable {
+
+    /**
+     * Discards everything written so far and releases the underlying resources. Closing the stream afterwards is a
+     * no-op.
+     */
+    void abort();
+}
@@ -654,6 +654,10 @@ public abstract class AbstractPath<FS extends FileSystem>
                              Modifier... modifiers)
             throws UnsupportedOperationException, IllegalArgumentException,
             ClosedWatchServiceException, IOException, SecurityException {
+        if (watcher instanceof PathWatchService) {
+            return ((PathWatchService) watcher).register(this,
+                                                         events);
+        }
         return watcher.poll();
     }
 
@@ -662,6 +666,10 @@ public abstract class AbstractPath<FS extends FileSystem>
                              Kind<?>... events)
             throws UnsupportedOperationException, IllegalArgumentException,
             ClosedWatchServiceException, IOException, SecurityException {
+        if (watcher instanceof PathWatchService) {
+            return ((PathWatchService) watcher).register(this,
+                                                         events);
+        }
         return watcher.poll();
     }
 
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.base;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.uberfire.java.nio.IOException;
+import org.uberfire.java.nio.file.CopyOption;
+import org.uberfire.java.nio.file.DeleteOption;
+import org.uberfire.java.nio.file.DirectoryNotEmptyException;
+import org.uberfire.java.nio.file.FileAlreadyExistsException;
+import org.uberfire.java.nio.file.NoSuchFileException;
+import org.uberfire.java.nio.file.Path;
+
+/**
+ * Implemented by a {@link org.uberfire.java.nio.file.spi.FileSystemProvider} that applies a change to several paths
+ * as a single operation, i.e. a single commit on versioned file systems. All paths of one call must belong to the same
+ * file system and, when the file system has branches, to the same branch. Nothing is changed if any path fails
+ * validation.
+ */
+public interface BulkFileOperations {
+
+    void copyAll(final Map<Path, Path> sourceToTarget,
+                 final CopyOption... options)
+            throws UnsupportedOperationException, FileAlreadyExistsException, NoSuchFileException,
+            IOException, SecurityException;
+
+    void moveAll(final Map<Path, Path> sourceToTarget,
+                 final CopyOption... options)
+            throws UnsupportedOperationException, FileAlreadyExistsException, NoSuchFileException,
+            IOException, SecurityException;
+
+    void deleteAll(final Collection<Path> paths,
+                   final DeleteOption... options)
+            throws NoSuchFileException, DirectoryNotEmptyException, IOException, SecurityException;
+}
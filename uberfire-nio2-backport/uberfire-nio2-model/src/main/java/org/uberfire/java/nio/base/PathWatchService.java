@@ -0,0 +1,39 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.base;
+
+import org.uberfire.java.nio.IOException;
+import org.uberfire.java.nio.file.ClosedWatchServiceException;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.WatchEvent;
+import org.uberfire.java.nio.file.WatchKey;
+import org.uberfire.java.nio.file.WatchService;
+
+/**
+ * Implemented by a {@link WatchService} that only watches the paths registered on it through
+ * {@link Path#register(WatchService, WatchEvent.Kind[])}.
+ */
+public interface PathWatchService extends WatchService {
+
+    /**
+     * @return the key the events of the given path are published with.
+     * @throws IOException if the path, or any directory below it, couldn't be watched.
+     */
+    WatchKey register(final Path path,
+                      final WatchEvent.Kind<?>... events)
+            throws ClosedWatchServiceException, IOException;
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015 Red Hat, Inc. and/or its affiliates.
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -14,11 +14,13 @@
  * limitations under the License.
  */
 
-package org.uberfire.backend.server.io.watch;
+package org.uberfire.java.nio.base.dotfiles;
 
-public interface AsyncWatchService {
-
-    void execute(final IOWatchServiceExecutor wsExecutor);
+/**
+ * Marks a {@link org.uberfire.java.nio.file.spi.FileSystemProvider} that, given a {@link DotFileOption}, writes, copies,
+ * moves and deletes the dot file of a path in the same operation as the path itself, and whose
+ * {@link org.uberfire.java.nio.file.attribute.BasicFileAttributes#fileKey()} of a file identifies its content.
+ */
+public interface DotFileAware {
 
-    String getDescription();
 }
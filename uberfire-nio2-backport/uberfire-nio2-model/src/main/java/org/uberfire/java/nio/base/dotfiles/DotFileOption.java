@@ -17,12 +17,14 @@
 package org.uberfire.java.nio.base.dotfiles;
 
 import org.uberfire.java.nio.file.CopyOption;
+import org.uberfire.java.nio.file.DeleteOption;
 import org.uberfire.java.nio.file.OpenOption;
 import org.uberfire.java.nio.file.Option;
 
 public class DotFileOption implements Option,
                                       OpenOption,
-                                      CopyOption {
+                                      CopyOption,
+                                      DeleteOption {
 
     @Override
     public boolean equals(final Object o) {
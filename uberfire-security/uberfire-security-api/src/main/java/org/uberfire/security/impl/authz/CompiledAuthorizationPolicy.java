@@ -0,0 +1,192 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.security.impl.authz;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.errai.security.shared.api.Group;
+import org.jboss.errai.security.shared.api.Role;
+import org.jboss.errai.security.shared.api.identity.User;
+import org.uberfire.security.authz.AuthorizationPolicy;
+import org.uberfire.security.authz.PermissionCollection;
+
+/**
+ * The permissions of an {@link AuthorizationPolicy} compiled into {@link IndexedPermissionCollection}s: the default
+ * ones, one per role and group, and one per distinct set of user roles and groups merged by priority. Built by the
+ * {@link DefaultPermissionManager} every time its policy is set.
+ */
+class CompiledAuthorizationPolicy {
+
+    static final int MAX_MERGED_ENTRIES = 1000;
+
+    private final AuthorizationPolicy policy;
+    private final IndexedPermissionCollection defaultPermissions;
+    private final Map<Role, Entry> roleEntries = new HashMap<>();
+    private final Map<Group, Entry> groupEntries = new HashMap<>();
+    private final Map<String, IndexedPermissionCollection> mergedPermissions = new LinkedHashMap<String, IndexedPermissionCollection>(16,
+                                                                                                                                 0.75f,
+                                                                                                                                 true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, IndexedPermissionCollection> eldest) {
+            return size() > MAX_MERGED_ENTRIES;
+        }
+    };
+
+    CompiledAuthorizationPolicy(final AuthorizationPolicy policy) {
+        this.policy = policy;
+        this.defaultPermissions = new IndexedPermissionCollection(policy.getPermissions());
+        for (final Role role : policy.getRoles()) {
+            roleEntries.put(role,
+                            new Entry(policy.getPermissions(role),
+                                      policy.getPriority(role)));
+        }
+        for (final Group group : policy.getGroups()) {
+            groupEntries.put(group,
+                             new Entry(policy.getPermissions(group),
+                                       policy.getPriority(group)));
+        }
+    }
+
+    IndexedPermissionCollection getPermissions() {
+        return defaultPermissions;
+    }
+
+    IndexedPermissionCollection getPermissions(final Role role) {
+        return entry(role).permissions;
+    }
+
+    IndexedPermissionCollection getPermissions(final Group group) {
+        return entry(group).permissions;
+    }
+
+    /**
+     * @return the permissions of every role and group of the user, roles first.
+     */
+    List<IndexedPermissionCollection> getMembershipPermissions(final User user) {
+        final List<IndexedPermissionCollection> result = new ArrayList<>();
+        if (user.getRoles() != null) {
+            for (final Role role : user.getRoles()) {
+                result.add(getPermissions(role));
+            }
+        }
+        if (user.getGroups() != null) {
+            for (final Group group : user.getGroups()) {
+                result.add(getPermissions(group));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Merges the default permissions with the ones of the user's roles and groups, where the permissions of the
+     * highest priority entry win. Merged collections are shared by the users holding the same roles and groups.
+     */
+    synchronized IndexedPermissionCollection getPriorityPermissions(final User user) {
+        final String key = membershipKey(user);
+        IndexedPermissionCollection result = mergedPermissions.get(key);
+        if (result == null) {
+            result = new IndexedPermissionCollection(mergeByPriority(user));
+            mergedPermissions.put(key,
+                                  result);
+        }
+        return result;
+    }
+
+    private PermissionCollection mergeByPriority(final User user) {
+        // The default permissions have the lowest priority
+        PermissionCollection result = defaultPermissions;
+        int lastPriority = Integer.MIN_VALUE;
+
+        // Overwrite them with those defined for the user's roles & groups
+        if (user.getRoles() != null) {
+            for (final Role role : user.getRoles()) {
+                final Entry entry = entry(role);
+                result = result.merge(entry.permissions,
+                                      Integer.compare(entry.priority,
+                                                      lastPriority));
+                lastPriority = Math.max(lastPriority,
+                                        entry.priority);
+            }
+        }
+        if (user.getGroups() != null) {
+            for (final Group group : user.getGroups()) {
+                final Entry entry = entry(group);
+                result = result.merge(entry.permissions,
+                                      Integer.compare(entry.priority,
+                                                      lastPriority));
+                lastPriority = Math.max(lastPriority,
+                                        entry.priority);
+            }
+        }
+        return result;
+    }
+
+    private synchronized Entry entry(final Role role) {
+        Entry entry = roleEntries.get(role);
+        if (entry == null) {
+            // Not part of the policy, which falls back to (and registers) a copy of the default entry
+            entry = new Entry(policy.getPermissions(role),
+                              policy.getPriority(role));
+            roleEntries.put(role,
+                            entry);
+        }
+        return entry;
+    }
+
+    private synchronized Entry entry(final Group group) {
+        Entry entry = groupEntries.get(group);
+        if (entry == null) {
+            entry = new Entry(policy.getPermissions(group),
+                              policy.getPriority(group));
+            groupEntries.put(group,
+                             entry);
+        }
+        return entry;
+    }
+
+    private static String membershipKey(final User user) {
+        // merging is order sensitive for entries of the same priority, so keep the user's order
+        final StringBuilder key = new StringBuilder();
+        if (user.getRoles() != null) {
+            for (final Role role : user.getRoles()) {
+                key.append("r:").append(role.getName()).append('\n');
+            }
+        }
+        if (user.getGroups() != null) {
+            for (final Group group : user.getGroups()) {
+                key.append("g:").append(group.getName()).append('\n');
+            }
+        }
+        return key.toString();
+    }
+
+    private static class Entry {
+
+        private final IndexedPermissionCollection permissions;
+        private final int priority;
+
+        Entry(final PermissionCollection permissions,
+              final int priority) {
+            this.permissions = new IndexedPermissionCollection(permissions);
+            this.priority = priority;
+        }
+    }
+}
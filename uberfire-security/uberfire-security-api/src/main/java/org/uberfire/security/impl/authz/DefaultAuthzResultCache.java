@@ -15,53 +15,365 @@
  */
 package org.uberfire.security.impl.authz;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
+import org.jboss.errai.security.shared.api.Group;
+import org.jboss.errai.security.shared.api.Role;
 import org.jboss.errai.security.shared.api.identity.User;
 import org.uberfire.security.authz.AuthorizationResult;
 import org.uberfire.security.authz.Permission;
 
+/**
+ * Bounded cache of the results computed by {@link DefaultPermissionManager}, keyed by user and permission.
+ * <p>
+ * Entries are spread over segments, each guarded by its own lock and dropping its least recently used entry once
+ * full, and expire after a time to live. A result is only served while the user still holds the roles and groups it
+ * was computed for; it can also be invalidated per user, or per role/group, without clearing the whole cache. Only classes available on the client
+ * side are used, as this cache is shared with it.
+ */
 public class DefaultAuthzResultCache {
 
-    final Map<Permission, Map<String, AuthorizationResult>> internal = new HashMap<>();
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    public static final long DEFAULT_TIME_TO_LIVE = 10 * 60 * 1000;
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final Segment[] segments;
+    private final long timeToLive;
+
+    public DefaultAuthzResultCache() {
+        this(DEFAULT_MAX_SIZE,
+             DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * @param maxSize maximum number of cached results.
+     * @param timeToLive milliseconds a result is kept, zero or less to keep it until evicted or invalidated.
+     */
+    public DefaultAuthzResultCache(final int maxSize,
+                                   final long timeToLive) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        final int segmentCount = Math.max(1,
+                                          Math.min(MAX_SEGMENTS,
+                                                   maxSize / MIN_SEGMENT_SIZE));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0));
+        }
+        this.timeToLive = timeToLive;
+    }
 
     public AuthorizationResult get(final User user,
                                    final Permission permission) {
-        Map<String, AuthorizationResult> result = internal.get(permission);
-        if (result == null) {
-            return null;
-        }
-        AuthorizationResult decision = result.get(user.getIdentifier());
-        return decision == null ? null : decision;
+        final Key key = new Key(user.getIdentifier(),
+                                permission);
+        return segmentFor(key).get(key,
+                                   user,
+                                   now());
     }
 
     public void put(final User user,
                     final Permission permission,
                     final AuthorizationResult authzResult) {
-        if (!internal.containsKey(permission)) {
-            internal.put(permission,
-                         new HashMap<>());
+        final Key key = new Key(user.getIdentifier(),
+                                permission);
+        segmentFor(key).put(key,
+                            new Entry(authzResult,
+                                      roleNames(user),
+                                      groupNames(user),
+                                      timeToLive > 0 ? now() + timeToLive : Long.MAX_VALUE));
+    }
+
+    /**
+     * Drops every result cached for the given user.
+     */
+    public void invalidate(final User user) {
+        final String userId = user.getIdentifier();
+        for (final Segment segment : segments) {
+            segment.removeIf(e -> Objects.equals(userId,
+                                                 e.getKey().userId));
         }
-        final Map<String, AuthorizationResult> result = internal.get(permission);
-        AuthorizationResult knowValue = result.get(user.getIdentifier());
-        if (!(result.containsKey(user.getIdentifier()) && authzResult.equals(knowValue))) {
-            result.put(user.getIdentifier(),
-                       authzResult);
+    }
+
+    /**
+     * Drops every result cached for users holding the given role.
+     */
+    public void invalidateRole(final String roleName) {
+        for (final Segment segment : segments) {
+            segment.removeIf(e -> e.getValue().roles.contains(roleName));
+        }
+    }
+
+    /**
+     * Drops every result cached for users belonging to the given group.
+     */
+    public void invalidateGroup(final String groupName) {
+        for (final Segment segment : segments) {
+            segment.removeIf(e -> e.getValue().groups.contains(groupName));
         }
     }
 
-    public int size(User user) {
+    public int size(final User user) {
+        final String userId = user.getIdentifier();
         int count = 0;
-        for (Map<String, AuthorizationResult> userCache : internal.values()) {
-            if (userCache.containsKey(user.getIdentifier())) {
-                count++;
-            }
+        for (final Segment segment : segments) {
+            count += segment.count(userId);
+        }
+        return count;
+    }
+
+    public int size() {
+        int count = 0;
+        for (final Segment segment : segments) {
+            count += segment.size();
         }
         return count;
     }
 
     public void clear() {
-        internal.clear();
+        for (final Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public long getHits() {
+        long hits = 0;
+        for (final Segment segment : segments) {
+            hits += segment.hits;
+        }
+        return hits;
+    }
+
+    public long getMisses() {
+        long misses = 0;
+        for (final Segment segment : segments) {
+            misses += segment.misses;
+        }
+        return misses;
+    }
+
+    /**
+     * @return hits over lookups, 0 before the first lookup.
+     */
+    public double getHitRatio() {
+        final long hits = getHits();
+        final long lookups = hits + getMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * @return results dropped to make room for new ones.
+     */
+    public long getEvictions() {
+        long evictions = 0;
+        for (final Segment segment : segments) {
+            evictions += segment.evictions;
+        }
+        return evictions;
+    }
+
+    /**
+     * @return results dropped because their time to live elapsed.
+     */
+    public long getExpirations() {
+        long expirations = 0;
+        for (final Segment segment : segments) {
+            expirations += segment.expirations;
+        }
+        return expirations;
+    }
+
+    long now() {
+        return System.currentTimeMillis();
+    }
+
+    private Segment segmentFor(final Key key) {
+        return segments[(key.hash & 0x7fffffff) % segments.length];
+    }
+
+    private static Set<String> roleNames(final User user) {
+        final Set<String> names = new HashSet<>();
+        if (user.getRoles() != null) {
+            for (final Role role : user.getRoles()) {
+                names.add(role.getName());
+            }
+        }
+        return names;
+    }
+
+    private static Set<String> groupNames(final User user) {
+        final Set<String> names = new HashSet<>();
+        if (user.getGroups() != null) {
+            for (final Group group : user.getGroups()) {
+                names.add(group.getName());
+            }
+        }
+        return names;
+    }
+
+    private interface EntryFilter {
+
+        boolean matches(Map.Entry<Key, Entry> entry);
+    }
+
+    private static class Segment {
+
+        private final Map<Key, Entry> entries;
+
+        long hits;
+        long misses;
+        long evictions;
+        long expirations;
+
+        Segment(final int maxSize) {
+            this.entries = new LinkedHashMap<Key, Entry>(16,
+                                                         0.75f,
+                                                         true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+                    if (size() > maxSize) {
+                        evictions++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized AuthorizationResult get(final Key key,
+                                             final User user,
+                                             final long now) {
+            final Entry entry = entries.get(key);
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            if (entry.expiresAt <= now) {
+                entries.remove(key);
+                expirations++;
+                misses++;
+                return null;
+            }
+            if (!entry.sameMemberships(user)) {
+                entries.remove(key);
+                misses++;
+                return null;
+            }
+            hits++;
+            return entry.result;
+        }
+
+        synchronized void put(final Key key,
+                              final Entry entry) {
+            entries.put(key,
+                        entry);
+        }
+
+        synchronized int count(final String userId) {
+            int count = 0;
+            for (final Key key : entries.keySet()) {
+                if (Objects.equals(userId,
+                                   key.userId)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        synchronized void removeIf(final EntryFilter filter) {
+            final Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                if (filter.matches(iterator.next())) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+    }
+
+    private static class Key {
+
+        private final String userId;
+        private final Permission permission;
+        private final int hash;
+
+        Key(final String userId,
+            final Permission permission) {
+            this.userId = userId;
+            this.permission = permission;
+            // permissions compare by name and result, but don't necessarily hash by them
+            this.hash = 31 * (31 * Objects.hashCode(userId) + Objects.hashCode(permission.getName())) + Objects.hashCode(permission.getResult());
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return hash == other.hash && Objects.equals(userId,
+                                                        other.userId) && permission.equals(other.permission);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class Entry {
+
+        private final AuthorizationResult result;
+        private final Set<String> roles;
+        private final Set<String> groups;
+        private final long expiresAt;
+
+        Entry(final AuthorizationResult result,
+              final Set<String> roles,
+              final Set<String> groups,
+              final long expiresAt) {
+            this.result = result;
+            this.roles = roles;
+            this.groups = groups;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean sameMemberships(final User user) {
+            final Set<Role> userRoles = user.getRoles() != null ? user.getRoles() : Collections.emptySet();
+            final Set<Group> userGroups = user.getGroups() != null ? user.getGroups() : Collections.emptySet();
+            if (userRoles.size() != roles.size() || userGroups.size() != groups.size()) {
+                return false;
+            }
+            for (final Role role : userRoles) {
+                if (!roles.contains(role.getName())) {
+                    return false;
+                }
+            }
+            for (final Group group : userGroups) {
+                if (!groups.contains(group.getName())) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 }
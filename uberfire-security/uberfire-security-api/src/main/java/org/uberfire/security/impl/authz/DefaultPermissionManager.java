@@ -19,11 +19,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
-import org.jboss.errai.security.shared.api.Group;
-import org.jboss.errai.security.shared.api.Role;
 import org.jboss.errai.security.shared.api.identity.User;
 import org.uberfire.security.Resource;
 import org.uberfire.security.ResourceAction;
@@ -47,6 +47,7 @@ public class DefaultPermissionManager implements PermissionManager {
 
     private PermissionTypeRegistry permissionTypeRegistry;
     private AuthorizationPolicy authorizationPolicy = new DefaultAuthorizationPolicy();
+    private volatile CompiledAuthorizationPolicy compiledPolicy = new CompiledAuthorizationPolicy(authorizationPolicy);
     private DefaultAuthzResultCache cache;
     private VotingStrategy defaultVotingStrategy = VotingStrategy.PRIORITY;
     private Map<VotingStrategy, VotingAlgorithm> votingAlgorithmMap = new HashMap<>();
@@ -80,9 +81,35 @@ public class DefaultPermissionManager implements PermissionManager {
 
     public void setAuthorizationPolicy(AuthorizationPolicy authorizationPolicy) {
         this.authorizationPolicy = authorizationPolicy != null ? authorizationPolicy : new DefaultAuthorizationPolicy();
+        this.compiledPolicy = new CompiledAuthorizationPolicy(this.authorizationPolicy);
         this.cache.clear();
     }
 
+    public DefaultAuthzResultCache getAuthzResultCache() {
+        return cache;
+    }
+
+    /**
+     * Drops the results cached for the given user, e.g. after its roles or groups were changed.
+     */
+    public void invalidateCache(User user) {
+        cache.invalidate(user);
+    }
+
+    /**
+     * Drops the results cached for the members of the given role, e.g. after the role's permissions were changed.
+     */
+    public void invalidateCacheForRole(String roleName) {
+        cache.invalidateRole(roleName);
+    }
+
+    /**
+     * Drops the results cached for the members of the given group, e.g. after the group's permissions were changed.
+     */
+    public void invalidateCacheForGroup(String groupName) {
+        cache.invalidateGroup(groupName);
+    }
+
     @Override
     public AuthorizationPolicyBuilder newAuthorizationPolicy() {
         return new AuthorizationPolicyBuilder(permissionTypeRegistry);
@@ -96,6 +123,8 @@ public class DefaultPermissionManager implements PermissionManager {
     @Override
     public void setDefaultVotingStrategy(VotingStrategy votingStrategy) {
         defaultVotingStrategy = votingStrategy;
+        // Only the results of the default strategy are cached
+        cache.clear();
     }
 
     public VotingAlgorithm getVotingAlgorithm(VotingStrategy votingStrategy) {
@@ -161,12 +190,17 @@ public class DefaultPermissionManager implements PermissionManager {
         if (authorizationPolicy == null || permission == null) {
             return ACCESS_ABSTAIN;
         }
+        if (votingStrategy != null && !votingStrategy.equals(defaultVotingStrategy)) {
+            return _checkPermission(permission,
+                                    user,
+                                    votingStrategy);
+        }
         AuthorizationResult result = cache.get(user,
                                                permission);
         if (result == null) {
             result = _checkPermission(permission,
                                       user,
-                                      votingStrategy == null ? defaultVotingStrategy : votingStrategy);
+                                      defaultVotingStrategy);
             cache.put(user,
                       permission,
                       result);
@@ -194,21 +228,9 @@ public class DefaultPermissionManager implements PermissionManager {
     protected List<AuthorizationResult> _checkRoleAndGroupPermissions(Permission permission,
                                                                       User user) {
         List<AuthorizationResult> result = new ArrayList<>();
-        if (user.getRoles() != null) {
-            for (Role role : user.getRoles()) {
-                PermissionCollection collection = authorizationPolicy.getPermissions(role);
-                AuthorizationResult _partialResult = _checkPermission(permission,
-                                                                      collection);
-                result.add(_partialResult);
-            }
-        }
-        if (user.getGroups() != null) {
-            for (Group group : user.getGroups()) {
-                PermissionCollection collection = authorizationPolicy.getPermissions(group);
-                AuthorizationResult _partialResult = _checkPermission(permission,
-                                                                      collection);
-                result.add(_partialResult);
-            }
+        for (PermissionCollection collection : compiledPolicy.getMembershipPermissions(user)) {
+            result.add(_checkPermission(permission,
+                                        collection));
         }
         return result;
     }
@@ -258,21 +280,18 @@ public class DefaultPermissionManager implements PermissionManager {
     }
 
     private PermissionCollection resolvePermissionsAffirmative(User user) {
-        // TODO
-        PermissionCollection result = new DefaultPermissionCollection();
-        return result;
+        return resolvePermissionsByVoting(user,
+                                          VotingStrategy.AFFIRMATIVE);
     }
 
     private PermissionCollection resolvePermissionsConsensus(User user) {
-        // TODO
-        PermissionCollection result = new DefaultPermissionCollection();
-        return result;
+        return resolvePermissionsByVoting(user,
+                                          VotingStrategy.CONSENSUS);
     }
 
     private PermissionCollection resolvePermissionsUnanimous(User user) {
-        // TODO
-        PermissionCollection result = new DefaultPermissionCollection();
-        return result;
+        return resolvePermissionsByVoting(user,
+                                          VotingStrategy.UNANIMOUS);
     }
 
     /**
@@ -286,74 +305,44 @@ public class DefaultPermissionManager implements PermissionManager {
         if (authorizationPolicy == null) {
             return null;
         }
-        // Get the default permissions as lowest priority
-        PermissionCollection result = authorizationPolicy.getPermissions();
-        int[] priority = new int[]{Integer.MIN_VALUE};
-
-        // Overwrite the default permissions with those defined for the user's roles & groups
-        result = mergeRolePermissions(user,
-                                      result,
-                                      priority);
-        result = mergeGroupPermissions(user,
-                                       result,
-                                       priority);
-        return result;
+        return compiledPolicy.getPriorityPermissions(user);
     }
 
     /**
-     * Merge the target collection with the permissions assigned to the given user's roles
+     * Creates a single permission collection holding every permission defined for any of the user's roles/groups,
+     * each one set to the outcome of the given strategy's vote among those roles/groups (the same vote
+     * {@link #checkPermission(Permission, User, VotingStrategy)} does).
+     * @param user The target user
+     * @param votingStrategy The strategy used to vote
+     * @return An unified permission collection
      */
-    private PermissionCollection mergeRolePermissions(User user,
-                                                      PermissionCollection target,
-                                                      int[] lastPriority) {
-        PermissionCollection result = target;
-        if (user.getRoles() != null) {
-            for (Role role : user.getRoles()) {
-                PermissionCollection collection = authorizationPolicy.getPermissions(role);
-                int priority = authorizationPolicy.getPriority(role);
-                int comparator = resolve(priority,
-                                         lastPriority[0]);
-                result = result.merge(collection,
-                                      comparator);
-                if (priority > lastPriority[0]) {
-                    lastPriority[0] = priority;
+    private PermissionCollection resolvePermissionsByVoting(User user,
+                                                            VotingStrategy votingStrategy) {
+        List<IndexedPermissionCollection> collections = compiledPolicy.getMembershipPermissions(user);
+        Set<String> names = new TreeSet<>();
+        for (PermissionCollection collection : collections) {
+            for (Permission p : collection.collection()) {
+                if (p.getName() != null) {
+                    names.add(p.getName());
                 }
             }
         }
-        return result;
-    }
-
-    /**
-     * Merge the target collection with the permissions assigned to the given user's groups
-     */
-    private PermissionCollection mergeGroupPermissions(User user,
-                                                       PermissionCollection target,
-                                                       int[] lastPriority) {
-        PermissionCollection result = target;
-        if (user.getGroups() != null) {
-            for (Group group : user.getGroups()) {
-                PermissionCollection collection = authorizationPolicy.getPermissions(group);
-                int priority = authorizationPolicy.getPriority(group);
-                int comparator = resolve(priority,
-                                         lastPriority[0]);
-                result = result.merge(collection,
-                                      comparator);
-                if (priority > lastPriority[0]) {
-                    lastPriority[0] = priority;
-                }
+        VotingAlgorithm votingAlgorithm = votingAlgorithmMap.get(votingStrategy);
+        PermissionCollection result = new DefaultPermissionCollection();
+        for (String name : names) {
+            Permission permission = createPermission(name,
+                                                     true);
+            List<AuthorizationResult> votes = new ArrayList<>(collections.size());
+            for (PermissionCollection collection : collections) {
+                votes.add(_checkPermission(permission,
+                                           collection));
             }
+            AuthorizationResult vote = votingAlgorithm.vote(votes);
+            if (!ACCESS_GRANTED.equals(vote)) {
+                permission.setResult(vote);
+            }
+            result.add(permission);
         }
-        return result;
-    }
-
-    private int resolve(int p1,
-                        int p2) {
-        if (p1 == p2) {
-            return 0;
-        }
-        if (p1 > p2) {
-            return 1;
-        }
-        return -1;
+        return new IndexedPermissionCollection(result);
     }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.security.impl.authz;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.uberfire.security.authz.Permission;
+import org.uberfire.security.authz.PermissionCollection;
+
+/**
+ * An immutable snapshot of a {@link PermissionCollection} indexed by permission name.
+ * <p>
+ * A {@link DotNamedPermission} implies, by name, just itself and the permissions one dot segment below it, so the
+ * only candidates for {@link #implies(Permission)} are the permissions named after the checked one or after its
+ * parent segment, both looked up in the index instead of scanning the collection. Permissions of any other kind are
+ * still checked one by one.
+ */
+public class IndexedPermissionCollection implements PermissionCollection {
+
+    private final List<Permission> permissions;
+    private final Map<String, Permission> byName;
+    private final List<Permission> unindexed;
+
+    public IndexedPermissionCollection(final PermissionCollection collection) {
+        this.permissions = new ArrayList<>(collection != null ? collection.collection() : Collections.emptyList());
+        this.byName = new HashMap<>(permissions.size() * 2);
+        this.unindexed = new ArrayList<>();
+        for (final Permission p : permissions) {
+            if (!byName.containsKey(p.getName())) {
+                byName.put(p.getName(),
+                           p);
+            }
+            if (p.getClass() != DotNamedPermission.class) {
+                unindexed.add(p);
+            }
+        }
+    }
+
+    @Override
+    public PermissionCollection add(final Permission... permissions) {
+        throw new UnsupportedOperationException("Indexed permission collections are immutable");
+    }
+
+    @Override
+    public PermissionCollection remove(final Permission... permissions) {
+        throw new UnsupportedOperationException("Indexed permission collections are immutable");
+    }
+
+    @Override
+    public Permission get(final String name) {
+        return byName.get(name);
+    }
+
+    @Override
+    public Collection<Permission> collection() {
+        return Collections.unmodifiableList(permissions);
+    }
+
+    @Override
+    public boolean implies(final Permission permission) {
+        final Permission same = indexed(permission.getName());
+        if (same != null && same.implies(permission)) {
+            return true;
+        }
+        final Permission parent = indexed(parentName(permission.getName()));
+        if (parent != null && parent.implies(permission)) {
+            return true;
+        }
+        for (final Permission p : unindexed) {
+            if (p.implies(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean impliesName(final Permission permission) {
+        final Permission same = indexed(permission.getName());
+        if (same != null && same.impliesName(permission)) {
+            return true;
+        }
+        final Permission parent = indexed(parentName(permission.getName()));
+        if (parent != null && parent.impliesName(permission)) {
+            return true;
+        }
+        for (final Permission p : unindexed) {
+            if (p.impliesName(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public PermissionCollection merge(final PermissionCollection other,
+                                      final int priority) {
+        return clone().merge(other,
+                             priority);
+    }
+
+    /**
+     * @return a mutable copy of this collection.
+     */
+    @Override
+    public DefaultPermissionCollection clone() {
+        final DefaultPermissionCollection clone = new DefaultPermissionCollection();
+        for (final Permission p : permissions) {
+            clone.add(p.clone());
+        }
+        return clone;
+    }
+
+    private Permission indexed(final String name) {
+        final Permission p = byName.get(name);
+        return p != null && p.getClass() == DotNamedPermission.class ? p : null;
+    }
+
+    private static String parentName(final String name) {
+        if (name == null) {
+            return null;
+        }
+        final int lastDot = name.lastIndexOf('.');
+        return lastDot < 0 ? null : name.substring(0,
+                                                   lastDot);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder out = new StringBuilder();
+        for (final Permission p : permissions) {
+            out.append(p).append("\n");
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.security.impl.authz;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jboss.errai.security.shared.api.Group;
+import org.jboss.errai.security.shared.api.GroupImpl;
+import org.jboss.errai.security.shared.api.Role;
+import org.jboss.errai.security.shared.api.RoleImpl;
+import org.jboss.errai.security.shared.api.identity.User;
+import org.junit.Test;
+import org.uberfire.security.authz.Permission;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static org.uberfire.security.authz.AuthorizationResult.*;
+
+public class AuthzResultCacheTest {
+
+    Permission view1 = new DotNamedPermission("resource.read.1",
+                                              true);
+    Permission view2 = new DotNamedPermission("resource.read.2",
+                                              true);
+    Permission view3 = new DotNamedPermission("resource.read.3",
+                                              true);
+
+    long now = 0;
+
+    protected User createUserMock(String id,
+                                  String[] roles,
+                                  String... groups) {
+        User user = mock(User.class);
+        Set<Role> roleSet = Stream.of(roles).map(RoleImpl::new).collect(Collectors.toSet());
+        Set<Group> groupSet = Stream.of(groups).map(GroupImpl::new).collect(Collectors.toSet());
+        when(user.getIdentifier()).thenReturn(id);
+        when(user.getRoles()).thenReturn(roleSet);
+        when(user.getGroups()).thenReturn(groupSet);
+        return user;
+    }
+
+    protected DefaultAuthzResultCache createCache(int maxSize,
+                                                  long timeToLive) {
+        return new DefaultAuthzResultCache(maxSize,
+                                           timeToLive) {
+            @Override
+            long now() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void testEqualPermissionsHit() {
+        DefaultAuthzResultCache cache = createCache(10,
+                                                    0);
+        User user = createUserMock("user",
+                                   new String[]{"admin"});
+        cache.put(user,
+                  view1,
+                  ACCESS_GRANTED);
+
+        assertEquals(ACCESS_GRANTED,
+                     cache.get(user,
+                               new DotNamedPermission("resource.read.1",
+                                                      true)));
+        assertNull(cache.get(user,
+                             new DotNamedPermission("resource.read.1",
+                                                    false)));
+        assertEquals(1,
+                     cache.getHits());
+        assertEquals(1,
+                     cache.getMisses());
+        assertEquals(0.5,
+                     cache.getHitRatio(),
+                     0);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        DefaultAuthzResultCache cache = createCache(2,
+                                                    0);
+        User user = createUserMock("user",
+                                   new String[]{"admin"});
+        cache.put(user,
+                  view1,
+                  ACCESS_GRANTED);
+        cache.put(user,
+                  view2,
+                  ACCESS_GRANTED);
+        cache.get(user,
+                  view1);
+        cache.put(user,
+                  view3,
+                  ACCESS_GRANTED);
+
+        assertEquals(2,
+                     cache.size());
+        assertEquals(1,
+                     cache.getEvictions());
+        assertEquals(ACCESS_GRANTED,
+                     cache.get(user,
+                               view1));
+        assertNull(cache.get(user,
+                             view2));
+    }
+
+    @Test
+    public void testExpiration() {
+        DefaultAuthzResultCache cache = createCache(10,
+                                                    1000);
+        User user = createUserMock("user",
+                                   new String[]{"admin"});
+        cache.put(user,
+                  view1,
+                  ACCESS_GRANTED);
+
+        now = 999;
+        assertEquals(ACCESS_GRANTED,
+                     cache.get(user,
+                               view1));
+        now = 1000;
+        assertNull(cache.get(user,
+                             view1));
+        assertEquals(1,
+                     cache.getExpirations());
+        assertEquals(0,
+                     cache.size());
+    }
+
+    @Test
+    public void testMembershipChange() {
+        DefaultAuthzResultCache cache = createCache(10,
+                                                    0);
+        cache.put(createUserMock("user",
+                                 new String[]{"admin"}),
+                  view1,
+                  ACCESS_GRANTED);
+
+        assertNull(cache.get(createUserMock("user",
+                                            new String[]{"admin"},
+                                            "devs"),
+                             view1));
+        assertNull(cache.get(createUserMock("user",
+                                            new String[]{"admin"}),
+                             view1));
+    }
+
+    @Test
+    public void testInvalidation() {
+        DefaultAuthzResultCache cache = createCache(10,
+                                                    0);
+        User admin = createUserMock("admin",
+                                    new String[]{"admin"},
+                                    "devs");
+        User manager = createUserMock("manager",
+                                      new String[]{"manager"},
+                                      "devs");
+        User guest = createUserMock("guest",
+                                    new String[]{"guest"});
+        for (User user : new User[]{admin, manager, guest}) {
+            cache.put(user,
+                      view1,
+                      ACCESS_GRANTED);
+            cache.put(user,
+                      view2,
+                      ACCESS_DENIED);
+        }
+
+        cache.invalidate(guest);
+        assertEquals(0,
+                     cache.size(guest));
+        assertEquals(4,
+                     cache.size());
+
+        cache.invalidateRole("admin");
+        assertEquals(0,
+                     cache.size(admin));
+        assertEquals(2,
+                     cache.size(manager));
+
+        cache.invalidateGroup("devs");
+        assertEquals(0,
+                     cache.size());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        DefaultAuthzResultCache cache = new DefaultAuthzResultCache(1000,
+                                                                    0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                User user = createUserMock("user" + t,
+                                           new String[]{"role" + t});
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        Permission permission = new DotNamedPermission("resource.read." + (i % 500),
+                                                                       true);
+                        if (cache.get(user,
+                                      permission) == null) {
+                            cache.put(user,
+                                      permission,
+                                      ACCESS_GRANTED);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(cache.size() <= 1000);
+        assertEquals(8 * 5000,
+                     cache.getHits() + cache.getMisses());
+        assertEquals(cache.getMisses() - 1000,
+                     cache.getEvictions());
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.security.impl.authz;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.errai.security.shared.api.Group;
+import org.jboss.errai.security.shared.api.Role;
+import org.jboss.errai.security.shared.api.RoleImpl;
+import org.jboss.errai.security.shared.api.identity.User;
+import org.jboss.errai.security.shared.api.identity.UserImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.uberfire.security.authz.AuthorizationPolicy;
+import org.uberfire.security.authz.AuthorizationResult;
+import org.uberfire.security.authz.Permission;
+import org.uberfire.security.authz.PermissionCollection;
+import org.uberfire.security.authz.VotingStrategy;
+
+/**
+ * Measures permission checks that miss the result cache against policies with thousands of entries per role: the
+ * compiled policy for every voting strategy, and the former resolution, which merged the user's role collections on
+ * every check (see {@link #mergedPerCheck()}).
+ * <p>
+ * Not executed as part of the build, run it through {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PermissionCheckBenchmark {
+
+    private static final int ROLES = 10;
+    private static final int USER_ROLES = 3;
+
+    @Param({"1000", "5000"})
+    public int permissionsPerRole;
+
+    private DefaultPermissionManager permissionManager;
+    private AuthorizationPolicy policy;
+    private User user;
+    private Permission[] permissions;
+    private int next = 0;
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(PermissionCheckBenchmark.class.getSimpleName())
+                           .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(42);
+        permissionManager = new DefaultPermissionManager();
+        final AuthorizationPolicyBuilder builder = permissionManager.newAuthorizationPolicy();
+        for (int r = 0; r < ROLES; r++) {
+            builder.role("role" + r,
+                         r);
+            for (int i = 0; i < permissionsPerRole; i++) {
+                builder.permission(permissionName(r,
+                                                  i),
+                                   random.nextBoolean());
+            }
+        }
+        policy = builder.build();
+        permissionManager.setAuthorizationPolicy(policy);
+
+        final Set<Role> roles = new HashSet<>();
+        for (int r = 0; r < USER_ROLES; r++) {
+            roles.add(new RoleImpl("role" + r));
+        }
+        user = new UserImpl("user",
+                            roles,
+                            Collections.<Group>emptySet(),
+                            Collections.<String, String>emptyMap());
+
+        // exact names, names implied by a parent entry and unknown names
+        permissions = new Permission[1024];
+        for (int i = 0; i < permissions.length; i++) {
+            final String name;
+            switch (i % 3) {
+                case 0:
+                    name = permissionName(random.nextInt(USER_ROLES),
+                                          random.nextInt(permissionsPerRole));
+                    break;
+                case 1:
+                    name = permissionName(random.nextInt(USER_ROLES),
+                                          random.nextInt(permissionsPerRole)) + ".child";
+                    break;
+                default:
+                    name = "unknown.read.p" + i;
+            }
+            permissions[i] = new DotNamedPermission(name,
+                                                    true);
+        }
+    }
+
+    @Benchmark
+    public AuthorizationResult priority() {
+        return permissionManager._checkPermission(nextPermission(),
+                                                  user,
+                                                  VotingStrategy.PRIORITY);
+    }
+
+    @Benchmark
+    public AuthorizationResult affirmative() {
+        return permissionManager._checkPermission(nextPermission(),
+                                                  user,
+                                                  VotingStrategy.AFFIRMATIVE);
+    }
+
+    @Benchmark
+    public AuthorizationResult consensus() {
+        return permissionManager._checkPermission(nextPermission(),
+                                                  user,
+                                                  VotingStrategy.CONSENSUS);
+    }
+
+    @Benchmark
+    public AuthorizationResult unanimous() {
+        return permissionManager._checkPermission(nextPermission(),
+                                                  user,
+                                                  VotingStrategy.UNANIMOUS);
+    }
+
+    @Benchmark
+    public AuthorizationResult mergedPerCheck() {
+        PermissionCollection merged = policy.getPermissions();
+        int lastPriority = Integer.MIN_VALUE;
+        for (final Role role : user.getRoles()) {
+            final int priority = policy.getPriority(role);
+            merged = merged.merge(policy.getPermissions(role),
+                                  Integer.compare(priority,
+                                                  lastPriority));
+            lastPriority = Math.max(priority,
+                                    lastPriority);
+        }
+        return permissionManager._checkPermission(nextPermission(),
+                                                  merged);
+    }
+
+    private Permission nextPermission() {
+        return permissions[next++ & (permissions.length - 1)];
+    }
+
+    private static String permissionName(final int role,
+                                         final int i) {
+        return "resource" + role + ".read.p" + i;
+    }
+}
@@ -285,4 +285,53 @@ public class PermissionCollectionTest {
         assertEquals(pc.get("resource.read").getResult(),
                      AuthorizationResult.ACCESS_DENIED);
     }
+
+    @Test
+    public void testIndexedImpliesAsDefault() {
+        PermissionCollection pc = new DefaultPermissionCollection();
+        pc.add(new DotNamedPermission("resource.read",
+                                      true));
+        pc.add(new DotNamedPermission("resource.read.id1",
+                                      false));
+        pc.add(new DotNamedPermission("perspective"));
+        PermissionCollection indexed = new IndexedPermissionCollection(pc);
+
+        Permission[] probes = {p1, p2, p3, p4, p5, p6, p7, p8,
+                new DotNamedPermission("resource",
+                                       true),
+                new DotNamedPermission("resource.read.id1.sub",
+                                       false),
+                new DotNamedPermission("perspective.read"),
+                new DotNamedPermission("perspective.read",
+                                       true)};
+        for (Permission probe : probes) {
+            assertEquals(probe.toString(),
+                         pc.implies(probe),
+                         indexed.implies(probe));
+            assertEquals(probe.toString(),
+                         pc.impliesName(probe),
+                         indexed.impliesName(probe));
+            assertEquals(probe.toString(),
+                         pc.get(probe.getName()),
+                         indexed.get(probe.getName()));
+        }
+        assertEquals(pc.collection().size(),
+                     indexed.collection().size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testIndexedIsImmutable() {
+        new IndexedPermissionCollection(new DefaultPermissionCollection()).add(p1);
+    }
+
+    @Test
+    public void testIndexedMerge() {
+        PermissionCollection pc = new IndexedPermissionCollection(new DefaultPermissionCollection().add(p2));
+        PermissionCollection merged = pc.merge(new DefaultPermissionCollection().add(p8),
+                                               0);
+        assertEquals(merged.collection().size(),
+                     2);
+        assertEquals(pc.collection().size(),
+                     1);
+    }
 }
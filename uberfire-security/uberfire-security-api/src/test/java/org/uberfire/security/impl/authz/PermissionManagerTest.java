@@ -587,4 +587,64 @@ public class PermissionManagerTest {
                                                        VotingStrategy.AFFIRMATIVE),
                      ACCESS_GRANTED);
     }
+
+    @Test
+    public void testResolveVotingPermissions() {
+        permissionManager.setAuthorizationPolicy(permissionManager.newAuthorizationPolicy()
+                                                         .role("role1").permission("resource.read",
+                                                                                   true)
+                                                         .role("role2").permission("resource.read",
+                                                                                   false)
+                                                         .permission("resource.read.1",
+                                                                     true)
+                                                         .role("role3").permission("resource.read",
+                                                                                   true)
+                                                         .build());
+
+        User user = createUserMock("role1",
+                                   "role2",
+                                   "role3");
+        PermissionCollection pc = permissionManager.resolvePermissions(user,
+                                                                       VotingStrategy.AFFIRMATIVE);
+        assertEquals(pc.get("resource.read").getResult(),
+                     ACCESS_GRANTED);
+        assertTrue(pc.implies(view1));
+
+        pc = permissionManager.resolvePermissions(user,
+                                                  VotingStrategy.UNANIMOUS);
+        assertEquals(pc.get("resource.read").getResult(),
+                     ACCESS_DENIED);
+        assertEquals(pc.get("resource.read.1").getResult(),
+                     ACCESS_GRANTED);
+
+        pc = permissionManager.resolvePermissions(user,
+                                                  VotingStrategy.CONSENSUS);
+        assertEquals(pc.get("resource.read").getResult(),
+                     ACCESS_DENIED);
+        assertEquals(permissionManager.checkPermission(viewAll,
+                                                       user,
+                                                       VotingStrategy.CONSENSUS),
+                     ACCESS_DENIED);
+    }
+
+    @Test
+    public void testVotingStrategyNotCached() {
+        permissionManager.setAuthorizationPolicy(permissionManager.newAuthorizationPolicy()
+                                                         .role("role1").permission("resource.read",
+                                                                                   true)
+                                                         .role("role2").permission("resource.read",
+                                                                                   false)
+                                                         .build());
+
+        User user = createUserMock("role1",
+                                   "role2");
+        assertEquals(permissionManager.checkPermission(viewAll,
+                                                       user,
+                                                       VotingStrategy.AFFIRMATIVE),
+                     ACCESS_GRANTED);
+        assertEquals(permissionManager.checkPermission(viewAll,
+                                                       user,
+                                                       VotingStrategy.UNANIMOUS),
+                     ACCESS_DENIED);
+    }
 }
@@ -17,12 +17,18 @@
 package org.uberfire.server;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Iterator;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.fileupload.FileItem;
 import org.apache.commons.fileupload.FileItemFactory;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
 import org.apache.commons.fileupload.FileUploadException;
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
@@ -30,12 +36,31 @@ import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.uberfire.io.IOService;
+import org.uberfire.java.nio.base.Abortable;
 import org.uberfire.java.nio.file.Path;
 
 public abstract class BaseUploadServlet extends BaseFilteredServlet {
 
+    /**
+     * Init parameter limiting the size, in bytes, of an uploaded file. Unlimited when absent or negative.
+     */
+    public static final String MAX_UPLOAD_SIZE = "max-upload-size";
+
     private static final Logger logger = LoggerFactory.getLogger(BaseUploadServlet.class);
 
+    private static final int BUFFER_SIZE = 8192;
+
+    protected long maxUploadSize = -1;
+
+    @Override
+    public void init(final ServletConfig config) throws ServletException {
+        super.init(config);
+        final String _maxUploadSize = config.getInitParameter(MAX_UPLOAD_SIZE);
+        if (_maxUploadSize != null && !_maxUploadSize.trim().isEmpty()) {
+            maxUploadSize = Long.parseLong(_maxUploadSize.trim());
+        }
+    }
+
     protected FileItem getFileItem(HttpServletRequest request) throws FileUploadException {
         final Iterator iterator = getServletFileUpload().parseRequest(request).iterator();
         while (iterator.hasNext()) {
@@ -58,9 +83,43 @@ public abstract class BaseUploadServlet extends BaseFilteredServlet {
         FileItemFactory factory = new DiskFileItemFactory();
         ServletFileUpload upload = new ServletFileUpload(factory);
         upload.setHeaderEncoding("UTF-8");
+        upload.setFileSizeMax(maxUploadSize);
         return upload;
     }
 
+    /**
+     * Upload without a {@link FileItemFactory}, giving access to the parts as they arrive on the request stream.
+     */
+    protected ServletFileUpload getStreamingServletFileUpload() {
+        final ServletFileUpload upload = new ServletFileUpload();
+        upload.setHeaderEncoding("UTF-8");
+        upload.setFileSizeMax(maxUploadSize);
+        return upload;
+    }
+
+    /**
+     * Streams the first file of a multipart request straight into {@code path}, without spooling it to disk or
+     * buffering it in memory first. Oversized uploads fail while reading, before anything is written.
+     * @return false when the request holds no file.
+     */
+    protected boolean streamFile(final HttpServletRequest request,
+                                 final IOService ioService,
+                                 final Path path) throws FileUploadException, IOException {
+        final FileItemIterator iterator = getStreamingServletFileUpload().getItemIterator(request);
+        while (iterator.hasNext()) {
+            final FileItemStream item = iterator.next();
+            if (!item.isFormField()) {
+                try (final InputStream in = item.openStream()) {
+                    writeFile(ioService,
+                              path,
+                              in);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected void writeFile(final IOService ioService,
                              final Path path,
                              final FileItem uploadedItem) throws IOException {
@@ -74,6 +133,33 @@ public abstract class BaseUploadServlet extends BaseFilteredServlet {
         uploadedItem.getInputStream().close();
     }
 
+    /**
+     * Copies {@code in} into {@code path} as a single write. If reading fails half way (e.g. the size limit is
+     * exceeded or the client disconnects) the content is discarded where the file system supports it.
+     */
+    protected void writeFile(final IOService ioService,
+                             final Path path,
+                             final InputStream in) throws IOException {
+        final OutputStream out = ioService.newOutputStream(path);
+        try {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer,
+                          0,
+                          read);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (out instanceof Abortable) {
+                ((Abortable) out).abort();
+            } else {
+                IOUtils.closeQuietly(out);
+            }
+            throw e;
+        }
+        out.close();
+    }
+
     protected void logError(Throwable e) {
         logger.error("Failed to upload a file.",
                      e);
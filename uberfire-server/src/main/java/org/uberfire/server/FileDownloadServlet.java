@@ -17,6 +17,8 @@
 package org.uberfire.server;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -28,15 +30,32 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.attribute.BasicFileAttributeView;
+import org.uberfire.java.nio.file.attribute.BasicFileAttributes;
 import org.uberfire.server.util.FileServletUtil;
 
 import static java.lang.String.format;
+import static javax.servlet.http.HttpServletResponse.SC_NOT_MODIFIED;
+import static javax.servlet.http.HttpServletResponse.SC_PARTIAL_CONTENT;
+import static javax.servlet.http.HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE;
 
+/**
+ * Streams files out of an {@link IOService}.
+ * <p>
+ * Content is copied through a fixed size buffer, so the file is never held in memory as a whole. Files whose
+ * attributes are known also get an ETag (the git blob id, for git backed paths) and a Last-Modified header,
+ * conditional requests are answered with 304 and a single byte range (RFC 7233) can be requested.
+ */
 public class FileDownloadServlet
         extends BaseFilteredServlet {
 
     private static final Logger logger = LoggerFactory.getLogger(FileDownloadServlet.class);
 
+    private static final int BUFFER_SIZE = 8192;
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    static final long[] UNSATISFIABLE = new long[0];
+
     @Inject
     @Named("ioStrategy")
     private IOService ioService;
@@ -58,22 +77,254 @@ public class FileDownloadServlet
             }
 
             final Path path = ioService.get(uri);
+            final BasicFileAttributes attrs = readAttributes(path);
+            final String eTag = eTag(attrs);
+            final long lastModified = lastModified(attrs);
+            final long size = attrs == null || !attrs.isRegularFile() ? -1 : attrs.size();
 
-            byte[] bytes = ioService.readAllBytes(path);
+            if (eTag != null) {
+                response.setHeader("ETag",
+                                   eTag);
+            }
+            if (lastModified > 0) {
+                response.setDateHeader("Last-Modified",
+                                       lastModified);
+            }
+            if (notModified(request,
+                            eTag,
+                            lastModified)) {
+                response.setStatus(SC_NOT_MODIFIED);
+                return;
+            }
 
             response.setHeader("Content-Disposition",
                                format("attachment; filename=\"%s\";",
                                       path.getFileName().toString()));
 
-            response.setContentType("application/octet-stream");
+            response.setContentType(contentType(path.getFileName().toString()));
+
+            long start = 0;
+            long length = size;
+            if (size >= 0) {
+                response.setHeader("Accept-Ranges",
+                                   "bytes");
+                final long[] range = range(request,
+                                           eTag,
+                                           lastModified,
+                                           size);
+                if (range == UNSATISFIABLE) {
+                    response.setHeader("Content-Range",
+                                       "bytes */" + size);
+                    response.sendError(SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                if (range != null) {
+                    start = range[0];
+                    length = range[1] - range[0] + 1;
+                    response.setStatus(SC_PARTIAL_CONTENT);
+                    response.setHeader("Content-Range",
+                                       "bytes " + range[0] + "-" + range[1] + "/" + size);
+                }
+                response.setContentLengthLong(length);
+            }
+
+            if ("HEAD".equals(request.getMethod())) {
+                return;
+            }
 
-            response.getOutputStream().write(
-                    bytes,
-                    0,
-                    bytes.length);
+            try (final InputStream in = ioService.newInputStream(path)) {
+                copy(in,
+                     response.getOutputStream(),
+                     start,
+                     length);
+            }
         } catch (final Exception e) {
             logger.error("Failed to download a file.",
                          e);
         }
     }
+
+    private BasicFileAttributes readAttributes(final Path path) {
+        try {
+            final BasicFileAttributeView view = ioService.getFileAttributeView(path,
+                                                                               BasicFileAttributeView.class);
+            return view == null ? null : view.readAttributes();
+        } catch (final Exception e) {
+            logger.debug("Can't read attributes of " + path + ", serving it without cache headers.",
+                         e);
+            return null;
+        }
+    }
+
+    private String eTag(final BasicFileAttributes attrs) {
+        if (attrs == null || attrs.fileKey() == null) {
+            return null;
+        }
+        return "\"" + attrs.fileKey() + "\"";
+    }
+
+    private long lastModified(final BasicFileAttributes attrs) {
+        if (attrs == null || attrs.lastModifiedTime() == null) {
+            return -1;
+        }
+        return attrs.lastModifiedTime().toMillis();
+    }
+
+    String contentType(final String fileName) {
+        final int dot = fileName.lastIndexOf('.');
+        if (dot >= 0) {
+            final MimeType mimeType = MimeType.fromExtension(fileName.substring(dot));
+            if (mimeType != null) {
+                return mimeType.getType();
+            }
+        }
+        return DEFAULT_CONTENT_TYPE;
+    }
+
+    boolean notModified(final HttpServletRequest request,
+                        final String eTag,
+                        final long lastModified) {
+        final String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            // when present it takes precedence over If-Modified-Since
+            return eTag != null && matches(ifNoneMatch,
+                                           eTag);
+        }
+        final long ifModifiedSince = dateHeader(request,
+                                                "If-Modified-Since");
+        // HTTP dates have a one second resolution
+        return ifModifiedSince > 0 && lastModified > 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private boolean matches(final String header,
+                            final String eTag) {
+        for (final String candidate : header.split(",")) {
+            final String value = candidate.trim();
+            if (value.equals("*") || value.equals(eTag) || value.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolves the requested byte range as inclusive {first, last} offsets; null serves the whole file and
+     * {@link #UNSATISFIABLE} asks for a 416. Multiple ranges aren't supported and, as allowed, are answered with
+     * the whole file.
+     */
+    long[] range(final HttpServletRequest request,
+                 final String eTag,
+                 final long lastModified,
+                 final long size) {
+        final String header = request.getHeader("Range");
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        if (!rangeStillValid(request,
+                             eTag,
+                             lastModified)) {
+            return null;
+        }
+
+        final String spec = header.substring("bytes=".length()).trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            final String first = spec.substring(0,
+                                                 dash).trim();
+            final String last = spec.substring(dash + 1).trim();
+            final long start;
+            final long end;
+            if (first.isEmpty()) {
+                // suffix range: the last N bytes
+                final long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return UNSATISFIABLE;
+                }
+                start = Math.max(0,
+                                 size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                if (last.isEmpty()) {
+                    end = size - 1;
+                } else {
+                    final long requestedEnd = Long.parseLong(last);
+                    if (requestedEnd < start) {
+                        // syntactically invalid, ignored
+                        return null;
+                    }
+                    end = Math.min(requestedEnd,
+                                   size - 1);
+                }
+            }
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return new long[]{start, end};
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean rangeStillValid(final HttpServletRequest request,
+                                    final String eTag,
+                                    final long lastModified) {
+        final String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(eTag);
+        }
+        final long date = dateHeader(request,
+                                     "If-Range");
+        return date > 0 && lastModified > 0 && lastModified / 1000 == date / 1000;
+    }
+
+    private long dateHeader(final HttpServletRequest request,
+                            final String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (final IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private void copy(final InputStream in,
+                      final OutputStream out,
+                      final long start,
+                      final long length) throws IOException {
+        long toSkip = start;
+        while (toSkip > 0) {
+            final long skipped = in.skip(toSkip);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    return;
+                }
+                toSkip--;
+            } else {
+                toSkip -= skipped;
+            }
+        }
+
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long remaining = length < 0 ? Long.MAX_VALUE : length;
+        while (remaining > 0) {
+            final int read = in.read(buffer,
+                                     0,
+                                     (int) Math.min(buffer.length,
+                                                    remaining));
+            if (read < 0) {
+                break;
+            }
+            out.write(buffer,
+                      0,
+                      read);
+            remaining -= read;
+        }
+        out.flush();
+    }
 }
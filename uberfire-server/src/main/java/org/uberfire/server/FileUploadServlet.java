@@ -25,7 +25,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.fileupload.FileItem;
+import org.apache.commons.fileupload.FileUploadBase;
 import org.apache.commons.fileupload.FileUploadException;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.file.Path;
@@ -56,10 +56,8 @@ public class FileUploadServlet
                 final String encodedPath = FileServletUtil.encodeFileNamePart(request.getParameter(PARAM_PATH));
                 final URI uri = new URI(encodedPath);
 
-                final FileItem fileItem = getFileItem(request);
-
-                finalizeResponse(response,
-                                 fileItem,
+                finalizeResponse(request,
+                                 response,
                                  uri);
             } else if (request.getParameter(PARAM_FOLDER) != null) {
 
@@ -67,16 +65,18 @@ public class FileUploadServlet
                 final String encodedFileName = FileServletUtil.encodeFileName(request.getParameter(PARAM_FILENAME));
                 final URI uri = new URI(request.getParameter(PARAM_FOLDER) + "/" + encodedFileName);
 
-                final FileItem fileItem = getFileItem(request);
-
-                finalizeResponse(response,
-                                 fileItem,
+                finalizeResponse(request,
+                                 response,
                                  uri);
             }
         } catch (FileUploadException e) {
             logError(e);
             writeResponse(response,
                           RESPONSE_FAIL);
+        } catch (FileUploadBase.FileUploadIOException e) {
+            logError(e);
+            writeResponse(response,
+                          RESPONSE_FAIL);
         } catch (URISyntaxException e) {
             logError(e);
             writeResponse(response,
@@ -84,9 +84,9 @@ public class FileUploadServlet
         }
     }
 
-    private void finalizeResponse(HttpServletResponse response,
-                                  FileItem fileItem,
-                                  URI uri) throws IOException {
+    private void finalizeResponse(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  URI uri) throws FileUploadException, IOException {
         if (!validateAccess(uri,
                             response)) {
             return;
@@ -94,9 +94,13 @@ public class FileUploadServlet
 
         final Path path = ioService.get(uri);
 
-        writeFile(ioService,
-                  path,
-                  fileItem);
+        if (!streamFile(request,
+                        ioService,
+                        path)) {
+            writeResponse(response,
+                          RESPONSE_FAIL);
+            return;
+        }
 
         writeResponse(response,
                       RESPONSE_OK);
@@ -16,6 +16,9 @@
 
 package org.uberfire.server;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /*
  * @author Wytze van der Ploeg
  */
@@ -1323,6 +1326,23 @@ public enum MimeType {
     XWORLD_XVRT_VRT("x-world/x-vrt",
                     ".vrt");
 
+    private static final Map<String, MimeType> BY_TYPE = new HashMap<String, MimeType>();
+    private static final Map<String, MimeType> BY_EXTENSION = new HashMap<String, MimeType>();
+
+    static {
+        // declaration order decides which constant wins for shared types and extensions
+        for (MimeType mt : MimeType.values()) {
+            if (!BY_TYPE.containsKey(mt.getType())) {
+                BY_TYPE.put(mt.getType(),
+                            mt);
+            }
+            if (!BY_EXTENSION.containsKey(mt.getExtension())) {
+                BY_EXTENSION.put(mt.getExtension(),
+                                 mt);
+            }
+        }
+    }
+
     private String type;
     private String extension;
 
@@ -1339,12 +1359,7 @@ public enum MimeType {
      */
     public static MimeType fromType(String type) {
         if (type != null) {
-            type = type.trim().toLowerCase();
-            for (MimeType mt : MimeType.values()) {
-                if (mt.getType().equals(type)) {
-                    return mt;
-                }
-            }
+            return BY_TYPE.get(type.trim().toLowerCase());
         }
 
         return null;
@@ -1357,12 +1372,7 @@ public enum MimeType {
      */
     public static MimeType fromExtension(String extension) {
         if (extension != null) {
-            extension = extension.trim().toLowerCase();
-            for (MimeType mt : MimeType.values()) {
-                if (mt.getExtension().equals(extension)) {
-                    return mt;
-                }
-            }
+            return BY_EXTENSION.get(extension.trim().toLowerCase());
         }
 
         return null;
@@ -16,21 +16,31 @@
 
 package org.uberfire.server;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.net.URI;
 import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.uberfire.io.IOService;
+import org.uberfire.java.nio.base.FileTimeImpl;
 import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.attribute.BasicFileAttributeView;
+import org.uberfire.java.nio.file.attribute.BasicFileAttributes;
 import org.uberfire.server.util.FileServletUtil;
 
 import static java.lang.String.format;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -41,15 +51,30 @@ public class FileDownloadServletTest {
 
     private static final String TEST_ROOT_PATH = "default://master@test-repository/test-project/src/main/resources/test";
 
+    private static final String BLOB_ID = "8ab686eafeb1f44702738c8b0f24f2567c36da6d";
+
+    private static final long LAST_MODIFIED = 1500000000000L;
+
     @Mock
     private IOService ioService;
 
-    @Mock
-    private ServletOutputStream servletOutputStream;
+    private CapturingOutputStream servletOutputStream;
 
     @InjectMocks
     private FileDownloadServlet downloadServlet;
 
+    private HttpServletRequest request;
+
+    private HttpServletResponse response;
+
+    @Before
+    public void setup() throws Exception {
+        servletOutputStream = new CapturingOutputStream();
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(servletOutputStream);
+    }
+
     /**
      * Tests the downloading of a file given the following parameters:
      * <p>
@@ -84,21 +109,204 @@ public class FileDownloadServletTest {
                          fileContent);
     }
 
+    @Test
+    public void downloadLargeFileIsStreamed() throws Exception {
+        final byte[] content = new byte[100 * 1024 + 17];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        mockFile("large.bin",
+                 content,
+                 true);
+
+        downloadServlet.doGet(request,
+                              response);
+
+        assertArrayEquals(content,
+                          servletOutputStream.toByteArray());
+        assertTrue(servletOutputStream.getLargestWrite() <= 8192);
+        verify(response).setContentLengthLong(content.length);
+        verify(response).setHeader("ETag",
+                                   "\"" + BLOB_ID + "\"");
+        verify(response).setDateHeader("Last-Modified",
+                                       LAST_MODIFIED);
+        verify(response).setHeader("Accept-Ranges",
+                                   "bytes");
+        verify(ioService,
+               never()).readAllBytes(any(Path.class));
+    }
+
+    @Test
+    public void downloadRange() throws Exception {
+        mockFile("file.txt",
+                 "0123456789".getBytes(),
+                 true);
+        when(request.getHeader("Range")).thenReturn("bytes=2-5");
+
+        downloadServlet.doGet(request,
+                              response);
+
+        assertEquals("2345",
+                     new String(servletOutputStream.toByteArray()));
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setHeader("Content-Range",
+                                   "bytes 2-5/10");
+        verify(response).setContentLengthLong(4);
+        verify(response).setContentType("text/plain");
+    }
+
+    @Test
+    public void downloadOpenAndSuffixRanges() throws Exception {
+        mockFile("file.txt",
+                 "0123456789".getBytes(),
+                 true);
+
+        when(request.getHeader("Range")).thenReturn("bytes=7-");
+        downloadServlet.doGet(request,
+                              response);
+        assertEquals("789",
+                     new String(servletOutputStream.toByteArray()));
+
+        servletOutputStream.reset();
+        when(request.getHeader("Range")).thenReturn("bytes=-4");
+        downloadServlet.doGet(request,
+                              response);
+        assertEquals("6789",
+                     new String(servletOutputStream.toByteArray()));
+        verify(response).setHeader("Content-Range",
+                                   "bytes 6-9/10");
+    }
+
+    @Test
+    public void downloadUnsatisfiableRange() throws Exception {
+        mockFile("file.txt",
+                 "0123456789".getBytes(),
+                 true);
+        when(request.getHeader("Range")).thenReturn("bytes=20-30");
+
+        downloadServlet.doGet(request,
+                              response);
+
+        verify(response).sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        verify(response).setHeader("Content-Range",
+                                   "bytes */10");
+        assertEquals(0,
+                     servletOutputStream.toByteArray().length);
+    }
+
+    @Test
+    public void downloadRangeIgnoredWhenFileChanged() throws Exception {
+        mockFile("file.txt",
+                 "0123456789".getBytes(),
+                 true);
+        when(request.getHeader("Range")).thenReturn("bytes=2-5");
+        when(request.getHeader("If-Range")).thenReturn("\"another-blob\"");
+
+        downloadServlet.doGet(request,
+                              response);
+
+        assertEquals("0123456789",
+                     new String(servletOutputStream.toByteArray()));
+        verify(response,
+               never()).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+    }
+
+    @Test
+    public void conditionalGetWithMatchingETag() throws Exception {
+        mockFile("file.txt",
+                 "0123456789".getBytes(),
+                 true);
+        when(request.getHeader("If-None-Match")).thenReturn("\"" + BLOB_ID + "\"");
+
+        downloadServlet.doGet(request,
+                              response);
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(ioService,
+               never()).newInputStream(any(Path.class));
+        assertEquals(0,
+                     servletOutputStream.toByteArray().length);
+    }
+
+    @Test
+    public void conditionalGetWithStaleETag() throws Exception {
+        mockFile("file.txt",
+                 "0123456789".getBytes(),
+                 true);
+        when(request.getHeader("If-None-Match")).thenReturn("\"another-blob\"");
+        // ignored, If-None-Match takes precedence
+        when(request.getDateHeader("If-Modified-Since")).thenReturn(LAST_MODIFIED);
+
+        downloadServlet.doGet(request,
+                              response);
+
+        verify(response,
+               never()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertEquals("0123456789",
+                     new String(servletOutputStream.toByteArray()));
+    }
+
+    @Test
+    public void conditionalGetWithIfModifiedSince() throws Exception {
+        mockFile("file.txt",
+                 "0123456789".getBytes(),
+                 true);
+        when(request.getDateHeader("If-Modified-Since")).thenReturn(LAST_MODIFIED + 500);
+
+        downloadServlet.doGet(request,
+                              response);
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(ioService,
+               never()).newInputStream(any(Path.class));
+    }
+
+    @Test
+    public void contentTypeFromExtension() {
+        assertEquals("image/png",
+                     downloadServlet.contentType("picture.PNG"));
+        assertEquals("application/octet-stream",
+                     downloadServlet.contentType("no-extension"));
+        assertEquals("application/octet-stream",
+                     downloadServlet.contentType("file.unknownextension"));
+    }
+
+    private Path mockFile(final String fileName,
+                          final byte[] content,
+                          final boolean withAttributes) throws Exception {
+        final String sourcePath = TEST_ROOT_PATH + "/" + fileName;
+        when(request.getParameter(PARAM_PATH)).thenReturn(sourcePath);
+
+        final Path path = mock(Path.class);
+        final Path pathFileName = mock(Path.class);
+        when(path.getFileName()).thenReturn(pathFileName);
+        when(pathFileName.toString()).thenReturn(fileName);
+        when(ioService.get(new URI(FileServletUtil.encodeFileNamePart(sourcePath)))).thenReturn(path);
+        when(ioService.newInputStream(path)).thenAnswer(invocation -> new ByteArrayInputStream(content));
+
+        if (withAttributes) {
+            final BasicFileAttributeView view = mock(BasicFileAttributeView.class);
+            final BasicFileAttributes attrs = mock(BasicFileAttributes.class);
+            when(attrs.isRegularFile()).thenReturn(true);
+            when(attrs.size()).thenReturn((long) content.length);
+            when(attrs.fileKey()).thenReturn(BLOB_ID);
+            when(attrs.lastModifiedTime()).thenReturn(new FileTimeImpl(LAST_MODIFIED));
+            when(view.readAttributes()).thenReturn(attrs);
+            when(ioService.getFileAttributeView(path,
+                                                BasicFileAttributeView.class)).thenReturn(view);
+        }
+        return path;
+    }
+
     private void doDownloadByPath(String sourceFolder,
                                   String sourceFileName,
                                   String fileContent) throws Exception {
 
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-
         String sourcePath = sourceFolder + "/" + sourceFileName;
 
         //mock the servlet parameters
         when(request.getParameter(PARAM_PATH)).thenReturn(sourcePath);
 
-        //mock the servlet output stream
-        when(response.getOutputStream()).thenReturn(servletOutputStream);
-
         //mock the path to be generated by the ioService
         Path path = mock(Path.class);
         Path pathFileName = mock(Path.class);
@@ -112,7 +320,7 @@ public class FileDownloadServletTest {
         when(ioService.get(expectedURI)).thenReturn(path);
 
         //mock the returned content
-        when(ioService.readAllBytes(path)).thenReturn(fileContent.getBytes());
+        when(ioService.newInputStream(path)).thenReturn(new ByteArrayInputStream(fileContent.getBytes()));
 
         downloadServlet.doGet(request,
                               response);
@@ -126,14 +334,67 @@ public class FileDownloadServletTest {
         verify(response,
                times(1)).getOutputStream();
 
-        verify(servletOutputStream,
-               times(1)).write(fileContent.getBytes(),
-                               0,
-                               fileContent.getBytes().length);
+        assertEquals(fileContent,
+                     new String(servletOutputStream.toByteArray()));
+
+        // no attributes available: no cache headers, no ranges
+        verify(response,
+               never()).setHeader(eq("ETag"),
+                                  anyString());
+        verify(response,
+               never()).setHeader(eq("Accept-Ranges"),
+                                  anyString());
 
         verify(ioService,
                times(1)).get(eq(expectedURI));
         verify(ioService,
-               times(1)).readAllBytes(eq(path));
+               times(1)).newInputStream(eq(path));
+        verify(ioService,
+               never()).readAllBytes(any(Path.class));
+    }
+
+    private static class CapturingOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        private int largestWrite = 0;
+
+        @Override
+        public void write(final int b) {
+            content.write(b);
+            largestWrite = Math.max(largestWrite,
+                                    1);
+        }
+
+        @Override
+        public void write(final byte[] b,
+                          final int off,
+                          final int len) {
+            content.write(b,
+                          off,
+                          len);
+            largestWrite = Math.max(largestWrite,
+                                    len);
+        }
+
+        byte[] toByteArray() {
+            return content.toByteArray();
+        }
+
+        int getLargestWrite() {
+            return largestWrite;
+        }
+
+        void reset() {
+            content.reset();
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+        }
     }
 }
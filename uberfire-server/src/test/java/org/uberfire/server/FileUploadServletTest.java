@@ -33,6 +33,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.uberfire.io.IOService;
+import org.uberfire.java.nio.base.Abortable;
 import org.uberfire.java.nio.file.Path;
 import org.uberfire.server.util.FileServletUtil;
 
@@ -142,6 +143,43 @@ public class FileUploadServletTest {
                            fileContent);
     }
 
+    /**
+     * Tests that a file exceeding the configured size limit is rejected and its partial content discarded.
+     * @throws Exception
+     */
+    @Test
+    public void uploadExceedingMaxSizeIsAborted() throws Exception {
+        uploadServlet.maxUploadSize = 5;
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter(PARAM_PATH)).thenReturn(TEST_ROOT_PATH + "/FileNameWithNoSpaces.someextension");
+
+        String requestContent = mockMultipartRequestContent("local_file_name.txt",
+                                                            "the local file content");
+        when(request.getContentLength()).thenReturn(requestContent.getBytes().length);
+        when(request.getContentType()).thenReturn(CONTENT_TYPE);
+        when(request.getInputStream()).thenReturn(new MockServletInputStream(new ByteArrayInputStream(requestContent.getBytes())));
+
+        UploadedContent uploaded = new UploadedContent();
+        when(ioService.newOutputStream(any(Path.class))).thenReturn(uploaded);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PrintWriter printWriter = new PrintWriter(outputStream);
+        when(response.getWriter()).thenReturn(printWriter);
+
+        uploadServlet.doPost(request,
+                             response);
+
+        assertTrue(uploaded.aborted);
+        assertFalse(uploaded.closed);
+
+        printWriter.flush();
+        assertEquals("FAIL",
+                     new String(outputStream.toByteArray()));
+    }
+
     private void doUploadTestByNameAndFolder(String targetFileName,
                                              String targetFolderName,
                                              String fileContent) throws Exception {
@@ -166,6 +204,9 @@ public class FileUploadServletTest {
         when(request.getContentType()).thenReturn(CONTENT_TYPE);
         when(request.getInputStream()).thenReturn(servletInputStream);
 
+        UploadedContent uploaded = new UploadedContent();
+        when(ioService.newOutputStream(any(Path.class))).thenReturn(uploaded);
+
         //mock the servlet response writer
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         PrintWriter printWriter = new PrintWriter(outputStream);
@@ -188,10 +229,11 @@ public class FileUploadServletTest {
         verify(ioService,
                times(1)).get(eq(expectedURI));
         verify(ioService,
-               times(1)).exists(any(Path.class));
-        verify(ioService,
-               times(1)).write(any(Path.class),
-                               eq(fileContent.getBytes()));
+               times(1)).newOutputStream(any(Path.class));
+        assertEquals(fileContent,
+                     new String(uploaded.toByteArray()));
+        assertTrue(uploaded.closed);
+        assertFalse(uploaded.aborted);
 
         printWriter.flush();
         assertEquals("OK",
@@ -220,6 +262,9 @@ public class FileUploadServletTest {
         when(request.getContentType()).thenReturn(CONTENT_TYPE);
         when(request.getInputStream()).thenReturn(servletInputStream);
 
+        UploadedContent uploaded = new UploadedContent();
+        when(ioService.newOutputStream(any(Path.class))).thenReturn(uploaded);
+
         //mock the servlet response writer
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         PrintWriter printWriter = new PrintWriter(outputStream);
@@ -237,10 +282,11 @@ public class FileUploadServletTest {
         verify(ioService,
                times(1)).get(eq(expectedURI));
         verify(ioService,
-               times(1)).exists(any(Path.class));
-        verify(ioService,
-               times(1)).write(any(Path.class),
-                               eq(fileContent.getBytes()));
+               times(1)).newOutputStream(any(Path.class));
+        assertEquals(fileContent,
+                     new String(uploaded.toByteArray()));
+        assertTrue(uploaded.closed);
+        assertFalse(uploaded.aborted);
 
         printWriter.flush();
         assertEquals("OK",
@@ -258,6 +304,24 @@ public class FileUploadServletTest {
         return content;
     }
 
+    private static class UploadedContent extends ByteArrayOutputStream implements Abortable {
+
+        boolean closed = false;
+        boolean aborted = false;
+
+        @Override
+        public void close() throws IOException {
+            if (!aborted) {
+                closed = true;
+            }
+        }
+
+        @Override
+        public void abort() {
+            aborted = true;
+        }
+    }
+
     private class MockServletInputStream extends ServletInputStream {
 
         InputStream content;